@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Reports each Hibernate flush as a "hibernate.flush" {@link StageEvent}. Most
+ * flushes happen at commit, after the service method has returned, so they
+ * would otherwise be hidden in the transaction interceptor. Hibernate creates
+ * one listener per session (hibernate.session.events.auto).
+ */
+public class FlushStageListener implements SessionEventListener {
+
+    private StageEvent flush;
+
+    @Override
+    public void flushStart() {
+        flush = StageEvent.start("hibernate.flush");
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        if (flush != null) {
+            flush.close();
+            flush = null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of every Hikari pool
+ * (the default one, or the primary and replica pools), sized to the pool's
+ * maximum-pool-size. On by default when spring.threads.virtual.enabled is set,
+ * since that is when request concurrency stops being capped by Tomcat's thread
+ * pool; datasource.limiter.enabled overrides it either way.
+ */
+@Component
+public class JdbcConcurrencyLimiter implements BeanPostProcessor, EnvironmentAware, BeanFactoryAware,
+        SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcConcurrencyLimiter.class);
+
+    private final List<ConcurrencyLimitingDataSource> limited = new CopyOnWriteArrayList<>();
+    private Environment environment;
+    private BeanFactory beanFactory;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof HikariDataSource pool) || !enabled()) {
+            return bean;
+        }
+        String name = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+        // Same budget Hikari itself gives a caller unless configured otherwise
+        Duration acquireTimeout = environment.getProperty("datasource.limiter.acquire-timeout", Duration.class,
+                Duration.ofMillis(pool.getConnectionTimeout()));
+        int maxWaiting = environment.getProperty("datasource.limiter.max-waiting", Integer.class, 1000);
+        ConcurrencyLimitingDataSource limiter = new ConcurrencyLimitingDataSource(name, pool,
+                pool.getMaximumPoolSize(), acquireTimeout, maxWaiting);
+        limited.add(limiter);
+        log.info("JDBC concurrency for {} limited to {} connections (wait up to {}, at most {} waiting)",
+                name, pool.getMaximumPoolSize(), acquireTimeout, maxWaiting);
+        return limiter;
+    }
+
+    private boolean enabled() {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        return environment.getProperty("datasource.limiter.enabled", Boolean.class, virtualThreads);
+    }
+
+    public List<ConcurrencyLimitingDataSource> getLimitedDataSources() {
+        return List.copyOf(limited);
+    }
+
+    // Registered once every pool exists; the registry may be created before the data sources
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry registry = beanFactory.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        for (ConcurrencyLimitingDataSource limiter : limited) {
+            Gauge.builder("jdbc.limiter.permits.available", limiter, ConcurrencyLimitingDataSource::getAvailablePermits)
+                    .tag("pool", limiter.getName())
+                    .description("Connection permits not currently held")
+                    .register(registry);
+            Gauge.builder("jdbc.limiter.waiting", limiter, ConcurrencyLimitingDataSource::getWaiting)
+                    .tag("pool", limiter.getName())
+                    .description("Threads queued for a connection permit")
+                    .register(registry);
+            FunctionCounter.builder("jdbc.limiter.rejected", limiter, ConcurrencyLimitingDataSource::getRejected)
+                    .tag("pool", limiter.getName())
+                    .description("Connection requests refused because the queue was full or the wait timed out")
+                    .register(registry);
+        }
+    }
+}
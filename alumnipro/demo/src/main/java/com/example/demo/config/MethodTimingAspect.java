@@ -0,0 +1,72 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of @RestController and @Service beans as
+ * app.method{layer, class, method, exception}. Histogram buckets for
+ * percentiles are switched on in application.properties. HTTP endpoints are
+ * also timed by Spring (http.server.requests); this adds the service layer
+ * underneath, so slow requests can be attributed to the call that was slow.
+ */
+@Aspect
+@Component
+public class MethodTimingAspect {
+
+    private final MeterRegistry registry;
+    // Timers for successful calls; building the id on every call would dominate cheap methods
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * *(..)) && (@within(org.springframework.stereotype.Service) "
+            + "|| @within(org.springframework.web.bind.annotation.RestController)) "
+            + "&& !execution(* io.micrometer.core.instrument.binder.MeterBinder.bindTo(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long started = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            Class<?> type = joinPoint.getTarget() != null ? joinPoint.getTarget().getClass() : method.getDeclaringClass();
+            Timer timer = failure == null
+                    ? timers.computeIfAbsent(new TimerKey(type, method), key -> timer(type, method, "none"))
+                    : timer(type, method, failure.getClass().getSimpleName());
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Class<?> type, Method method, String exception) {
+        String layer = AnnotatedElementUtils.hasAnnotation(type, RestController.class) ? "controller" : "service";
+        return Timer.builder("app.method")
+                .description("Controller and service method latency")
+                .tag("layer", layer)
+                .tag("class", type.getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+
+    private record TimerKey(Class<?> type, Method method) {
+    }
+}
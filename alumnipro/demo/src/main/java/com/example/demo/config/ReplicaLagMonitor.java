@@ -0,0 +1,137 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replica lag with a heartbeat row: every interval the current time is
+ * written to replica_heartbeat on the primary, and the replica's copy of the row
+ * says how far behind it is (primary time it has caught up to). Works with any
+ * replication setup and needs no privileges on the replica beyond SELECT.
+ *
+ * The replica is unusable when it cannot be reached, has no heartbeat row yet, or
+ * lags more than max-lag-ms. Lag includes up to one heartbeat interval, and
+ * heartbeats from several app nodes assume their clocks are roughly in sync.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String CREATE_SQL =
+            "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    private static final String BEAT_SQL = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?) "
+            + "ON DUPLICATE KEY UPDATE beat_at = GREATEST(beat_at, VALUES(beat_at))";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long heartbeatIntervalMs;
+    private final long maxLagMs;
+
+    private volatile boolean usable;
+    private volatile long caughtUpTo;
+    private volatile long lagMs = -1;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long heartbeatIntervalMs, long maxLagMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.heartbeatIntervalMs = Math.max(10, heartbeatIntervalMs);
+        this.maxLagMs = Math.max(0, maxLagMs);
+    }
+
+    public void start() {
+        try {
+            primary.execute(CREATE_SQL);
+        } catch (Exception e) {
+            log.warn("Could not create replica_heartbeat: {}", e.getMessage());
+        }
+        check();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Reads the replica before writing the next beat, so a caught-up replica reports about one interval of lag
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Long beat = replica.queryForObject("SELECT MAX(beat_at) FROM replica_heartbeat", Long.class);
+            long now = System.currentTimeMillis();
+            if (beat == null) {
+                markUnusable(wasUsable, "no heartbeat replicated yet");
+            } else {
+                caughtUpTo = beat;
+                lagMs = Math.max(0, now - beat);
+                usable = lagMs <= maxLagMs;
+                if (wasUsable && !usable) {
+                    log.warn("Replica is {} ms behind (max {} ms); reads go to the primary", lagMs, maxLagMs);
+                } else if (!wasUsable && usable) {
+                    log.info("Replica caught up ({} ms behind); read-only transactions use it again", lagMs);
+                }
+            }
+        } catch (Exception e) {
+            markUnusable(wasUsable, e.getMessage());
+        }
+        try {
+            primary.update(BEAT_SQL, System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("Could not write replica heartbeat: {}", e.getMessage());
+        }
+    }
+
+    private void markUnusable(boolean wasUsable, String reason) {
+        usable = false;
+        lagMs = -1;
+        if (wasUsable) {
+            log.warn("Replica unavailable ({}); reads go to the primary", reason);
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    // Primary time (epoch millis) up to which the replica has applied changes
+    public long caughtUpTo() {
+        return caughtUpTo;
+    }
+
+    // -1 while the replica is unusable for reasons other than lag
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    public long getHeartbeatIntervalMs() {
+        return heartbeatIntervalMs;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("usable", usable);
+        stats.put("lagMs", lagMs);
+        stats.put("maxLagMs", maxLagMs);
+        stats.put("caughtUpTo", caughtUpTo);
+        return stats;
+    }
+}
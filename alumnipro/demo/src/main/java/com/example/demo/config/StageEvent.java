@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one stage of a request (a remote call, a query,
+ * a flush), so a recording shows where the time went:
+ * <pre>
+ *     try (StageEvent stage = StageEvent.start("message.save")) {
+ *         ...
+ *     }
+ * </pre>
+ * While no recording has the event enabled, begin and commit do nothing, so
+ * the cost is an allocation the JIT usually removes.
+ */
+@Name(StageEvent.NAME)
+@Label("Application Stage")
+@Category("Application")
+@Description("Time spent in one stage of handling a request")
+@StackTrace(false)
+public class StageEvent extends Event implements AutoCloseable {
+
+    public static final String NAME = "com.example.demo.Stage";
+
+    @Label("Stage")
+    String stage;
+
+    public static StageEvent start(String stage) {
+        StageEvent event = new StageEvent();
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
@@ -1,11 +1,22 @@
 package com.example.demo.controller;
 
-import com.example.demo.model.AuditLog;
+import com.example.demo.dto.AuditLogPage;
+import com.example.demo.service.AuditArchiveService;
 import com.example.demo.service.AuditLogService;
+import com.example.demo.service.CacheStatsService;
+import com.example.demo.service.ProfilingService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -13,38 +24,156 @@ import java.util.List;
 public class AdminController {
 
     private final AuditLogService auditLogService;
+    private final AuditArchiveService auditArchiveService;
+    private final CacheStatsService cacheStatsService;
+    private final ProfilingService profilingService;
 
-    public AdminController(AuditLogService auditLogService) {
+    public AdminController(AuditLogService auditLogService, AuditArchiveService auditArchiveService,
+                           CacheStatsService cacheStatsService, ProfilingService profilingService) {
         this.auditLogService = auditLogService;
+        this.auditArchiveService = auditArchiveService;
+        this.cacheStatsService = cacheStatsService;
+        this.profilingService = profilingService;
     }
 
     @GetMapping("/audit-logs")
-    public ResponseEntity<List<AuditLog>> getAllAuditLogs() {
-        List<AuditLog> logs = auditLogService.getAllAuditLogs();
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AuditLogPage> getAllAuditLogs(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogs(cursor, clamp(limit)));
+    }
+
+    @GetMapping("/audit-logs/writer-stats")
+    public ResponseEntity<Map<String, Object>> getAuditWriterStats() {
+        return ResponseEntity.ok(auditLogService.getWriterStats());
     }
 
     @GetMapping("/audit-logs/user/{performedBy}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByUser(@PathVariable String performedBy) {
-        List<AuditLog> logs = auditLogService.getAuditLogsByUser(performedBy);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AuditLogPage> getAuditLogsByUser(
+            @PathVariable String performedBy,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogsByUser(performedBy, cursor, clamp(limit)));
     }
 
     @GetMapping("/audit-logs/entity/{entityType}/{entityId}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByEntity(
+    public ResponseEntity<AuditLogPage> getAuditLogsByEntity(
             @PathVariable String entityType,
-            @PathVariable Long entityId) {
-        List<AuditLog> logs = auditLogService.getAuditLogsByEntity(entityType, entityId);
-        return ResponseEntity.ok(logs);
+            @PathVariable Long entityId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogsByEntity(entityType, entityId, cursor, clamp(limit)));
     }
 
     @GetMapping("/audit-logs/date-range")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByDateRange(
+    public ResponseEntity<AuditLogPage> getAuditLogsByDateRange(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) String cursorTimestamp,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogsByDateRange(
+                LocalDateTime.parse(start), LocalDateTime.parse(end), cursor,
+                cursorTimestamp != null ? LocalDateTime.parse(cursorTimestamp) : null, clamp(limit)));
+    }
+
+    // Compliance export: NDJSON over the live and archived months in [start, end)
+    @GetMapping(value = "/audit-logs/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
             @RequestParam String start,
             @RequestParam String end) {
-        List<AuditLog> logs = auditLogService.getAuditLogsByDateRange(
-                java.time.LocalDateTime.parse(start),
-                java.time.LocalDateTime.parse(end));
-        return ResponseEntity.ok(logs);
+        LocalDateTime from = LocalDateTime.parse(start);
+        LocalDateTime to = LocalDateTime.parse(end);
+        StreamingResponseBody body = out -> auditArchiveService.exportNdjson(from, to, out);
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"audit-logs.ndjson\"")
+                .body(body);
+    }
+
+    @GetMapping("/audit-logs/archives")
+    public ResponseEntity<List<String>> getAuditArchives() {
+        return ResponseEntity.ok(auditArchiveService.listArchiveTables());
+    }
+
+    @PostMapping("/audit-logs/archive")
+    public ResponseEntity<Map<String, Object>> archiveAuditLogs() {
+        return ResponseEntity.ok(Map.of("archivedRows", auditArchiveService.archiveOldMonths()));
+    }
+
+    // Second-level cache hit ratios per region
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getStats());
+    }
+
+    @DeleteMapping("/cache/{region}")
+    public ResponseEntity<Void> evictCacheRegion(@PathVariable String region) {
+        return cacheStatsService.evictRegion(region)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> evictAllCaches() {
+        cacheStatsService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Flight Recorder: one bounded recording at a time, summarized per application stage
+    @GetMapping("/profiling")
+    public ResponseEntity<Map<String, Object>> getProfilingStatus() {
+        return ResponseEntity.ok(profilingService.status());
+    }
+
+    @PostMapping("/profiling/start")
+    public ResponseEntity<Map<String, Object>> startProfiling(@RequestParam(defaultValue = "300") long seconds) {
+        try {
+            return ResponseEntity.ok(profilingService.start(Duration.ofSeconds(seconds)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/profiling/stop")
+    public ResponseEntity<Map<String, Object>> stopProfiling() {
+        try {
+            return ResponseEntity.ok(profilingService.stop());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/profiling/summary")
+    public ResponseEntity<?> getProfilingSummary() throws IOException {
+        try {
+            return ResponseEntity.ok(profilingService.summary());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Open with JDK Mission Control or `jfr print`
+    @GetMapping(value = "/profiling/dump", produces = "application/octet-stream")
+    public ResponseEntity<StreamingResponseBody> dumpProfiling() throws IOException {
+        Path file;
+        try {
+            file = profilingService.dump();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"profile.jfr\"")
+                .body(body);
+    }
+
+    private static int clamp(int limit) {
+        return Math.min(Math.max(limit, 1), 1000);
     }
 }
@@ -1,7 +1,10 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Connection;
+import com.example.demo.service.ConnectionGraph;
+import com.example.demo.service.ConnectionGraphService;
 import com.example.demo.service.ConnectionService;
+import com.example.demo.service.MentorMatchingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -9,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/connections")
@@ -17,6 +21,12 @@ public class ConnectionController {
     @Autowired
     private ConnectionService connectionService;
 
+    @Autowired
+    private MentorMatchingService mentorMatchingService;
+
+    @Autowired
+    private ConnectionGraphService connectionGraphService;
+
     // ADMIN: View all connections
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -31,6 +41,39 @@ public class ConnectionController {
         return connectionService.getConnectionsForCurrentUser(principal);
     }
 
+    // STUDENT: Ranked alumni mentor suggestions
+    @GetMapping("/suggestions")
+    @PreAuthorize("hasRole('STUDENT')")
+    public List<Map<String, Object>> getMentorSuggestions(
+            @RequestParam(defaultValue = "10") int limit,
+            Principal principal) {
+        return mentorMatchingService.suggestMentors(principal, Math.min(Math.max(limit, 1), 50));
+    }
+
+    // STUDENT: Alumni connected to the student's connections
+    @GetMapping("/discover")
+    @PreAuthorize("hasRole('STUDENT')")
+    public List<Map<String, Object>> discover(
+            @RequestParam(defaultValue = "10") int limit,
+            Principal principal) {
+        return connectionGraphService.discover(principal, Math.min(Math.max(limit, 1), 50));
+    }
+
+    // STUDENT: Mutual connections with an alumni
+    @GetMapping("/mutual/{alumniProfileId}")
+    @PreAuthorize("hasRole('STUDENT')")
+    public Map<String, Object> mutualConnections(@PathVariable Long alumniProfileId, Principal principal) {
+        return Map.of("alumniProfileId", alumniProfileId,
+                "mutualConnections", connectionGraphService.mutualConnections(principal, alumniProfileId));
+    }
+
+    // ADMIN: Connection graph size and memory footprint
+    @GetMapping("/graph/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ConnectionGraph.Stats getGraphStats() {
+        return connectionGraphService.getStats();
+    }
+
     // STUDENT: Send request to alumni
     @PostMapping("/request/{alumniId}")
     @PreAuthorize("hasRole('STUDENT')")
@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Event;
+import com.example.demo.repository.UserRepository;
 import com.example.demo.service.EventService;
 import com.example.demo.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class EventController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @PostMapping
     public ResponseEntity<Event> createEvent(@RequestBody Event event, HttpServletRequest request) {
         String jwt = extractJwtFromRequest(request);
@@ -73,6 +77,18 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    // Which of the given events the current user is interested in, in one call
+    @GetMapping("/interests")
+    public ResponseEntity<List<Long>> getInterestedEventIds(@RequestParam List<Long> eventIds, HttpServletRequest request) {
+        String jwt = extractJwtFromRequest(request);
+        Long userId = getUserIdFromJwt(jwt);
+
+        if (userId != null) {
+            return ResponseEntity.ok(eventService.getInterestedEventIds(userId, eventIds));
+        }
+        return ResponseEntity.badRequest().build();
+    }
+
     @PostMapping("/{eventId}/interest")
     public ResponseEntity<Void> addUserInterest(@PathVariable Long eventId, HttpServletRequest request) {
         String jwt = extractJwtFromRequest(request);
@@ -121,10 +137,11 @@ public class EventController {
         if (jwt != null) {
             try {
                 String email = jwtUtil.extractEmail(jwt);
+                if (email == null) {
+                    email = jwtUtil.extractUsername(jwt);
+                }
                 if (email != null) {
-                    // For now, we'll use a simple approach
-                    // In a production environment, you'd want to inject UserService and get the actual user ID
-                    return 1L; // Placeholder - replace with actual user ID extraction
+                    return userRepository.findByEmail(email).map(u -> u.getId()).orElse(null);
                 }
             } catch (Exception e) {
                 // Handle exception
@@ -5,11 +5,13 @@ import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtUtil;
 import com.example.demo.service.JobPostingService;
+import com.example.demo.service.JobRecommendationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +25,9 @@ public class JobPostingController {
     @Autowired
     private JobPostingService jobPostingService;
     
+    @Autowired
+    private JobRecommendationService jobRecommendationService;
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -224,6 +229,73 @@ public class JobPostingController {
         }
     }
     
+    // Get recommended job postings for the current student (precomputed)
+    @GetMapping("/recommended")
+    public ResponseEntity<?> getRecommendedJobPostings(@RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            User user = getUserFromToken(token);
+            
+            if (user.getRole() != User.Role.STUDENT || user.getStudentProfile() == null) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Recommendations are available to students with a profile"));
+            }
+            
+            List<JobRecommendationService.JobRecommendation> recommendations =
+                jobRecommendationService.getRecommendations(user.getStudentProfile().getId());
+            List<JobPosting> jobPostings = jobPostingService.getJobPostingsByIds(JobRecommendationService.jobIds(recommendations));
+            Map<Long, Double> scores = new HashMap<>();
+            recommendations.forEach(r -> scores.put(r.jobId(), r.score()));
+            
+            List<Map<String, Object>> result = new ArrayList<>();
+            for (JobPosting jobPosting : jobPostings) {
+                if (jobPosting.getStatus() == JobPosting.JobStatus.APPROVED) {
+                    result.add(Map.of("jobPosting", jobPosting, "score", scores.get(jobPosting.getId())));
+                }
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Recommendation index statistics (admin only)
+    @GetMapping("/admin/recommendations/stats")
+    public ResponseEntity<?> getRecommendationStats(@RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            User user = getUserFromToken(token);
+            
+            if (user.getRole() != User.Role.ADMIN) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+            }
+            
+            return ResponseEntity.ok(jobRecommendationService.getIndexStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Rebuild the recommendation index now (admin only)
+    @PostMapping("/admin/recommendations/rebuild")
+    public ResponseEntity<?> rebuildRecommendations(@RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            User user = getUserFromToken(token);
+            
+            if (user.getRole() != User.Role.ADMIN) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+            }
+            
+            jobRecommendationService.rebuild();
+            return ResponseEntity.ok(jobRecommendationService.getIndexStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     // Get job postings by skills
     @GetMapping("/skills/{skill}")
     public ResponseEntity<?> getJobPostingsBySkills(@PathVariable String skill) {
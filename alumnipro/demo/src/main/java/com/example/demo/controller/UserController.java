@@ -2,24 +2,22 @@ package com.example.demo.controller;
 
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
-import com.example.demo.service.AuditLogService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
 
+// User is @Audited: creates, updates and status changes reach the audit log through AuditChangeListener
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "*")
 public class UserController {
 
     private final UserService userService;
-    private final AuditLogService auditLogService;
 
-    public UserController(UserService userService, AuditLogService auditLogService) {
+    public UserController(UserService userService) {
         this.userService = userService;
-        this.auditLogService = auditLogService;
     }
 
     // Create user
@@ -30,7 +28,6 @@ public class UserController {
         }
 
         User createdUser = userService.createUser(user);
-        auditLogService.logAction("CREATE", "USER", createdUser.getId(), null, createdUser.getEmail(), "SYSTEM");
         return ResponseEntity.ok(createdUser);
     }
 
@@ -51,17 +48,9 @@ public class UserController {
     // Update user
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
-        User oldUser = userService.getUserById(id).orElse(null);
-        if (oldUser == null) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        User updatedUser = userService.updateUser(id, user).orElse(null);
-        if (updatedUser != null) {
-            auditLogService.logAction("UPDATE", "USER", id, oldUser.getEmail(), updatedUser.getEmail(), "ADMIN");
-        }
-        
-        return updatedUser != null ? ResponseEntity.ok(updatedUser) : ResponseEntity.notFound().build();
+        return userService.updateUser(id, user)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // Soft delete user
@@ -74,8 +63,7 @@ public class UserController {
         
         user.setAccountStatus(User.AccountStatus.DELETED);
         userService.updateUser(id, user);
-        auditLogService.logAction("DELETE", "USER", id, user.getEmail(), null, "ADMIN");
-        
+
         return ResponseEntity.ok().build();
     }
 
@@ -89,10 +77,6 @@ public class UserController {
         
         user.setAccountStatus(User.AccountStatus.INACTIVE);
         User updatedUser = userService.updateUser(id, user).orElse(null);
-        if (updatedUser != null) {
-            auditLogService.logAction("DEACTIVATE", "USER", id, "ACTIVE", "INACTIVE", "ADMIN");
-        }
-        
         return updatedUser != null ? ResponseEntity.ok(updatedUser) : ResponseEntity.notFound().build();
     }
 
@@ -106,10 +90,6 @@ public class UserController {
         
         user.setAccountStatus(User.AccountStatus.ACTIVE);
         User updatedUser = userService.updateUser(id, user).orElse(null);
-        if (updatedUser != null) {
-            auditLogService.logAction("ACTIVATE", "USER", id, "INACTIVE", "ACTIVE", "ADMIN");
-        }
-        
         return updatedUser != null ? ResponseEntity.ok(updatedUser) : ResponseEntity.notFound().build();
     }
 
@@ -124,11 +104,6 @@ public class UserController {
         User.ProfileVisibility oldVisibility = user.getProfileVisibility();
         user.setProfileVisibility(User.ProfileVisibility.valueOf(visibility.toUpperCase()));
         User updatedUser = userService.updateUser(id, user).orElse(null);
-        
-        if (updatedUser != null) {
-            auditLogService.logAction("UPDATE_VISIBILITY", "USER", id, oldVisibility.toString(), visibility, "ADMIN");
-        }
-        
         return updatedUser != null ? ResponseEntity.ok(updatedUser) : ResponseEntity.notFound().build();
     }
 
@@ -191,6 +166,7 @@ public class UserController {
                     } catch (NumberFormatException ignored) { }
                 }
                 if (body.containsKey("registrationNumber")) { Object v = body.get("registrationNumber"); sp.setRegistrationNumber(v != null ? v.toString() : null); }
+                if (body.containsKey("skills")) { Object v = body.get("skills"); sp.setSkills(v != null ? v.toString() : null); }
             }
             return userService.updateUser(id, existing)
                     .map(ResponseEntity::ok)
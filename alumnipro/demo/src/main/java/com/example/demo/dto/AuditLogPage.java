@@ -0,0 +1,48 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.AuditLog;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One page of audit logs, newest first; pass nextCursor back as "cursor" for the next page.
+// Date-range pages are ordered by timestamp and also return nextCursorTimestamp, passed back as "cursorTimestamp".
+public class AuditLogPage {
+    private List<AuditLog> items;
+    private Long nextCursor;
+    private LocalDateTime nextCursorTimestamp;
+
+    public AuditLogPage(List<AuditLog> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public AuditLogPage(List<AuditLog> items, Long nextCursor, LocalDateTime nextCursorTimestamp) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.nextCursorTimestamp = nextCursorTimestamp;
+    }
+
+    public List<AuditLog> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AuditLog> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public LocalDateTime getNextCursorTimestamp() {
+        return nextCursorTimestamp;
+    }
+
+    public void setNextCursorTimestamp(LocalDateTime nextCursorTimestamp) {
+        this.nextCursorTimestamp = nextCursorTimestamp;
+    }
+}
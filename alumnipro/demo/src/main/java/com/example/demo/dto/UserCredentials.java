@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.User;
+
+// What authentication needs from a user, without loading the entity and its profiles
+public record UserCredentials(String email, String password, User.Role role) {
+}
@@ -8,7 +8,9 @@ import jakarta.persistence.*;
 public class AlumniProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "alumni_profiles_id")
+    @TableGenerator(name = "alumni_profiles_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "alumni_profiles", allocationSize = 50)
     private Long id;
 
     private String graduationYear;
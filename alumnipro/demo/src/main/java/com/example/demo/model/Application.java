@@ -5,10 +5,13 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "applications")
+@Audited(entityType = "APPLICATION", exclude = {"coverLetter"})
 public class Application {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "applications_id")
+    @TableGenerator(name = "applications_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "applications", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,13 +1,17 @@
 package com.example.demo.model;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id, id"),
+        @Index(name = "idx_audit_performed_by", columnList = "performed_by, id"),
+        @Index(name = "idx_audit_timestamp_id", columnList = "timestamp, id")
+})
 public class AuditLog {
 
+    // Rows are written by AuditWriter's JDBC batches, which rely on auto-increment ids
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
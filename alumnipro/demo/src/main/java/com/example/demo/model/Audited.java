@@ -0,0 +1,21 @@
+package com.example.demo.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity whose inserts, updates and deletes are written to the audit log
+ * automatically, as field-level diffs.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Audited {
+
+    // Value stored in AuditLog.entityType; defaults to the upper-cased class name
+    String entityType() default "";
+
+    // Properties never written to the audit log (secrets, large text)
+    String[] exclude() default {};
+}
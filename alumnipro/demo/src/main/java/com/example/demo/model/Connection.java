@@ -9,10 +9,13 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "connections")
+@Audited(entityType = "CONNECTION")
 public class Connection {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "connections_id")
+    @TableGenerator(name = "connections_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "connections", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -1,15 +1,22 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "events")
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "events_id")
+    @TableGenerator(name = "events_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "events", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -39,6 +46,12 @@ public class Event {
     @Column(nullable = false)
     private boolean isActive = true;
 
+    // Denormalized size of event_interests for this event, maintained by the RSVP queries.
+    // Not updatable, so saving an edited event never writes back a stale count.
+    @Column(nullable = false, updatable = false)
+    private int interestCount = 0;
+
+    @JsonIgnore
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "event_interests",
@@ -139,6 +152,14 @@ public class Event {
         isActive = active;
     }
 
+    public int getInterestCount() {
+        return interestCount;
+    }
+
+    public void setInterestCount(int interestCount) {
+        this.interestCount = interestCount;
+    }
+
     public Set<User> getInterestedUsers() {
         return interestedUsers;
     }
@@ -0,0 +1,65 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// A reminder that has been sent, one row per (event, window, event date).
+// Nodes claim a reminder by inserting its row; only the node whose insert lands sends it.
+@Entity
+@Table(name = "event_reminders", indexes = {
+        @Index(name = "idx_event_reminders_event_date", columnList = "event_date")
+})
+@IdClass(EventReminder.Key.class)
+public class EventReminder {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Column(name = "reminder_window", length = 10)
+    private String reminderWindow;
+
+    @Id
+    @Column(name = "event_date")
+    private LocalDateTime eventDate;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    public EventReminder() {}
+
+    public Long getEventId() { return eventId; }
+    public String getReminderWindow() { return reminderWindow; }
+    public LocalDateTime getEventDate() { return eventDate; }
+    public LocalDateTime getSentAt() { return sentAt; }
+
+    public static class Key implements Serializable {
+        private Long eventId;
+        private String reminderWindow;
+        private LocalDateTime eventDate;
+
+        public Key() {}
+
+        public Key(Long eventId, String reminderWindow, LocalDateTime eventDate) {
+            this.eventId = eventId;
+            this.reminderWindow = reminderWindow;
+            this.eventDate = eventDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(eventId, key.eventId) && Objects.equals(reminderWindow, key.reminderWindow)
+                    && Objects.equals(eventDate, key.eventDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventId, reminderWindow, eventDate);
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.example.demo.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "job_postings")
+@Audited(entityType = "JOB_POSTING")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job_postings")
 public class JobPosting {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "job_postings_id")
+    @TableGenerator(name = "job_postings_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "job_postings", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
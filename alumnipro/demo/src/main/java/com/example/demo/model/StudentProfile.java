@@ -8,7 +8,9 @@ import jakarta.persistence.*;
 public class StudentProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "student_profiles_id")
+    @TableGenerator(name = "student_profiles_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "student_profiles", allocationSize = 50)
     private Long id;
 
     private String department;
@@ -17,6 +19,9 @@ public class StudentProfile {
 
     private String registrationNumber;
 
+    @Column(length = 500)
+    private String skills;
+
     @OneToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     @JsonBackReference
@@ -47,6 +52,10 @@ public class StudentProfile {
 
     public void setRegistrationNumber(String registrationNumber) { this.registrationNumber = registrationNumber; }
 
+    public String getSkills() { return skills; }
+
+    public void setSkills(String skills) { this.skills = skills; }
+
     public User getUser() { return user; }
 
     public void setUser(User user) { this.user = user; }
@@ -1,7 +1,10 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.AuditLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -9,8 +12,16 @@ import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    List<AuditLog> findByEntityTypeAndEntityId(String entityType, Long entityId);
-    List<AuditLog> findByPerformedBy(String performedBy);
-    List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
-    List<AuditLog> findByAction(String action);
+    // Keyset pages, newest first: each page continues below the last id of the previous one
+    List<AuditLog> findByIdLessThanOrderByIdDesc(Long cursor, Limit limit);
+    List<AuditLog> findByEntityTypeAndEntityIdAndIdLessThanOrderByIdDesc(String entityType, Long entityId, Long cursor, Limit limit);
+    List<AuditLog> findByPerformedByAndIdLessThanOrderByIdDesc(String performedBy, Long cursor, Limit limit);
+
+    // Date-range pages run on (timestamp, id), matching idx_audit_timestamp_id; the
+    // redundant upper bound on timestamp keeps the OR from defeating the range scan
+    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :start AND a.timestamp <= :beforeTimestamp "
+            + "AND (a.timestamp < :beforeTimestamp OR a.id < :beforeId) ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageBetween(@Param("start") LocalDateTime start,
+                                   @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                   @Param("beforeId") Long beforeId, Limit limit);
 }
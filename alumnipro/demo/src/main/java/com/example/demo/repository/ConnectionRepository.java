@@ -2,6 +2,8 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Connection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,9 +15,23 @@ public interface ConnectionRepository extends JpaRepository<Connection, Long> {
 
     List<Connection> findByAlumniUserEmail(String email);
 
+    List<Connection> findByStudentId(Long studentProfileId);
+
+    List<Connection> findByAlumniId(Long alumniProfileId);
+
     boolean existsByStudentUserEmailAndAlumniUserEmailAndStatus(
             String studentEmail,
             String alumniEmail,
             Connection.Status status
     );
+
+    boolean existsByStudentIdAndAlumniIdAndStatus(Long studentProfileId, Long alumniProfileId, Connection.Status status);
+
+    @Query("SELECT c.status FROM Connection c WHERE c.student.id = :studentProfileId AND c.alumni.id = :alumniProfileId")
+    List<Connection.Status> findStatusesByPair(@Param("studentProfileId") Long studentProfileId,
+                                               @Param("alumniProfileId") Long alumniProfileId);
+
+    // (studentProfileId, alumniProfileId, status) for every connection, used to load the connection graph
+    @Query("SELECT c.student.id, c.alumni.id, c.status FROM Connection c")
+    List<Object[]> findAllEdges();
 }
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.EventReminder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventReminderRepository extends JpaRepository<EventReminder, EventReminder.Key> {
+
+    // Claims a reminder: 1 if this insert added the row, 0 if another node (or an earlier tick) sent it.
+    // Until the claiming transaction commits, a competing insert waits on the row and then adds nothing.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_reminders"))
+    @Query(value = "INSERT IGNORE INTO event_reminders (event_id, reminder_window, event_date, sent_at) "
+            + "VALUES (:eventId, :window, :eventDate, :sentAt)", nativeQuery = true)
+    int claim(@Param("eventId") Long eventId, @Param("window") String window,
+              @Param("eventDate") LocalDateTime eventDate, @Param("sentAt") LocalDateTime sentAt);
+
+    // Reminders already sent for these events
+    @Query("SELECT r FROM EventReminder r WHERE r.eventId IN :eventIds")
+    List<EventReminder> findByEventIdIn(@Param("eventIds") Collection<Long> eventIds);
+
+    // Markers of events that have started are no longer needed
+    @Modifying
+    @Query("DELETE FROM EventReminder r WHERE r.eventDate < :before")
+    int deleteByEventDateBefore(@Param("before") LocalDateTime before);
+}
@@ -1,12 +1,17 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,4 +26,47 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     
     @Query("SELECT e FROM Event e WHERE e.organizer = :organizer ORDER BY e.createdAt DESC")
     List<Event> findByOrganizer(@Param("organizer") String organizer);
+
+    // RSVP queries work on the event_interests join table directly, without loading interestedUsers.
+    // The native-spaces hint tells Hibernate which table a native write touches; without it
+    // every second-level cache region is invalidated on each RSVP.
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_interests"))
+    @Query(value = "INSERT IGNORE INTO event_interests (event_id, user_id) VALUES (:eventId, :userId)", nativeQuery = true)
+    int insertInterest(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_interests"))
+    @Query(value = "DELETE FROM event_interests WHERE event_id = :eventId AND user_id = :userId", nativeQuery = true)
+    int deleteInterest(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    @Query(value = "SELECT COUNT(*) FROM event_interests WHERE event_id = :eventId AND user_id = :userId", nativeQuery = true)
+    long countInterest(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    @Query("SELECT e.id FROM Event e JOIN e.interestedUsers u WHERE u.id = :userId AND e.id IN :eventIds")
+    List<Long> findInterestedEventIds(@Param("userId") Long userId, @Param("eventIds") Collection<Long> eventIds);
+
+    // (eventId, userId) pairs for the given events, used to batch reminders
+    @Query("SELECT e.id, u.id FROM Event e JOIN e.interestedUsers u WHERE e.id IN :eventIds")
+    List<Object[]> findInterestPairs(@Param("eventIds") Collection<Long> eventIds);
+
+    // Writes only the editable columns, so an edit never overwrites the RSVP-maintained interestCount
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Event e SET e.title = :#{#event.title}, e.description = :#{#event.description}, "
+            + "e.eventType = :#{#event.eventType}, e.eventDate = :#{#event.eventDate}, "
+            + "e.location = :#{#event.location}, e.organizer = :#{#event.organizer}, e.updatedAt = :updatedAt "
+            + "WHERE e.id = :eventId")
+    int updateDetails(@Param("eventId") Long eventId, @Param("event") Event event,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.interestCount = e.interestCount + :delta WHERE e.id = :eventId")
+    int adjustInterestCount(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "events"))
+    @Query(value = "UPDATE events e SET e.interest_count = "
+            + "(SELECT COUNT(*) FROM event_interests i WHERE i.event_id = e.id)", nativeQuery = true)
+    int recountInterests();
 }
@@ -62,6 +62,9 @@ public interface JobPostingRepository extends JpaRepository<JobPosting, Long> {
     // Count job postings by posted by user
     long countByPostedBy(com.example.demo.model.User postedBy);
     
+    // Find job postings changed since a point in time (incremental recommendation refresh)
+    List<JobPosting> findByUpdatedAtAfter(LocalDateTime since);
+    
     // Find job posting with applications count
     @Query("SELECT j FROM JobPosting j LEFT JOIN FETCH j.applications WHERE j.id = :id")
     Optional<JobPosting> findByIdWithApplications(@Param("id") Long id);
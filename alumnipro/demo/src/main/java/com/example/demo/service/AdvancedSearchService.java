@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.config.StageEvent;
 import com.example.demo.dto.AdvancedSearchRequest;
 import com.example.demo.dto.AdvancedSearchResponse;
 import com.example.demo.model.User;
@@ -105,14 +106,20 @@ public class AdvancedSearchService {
 
         // Execute count query
         TypedQuery<Long> countTypedQuery = entityManager.createQuery(countQuery);
-        long totalCount = countTypedQuery.getSingleResult();
+        long totalCount;
+        try (StageEvent stage = StageEvent.start("search.advanced.count")) {
+            totalCount = countTypedQuery.getSingleResult();
+        }
 
         // Execute main query with pagination
         TypedQuery<User> typedQuery = entityManager.createQuery(cq);
         typedQuery.setFirstResult(page * size);
         typedQuery.setMaxResults(size);
 
-        List<User> users = typedQuery.getResultList();
+        List<User> users;
+        try (StageEvent stage = StageEvent.start("search.advanced.page")) {
+            users = typedQuery.getResultList();
+        }
 
         return new AdvancedSearchResponse(users, totalCount, page, size);
     }
@@ -11,9 +11,11 @@ import java.util.Optional;
 public class AlumniProfileService {
 
     private final AlumniProfileRepository alumniProfileRepository;
+    private final MentorMatchingService mentorMatchingService;
 
-    public AlumniProfileService(AlumniProfileRepository alumniProfileRepository) {
+    public AlumniProfileService(AlumniProfileRepository alumniProfileRepository, MentorMatchingService mentorMatchingService) {
         this.alumniProfileRepository = alumniProfileRepository;
+        this.mentorMatchingService = mentorMatchingService;
     }
 
     public AlumniProfile createAlumniProfile(AlumniProfile profile) {
@@ -21,7 +23,9 @@ public class AlumniProfileService {
             profile.getUser().setAlumniProfile(profile);
         }
 
-        return alumniProfileRepository.save(profile);
+        AlumniProfile saved = alumniProfileRepository.save(profile);
+        mentorMatchingService.onAlumniProfileChanged(saved);
+        return saved;
     }
 
     public List<AlumniProfile> getAllProfiles() {
@@ -44,13 +48,16 @@ public class AlumniProfileService {
                 profile.setUser(updatedProfile.getUser());
             }
 
-            return alumniProfileRepository.save(profile);
+            AlumniProfile saved = alumniProfileRepository.save(profile);
+            mentorMatchingService.onAlumniProfileChanged(saved);
+            return saved;
         });
     }
 
     public boolean deleteProfile(Long id) {
         if (alumniProfileRepository.existsById(id)) {
             alumniProfileRepository.deleteById(id);
+            mentorMatchingService.onAlumniProfileRemoved(id);
             return true;
         }
         return false;
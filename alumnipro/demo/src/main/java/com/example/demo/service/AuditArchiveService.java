@@ -0,0 +1,261 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AuditLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rolls audit_logs rows older than audit.archive.retention-months into one
+ * archive table per month (audit_logs_archive_YYYYMM), so the live table and its
+ * indexes only cover recent history. Rows move in small id-range chunks, each in
+ * its own transaction, and the move is idempotent if a run is interrupted.
+ *
+ * Also streams audit rows from the live and archive tables as NDJSON for exports,
+ * and continues the paged audit endpoints into the archive once the live table
+ * runs out.
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveService.class);
+    private static final String ARCHIVE_PREFIX = "audit_logs_archive_";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String COLUMNS = "id, action, entity_type, entity_id, old_value, new_value, performed_by, timestamp";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    // Not synchronized: a virtual thread blocked in JDBC inside a monitor pins its carrier
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    @Value("${audit.archive.retention-months:6}")
+    private int retentionMonths;
+
+    @Value("${audit.archive.chunk-size:5000}")
+    private int chunkSize;
+
+    public AuditArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    @Scheduled(cron = "${audit.archive.cron:0 15 1 1 * *}")
+    public int archiveOldMonths() {
+        archiveLock.lock();
+        try {
+            LocalDateTime cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+            int moved = 0;
+            while (true) {
+                Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs", Timestamp.class);
+                if (oldest == null || !oldest.toLocalDateTime().isBefore(cutoff)) {
+                    break;
+                }
+                moved += archiveMonth(YearMonth.from(oldest.toLocalDateTime()));
+            }
+            if (moved > 0) {
+                log.info("Archived {} audit log rows older than {}", moved, cutoff.toLocalDate());
+            }
+            return moved;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    private int archiveMonth(YearMonth month) {
+        String table = ARCHIVE_PREFIX + month.format(MONTH);
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " LIKE audit_logs");
+
+        int moved = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM audit_logs WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, id LIMIT ?",
+                    Long.class, from, to, chunkSize);
+            if (ids.isEmpty()) {
+                return moved;
+            }
+            long minId = ids.stream().mapToLong(Long::longValue).min().getAsLong();
+            long maxId = ids.stream().mapToLong(Long::longValue).max().getAsLong();
+            Integer deleted = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("INSERT IGNORE INTO " + table + " (" + COLUMNS + ") SELECT " + COLUMNS
+                        + " FROM audit_logs WHERE id BETWEEN ? AND ? AND timestamp >= ? AND timestamp < ?",
+                        minId, maxId, from, to);
+                return jdbcTemplate.update(
+                        "DELETE FROM audit_logs WHERE id BETWEEN ? AND ? AND timestamp >= ? AND timestamp < ?",
+                        minId, maxId, from, to);
+            });
+            moved += deleted != null ? deleted : 0;
+        }
+    }
+
+    public List<String> listArchiveTables() {
+        return jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE() "
+                        + "AND table_name LIKE 'audit\\_logs\\_archive\\_%' ORDER BY table_name",
+                String.class);
+    }
+
+    /**
+     * Archived rows below beforeId, newest first, optionally only those of one
+     * entity or one user. Archived rows are older than everything in audit_logs,
+     * so the paged endpoints read the live table first and continue here.
+     */
+    public List<AuditLog> findArchivedBefore(String entityType, Long entityId, String performedBy,
+                                             long beforeId, int limit) {
+        StringBuilder where = new StringBuilder("id < ?");
+        List<Object> args = new ArrayList<>(List.of(beforeId));
+        if (entityType != null) {
+            where.append(" AND entity_type = ? AND entity_id = ?");
+            args.add(entityType);
+            args.add(entityId);
+        }
+        if (performedBy != null) {
+            where.append(" AND performed_by = ?");
+            args.add(performedBy);
+        }
+        return queryArchives(listArchiveTables(), where.toString(), args, "id DESC", limit);
+    }
+
+    /**
+     * Archived rows with start <= timestamp, before (beforeTimestamp, beforeId)
+     * in (timestamp, id) order, newest first. Only the months in range are read.
+     */
+    public List<AuditLog> findArchivedBetween(LocalDateTime start, LocalDateTime beforeTimestamp,
+                                              long beforeId, int limit) {
+        List<String> archives = listArchiveTables();
+        List<String> tables = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(beforeTimestamp); !month.isBefore(YearMonth.from(start)); month = month.minusMonths(1)) {
+            String table = ARCHIVE_PREFIX + month.format(MONTH);
+            if (archives.contains(table)) {
+                tables.add(table);
+            }
+        }
+        Timestamp before = Timestamp.valueOf(beforeTimestamp);
+        // The redundant upper bound keeps this a range scan on (timestamp, id)
+        return queryArchives(tables, "timestamp >= ? AND timestamp <= ? AND (timestamp < ? OR id < ?)",
+                List.of(Timestamp.valueOf(start), before, before, beforeId), "timestamp DESC, id DESC", limit);
+    }
+
+    // One round trip: each month's first rows in order, merged and cut to the limit
+    private List<AuditLog> queryArchives(List<String> tables, String where, List<Object> args, String order, int limit) {
+        if (tables.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        for (String table : tables) {
+            if (!sql.isEmpty()) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(SELECT ").append(COLUMNS).append(" FROM ").append(table).append(" WHERE ").append(where)
+                    .append(" ORDER BY ").append(order).append(" LIMIT ?)");
+            params.addAll(args);
+            params.add(limit);
+        }
+        params.add(limit);
+        return jdbcTemplate.query("SELECT * FROM (" + sql + ") archived ORDER BY " + order + " LIMIT ?",
+                (rs, rowNum) -> toAuditLog(rs), params.toArray());
+    }
+
+    private static AuditLog toAuditLog(ResultSet rs) throws SQLException {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setId(rs.getLong("id"));
+        auditLog.setAction(rs.getString("action"));
+        auditLog.setEntityType(rs.getString("entity_type"));
+        long entityId = rs.getLong("entity_id");
+        auditLog.setEntityId(rs.wasNull() ? null : entityId);
+        auditLog.setOldValue(rs.getString("old_value"));
+        auditLog.setNewValue(rs.getString("new_value"));
+        auditLog.setPerformedBy(rs.getString("performed_by"));
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        auditLog.setTimestamp(timestamp != null ? timestamp.toLocalDateTime() : null);
+        return auditLog;
+    }
+
+    /**
+     * Writes every audit row with start <= timestamp < end as one JSON object per
+     * line, oldest month first. Rows are streamed from the driver rather than
+     * loaded into memory.
+     */
+    public void exportNdjson(LocalDateTime start, LocalDateTime end, OutputStream out) throws IOException {
+        List<String> tables = new ArrayList<>();
+        List<String> archives = listArchiveTables();
+        for (YearMonth month = YearMonth.from(start); !month.atDay(1).isAfter(end.toLocalDate()); month = month.plusMonths(1)) {
+            String table = ARCHIVE_PREFIX + month.format(MONTH);
+            if (archives.contains(table)) {
+                tables.add(table);
+            }
+        }
+        tables.add("audit_logs");
+
+        Timestamp from = Timestamp.valueOf(start);
+        Timestamp to = Timestamp.valueOf(end);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            // One object per line, no separator between root values
+            json.setRootValueSeparator(null);
+            for (String table : tables) {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            "SELECT " + COLUMNS + " FROM " + table + " WHERE timestamp >= ? AND timestamp < ? ORDER BY id",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    // MySQL Connector/J streams rows one at a time with this fetch size
+                    ps.setFetchSize(Integer.MIN_VALUE);
+                    ps.setTimestamp(1, from);
+                    ps.setTimestamp(2, to);
+                    return ps;
+                }, rs -> {
+                    try {
+                        writeRow(json, rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    private static void writeRow(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong("id"));
+        json.writeStringField("action", rs.getString("action"));
+        json.writeStringField("entityType", rs.getString("entity_type"));
+        long entityId = rs.getLong("entity_id");
+        if (rs.wasNull()) {
+            json.writeNullField("entityId");
+        } else {
+            json.writeNumberField("entityId", entityId);
+        }
+        json.writeStringField("oldValue", rs.getString("old_value"));
+        json.writeStringField("newValue", rs.getString("new_value"));
+        json.writeStringField("performedBy", rs.getString("performed_by"));
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        json.writeStringField("timestamp", timestamp != null ? timestamp.toLocalDateTime().toString() : null);
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
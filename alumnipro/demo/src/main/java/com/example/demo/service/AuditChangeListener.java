@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Audited;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Audits inserts, updates and deletes of {@link Audited} entities automatically.
+ *
+ * Registered as a Hibernate post-commit listener, so nothing is logged for
+ * rolled-back transactions. Diffs come from the state arrays Hibernate already
+ * holds for the flush (loaded state vs. flushed state, limited to the dirty
+ * properties), so no extra SELECT is issued. Entries go to {@link AuditWriter},
+ * which batches the inserts.
+ */
+@Component
+public class AuditChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditChangeListener.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditWriter auditWriter;
+    private final Map<String, Optional<EntityMeta>> metadata = new ConcurrentHashMap<>();
+    private PersistenceUnitUtil persistenceUnitUtil;
+    private Function<Object, Object> idResolver;
+
+    @Value("${audit.capture.enabled:true}")
+    private boolean enabled;
+
+    // Matches the audit_logs old_value/new_value column size
+    @Value("${audit.capture.max-length:255}")
+    private int maxLength;
+
+    public AuditChangeListener(EntityManagerFactory entityManagerFactory, AuditWriter auditWriter) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditWriter = auditWriter;
+    }
+
+    @PostConstruct
+    public void register() {
+        persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        idResolver = entity -> persistenceUnitUtil.getIdentifier(entity);
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return meta(persister) != null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityMeta meta = meta(event.getPersister());
+        if (meta != null) {
+            record("CREATE", meta, event.getId(), null, event.getState(), null);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityMeta meta = meta(event.getPersister());
+        if (meta != null) {
+            record("UPDATE", meta, event.getId(), event.getOldState(), event.getState(), event.getDirtyProperties());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityMeta meta = meta(event.getPersister());
+        if (meta != null) {
+            record("DELETE", meta, event.getId(), event.getDeletedState(), null, null);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // transaction rolled back: nothing happened, nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void record(String action, EntityMeta meta, Object id, Object[] oldState, Object[] newState, int[] dirty) {
+        try {
+            // Without the loaded state (e.g. a detached update) fall back to writing the new values
+            if ("UPDATE".equals(action) && oldState == null) {
+                dirty = null;
+            }
+            EntityDiff.Result diff = EntityDiff.diff(meta.propertyNames(), oldState, newState, dirty,
+                    meta.skip(), meta.entityRef(), idResolver, maxLength);
+            if ("UPDATE".equals(action) && diff.isEmpty()) {
+                return;
+            }
+            Long entityId = id instanceof Number number ? number.longValue() : null;
+            auditWriter.append(AuditEntry.of(action, meta.entityType(), entityId,
+                    diff.oldValue(), diff.newValue(), currentActor()));
+        } catch (Exception e) {
+            // Auditing must never break the business path
+            log.warn("Could not audit {} of {}#{}: {}", action, meta.entityType(), id, e.getMessage());
+        }
+    }
+
+    private EntityMeta meta(EntityPersister persister) {
+        return metadata.computeIfAbsent(persister.getEntityName(), name -> {
+            Class<?> type = persister.getMappedClass();
+            Audited audited = type != null ? type.getAnnotation(Audited.class) : null;
+            if (audited == null) {
+                return Optional.empty();
+            }
+            String[] names = persister.getPropertyNames();
+            Type[] types = persister.getPropertyTypes();
+            Set<String> excluded = Set.of(audited.exclude());
+            boolean[] skip = new boolean[names.length];
+            boolean[] entityRef = new boolean[names.length];
+            for (int i = 0; i < names.length; i++) {
+                skip[i] = types[i].isCollectionType() || excluded.contains(names[i]);
+                entityRef[i] = types[i].isEntityType();
+            }
+            String entityType = audited.entityType().isEmpty()
+                    ? type.getSimpleName().toUpperCase(Locale.ROOT)
+                    : audited.entityType();
+            return Optional.of(new EntityMeta(entityType, names, skip, entityRef));
+        }).orElse(null);
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication.getName() == null) {
+            return "SYSTEM";
+        }
+        return authentication.getName();
+    }
+
+    private record EntityMeta(String entityType, String[] propertyNames, boolean[] skip, boolean[] entityRef) {
+    }
+}
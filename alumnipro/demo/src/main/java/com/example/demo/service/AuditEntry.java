@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audit record on its way to the audit_logs table.
+ */
+public record AuditEntry(String action, String entityType, Long entityId, String oldValue,
+                         String newValue, String performedBy, LocalDateTime timestamp) {
+
+    public static AuditEntry of(String action, String entityType, Long entityId, String oldValue,
+                                String newValue, String performedBy) {
+        return new AuditEntry(action, entityType, entityId, oldValue, newValue, performedBy, LocalDateTime.now());
+    }
+}
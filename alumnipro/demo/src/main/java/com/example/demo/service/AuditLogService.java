@@ -1,43 +1,101 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.AuditLogPage;
 import com.example.demo.model.AuditLog;
 import com.example.demo.repository.AuditLogRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Audit log writes and the paged audit queries. Pages read audit_logs first and,
+ * once it runs out, continue into the monthly archive tables, so history moved
+ * by {@link AuditArchiveService} stays reachable from the same endpoints.
+ */
 @Service
 public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditWriter auditWriter;
+    private final AuditArchiveService auditArchiveService;
 
-    public AuditLogService(AuditLogRepository auditLogRepository) {
+    public AuditLogService(AuditLogRepository auditLogRepository, AuditWriter auditWriter,
+                           AuditArchiveService auditArchiveService) {
         this.auditLogRepository = auditLogRepository;
+        this.auditWriter = auditWriter;
+        this.auditArchiveService = auditArchiveService;
     }
 
+    // Hands the entry to the audit writer; see AuditWriter for the durability modes
     public void logAction(String action, String entityType, Long entityId, String oldValue, String newValue, String performedBy) {
-        AuditLog auditLog = new AuditLog(action, entityType, entityId, oldValue, newValue, performedBy);
-        auditLogRepository.save(auditLog);
+        auditWriter.append(AuditEntry.of(action, entityType, entityId, oldValue, newValue, performedBy));
     }
 
-    public List<AuditLog> getAuditLogsByEntity(String entityType, Long entityId) {
-        return auditLogRepository.findByEntityTypeAndEntityId(entityType, entityId);
+    public Map<String, Object> getWriterStats() {
+        return auditWriter.getStats();
     }
 
-    public List<AuditLog> getAuditLogsByUser(String performedBy) {
-        return auditLogRepository.findByPerformedBy(performedBy);
+    public AuditLogPage getAuditLogs(Long cursor, int limit) {
+        List<AuditLog> items = auditLogRepository.findByIdLessThanOrderByIdDesc(start(cursor), Limit.of(limit));
+        return page(withArchived(items, cursor, limit, null, null, null), limit);
     }
 
-    public List<AuditLog> getAuditLogsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return auditLogRepository.findByTimestampBetween(start, end);
+    public AuditLogPage getAuditLogsByEntity(String entityType, Long entityId, Long cursor, int limit) {
+        List<AuditLog> items = auditLogRepository.findByEntityTypeAndEntityIdAndIdLessThanOrderByIdDesc(
+                entityType, entityId, start(cursor), Limit.of(limit));
+        return page(withArchived(items, cursor, limit, entityType, entityId, null), limit);
     }
 
-    public List<AuditLog> getAuditLogsByAction(String action) {
-        return auditLogRepository.findByAction(action);
+    public AuditLogPage getAuditLogsByUser(String performedBy, Long cursor, int limit) {
+        List<AuditLog> items = auditLogRepository.findByPerformedByAndIdLessThanOrderByIdDesc(
+                performedBy, start(cursor), Limit.of(limit));
+        return page(withArchived(items, cursor, limit, null, null, performedBy), limit);
     }
 
-    public List<AuditLog> getAllAuditLogs() {
-        return auditLogRepository.findAll();
+    // Keyset on (timestamp, id): the cursor is the last row's timestamp and id
+    public AuditLogPage getAuditLogsByDateRange(LocalDateTime start, LocalDateTime end, Long cursor,
+                                                LocalDateTime cursorTimestamp, int limit) {
+        boolean resume = cursor != null && cursorTimestamp != null && !cursorTimestamp.isAfter(end);
+        LocalDateTime beforeTimestamp = resume ? cursorTimestamp : end;
+        long beforeId = resume ? cursor : Long.MAX_VALUE;
+        List<AuditLog> items = new ArrayList<>(auditLogRepository.findPageBetween(
+                start, beforeTimestamp, beforeId, Limit.of(limit)));
+        if (items.size() < limit) {
+            if (!items.isEmpty()) {
+                AuditLog last = items.get(items.size() - 1);
+                beforeTimestamp = last.getTimestamp();
+                beforeId = last.getId();
+            }
+            items.addAll(auditArchiveService.findArchivedBetween(start, beforeTimestamp, beforeId, limit - items.size()));
+        }
+        if (items.size() < limit) {
+            return new AuditLogPage(items, null, null);
+        }
+        AuditLog last = items.get(items.size() - 1);
+        return new AuditLogPage(items, last.getId(), last.getTimestamp());
+    }
+
+    private List<AuditLog> withArchived(List<AuditLog> live, Long cursor, int limit,
+                                        String entityType, Long entityId, String performedBy) {
+        if (live.size() >= limit) {
+            return live;
+        }
+        long beforeId = live.isEmpty() ? start(cursor) : live.get(live.size() - 1).getId();
+        List<AuditLog> items = new ArrayList<>(live);
+        items.addAll(auditArchiveService.findArchivedBefore(entityType, entityId, performedBy, beforeId, limit - live.size()));
+        return items;
+    }
+
+    private static Long start(Long cursor) {
+        return cursor != null ? cursor : Long.MAX_VALUE;
+    }
+
+    private static AuditLogPage page(List<AuditLog> items, int limit) {
+        Long next = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return new AuditLogPage(items, next);
     }
 }
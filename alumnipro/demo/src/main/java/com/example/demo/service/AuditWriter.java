@@ -0,0 +1,301 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit entries to audit_logs.
+ *
+ * Durability modes (audit.durability):
+ * - sync: insert on the caller's thread, inside the caller's transaction.
+ * - async: append to a lock-free ring buffer; a background thread inserts in JDBC
+ *   batches at least every audit.max-latency-ms. Entries still in the buffer are
+ *   lost if the process dies.
+ * - async_fsync: as async, but each batch is appended to the local journal and
+ *   fsynced before the insert, and the journal is cleared once the insert commits.
+ *   A crash replays the journal on restart (at-least-once).
+ *
+ * When the database is unavailable batches go to the append-only journal file
+ * and are replayed once inserts succeed again. A full buffer falls back to a
+ * synchronous insert rather than dropping the entry.
+ */
+@Service
+public class AuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs "
+            + "(action, entity_type, entity_id, old_value, new_value, performed_by, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public enum Durability { SYNC, ASYNC, ASYNC_FSYNC }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Durability durability;
+    private final int batchSize;
+    private final long maxLatencyNanos;
+    private final Path journal;
+    private final AuditRingBuffer<AuditEntry> buffer;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong syncFallbacks = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean journalHasBacklog;
+    private long nextReplayAt;
+    private Thread writerThread;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       ObjectMapper objectMapper,
+                       @Value("${audit.durability:async}") String durability,
+                       @Value("${audit.buffer-capacity:8192}") int bufferCapacity,
+                       @Value("${audit.batch-size:200}") int batchSize,
+                       @Value("${audit.max-latency-ms:200}") long maxLatencyMs,
+                       @Value("${audit.journal-file:audit-journal.ndjson}") String journalFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase(Locale.ROOT));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxLatencyMs));
+        this.journal = Paths.get(journalFile);
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        journalHasBacklog = Files.exists(journal);
+        if (durability == Durability.SYNC && !journalHasBacklog) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void append(AuditEntry entry) {
+        if (durability == Durability.SYNC) {
+            insert(List.of(entry));
+            written.incrementAndGet();
+            return;
+        }
+        if (buffer.offer(entry)) {
+            enqueued.incrementAndGet();
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+            return;
+        }
+        // Buffer full: apply back-pressure to this caller instead of losing the entry
+        syncFallbacks.incrementAndGet();
+        insert(List.of(entry));
+        written.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("durability", durability.name().toLowerCase(Locale.ROOT));
+        stats.put("buffered", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("spilled", spilled.get());
+        stats.put("replayed", replayed.get());
+        stats.put("syncFallbacks", syncFallbacks.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("journalBacklog", journalHasBacklog);
+        return stats;
+    }
+
+    private void runWriter() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        long batchStarted = 0;
+        while (running || buffer.size() > 0 || !batch.isEmpty()) {
+            if (journalHasBacklog && System.nanoTime() - nextReplayAt >= 0) {
+                replayJournal();
+            }
+            int drained = buffer.drainTo(batch, batchSize - batch.size());
+            if (drained > 0 && batchStarted == 0) {
+                batchStarted = System.nanoTime();
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, maxLatencyNanos);
+                continue;
+            }
+            long waited = System.nanoTime() - batchStarted;
+            if (batch.size() < batchSize && waited < maxLatencyNanos && running) {
+                LockSupport.parkNanos(this, maxLatencyNanos - waited);
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+            batchStarted = 0;
+        }
+    }
+
+    private void flush(List<AuditEntry> batch) {
+        boolean journaled = false;
+        if (durability == Durability.ASYNC_FSYNC && !journalHasBacklog) {
+            journaled = appendToJournal(batch, true);
+        }
+        if (journalHasBacklog && !journaled) {
+            // Keep ordering behind entries that are already waiting in the journal
+            spill(batch);
+            return;
+        }
+        try {
+            insert(batch);
+            written.addAndGet(batch.size());
+            if (journaled) {
+                truncateJournal();
+            }
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            log.warn("Audit batch insert failed, spilling {} entries: {}", batch.size(), e.getMessage());
+            if (journaled) {
+                spilled.addAndGet(batch.size());
+                journalHasBacklog = true;
+            } else {
+                spill(batch);
+            }
+        }
+    }
+
+    private void insert(List<AuditEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.action());
+            ps.setString(2, entry.entityType());
+            if (entry.entityId() != null) {
+                ps.setLong(3, entry.entityId());
+            } else {
+                ps.setNull(3, Types.BIGINT);
+            }
+            ps.setString(4, entry.oldValue());
+            ps.setString(5, entry.newValue());
+            ps.setString(6, entry.performedBy());
+            ps.setTimestamp(7, Timestamp.valueOf(entry.timestamp()));
+        });
+    }
+
+    private void spill(List<AuditEntry> batch) {
+        if (appendToJournal(batch, durability == Durability.ASYNC_FSYNC)) {
+            spilled.addAndGet(batch.size());
+            journalHasBacklog = true;
+        } else {
+            log.error("Audit journal unavailable, {} audit entries lost", batch.size());
+        }
+    }
+
+    private boolean appendToJournal(List<AuditEntry> batch, boolean fsync) {
+        try (FileChannel channel = FileChannel.open(journal,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            StringBuilder lines = new StringBuilder();
+            for (AuditEntry entry : batch) {
+                lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Audit journal write failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Re-insert journaled entries in order; stop at the first failure and retry later
+    private void replayJournal() {
+        if (!Files.exists(journal)) {
+            journalHasBacklog = false;
+            return;
+        }
+        List<AuditEntry> chunk = new ArrayList<>(batchSize);
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(objectMapper.readValue(line, AuditEntry.class));
+                if (chunk.size() == batchSize) {
+                    insert(chunk);
+                    count += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insert(chunk);
+                count += chunk.size();
+            }
+        } catch (Exception e) {
+            // Entries inserted before the failure are replayed again next time (at-least-once);
+            // meanwhile new batches keep spilling to the journal behind them
+            nextReplayAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            return;
+        }
+        truncateJournal();
+        replayed.addAndGet(count);
+        written.addAndGet(count);
+        journalHasBacklog = false;
+        if (count > 0) {
+            log.info("Replayed {} audit entries from {}", count, journal);
+        }
+    }
+
+    private void truncateJournal() {
+        try {
+            Files.deleteIfExists(journal);
+        } catch (IOException e) {
+            log.warn("Could not clear audit journal: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps node-local caches consistent across a multi-node deployment.
+ *
+ * Each in-memory cache (second-level cache regions, recommendation lists, the
+ * mentor index, connection graph and event timeline) subscribes for the entity
+ * types it holds. Committed changes to those entities are published with the
+ * entity id; every other node then drops or reloads the affected entries. The
+ * node that made the change has already updated its own caches, so it skips its
+ * own messages.
+ *
+ * Transports (cache.invalidation.transport):
+ * - jdbc: change-log table polled by every node (default, needs only the database).
+ * - redis: Redis pub/sub on cache.invalidation.redis-channel.
+ * - local: in-process only, for single-node runs and tests.
+ *
+ * Publishing never blocks the caller: messages go to a bounded outbox that a
+ * background thread sends in batches, retrying while the transport is down.
+ * Lag (publish on one node to invalidation on another) is reported in getStats()
+ * and as the cache.invalidation.lag histogram.
+ */
+@Service
+public class CacheInvalidationBus implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    private static final long MAX_BACKOFF_MS = 5_000;
+
+    public interface Listener {
+        void invalidate(String entity, Set<Long> ids);
+    }
+
+    private final InvalidationTransport transport;
+    private final String nodeId;
+    private final TransactionTemplate dispatchTemplate;
+    private final int batchSize;
+    private final BlockingQueue<CacheInvalidation> outbox;
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong listenerFailures = new AtomicLong();
+    private final AtomicLong lagTotalMs = new AtomicLong();
+    private final AtomicLong lagLastMs = new AtomicLong();
+    private final AtomicLong lagMaxMs = new AtomicLong();
+
+    private volatile Timer lagTimer;
+    private volatile boolean running;
+    private Thread senderThread;
+
+    @Autowired
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${cache.invalidation.transport:jdbc}") String transport,
+                                @Value("${cache.invalidation.node-id:}") String nodeId,
+                                @Value("${cache.invalidation.batch-size:200}") int batchSize,
+                                @Value("${cache.invalidation.outbox-capacity:10000}") int outboxCapacity,
+                                @Value("${cache.invalidation.poll-interval-ms:500}") long pollIntervalMs,
+                                @Value("${cache.invalidation.gap-timeout-ms:2000}") long gapTimeoutMs,
+                                @Value("${cache.invalidation.retention-ms:600000}") long retentionMs,
+                                @Value("${cache.invalidation.redis-channel:cache-invalidation}") String redisChannel) {
+        this(switch (transport.trim().toLowerCase(Locale.ROOT)) {
+                    case "jdbc" -> new JdbcInvalidationTransport(jdbcTemplate, pollIntervalMs, batchSize,
+                            gapTimeoutMs, retentionMs);
+                    case "redis" -> new RedisInvalidationTransport(redisConnectionFactory.getObject(), objectMapper,
+                            redisChannel);
+                    case "local" -> new LocalInvalidationTransport(redisChannel);
+                    default -> throw new IllegalArgumentException("Unknown cache.invalidation.transport: " + transport);
+                },
+                // Not read-only: reloads must read the primary, a replica may not have the change yet
+                nodeId, new TransactionTemplate(transactionManager), batchSize, outboxCapacity);
+    }
+
+    /**
+     * @param dispatchTemplate wraps each listener call (e.g. a transaction so
+     *                         reloads can touch lazy associations), or null
+     */
+    public CacheInvalidationBus(InvalidationTransport transport, String nodeId, TransactionTemplate dispatchTemplate,
+                                int batchSize, int outboxCapacity) {
+        this.transport = transport;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.dispatchTemplate = dispatchTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.outbox = new LinkedBlockingQueue<>(Math.max(1, outboxCapacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        transport.start(this::receive);
+        running = true;
+        senderThread = new Thread(this::runSender, "cache-invalidation-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+        log.info("Cache invalidation bus started: node {}, transport {}", nodeId, transport.name());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (senderThread != null) {
+            senderThread.interrupt();
+            try {
+                senderThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        transport.stop();
+    }
+
+    public void subscribe(String entity, Listener listener) {
+        listeners.computeIfAbsent(entity, e -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    // Evictions run before the other listeners so their reloads read fresh rows
+    public void subscribeEviction(String entity, Listener listener) {
+        listeners.computeIfAbsent(entity, e -> new CopyOnWriteArrayList<>()).add(0, listener);
+    }
+
+    public boolean isWatched(String entity) {
+        return listeners.containsKey(entity);
+    }
+
+    // For callers that already run after commit (Hibernate post-commit listeners)
+    public void publish(String entity, Long id) {
+        if (id == null || !isWatched(entity)) {
+            return;
+        }
+        published.incrementAndGet();
+        if (!outbox.offer(new CacheInvalidation(entity, id, nodeId, System.currentTimeMillis()))) {
+            // Remote copies of this entity stay stale until they expire
+            dropped.incrementAndGet();
+        }
+    }
+
+    // For changes Hibernate does not see, e.g. bulk JPQL or native updates
+    public void publishAfterCommit(String entity, Long id) {
+        AfterCommit.run(() -> publish(entity, id));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Map<String, Object> getStats() {
+        long count = received.get();
+        Map<String, Object> lag = new LinkedHashMap<>();
+        lag.put("lastMs", lagLastMs.get());
+        lag.put("meanMs", count == 0 ? 0 : lagTotalMs.get() / count);
+        lag.put("maxMs", lagMaxMs.get());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("transport", transport.name());
+        stats.put("subscriptions", new ArrayList<>(listeners.keySet()));
+        stats.put("published", published.get());
+        stats.put("sent", sent.get());
+        stats.put("pending", outbox.size());
+        stats.put("dropped", dropped.get());
+        stats.put("sendFailures", sendFailures.get());
+        stats.put("received", count);
+        stats.put("listenerFailures", listenerFailures.get());
+        stats.put("lag", lag);
+        return stats;
+    }
+
+    // Bound by Actuator: lag histogram and counters under cache.invalidation.*
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String transportName = transport.name();
+        counter(registry, "cache.invalidation.published", published, "Invalidations published by this node", transportName);
+        counter(registry, "cache.invalidation.sent", sent, "Invalidations handed to the transport", transportName);
+        counter(registry, "cache.invalidation.dropped", dropped, "Invalidations lost to a full outbox or shutdown", transportName);
+        counter(registry, "cache.invalidation.send.failures", sendFailures, "Failed transport sends", transportName);
+        counter(registry, "cache.invalidation.received", received, "Invalidations received from other nodes", transportName);
+        counter(registry, "cache.invalidation.listener.failures", listenerFailures, "Cache listeners that threw", transportName);
+        Gauge.builder("cache.invalidation.pending", outbox, BlockingQueue::size)
+                .description("Invalidations waiting in the outbox")
+                .tag("transport", transportName)
+                .register(registry);
+        lagTimer = Timer.builder("cache.invalidation.lag")
+                .description("Publish on another node to invalidation on this one")
+                .tag("transport", transportName)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, AtomicLong value, String description,
+                                String transportName) {
+        FunctionCounter.builder(name, value, AtomicLong::get)
+                .description(description)
+                .tag("transport", transportName)
+                .register(registry);
+    }
+
+    void receive(List<CacheInvalidation> batch) {
+        long now = System.currentTimeMillis();
+        Map<String, Set<Long>> byEntity = new LinkedHashMap<>();
+        for (CacheInvalidation invalidation : batch) {
+            if (nodeId.equals(invalidation.origin())) {
+                continue;
+            }
+            byEntity.computeIfAbsent(invalidation.entity(), e -> new LinkedHashSet<>()).add(invalidation.id());
+            // Clocks on different nodes can disagree slightly; never report negative lag
+            long lag = Math.max(0, now - invalidation.publishedAt());
+            received.incrementAndGet();
+            lagTotalMs.addAndGet(lag);
+            lagLastMs.set(lag);
+            lagMaxMs.accumulateAndGet(lag, Math::max);
+            Timer timer = lagTimer;
+            if (timer != null) {
+                timer.record(lag, TimeUnit.MILLISECONDS);
+            }
+        }
+        byEntity.forEach((entity, ids) -> {
+            for (Listener listener : listeners.getOrDefault(entity, List.of())) {
+                try {
+                    if (dispatchTemplate != null) {
+                        dispatchTemplate.executeWithoutResult(status -> listener.invalidate(entity, ids));
+                    } else {
+                        listener.invalidate(entity, ids);
+                    }
+                } catch (Exception e) {
+                    listenerFailures.incrementAndGet();
+                    log.warn("Cache invalidation of {} {} failed: {}", entity, ids, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void runSender() {
+        List<CacheInvalidation> batch = new ArrayList<>(batchSize);
+        long backoffMs = 100;
+        while (running || !outbox.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    CacheInvalidation first = running ? outbox.poll(1, TimeUnit.SECONDS) : outbox.poll();
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    outbox.drainTo(batch, batchSize - 1);
+                }
+                transport.publish(batch);
+                sent.addAndGet(batch.size());
+                batch.clear();
+                backoffMs = 100;
+            } catch (InterruptedException e) {
+                // stop() interrupts a waiting sender; loop once more to flush what is queued
+                running = false;
+            } catch (Exception e) {
+                sendFailures.incrementAndGet();
+                if (!running) {
+                    dropped.addAndGet(batch.size() + outbox.size());
+                    log.warn("Dropping {} cache invalidations on shutdown: {}", batch.size() + outbox.size(), e.getMessage());
+                    return;
+                }
+                log.warn("Cache invalidation send failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    running = false;
+                }
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Hit ratios and eviction for the Hibernate second-level cache regions
+ * configured in hibernate-cache.conf, plus cross-node invalidation counters
+ * and lag from {@link CacheInvalidationBus}.
+ */
+@Service
+public class CacheStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheStatsService.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public CacheStatsService(EntityManagerFactory entityManagerFactory, CacheInvalidationBus cacheInvalidationBus) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    public Map<String, Object> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : new TreeSet<>(regionNames())) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                Map<String, Object> entry = counters(regionStats.getHitCount(), regionStats.getMissCount(),
+                        regionStats.getPutCount());
+                long size = regionStats.getElementCountInMemory();
+                if (size >= 0) {
+                    entry.put("size", size);
+                }
+                regions.put(region, entry);
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", statistics.isStatisticsEnabled());
+        stats.put("secondLevel", counters(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        stats.put("queryCache", counters(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        stats.put("regions", regions);
+        stats.put("invalidation", cacheInvalidationBus.getStats());
+        return stats;
+    }
+
+    public boolean evictRegion(String region) {
+        if (!regionNames().contains(region)) {
+            return false;
+        }
+        sessionFactory().getCache().evictRegion(region);
+        log.info("Evicted second-level cache region {}", region);
+        return true;
+    }
+
+    public void evictAll() {
+        sessionFactory().getCache().evictAll();
+        sessionFactory().getCache().evictQueryRegions();
+        log.info("Evicted all second-level cache regions");
+    }
+
+    private Set<String> regionNames() {
+        return sessionFactory().getCache().getCacheRegionNames();
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    private static Map<String, Object> counters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        long lookups = hits + misses;
+        counters.put("hitRatio", lookups == 0 ? 0.0 : Math.round(hits * 1000.0 / lookups) / 1000.0);
+        return counters;
+    }
+}
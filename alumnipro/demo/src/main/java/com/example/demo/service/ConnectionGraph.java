@@ -0,0 +1,463 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bipartite student/alumni connection graph held in primitive arrays.
+ *
+ * Profile ids are mapped to dense node indexes through open-addressing
+ * long-to-int tables, and every node keeps its neighbours in a growable int[].
+ * Two edge sets are tracked: accepted connections (both directions) and
+ * "contacted" pairs (any request a student has made, whatever its status),
+ * which is what suggestions have to exclude.
+ */
+public class ConnectionGraph {
+
+    private static final int SCRATCH_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntMap studentIndex = new LongIntMap();
+    private final LongIntMap alumniIndex = new LongIntMap();
+    private long[] studentIds = new long[256];
+    private long[] alumniIds = new long[256];
+    private int studentCount;
+    private int alumniCount;
+
+    // accepted edges, by node index
+    private int[][] studentAccepted = new int[256][];
+    private int[] studentAcceptedSize = new int[256];
+    private int[][] alumniAccepted = new int[256][];
+    private int[] alumniAcceptedSize = new int[256];
+
+    // every alumni a student has sent a request to
+    private int[][] studentContacted = new int[256][];
+    private int[] studentContactedSize = new int[256];
+
+    private long acceptedEdges;
+
+    // Query scratch space is pooled rather than per-thread: a virtual thread
+    // serves one request and exits, so a ThreadLocal would allocate every time
+    private final BlockingQueue<Scratch> scratchPool = new ArrayBlockingQueue<>(SCRATCH_POOL_SIZE);
+
+    // A request was sent (pending)
+    public void addRequest(long studentId, long alumniId) {
+        lock.writeLock().lock();
+        try {
+            int s = studentNode(studentId);
+            int a = alumniNode(alumniId);
+            addUnique(studentContacted, studentContactedSize, s, a);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A request was accepted
+    public void addAccepted(long studentId, long alumniId) {
+        lock.writeLock().lock();
+        try {
+            int s = studentNode(studentId);
+            int a = alumniNode(alumniId);
+            addUnique(studentContacted, studentContactedSize, s, a);
+            if (addUnique(studentAccepted, studentAcceptedSize, s, a)) {
+                addUnique(alumniAccepted, alumniAcceptedSize, a, s);
+                acceptedEdges++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A request was rejected: the pair stays contacted but is no longer an edge
+    public void removeAccepted(long studentId, long alumniId) {
+        lock.writeLock().lock();
+        try {
+            int s = studentIndex.get(studentId);
+            int a = alumniIndex.get(alumniId);
+            if (s < 0 || a < 0) {
+                return;
+            }
+            if (removeValue(studentAccepted, studentAcceptedSize, s, a)) {
+                removeValue(alumniAccepted, alumniAcceptedSize, a, s);
+                acceptedEdges--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The connection row was deleted
+    public void removeConnection(long studentId, long alumniId) {
+        lock.writeLock().lock();
+        try {
+            int s = studentIndex.get(studentId);
+            int a = alumniIndex.get(alumniId);
+            if (s < 0 || a < 0) {
+                return;
+            }
+            removeValue(studentContacted, studentContactedSize, s, a);
+            if (removeValue(studentAccepted, studentAcceptedSize, s, a)) {
+                removeValue(alumniAccepted, alumniAcceptedSize, a, s);
+                acceptedEdges--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean hasContacted(long studentId, long alumniId) {
+        lock.readLock().lock();
+        try {
+            int s = studentIndex.get(studentId);
+            int a = alumniIndex.get(alumniId);
+            return s >= 0 && a >= 0 && indexOf(studentContacted[s], studentContactedSize[s], a) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] contactedAlumni(long studentId) {
+        lock.readLock().lock();
+        try {
+            int s = studentIndex.get(studentId);
+            if (s < 0) {
+                return new long[0];
+            }
+            long[] result = new long[studentContactedSize[s]];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = alumniIds[studentContacted[s][i]];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of the student's peers (students sharing an accepted alumni with
+     * them) that are also connected to the given alumni.
+     */
+    public int mutualCount(long studentId, long alumniId, int maxFanOut) {
+        lock.readLock().lock();
+        try {
+            int s = studentIndex.get(studentId);
+            int a = alumniIndex.get(alumniId);
+            if (s < 0 || a < 0) {
+                return 0;
+            }
+            Scratch sc = borrowScratch();
+            int epoch = sc.nextEpoch(studentCount, alumniCount);
+            markPeers(s, sc, epoch, maxFanOut);
+            int count = 0;
+            int[] students = alumniAccepted[a];
+            for (int i = 0; i < alumniAcceptedSize[a]; i++) {
+                if (students[i] != s && sc.peerMark[students[i]] == epoch) {
+                    count++;
+                }
+            }
+            scratchPool.offer(sc);
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Second-degree alumni for a student: alumni connected to the student's
+     * peers, ranked by how many peers lead to them. Alumni the student has
+     * already contacted are skipped. maxFanOut caps how many neighbours are
+     * walked per node so hub alumni cannot blow up the traversal.
+     */
+    public List<Suggestion> secondDegree(long studentId, int limit, int maxFanOut) {
+        lock.readLock().lock();
+        try {
+            int s = studentIndex.get(studentId);
+            if (s < 0 || limit <= 0) {
+                return List.of();
+            }
+            Scratch sc = borrowScratch();
+            int epoch = sc.nextEpoch(studentCount, alumniCount);
+            markPeers(s, sc, epoch, maxFanOut);
+
+            int[] contacted = studentContacted[s];
+            for (int i = 0; i < studentContactedSize[s]; i++) {
+                sc.alumniMark[contacted[i]] = -epoch;
+            }
+
+            int touchedCount = 0;
+            for (int p = 0; p < sc.peerCount; p++) {
+                int peer = sc.peers[p];
+                int[] alumni = studentAccepted[peer];
+                int degree = Math.min(studentAcceptedSize[peer], maxFanOut);
+                for (int i = 0; i < degree; i++) {
+                    int candidate = alumni[i];
+                    int mark = sc.alumniMark[candidate];
+                    if (mark == -epoch) {
+                        continue;
+                    }
+                    if (mark != epoch) {
+                        sc.alumniMark[candidate] = epoch;
+                        sc.alumniCounts[candidate] = 0;
+                        sc.touched[touchedCount++] = candidate;
+                    }
+                    sc.alumniCounts[candidate]++;
+                }
+            }
+
+            PriorityQueue<Suggestion> heap = new PriorityQueue<>(limit + 1,
+                    Comparator.comparingInt(Suggestion::mutualCount).thenComparingLong(x -> -x.alumniId()));
+            for (int i = 0; i < touchedCount; i++) {
+                int candidate = sc.touched[i];
+                Suggestion suggestion = new Suggestion(alumniIds[candidate], sc.alumniCounts[candidate]);
+                if (heap.size() < limit) {
+                    heap.add(suggestion);
+                } else if (heap.comparator().compare(suggestion, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(suggestion);
+                }
+            }
+            scratchPool.offer(sc);
+            List<Suggestion> result = new ArrayList<>(heap);
+            result.sort(heap.comparator().reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            bytes += (long) studentIds.length * Long.BYTES + (long) alumniIds.length * Long.BYTES;
+            bytes += studentIndex.footprint() + alumniIndex.footprint();
+            bytes += arrayFootprint(studentAccepted, studentCount) + arrayFootprint(alumniAccepted, alumniCount)
+                    + arrayFootprint(studentContacted, studentCount);
+            bytes += (long) (studentAcceptedSize.length + alumniAcceptedSize.length + studentContactedSize.length)
+                    * Integer.BYTES;
+            return new Stats(studentCount, alumniCount, acceptedEdges, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A pooled scratch if one is free; callers offer it back once done, and
+    // offers beyond the pool size are dropped
+    private Scratch borrowScratch() {
+        Scratch sc = scratchPool.poll();
+        return sc != null ? sc : new Scratch();
+    }
+
+    // Collect students sharing an accepted alumni with s (excluding s)
+    private void markPeers(int s, Scratch sc, int epoch, int maxFanOut) {
+        sc.peerCount = 0;
+        sc.peerMark[s] = epoch;
+        int[] alumni = studentAccepted[s];
+        for (int i = 0; i < studentAcceptedSize[s]; i++) {
+            int a = alumni[i];
+            int[] students = alumniAccepted[a];
+            int degree = Math.min(alumniAcceptedSize[a], maxFanOut);
+            for (int j = 0; j < degree; j++) {
+                int peer = students[j];
+                if (sc.peerMark[peer] != epoch) {
+                    sc.peerMark[peer] = epoch;
+                    sc.peers[sc.peerCount++] = peer;
+                }
+            }
+        }
+    }
+
+    private int studentNode(long id) {
+        int node = studentIndex.get(id);
+        if (node >= 0) {
+            return node;
+        }
+        node = studentCount++;
+        if (node == studentIds.length) {
+            int capacity = node * 2;
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            studentAccepted = Arrays.copyOf(studentAccepted, capacity);
+            studentAcceptedSize = Arrays.copyOf(studentAcceptedSize, capacity);
+            studentContacted = Arrays.copyOf(studentContacted, capacity);
+            studentContactedSize = Arrays.copyOf(studentContactedSize, capacity);
+        }
+        studentIds[node] = id;
+        studentIndex.put(id, node);
+        return node;
+    }
+
+    private int alumniNode(long id) {
+        int node = alumniIndex.get(id);
+        if (node >= 0) {
+            return node;
+        }
+        node = alumniCount++;
+        if (node == alumniIds.length) {
+            int capacity = node * 2;
+            alumniIds = Arrays.copyOf(alumniIds, capacity);
+            alumniAccepted = Arrays.copyOf(alumniAccepted, capacity);
+            alumniAcceptedSize = Arrays.copyOf(alumniAcceptedSize, capacity);
+        }
+        alumniIds[node] = id;
+        alumniIndex.put(id, node);
+        return node;
+    }
+
+    private static boolean addUnique(int[][] lists, int[] sizes, int node, int value) {
+        int[] list = lists[node];
+        int size = sizes[node];
+        if (indexOf(list, size, value) >= 0) {
+            return false;
+        }
+        if (list == null) {
+            list = new int[2];
+        } else if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+        }
+        list[size] = value;
+        lists[node] = list;
+        sizes[node] = size + 1;
+        return true;
+    }
+
+    // Order within an adjacency list does not matter, so swap-remove
+    private static boolean removeValue(int[][] lists, int[] sizes, int node, int value) {
+        int[] list = lists[node];
+        int size = sizes[node];
+        int i = indexOf(list, size, value);
+        if (i < 0) {
+            return false;
+        }
+        list[i] = list[size - 1];
+        sizes[node] = size - 1;
+        return true;
+    }
+
+    private static int indexOf(int[] list, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (list[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long arrayFootprint(int[][] lists, int count) {
+        long bytes = (long) lists.length * 8;
+        for (int i = 0; i < count; i++) {
+            if (lists[i] != null) {
+                bytes += 16 + (long) lists[i].length * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    public record Suggestion(long alumniId, int mutualCount) {}
+
+    public record Stats(int students, int alumni, long acceptedEdges, long approxBytes) {}
+
+    // Per-thread traversal buffers; epochs avoid clearing them between queries
+    private static final class Scratch {
+        int epoch;
+        int[] peerMark = new int[0];
+        int[] peers = new int[0];
+        int peerCount;
+        int[] alumniMark = new int[0];
+        int[] alumniCounts = new int[0];
+        int[] touched = new int[0];
+
+        int nextEpoch(int students, int alumni) {
+            if (peerMark.length < students) {
+                peerMark = new int[students * 2];
+                peers = new int[students * 2];
+            }
+            if (alumniMark.length < alumni) {
+                alumniMark = new int[alumni * 2];
+                alumniCounts = new int[alumni * 2];
+                touched = new int[alumni * 2];
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                epoch = 1;
+                Arrays.fill(peerMark, 0);
+                Arrays.fill(alumniMark, 0);
+            }
+            return epoch;
+        }
+    }
+
+    // Open-addressing long -> int map with linear probing; ids are never removed
+    static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(64);
+        private int[] values = new int[64];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) {
+                    return values[i];
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+        }
+
+        long footprint() {
+            return (long) keys.length * (Long.BYTES + Integer.BYTES);
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] k = new long[capacity];
+            Arrays.fill(k, EMPTY);
+            return k;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
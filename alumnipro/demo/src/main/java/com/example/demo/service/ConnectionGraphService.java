@@ -0,0 +1,188 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AlumniProfile;
+import com.example.demo.model.Connection;
+import com.example.demo.model.User;
+import com.example.demo.repository.AlumniProfileRepository;
+import com.example.demo.repository.ConnectionRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link ConnectionGraph} in sync with the connections table and answers
+ * second-degree discovery and mutual-connection queries from memory.
+ */
+@Service
+public class ConnectionGraphService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionGraphService.class);
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private AlumniProfileRepository alumniProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${connections.graph.max-fan-out:500}")
+    private int maxFanOut;
+
+    private volatile ConnectionGraph graph = new ConnectionGraph();
+
+    // Connections saved or deleted on other nodes
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe("Connection", (entity, ids) -> {
+            List<Connection> saved = connectionRepository.findAllById(ids);
+            if (saved.size() < ids.size()) {
+                // A deleted row no longer says which pair it linked, so rebuild from the table
+                reload();
+                return;
+            }
+            saved.forEach(this::onConnectionSaved);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+            ConnectionGraph.Stats stats = graph.stats();
+            log.info("Connection graph loaded: {} students, {} alumni, {} accepted edges",
+                    stats.students(), stats.alumni(), stats.acceptedEdges());
+        } catch (Exception e) {
+            log.warn("Connection graph load failed: {}", e.getMessage());
+        }
+    }
+
+    public void reload() {
+        ConnectionGraph fresh = new ConnectionGraph();
+        // A pair can have several rows (e.g. rejected, then re-requested); any accepted row wins
+        for (Object[] row : connectionRepository.findAllEdges()) {
+            if (row[2] == Connection.Status.ACCEPTED) {
+                fresh.addAccepted((Long) row[0], (Long) row[1]);
+            } else {
+                fresh.addRequest((Long) row[0], (Long) row[1]);
+            }
+        }
+        graph = fresh;
+    }
+
+    // Called after a connection row is created or its status changes
+    public void onConnectionSaved(Connection connection) {
+        if (connection == null || connection.getStudent() == null || connection.getAlumni() == null) {
+            return;
+        }
+        refreshPair(connection.getStudent().getId(), connection.getAlumni().getId());
+    }
+
+    // Called after a connection row is deleted
+    public void onConnectionDeleted(Connection connection) {
+        refreshPair(connection.getStudent().getId(), connection.getAlumni().getId());
+    }
+
+    /**
+     * Sets the pair from every row the table still has for it, so one row
+     * changing or going away never undoes another: an accepted row keeps the
+     * edge (on both the student's and the alumni's side), any row keeps the
+     * pair contacted, and with no row left the pair is dropped.
+     */
+    private void refreshPair(Long studentId, Long alumniId) {
+        List<Connection.Status> statuses = connectionRepository.findStatusesByPair(studentId, alumniId);
+        if (statuses.isEmpty()) {
+            graph.removeConnection(studentId, alumniId);
+        } else {
+            apply(studentId, alumniId, statuses.contains(Connection.Status.ACCEPTED)
+                    ? Connection.Status.ACCEPTED : Connection.Status.PENDING);
+        }
+    }
+
+    public long[] contactedAlumni(Long studentProfileId) {
+        return graph.contactedAlumni(studentProfileId);
+    }
+
+    // STUDENT: alumni connected to the student's peers
+    public List<Map<String, Object>> discover(Principal principal, int limit) {
+        User student = currentStudent(principal);
+        List<ConnectionGraph.Suggestion> suggestions =
+                graph.secondDegree(student.getStudentProfile().getId(), limit, maxFanOut);
+        if (suggestions.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, AlumniProfile> profiles = alumniProfileRepository
+                .findAllById(suggestions.stream().map(ConnectionGraph.Suggestion::alumniId).toList())
+                .stream()
+                .collect(Collectors.toMap(AlumniProfile::getId, Function.identity()));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (ConnectionGraph.Suggestion suggestion : suggestions) {
+            AlumniProfile alumni = profiles.get(suggestion.alumniId());
+            if (alumni == null || alumni.getUser() == null
+                    || alumni.getUser().getAccountStatus() != User.AccountStatus.ACTIVE) {
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("alumniProfileId", alumni.getId());
+            item.put("userId", alumni.getUser().getId());
+            item.put("name", alumni.getUser().getName());
+            item.put("currentPosition", alumni.getCurrentPosition());
+            item.put("company", alumni.getCompany());
+            item.put("mutualConnections", suggestion.mutualCount());
+            result.add(item);
+        }
+        return result;
+    }
+
+    // STUDENT: how many of the student's peers are connected to an alumni
+    public int mutualConnections(Principal principal, Long alumniProfileId) {
+        User student = currentStudent(principal);
+        return graph.mutualCount(student.getStudentProfile().getId(), alumniProfileId, maxFanOut);
+    }
+
+    public boolean hasContacted(Long studentProfileId, Long alumniProfileId) {
+        return graph.hasContacted(studentProfileId, alumniProfileId);
+    }
+
+    public ConnectionGraph.Stats getStats() {
+        return graph.stats();
+    }
+
+    private void apply(Long studentId, Long alumniId, Connection.Status status) {
+        if (status == Connection.Status.ACCEPTED) {
+            graph.addAccepted(studentId, alumniId);
+        } else {
+            graph.addRequest(studentId, alumniId);
+            graph.removeAccepted(studentId, alumniId);
+        }
+    }
+
+    private User currentStudent(Principal principal) {
+        User user = userRepository.findByEmail(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != User.Role.STUDENT || user.getStudentProfile() == null) {
+            throw new RuntimeException("Only students with a profile can discover connections");
+        }
+        return user;
+    }
+}
@@ -20,6 +20,9 @@ public class ConnectionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ConnectionGraphService connectionGraphService;
+
     // ADMIN: View all connections
     public List<Connection> getAllConnections() {
         return connectionRepository.findAll();
@@ -35,9 +38,13 @@ public class ConnectionService {
 
         switch (user.getRole()) {
             case STUDENT:
-                return connectionRepository.findByStudentUserEmail(user.getEmail());
+                return user.getStudentProfile() != null
+                        ? connectionRepository.findByStudentId(user.getStudentProfile().getId())
+                        : List.of();
             case ALUMNI:
-                return connectionRepository.findByAlumniUserEmail(user.getEmail());
+                return user.getAlumniProfile() != null
+                        ? connectionRepository.findByAlumniId(user.getAlumniProfile().getId())
+                        : List.of();
             default:
                 throw new RuntimeException("Only students or alumni can view their connections");
         }
@@ -58,9 +65,13 @@ public class ConnectionService {
             throw new RuntimeException("Target user is not an alumni");
         }
 
-        // Optimized duplicate check
-        boolean exists = connectionRepository.existsByStudentUserEmailAndAlumniUserEmailAndStatus(
-                student.getEmail(), alumni.getEmail(), Connection.Status.PENDING);
+        if (student.getStudentProfile() == null || alumni.getAlumniProfile() == null) {
+            throw new RuntimeException("Both users need a profile to connect");
+        }
+
+        // Always asked of the table: the graph is per node and misses requests made on other nodes
+        boolean exists = connectionRepository.existsByStudentIdAndAlumniIdAndStatus(
+                student.getStudentProfile().getId(), alumni.getAlumniProfile().getId(), Connection.Status.PENDING);
 
         if (exists) {
             throw new RuntimeException("You have already sent a connection request to this alumni");
@@ -71,7 +82,9 @@ public class ConnectionService {
         connection.setAlumni(alumni.getAlumniProfile());
         connection.setStatus(Connection.Status.PENDING);
 
-        return connectionRepository.save(connection);
+        Connection saved = connectionRepository.save(connection);
+        connectionGraphService.onConnectionSaved(saved);
+        return saved;
     }
 
     // ALUMNI: Accept or reject connection request
@@ -91,15 +104,17 @@ public class ConnectionService {
         }
 
         connection.setStatus(status);
-        return connectionRepository.save(connection);
+        Connection saved = connectionRepository.save(connection);
+        connectionGraphService.onConnectionSaved(saved);
+        return saved;
     }
 
     // ADMIN: Delete a connection
     public void deleteConnection(Long id) {
-        if (!connectionRepository.existsById(id)) {
-            throw new RuntimeException("Connection not found");
-        }
-        connectionRepository.deleteById(id);
+        Connection connection = connectionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Connection not found"));
+        connectionRepository.delete(connection);
+        connectionGraphService.onConnectionDeleted(connection);
     }
 
     // Helper method to fetch user
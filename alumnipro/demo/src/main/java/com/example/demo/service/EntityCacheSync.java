@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bridges Hibernate and {@link CacheInvalidationBus}: committed inserts, updates
+ * and deletes of any entity some cache subscribed to are published by simple
+ * class name and id, and every second-level cached entity is subscribed so
+ * remote changes evict its cached row and the query cache (whose table
+ * timestamps only track local writes).
+ */
+@Component
+public class EntityCacheSync implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBus bus;
+
+    public EntityCacheSync(EntityManagerFactory entityManagerFactory, CacheInvalidationBus bus) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.bus = bus;
+    }
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Cache cache = sessionFactory.getCache();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            Class<?> type = persister.getMappedClass();
+            if (type == null || !persister.canWriteToCache()) {
+                return;
+            }
+            bus.subscribeEviction(type.getSimpleName(), (entity, ids) -> {
+                for (Long id : ids) {
+                    cache.evictEntityData(type, id);
+                }
+                cache.evictDefaultQueryRegion();
+            });
+        });
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type != null && bus.isWatched(type.getSimpleName());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rolled back: other nodes never saw the change
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void publish(EntityPersister persister, Object id) {
+        if (id instanceof Number number && persister.getMappedClass() != null) {
+            bus.publish(persister.getMappedClass().getSimpleName(), number.longValue());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Compact field-level diffs for the audit log, built from Hibernate's entity
+ * state arrays: only changed properties are written, as two small JSON objects
+ * ({"status":"PENDING"} -> {"status":"APPROVED"}). No reflection or extra
+ * queries are involved; the caller passes the loaded and flushed state.
+ */
+public final class EntityDiff {
+
+    private static final int MAX_VALUE_CHARS = 80;
+
+    private EntityDiff() {
+    }
+
+    public record Result(String oldValue, String newValue, int changedProperties) {
+
+        public boolean isEmpty() {
+            return changedProperties == 0;
+        }
+    }
+
+    /**
+     * @param names       property names, in state-array order
+     * @param oldState    state before the change, or null for inserts
+     * @param newState    state after the change, or null for deletes
+     * @param dirty       indexes Hibernate found dirty, or null to compare every property
+     * @param skip        properties never written (collections, excluded fields)
+     * @param entityRef   properties holding an associated entity, written as its id
+     * @param idResolver  maps an associated entity (or proxy) to its id
+     * @param maxLength   cap for each of the two JSON strings
+     */
+    public static Result diff(String[] names, Object[] oldState, Object[] newState, int[] dirty,
+                              boolean[] skip, boolean[] entityRef, Function<Object, Object> idResolver,
+                              int maxLength) {
+        StringBuilder before = oldState != null ? new StringBuilder("{") : null;
+        StringBuilder after = newState != null ? new StringBuilder("{") : null;
+        int changed = 0;
+        int count = dirty != null ? dirty.length : names.length;
+        for (int n = 0; n < count; n++) {
+            int i = dirty != null ? dirty[n] : n;
+            if (skip[i]) {
+                continue;
+            }
+            Object oldValue = oldState != null ? value(oldState[i], entityRef[i], idResolver) : null;
+            Object newValue = newState != null ? value(newState[i], entityRef[i], idResolver) : null;
+            if (oldState != null && newState != null ? Objects.equals(oldValue, newValue) : (oldValue == null && newValue == null)) {
+                continue;
+            }
+            if (before != null) {
+                appendField(before, changed, names[i], oldValue);
+            }
+            if (after != null) {
+                appendField(after, changed, names[i], newValue);
+            }
+            changed++;
+        }
+        return new Result(close(before, maxLength), close(after, maxLength), changed);
+    }
+
+    private static Object value(Object raw, boolean entityRef, Function<Object, Object> idResolver) {
+        if (raw == null || !entityRef) {
+            return raw;
+        }
+        return idResolver.apply(raw);
+    }
+
+    private static void appendField(StringBuilder json, int index, String name, Object value) {
+        if (index > 0) {
+            json.append(',');
+        }
+        json.append('"').append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            String text = value instanceof Enum<?> e ? e.name() : value.toString();
+            json.append('"');
+            escape(json, text.length() > MAX_VALUE_CHARS ? text.substring(0, MAX_VALUE_CHARS) + "..." : text);
+            json.append('"');
+        }
+    }
+
+    private static void escape(StringBuilder json, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String close(StringBuilder json, int maxLength) {
+        if (json == null) {
+            return null;
+        }
+        json.append('}');
+        if (json.length() <= maxLength) {
+            return json.toString();
+        }
+        // Keep the stored value within the column; the marker shows it was cut
+        return json.substring(0, Math.max(0, maxLength - 4)) + "...}";
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.Message;
+import com.example.demo.model.User;
+import com.example.demo.model.EventReminder;
+import com.example.demo.repository.EventReminderRepository;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.MessageRepository;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends in-app reminders to interested users 24 hours and 1 hour before an event.
+ *
+ * Each tick looks only at the events whose reminder time fell between the previous
+ * tick and now (a range lookup on {@link EventTimeline}), loads their interested
+ * users with one query, and sends each user a single message covering all of
+ * their due events. The first tick after a start looks back over catch-up-ms, so
+ * reminders that fell due while the node was down are still sent.
+ *
+ * Every node runs the scheduler, so each (event, window, date) reminder is claimed
+ * in event_reminders before it is sent, in the same transaction as its messages:
+ * only the node whose insert lands sends it, and a failed send releases the claim.
+ * Rescheduling an event makes it eligible again.
+ */
+@Service
+public class EventReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventReminderService.class);
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("EEE d MMM yyyy, HH:mm");
+
+    private static final Map<String, Duration> WINDOWS = new LinkedHashMap<>();
+
+    static {
+        WINDOWS.put("24h", Duration.ofHours(24));
+        WINDOWS.put("1h", Duration.ofHours(1));
+    }
+
+    @Autowired
+    private EventTimeline eventTimeline;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private EventReminderRepository eventReminderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${events.reminders.enabled:true}")
+    private boolean enabled;
+
+    // Account the reminders are sent from; defaults to the first admin
+    @Value("${events.reminders.sender-email:}")
+    private String senderEmail;
+
+    // How far the first tick after a start looks back for reminders missed while down
+    @Value("${events.reminders.catch-up-ms:3600000}")
+    private long catchUpMs;
+
+    // End of the last range that was handled; null until the first tick
+    private LocalDateTime lastTick;
+    // A lock rather than synchronized: the tick queries and saves while holding it
+    private final ReentrantLock tickLock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${events.reminders.interval-ms:60000}")
+    public void sendDueReminders() {
+        tickLock.lock();
+        try {
+            sendDueRemindersLocked();
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    private void sendDueRemindersLocked() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = lastTick != null ? lastTick : now.minus(Duration.ofMillis(catchUpMs));
+        if (!enabled) {
+            lastTick = now;
+            return;
+        }
+
+        // Candidates this tick, widest window first; events that have started are past reminding
+        List<Map.Entry<String, Event>> candidates = new ArrayList<>();
+        Set<Long> candidateIds = new HashSet<>();
+        for (Map.Entry<String, Duration> window : WINDOWS.entrySet()) {
+            Duration lead = window.getValue();
+            for (Event event : eventTimeline.between(from.plus(lead), now.plus(lead))) {
+                if (event.getEventDate().isAfter(now)) {
+                    candidates.add(Map.entry(window.getKey(), event));
+                    candidateIds.add(event.getId());
+                }
+            }
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!candidates.isEmpty()) {
+            Set<String> alreadySent = new HashSet<>();
+            for (EventReminder reminder : eventReminderRepository.findByEventIdIn(candidateIds)) {
+                alreadySent.add(key(reminder.getEventId(), reminder.getReminderWindow(), reminder.getEventDate()));
+            }
+            candidates.removeIf(c -> alreadySent.contains(key(c.getValue().getId(), c.getKey(), c.getValue().getEventDate())));
+        }
+        if (!candidates.isEmpty()) {
+            Optional<User> sender = resolveSender();
+            if (sender.isEmpty()) {
+                log.warn("No sender account for event reminders; skipped {} events", candidateIds.size());
+            } else {
+                transactionTemplate.executeWithoutResult(status -> send(candidates, sender.get(), now));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> eventReminderRepository.deleteByEventDateBefore(now));
+        // Only moved once the range has been handled, so a failed tick is retried
+        lastTick = now;
+    }
+
+    private void send(List<Map.Entry<String, Event>> candidates, User sender, LocalDateTime now) {
+        // event id -> reminder windows this node claimed, widest first
+        Map<Long, List<String>> dueWindows = new LinkedHashMap<>();
+        Map<Long, Event> dueEvents = new HashMap<>();
+        for (Map.Entry<String, Event> candidate : candidates) {
+            Event event = candidate.getValue();
+            if (eventReminderRepository.claim(event.getId(), candidate.getKey(), event.getEventDate(), now) > 0) {
+                dueWindows.computeIfAbsent(event.getId(), id -> new ArrayList<>()).add(candidate.getKey());
+                dueEvents.put(event.getId(), event);
+            }
+        }
+        if (dueEvents.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Event>> eventsByUser = new HashMap<>();
+        for (Object[] pair : eventRepository.findInterestPairs(dueEvents.keySet())) {
+            eventsByUser.computeIfAbsent((Long) pair[1], id -> new ArrayList<>()).add(dueEvents.get((Long) pair[0]));
+        }
+        if (eventsByUser.isEmpty()) {
+            return;
+        }
+
+        Map<Long, User> recipients = userRepository.findAllById(eventsByUser.keySet()).stream()
+                .filter(u -> u.getAccountStatus() == User.AccountStatus.ACTIVE)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Message> messages = new ArrayList<>();
+        eventsByUser.forEach((userId, userEvents) -> {
+            User recipient = recipients.get(userId);
+            if (recipient != null && !recipient.getId().equals(sender.getId())) {
+                messages.add(new Message(sender, recipient, reminderText(userEvents, dueWindows)));
+            }
+        });
+        messageRepository.saveAll(messages);
+        log.info("Sent {} event reminders covering {} events", messages.size(), dueEvents.size());
+    }
+
+    private static String key(Long eventId, String window, LocalDateTime eventDate) {
+        return eventId + ":" + window + ":" + eventDate;
+    }
+
+    private Optional<User> resolveSender() {
+        if (senderEmail != null && !senderEmail.isBlank()) {
+            Optional<User> configured = userRepository.findByEmail(senderEmail);
+            if (configured.isPresent()) {
+                return configured;
+            }
+        }
+        return userRepository.findFirstByRoleOrderByIdAsc(User.Role.ADMIN);
+    }
+
+    private static String reminderText(List<Event> events, Map<Long, List<String>> dueWindows) {
+        StringBuilder text = new StringBuilder("Reminder: ");
+        text.append(events.size() == 1 ? "an event you are interested in is coming up." : "events you are interested in are coming up.");
+        for (Event event : events) {
+            List<String> windows = dueWindows.get(event.getId());
+            text.append("\n- ").append(event.getTitle())
+                    .append(" in ").append(windows.get(windows.size() - 1))
+                    .append(" (").append(event.getEventDate().format(FORMAT)).append(", ")
+                    .append(event.getLocation()).append(")");
+        }
+        // messages.content is a plain VARCHAR(255)
+        return text.length() <= 255 ? text.toString() : text.substring(0, 252) + "...";
+    }
+}
@@ -24,4 +24,6 @@ public interface EventService {
     void removeUserInterest(Long eventId, Long userId);
     
     boolean isUserInterested(Long eventId, Long userId);
+    
+    List<Long> getInterestedEventIds(Long userId, List<Long> eventIds);
 }
@@ -1,11 +1,14 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Event;
-import com.example.demo.model.User;
 import com.example.demo.repository.EventRepository;
-import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,35 +17,38 @@ import java.util.Optional;
 @Service
 public class EventServiceImpl implements EventService {
 
+    private static final Logger log = LoggerFactory.getLogger(EventServiceImpl.class);
+
     @Autowired
     private EventRepository eventRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private EventTimeline eventTimeline;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
 
     @Override
     public Event createEvent(Event event) {
         event.setCreatedAt(LocalDateTime.now());
         event.setUpdatedAt(LocalDateTime.now());
         event.setActive(true);
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventTimeline.onEventSaved(saved);
+        return saved;
     }
 
     @Override
+    @Transactional
     public Event updateEvent(Long id, Event event) {
-        Optional<Event> existingEvent = eventRepository.findById(id);
-        if (existingEvent.isPresent()) {
-            Event updatedEvent = existingEvent.get();
-            updatedEvent.setTitle(event.getTitle());
-            updatedEvent.setDescription(event.getDescription());
-            updatedEvent.setEventType(event.getEventType());
-            updatedEvent.setEventDate(event.getEventDate());
-            updatedEvent.setLocation(event.getLocation());
-            updatedEvent.setOrganizer(event.getOrganizer());
-            updatedEvent.setUpdatedAt(LocalDateTime.now());
-            return eventRepository.save(updatedEvent);
+        if (eventRepository.updateDetails(id, event, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Event not found with id: " + id);
         }
-        throw new RuntimeException("Event not found with id: " + id);
+        Event saved = eventRepository.findById(id).orElseThrow();
+        eventTimeline.onEventSaved(saved);
+        // Bulk updates bypass Hibernate's listeners, so tell other nodes explicitly
+        cacheInvalidationBus.publishAfterCommit("Event", id);
+        return saved;
     }
 
     @Override
@@ -53,6 +59,7 @@ public class EventServiceImpl implements EventService {
             existingEvent.setActive(false);
             existingEvent.setUpdatedAt(LocalDateTime.now());
             eventRepository.save(existingEvent);
+            eventTimeline.onEventRemoved(id);
         } else {
             throw new RuntimeException("Event not found with id: " + id);
         }
@@ -76,43 +83,56 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public List<Event> getUpcomingEvents() {
-        return eventRepository.findUpcomingEvents(LocalDateTime.now());
+        return eventTimeline.upcoming(LocalDateTime.now());
     }
 
+    // RSVP: one INSERT IGNORE on the join table; the counter only moves if a row was added
     @Override
+    @Transactional
     public void addUserInterest(Long eventId, Long userId) {
-        Event event = getEventById(eventId);
-        Optional<User> user = userRepository.findById(userId);
-        
-        if (user.isPresent()) {
-            event.getInterestedUsers().add(user.get());
-            eventRepository.save(event);
-        } else {
-            throw new RuntimeException("User not found with id: " + userId);
+        if (!eventRepository.existsById(eventId)) {
+            throw new RuntimeException("Event not found with id: " + eventId);
+        }
+        if (eventRepository.insertInterest(eventId, userId) > 0) {
+            eventRepository.adjustInterestCount(eventId, 1);
+            eventTimeline.onInterestChanged(eventId, 1);
+            // Bulk updates bypass Hibernate's listeners, so tell other nodes explicitly
+            cacheInvalidationBus.publishAfterCommit("Event", eventId);
         }
     }
 
     @Override
+    @Transactional
     public void removeUserInterest(Long eventId, Long userId) {
-        Event event = getEventById(eventId);
-        Optional<User> user = userRepository.findById(userId);
-        
-        if (user.isPresent()) {
-            event.getInterestedUsers().remove(user.get());
-            eventRepository.save(event);
-        } else {
-            throw new RuntimeException("User not found with id: " + userId);
+        if (eventRepository.deleteInterest(eventId, userId) > 0) {
+            eventRepository.adjustInterestCount(eventId, -1);
+            eventTimeline.onInterestChanged(eventId, -1);
+            cacheInvalidationBus.publishAfterCommit("Event", eventId);
         }
     }
 
     @Override
     public boolean isUserInterested(Long eventId, Long userId) {
-        Event event = getEventById(eventId);
-        Optional<User> user = userRepository.findById(userId);
-        
-        if (user.isPresent()) {
-            return event.getInterestedUsers().contains(user.get());
+        return eventRepository.countInterest(eventId, userId) > 0;
+    }
+
+    // Batch lookup for listing pages: which of these events the user is interested in
+    @Override
+    public List<Long> getInterestedEventIds(Long userId, List<Long> eventIds) {
+        if (eventIds == null || eventIds.isEmpty()) {
+            return List.of();
+        }
+        return eventRepository.findInterestedEventIds(userId, eventIds);
+    }
+
+    // Keep the denormalized counters honest with the join table (e.g. after the column is first added)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileInterestCounts() {
+        try {
+            eventRepository.recountInterests();
+        } catch (Exception e) {
+            log.warn("Event interest recount failed: {}", e.getMessage());
         }
-        return false;
     }
 }
@@ -0,0 +1,179 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Event;
+import com.example.demo.repository.EventRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Active upcoming events ordered by event date. Serves the upcoming-events
+ * listing from memory and lets the reminder scheduler pick the events in a
+ * time window with a range lookup instead of a table scan.
+ */
+@Service
+public class EventTimeline {
+
+    private static final Logger log = LoggerFactory.getLogger(EventTimeline.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private final ConcurrentSkipListMap<Key, Event> events = new ConcurrentSkipListMap<>();
+    private final Map<Long, Key> keysById = new ConcurrentHashMap<>();
+    // Guards structural changes; reload() queries while holding it, so not a monitor
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Events edited, deactivated or re-counted on other nodes
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe("Event", (entity, ids) -> ids.forEach(id ->
+                eventRepository.findById(id).ifPresentOrElse(this::onEventSaved, () -> onEventRemoved(id))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+            log.info("Event timeline loaded with {} upcoming events", events.size());
+        } catch (Exception e) {
+            log.warn("Event timeline load failed: {}", e.getMessage());
+        }
+    }
+
+    public void reload() {
+        lock.lock();
+        try {
+            events.clear();
+            keysById.clear();
+            eventRepository.findUpcomingEvents(LocalDateTime.now()).forEach(this::put);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called after an event is created or edited
+    public void onEventSaved(Event event) {
+        AfterCommit.run(() -> {
+            lock.lock();
+            try {
+                removeKey(event.getId());
+                if (event.isActive() && event.getEventDate() != null
+                        && !event.getEventDate().isBefore(LocalDateTime.now())) {
+                    put(event);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Called after an event is deactivated
+    public void onEventRemoved(Long eventId) {
+        AfterCommit.run(() -> {
+            lock.lock();
+            try {
+                removeKey(eventId);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    public void onInterestChanged(Long eventId, int delta) {
+        AfterCommit.run(() -> {
+            Key key = keysById.get(eventId);
+            Event event = key != null ? events.get(key) : null;
+            if (event != null) {
+                synchronized (event) {
+                    event.setInterestCount(Math.max(0, event.getInterestCount() + delta));
+                }
+            }
+        });
+    }
+
+    // Active events on or after the given time, soonest first
+    public List<Event> upcoming(LocalDateTime from) {
+        return new ArrayList<>(events.tailMap(Key.lowest(from), true).values());
+    }
+
+    // Events with fromExclusive < eventDate <= toInclusive
+    public List<Event> between(LocalDateTime fromExclusive, LocalDateTime toInclusive) {
+        if (!toInclusive.isAfter(fromExclusive)) {
+            return List.of();
+        }
+        NavigableMap<Key, Event> range = events.subMap(
+                Key.highest(fromExclusive), false, Key.highest(toInclusive), true);
+        return new ArrayList<>(range.values());
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    // Drop events whose start time has passed
+    @Scheduled(fixedDelayString = "${events.timeline.expiry-interval-ms:60000}")
+    public void expire() {
+        NavigableMap<Key, Event> past = events.headMap(Key.lowest(LocalDateTime.now()), false);
+        lock.lock();
+        try {
+            for (Key key : new ArrayList<>(past.keySet())) {
+                events.remove(key);
+                keysById.remove(key.eventId(), key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Event event) {
+        Key key = new Key(event.getEventDate(), event.getId());
+        events.put(key, event);
+        keysById.put(event.getId(), key);
+    }
+
+    private void removeKey(Long eventId) {
+        Key key = keysById.remove(eventId);
+        if (key != null) {
+            events.remove(key);
+        }
+    }
+
+    // Event date first, id as a tie-breaker so events at the same time can coexist
+    record Key(LocalDateTime eventDate, long eventId) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER =
+                Comparator.comparing(Key::eventDate).thenComparingLong(Key::eventId);
+
+        static Key lowest(LocalDateTime time) {
+            return new Key(time, Long.MIN_VALUE);
+        }
+
+        static Key highest(LocalDateTime time) {
+            return new Key(time, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
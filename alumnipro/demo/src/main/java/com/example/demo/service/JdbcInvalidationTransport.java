@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Database change log: every node appends invalidations to cache_invalidations
+ * and polls the rows above the last id it has seen. Needs nothing beyond the
+ * shared database, so it is the default transport.
+ *
+ * Auto-increment ids can commit out of order, so a poll may see id 12 before
+ * id 11 is visible. Rows above the watermark are delivered as they appear and
+ * remembered; the watermark only moves over contiguous ids, or past a hole that
+ * has stayed open for gap-timeout (a rolled-back insert never fills it).
+ * Rows older than retention are pruned by every node.
+ */
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+
+    private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS cache_invalidations ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "entity VARCHAR(100) NOT NULL, "
+            + "entity_id BIGINT NOT NULL, "
+            + "origin VARCHAR(100) NOT NULL, "
+            + "published_at BIGINT NOT NULL)";
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_invalidations (entity, entity_id, origin, published_at) VALUES (?, ?, ?, ?)";
+    private static final String POLL_SQL = "SELECT id, entity, entity_id, origin, published_at "
+            + "FROM cache_invalidations WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private final long retentionMs;
+
+    // Only touched by the poll thread
+    private final TreeSet<Long> deliveredAboveWatermark = new TreeSet<>();
+    private long watermark;
+    private long gapOpenSince;
+    private long nextPruneAt;
+
+    private volatile Consumer<List<CacheInvalidation>> receiver;
+    private ScheduledExecutorService poller;
+
+    public JdbcInvalidationTransport(JdbcTemplate jdbcTemplate, long pollIntervalMs, int batchSize,
+                                     long gapTimeoutMs, long retentionMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollIntervalMs = Math.max(10, pollIntervalMs);
+        this.batchSize = Math.max(1, batchSize);
+        this.gapTimeoutMs = Math.max(0, gapTimeoutMs);
+        this.retentionMs = Math.max(this.gapTimeoutMs * 2, retentionMs);
+    }
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+
+    @Override
+    public void start(Consumer<List<CacheInvalidation>> receiver) {
+        this.receiver = receiver;
+        jdbcTemplate.execute(CREATE_SQL);
+        // Changes made before this node started are already reflected in what it will load
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidations", Long.class);
+        watermark = max != null ? max : 0;
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(List<CacheInvalidation> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, invalidation) -> {
+            ps.setString(1, invalidation.entity());
+            ps.setLong(2, invalidation.id());
+            ps.setString(3, invalidation.origin());
+            ps.setLong(4, invalidation.publishedAt());
+        });
+    }
+
+    @Override
+    public void stop() {
+        receiver = null;
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+            long now = System.currentTimeMillis();
+            if (now >= nextPruneAt) {
+                nextPruneAt = now + retentionMs / 2;
+                jdbcTemplate.update("DELETE FROM cache_invalidations WHERE published_at < ?", now - retentionMs);
+            }
+        } catch (Exception e) {
+            log.warn("Cache invalidation poll failed: {}", e.getMessage());
+        }
+    }
+
+    // Package-private so tests can drive polling without the scheduler
+    void poll() {
+        List<CacheInvalidation> batch = new ArrayList<>();
+        jdbcTemplate.query(POLL_SQL, rs -> {
+            long id = rs.getLong("id");
+            if (deliveredAboveWatermark.add(id)) {
+                batch.add(new CacheInvalidation(rs.getString("entity"), rs.getLong("entity_id"),
+                        rs.getString("origin"), rs.getLong("published_at")));
+            }
+        }, watermark, batchSize);
+
+        Consumer<List<CacheInvalidation>> target = receiver;
+        if (!batch.isEmpty() && target != null) {
+            target.accept(batch);
+        }
+        advanceWatermark(System.currentTimeMillis());
+    }
+
+    private void advanceWatermark(long now) {
+        while (!deliveredAboveWatermark.isEmpty()) {
+            if (deliveredAboveWatermark.first() == watermark + 1) {
+                deliveredAboveWatermark.pollFirst();
+                watermark++;
+                gapOpenSince = 0;
+                continue;
+            }
+            if (gapOpenSince == 0) {
+                gapOpenSince = now;
+                return;
+            }
+            if (now - gapOpenSince < gapTimeoutMs) {
+                return;
+            }
+            // Hole at watermark + 1 outlived the timeout: give up waiting for it
+            watermark = deliveredAboveWatermark.first() - 1;
+        }
+        gapOpenSince = 0;
+    }
+
+    long watermark() {
+        return watermark;
+    }
+}
@@ -70,4 +70,7 @@ public interface JobPostingService {
     
     // Get job posting with applications
     Optional<JobPosting> getJobPostingWithApplications(Long id);
+    
+    // Get job postings by ids, in the order given
+    List<JobPosting> getJobPostingsByIds(List<Long> ids);
 }
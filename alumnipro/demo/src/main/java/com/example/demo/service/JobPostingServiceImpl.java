@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.config.StageEvent;
 import com.example.demo.model.JobPosting;
 import com.example.demo.model.User;
 import com.example.demo.repository.JobPostingRepository;
@@ -9,7 +10,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -18,6 +23,9 @@ public class JobPostingServiceImpl implements JobPostingService {
     @Autowired
     private JobPostingRepository jobPostingRepository;
     
+    @Autowired
+    private JobRecommendationService jobRecommendationService;
+    
     @Override
     public JobPosting createJobPosting(JobPosting jobPosting, User postedBy) {
         jobPosting.setPostedBy(postedBy);
@@ -82,7 +90,11 @@ public class JobPostingServiceImpl implements JobPostingService {
         }
         
         jobPosting.setUpdatedAt(LocalDateTime.now());
-        return jobPostingRepository.save(jobPosting);
+        JobPosting saved = jobPostingRepository.save(jobPosting);
+        if (saved.getStatus() == JobPosting.JobStatus.APPROVED) {
+            jobRecommendationService.onJobApproved(saved);
+        }
+        return saved;
     }
     
     @Override
@@ -99,6 +111,7 @@ public class JobPostingServiceImpl implements JobPostingService {
         jobPosting.setStatus(JobPosting.JobStatus.REJECTED);
         jobPosting.setUpdatedAt(LocalDateTime.now());
         jobPostingRepository.save(jobPosting);
+        jobRecommendationService.onJobRemoved(id);
     }
     
     @Override
@@ -164,7 +177,9 @@ public class JobPostingServiceImpl implements JobPostingService {
     @Override
     @Transactional(readOnly = true)
     public List<JobPosting> searchJobPostings(String searchTerm) {
-        return jobPostingRepository.searchJobPostings(JobPosting.JobStatus.APPROVED, searchTerm);
+        try (StageEvent stage = StageEvent.start("search.jobs")) {
+            return jobPostingRepository.searchJobPostings(JobPosting.JobStatus.APPROVED, searchTerm);
+        }
     }
     
     @Override
@@ -180,7 +195,9 @@ public class JobPostingServiceImpl implements JobPostingService {
         
         jobPosting.setStatus(JobPosting.JobStatus.APPROVED);
         jobPosting.setUpdatedAt(LocalDateTime.now());
-        return jobPostingRepository.save(jobPosting);
+        JobPosting approved = jobPostingRepository.save(jobPosting);
+        jobRecommendationService.onJobApproved(approved);
+        return approved;
     }
     
     @Override
@@ -190,7 +207,9 @@ public class JobPostingServiceImpl implements JobPostingService {
         
         jobPosting.setStatus(JobPosting.JobStatus.REJECTED);
         jobPosting.setUpdatedAt(LocalDateTime.now());
-        return jobPostingRepository.save(jobPosting);
+        JobPosting rejected = jobPostingRepository.save(jobPosting);
+        jobRecommendationService.onJobRemoved(id);
+        return rejected;
     }
     
     @Override
@@ -225,4 +244,12 @@ public class JobPostingServiceImpl implements JobPostingService {
     public Optional<JobPosting> getJobPostingWithApplications(Long id) {
         return jobPostingRepository.findByIdWithApplications(id);
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<JobPosting> getJobPostingsByIds(List<Long> ids) {
+        Map<Long, JobPosting> byId = jobPostingRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(JobPosting::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
 }
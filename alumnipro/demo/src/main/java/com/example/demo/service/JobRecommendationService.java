@@ -0,0 +1,426 @@
+package com.example.demo.service;
+
+import com.example.demo.model.JobPosting;
+import com.example.demo.model.StudentProfile;
+import com.example.demo.repository.JobPostingRepository;
+import com.example.demo.repository.StudentProfileRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed student -> job recommendations.
+ *
+ * Approved, open job postings are kept as sparse skill vectors; every student's
+ * top-k list is computed with a bounded min-heap, in parallel on a fork-join pool.
+ * Requests are served straight from the precomputed map. The index is fully rebuilt
+ * at startup and weekly, refreshed incrementally every night from postings changed
+ * since the last run, and updated in real time when a posting is approved, edited
+ * or withdrawn.
+ */
+@Service
+public class JobRecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobRecommendationService.class);
+
+    private static final double SKILL_WEIGHT = 0.7;
+    private static final double DEPARTMENT_WEIGHT = 0.2;
+    private static final double LEVEL_WEIGHT = 0.1;
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    @Autowired
+    private JobPostingRepository jobPostingRepository;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${recommendations.top-k:20}")
+    private int topK;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    // Rebuilds query while holding it; a monitor would pin virtual threads waiting to apply updates
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile SkillVectorIndex index = SkillVectorIndex.build(List.of());
+    private final Map<Long, JobVector> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, StudentVector> students = new ConcurrentHashMap<>();
+    private final Map<Long, List<JobRecommendation>> recommendations = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastRefresh;
+
+    // Postings and profiles changed on other nodes
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe("JobPosting", (entity, ids) -> ids.forEach(id ->
+                jobPostingRepository.findById(id).ifPresentOrElse(this::onJobApproved, () -> onJobRemoved(id))));
+        cacheInvalidationBus.subscribe("StudentProfile", (entity, ids) ->
+                studentProfileRepository.findAllById(ids).forEach(this::onStudentProfileChanged));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Initial recommendation build failed: {}", e.getMessage());
+        }
+    }
+
+    // Recommendations for a student profile, served from the precomputed map
+    public List<JobRecommendation> getRecommendations(Long studentProfileId) {
+        return recommendations.getOrDefault(studentProfileId, List.of());
+    }
+
+    // Full rebuild: fresh IDF statistics, all open postings, all students
+    @Scheduled(cron = "${recommendations.full-rebuild-cron:0 30 3 * * SUN}")
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<JobPosting> open = jobPostingRepository.findUpcomingJobPostings(JobPosting.JobStatus.APPROVED, startedAt);
+            SkillVectorIndex fresh = SkillVectorIndex.build(open.stream().map(JobRecommendationService::jobText).toList());
+
+            Map<Long, JobVector> freshJobs = new ConcurrentHashMap<>();
+            for (JobPosting job : open) {
+                freshJobs.put(job.getId(), toJobVector(fresh, job));
+            }
+            Map<Long, StudentVector> freshStudents = new ConcurrentHashMap<>();
+            for (StudentProfile student : studentProfileRepository.findAll()) {
+                freshStudents.put(student.getId(), toStudentVector(fresh, student));
+            }
+
+            index = fresh;
+            jobs.clear();
+            jobs.putAll(freshJobs);
+            students.clear();
+            students.putAll(freshStudents);
+            rescore(students.values());
+            recommendations.keySet().retainAll(students.keySet());
+            lastRefresh = startedAt;
+            log.info("Recommendation index rebuilt: {} jobs, {} students, {} terms",
+                    jobs.size(), students.size(), index.termCount());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Nightly incremental batch: only postings touched since the last run, plus expiries
+    @Scheduled(cron = "${recommendations.nightly-cron:0 0 2 * * *}")
+    public void refreshIncrementally() {
+        writeLock.lock();
+        try {
+            if (lastRefresh == null) {
+                rebuild();
+                return;
+            }
+            LocalDateTime startedAt = LocalDateTime.now();
+            int termsBefore = index.termCount();
+            Set<Long> removed = new HashSet<>();
+            for (JobVector job : List.copyOf(jobs.values())) {
+                if (job.deadline() != null && !job.deadline().isAfter(startedAt)) {
+                    jobs.remove(job.jobId());
+                    removed.add(job.jobId());
+                }
+            }
+            List<JobVector> added = new ArrayList<>();
+            for (JobPosting job : jobPostingRepository.findByUpdatedAtAfter(lastRefresh)) {
+                if (isOpen(job, startedAt)) {
+                    JobVector vector = toJobVector(index, job);
+                    if (jobs.put(job.getId(), vector) != null) {
+                        removed.add(job.getId());
+                    }
+                    added.add(vector);
+                } else if (jobs.remove(job.getId()) != null) {
+                    removed.add(job.getId());
+                }
+            }
+            resolveNewTerms(termsBefore);
+            applyRemovals(removed);
+            offerToAllStudents(added);
+            lastRefresh = startedAt;
+            log.info("Recommendation index refreshed: {} postings added or updated, {} withdrawn or expired",
+                    added.size(), removed.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Real-time update when a posting becomes visible to students or is edited while approved
+    public void onJobApproved(JobPosting job) {
+        AfterCommit.run(() -> {
+            writeLock.lock();
+            try {
+                if (!isOpen(job, LocalDateTime.now())) {
+                    removeJob(job.getId());
+                    return;
+                }
+                int termsBefore = index.termCount();
+                JobVector vector = toJobVector(index, job);
+                resolveNewTerms(termsBefore);
+                if (jobs.put(job.getId(), vector) != null) {
+                    applyRemovals(Set.of(job.getId()));
+                }
+                offerToAllStudents(List.of(vector));
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    // Real-time update when a posting is rejected or withdrawn
+    public void onJobRemoved(Long jobId) {
+        AfterCommit.run(() -> {
+            writeLock.lock();
+            try {
+                removeJob(jobId);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    // Recompute one student's list after their department or skills change
+    public void onStudentProfileChanged(StudentProfile student) {
+        if (student == null || student.getId() == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            writeLock.lock();
+            try {
+                StudentVector vector = toStudentVector(index, student);
+                students.put(student.getId(), vector);
+                rescore(List.of(vector));
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    private void removeJob(Long jobId) {
+        if (jobs.remove(jobId) != null) {
+            applyRemovals(Set.of(jobId));
+        }
+    }
+
+    // Students whose list referenced a removed posting are rescored against the whole index
+    private void applyRemovals(Set<Long> removedJobIds) {
+        if (removedJobIds.isEmpty()) {
+            return;
+        }
+        List<StudentVector> affected = new ArrayList<>();
+        recommendations.forEach((studentId, list) -> {
+            for (JobRecommendation r : list) {
+                if (removedJobIds.contains(r.jobId())) {
+                    StudentVector student = students.get(studentId);
+                    if (student != null) {
+                        affected.add(student);
+                    }
+                    break;
+                }
+            }
+        });
+        rescore(affected);
+    }
+
+    private void rescore(Collection<StudentVector> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        JobVector[] candidates = jobs.values().toArray(new JobVector[0]);
+        StudentVector[] batch = targets.toArray(new StudentVector[0]);
+        pool.invoke(new ScoreTask(batch, 0, batch.length, candidates, null));
+    }
+
+    // Postings brought terms no posting had: students holding some of them are looked up again
+    private void resolveNewTerms(int termsBefore) {
+        if (index.termCount() == termsBefore) {
+            return;
+        }
+        students.replaceAll((studentId, student) -> student.unmatchedTerms() == null ? student
+                : toStudentVector(index, studentId, student.unmatchedTerms(), student.department()));
+    }
+
+    private void offerToAllStudents(List<JobVector> newJobs) {
+        if (newJobs.isEmpty() || students.isEmpty()) {
+            return;
+        }
+        StudentVector[] batch = students.values().toArray(new StudentVector[0]);
+        pool.invoke(new ScoreTask(batch, 0, batch.length, newJobs.toArray(new JobVector[0]), recommendations));
+    }
+
+    /**
+     * Scores a slice of students against candidate postings. With no existing lists
+     * the top-k is computed from scratch; otherwise candidates are merged into the
+     * student's current list.
+     */
+    private class ScoreTask extends RecursiveAction {
+        private final StudentVector[] students;
+        private final int from;
+        private final int to;
+        private final JobVector[] candidates;
+        private final Map<Long, List<JobRecommendation>> existing;
+
+        ScoreTask(StudentVector[] students, int from, int to, JobVector[] candidates,
+                  Map<Long, List<JobRecommendation>> existing) {
+            this.students = students;
+            this.from = from;
+            this.to = to;
+            this.candidates = candidates;
+            this.existing = existing;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    StudentVector student = students[i];
+                    List<JobRecommendation> current = existing != null
+                            ? existing.getOrDefault(student.studentId(), List.of())
+                            : List.of();
+                    recommendations.put(student.studentId(), topK(student, candidates, current));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(students, from, mid, candidates, existing),
+                    new ScoreTask(students, mid, to, candidates, existing));
+        }
+    }
+
+    private List<JobRecommendation> topK(StudentVector student, JobVector[] candidates, List<JobRecommendation> seed) {
+        PriorityQueue<JobRecommendation> heap = new PriorityQueue<>(topK + 1, Comparator.comparingDouble(JobRecommendation::score));
+        Set<Long> candidateIds = new HashSet<>();
+        for (JobVector job : candidates) {
+            candidateIds.add(job.jobId());
+        }
+        for (JobRecommendation r : seed) {
+            // a candidate that is already listed is re-scored below rather than kept with a stale score
+            if (!candidateIds.contains(r.jobId())) {
+                offer(heap, r);
+            }
+        }
+        for (JobVector job : candidates) {
+            double score = score(student, job);
+            if (score > 0) {
+                offer(heap, new JobRecommendation(job.jobId(), score));
+            }
+        }
+        JobRecommendation[] sorted = heap.toArray(new JobRecommendation[0]);
+        Arrays.sort(sorted, Comparator.comparingDouble(JobRecommendation::score).reversed());
+        return List.of(sorted);
+    }
+
+    private void offer(PriorityQueue<JobRecommendation> heap, JobRecommendation candidate) {
+        if (heap.size() < topK) {
+            heap.add(candidate);
+        } else if (candidate.score() > heap.peek().score()) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    static double score(StudentVector student, JobVector job) {
+        double skill = student.skills().isEmpty() || job.skills().isEmpty() ? 0 : student.skills().dot(job.skills());
+        double department = student.department() != null && student.department().equalsIgnoreCase(job.department()) ? 1 : 0;
+        if (skill == 0 && department == 0) {
+            return 0;
+        }
+        return SKILL_WEIGHT * skill + DEPARTMENT_WEIGHT * department + LEVEL_WEIGHT * job.levelFit();
+    }
+
+    private static boolean isOpen(JobPosting job, LocalDateTime now) {
+        return job.getStatus() == JobPosting.JobStatus.APPROVED
+                && job.getApplicationDeadline() != null
+                && job.getApplicationDeadline().isAfter(now);
+    }
+
+    private static String jobText(JobPosting job) {
+        return job.getSkills();
+    }
+
+    private static JobVector toJobVector(SkillVectorIndex index, JobPosting job) {
+        return new JobVector(job.getId(), index.weighted(jobText(job)), normalize(job.getDepartment()),
+                levelFit(job), job.getApplicationDeadline());
+    }
+
+    private static StudentVector toStudentVector(SkillVectorIndex index, StudentProfile student) {
+        return toStudentVector(index, student.getId(), SkillVectorIndex.tokenize(student.getSkills()),
+                normalize(student.getDepartment()));
+    }
+
+    // Terms no posting has yet are kept, so a later posting that brings one can still match
+    private static StudentVector toStudentVector(SkillVectorIndex index, Long studentId, Set<String> terms,
+                                                 String department) {
+        SkillVectorIndex.SparseVector skills = index.binary(terms);
+        return new StudentVector(studentId, skills, department, skills.terms().length < terms.size() ? terms : null);
+    }
+
+    // Students are a good fit for entry-level roles and internships, a partial fit for mid-level ones
+    private static double levelFit(JobPosting job) {
+        if (job.getJobType() == JobPosting.JobType.INTERNSHIP) {
+            return 1.0;
+        }
+        String level = job.getExperienceLevel();
+        if (level == null || level.isBlank()) {
+            return 1.0;
+        }
+        String upper = level.toUpperCase();
+        if (upper.contains("ENTRY") || upper.contains("INTERN") || upper.contains("JUNIOR")) {
+            return 1.0;
+        }
+        if (upper.contains("MID")) {
+            return 0.4;
+        }
+        return 0.0;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase();
+    }
+
+    public Map<String, Object> getIndexStats() {
+        return Map.of(
+                "jobs", jobs.size(),
+                "students", students.size(),
+                "terms", index.termCount(),
+                "lastRefresh", String.valueOf(lastRefresh),
+                "studentsWithRecommendations", recommendations.values().stream().filter(l -> !l.isEmpty()).count());
+    }
+
+    record JobVector(Long jobId, SkillVectorIndex.SparseVector skills, String department, double levelFit,
+                     LocalDateTime deadline) {}
+
+    record StudentVector(Long studentId, SkillVectorIndex.SparseVector skills, String department,
+                         Set<String> unmatchedTerms) {}
+
+    public record JobRecommendation(Long jobId, double score) {}
+
+    // Job ids in recommendation order, handy for loading the postings in one query
+    public static List<Long> jobIds(List<JobRecommendation> list) {
+        return list.stream().map(JobRecommendation::jobId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over alumni profile terms (skills, industry, position).
+ *
+ * Each alumni profile gets a dense ordinal; postings are primitive int arrays of
+ * ordinals. Updating a profile tombstones its old ordinal and appends a new one,
+ * and the index compacts itself once tombstones make up a quarter of it.
+ * Queries accumulate IDF scores into a pooled float array, so a lookup only
+ * touches alumni that share at least one term with the student.
+ */
+public class MentorIndex {
+
+    private static final double RECENCY_WEIGHT = 0.15;
+    private static final int RECENCY_YEARS = 15;
+    private static final int SCRATCH_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+
+    private long[] alumniIds = new long[1024];
+    private float[] lengthNorms = new float[1024];
+    private int[] graduationYears = new int[1024];
+    private boolean[] live = new boolean[1024];
+    private int size;
+    private int liveCount;
+
+    // Pooled rather than per-thread: a virtual thread serves one request and
+    // exits, so a ThreadLocal buffer would be allocated on every query
+    private final BlockingQueue<float[]> scratchPool = new ArrayBlockingQueue<>(SCRATCH_POOL_SIZE);
+
+    // Add or replace an alumni profile
+    public void upsert(long alumniId, String text, Integer graduationYear) {
+        Set<String> terms = SkillVectorIndex.tokenize(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(alumniId);
+            if (terms.isEmpty()) {
+                return;
+            }
+            int ordinal = size++;
+            ensureCapacity(size);
+            alumniIds[ordinal] = alumniId;
+            lengthNorms[ordinal] = (float) (1.0 / Math.sqrt(terms.size()));
+            graduationYears[ordinal] = graduationYear != null ? graduationYear : 0;
+            live[ordinal] = true;
+            liveCount++;
+            ordinalsById.put(alumniId, ordinal);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new IntList()).add(ordinal);
+            }
+            if (size > 1024 && liveCount < size * 3 / 4) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long alumniId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(alumniId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top-n alumni for the query text, skipping excluded alumni ids.
+     * Scores are the IDF mass of shared terms, normalised by profile length,
+     * plus a small boost for recent graduates.
+     */
+    public List<Match> topN(String queryText, Collection<Long> excludedAlumniIds, int n, int currentYear) {
+        Set<String> terms = SkillVectorIndex.tokenize(queryText);
+        if (terms.isEmpty() || n <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            float[] scores = scratchPool.poll();
+            if (scores == null || scores.length < size) {
+                scores = new float[alumniIds.length];
+            }
+            IntList touched = new IntList();
+            for (String term : terms) {
+                IntList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1.0 + (double) liveCount / list.size);
+                int[] ordinals = list.values;
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = ordinals[i];
+                    if (scores[ordinal] == 0f) {
+                        touched.add(ordinal);
+                    }
+                    scores[ordinal] += idf;
+                }
+            }
+
+            PriorityQueue<Match> heap = new PriorityQueue<>(n + 1, Comparator.comparingDouble(Match::score));
+            for (int i = 0; i < touched.size; i++) {
+                int ordinal = touched.values[i];
+                float raw = scores[ordinal];
+                scores[ordinal] = 0f;
+                if (!live[ordinal] || excludedAlumniIds.contains(alumniIds[ordinal])) {
+                    continue;
+                }
+                double score = raw * lengthNorms[ordinal] + RECENCY_WEIGHT * recency(graduationYears[ordinal], currentYear);
+                if (heap.size() < n) {
+                    heap.add(new Match(alumniIds[ordinal], score));
+                } else if (score > heap.peek().score()) {
+                    heap.poll();
+                    heap.add(new Match(alumniIds[ordinal], score));
+                }
+            }
+            // Every touched slot was zeroed above, so the buffer is clean to share
+            scratchPool.offer(scores);
+            List<Match> result = new ArrayList<>(heap);
+            result.sort(Comparator.comparingDouble(Match::score).reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double recency(int graduationYear, int currentYear) {
+        if (graduationYear <= 0 || graduationYear > currentYear) {
+            return 0;
+        }
+        int years = currentYear - graduationYear;
+        return years >= RECENCY_YEARS ? 0 : 1.0 - (double) years / RECENCY_YEARS;
+    }
+
+    private void removeLocked(long alumniId) {
+        Integer ordinal = ordinalsById.remove(alumniId);
+        if (ordinal != null && live[ordinal]) {
+            live[ordinal] = false;
+            liveCount--;
+        }
+    }
+
+    // Drop tombstoned ordinals and renumber the survivors
+    private void compactLocked() {
+        int[] remap = new int[size];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (live[i]) {
+                remap[i] = next;
+                alumniIds[next] = alumniIds[i];
+                lengthNorms[next] = lengthNorms[i];
+                graduationYears[next] = graduationYears[i];
+                live[next] = true;
+                ordinalsById.put(alumniIds[next], next);
+                next++;
+            } else {
+                remap[i] = -1;
+            }
+        }
+        Arrays.fill(live, next, size, false);
+        size = next;
+        postings.values().removeIf(list -> {
+            list.remap(remap);
+            return list.size == 0;
+        });
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= alumniIds.length) {
+            return;
+        }
+        int capacity = Math.max(needed, alumniIds.length * 2);
+        alumniIds = Arrays.copyOf(alumniIds, capacity);
+        lengthNorms = Arrays.copyOf(lengthNorms, capacity);
+        graduationYears = Arrays.copyOf(graduationYears, capacity);
+        live = Arrays.copyOf(live, capacity);
+    }
+
+    public record Match(long alumniId, double score) {}
+
+    // Growable int array used for postings
+    static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void remap(int[] mapping) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = mapping[values[i]];
+                if (mapped >= 0) {
+                    values[next++] = mapped;
+                }
+            }
+            size = next;
+        }
+    }
+}
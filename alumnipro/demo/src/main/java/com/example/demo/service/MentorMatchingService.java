@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AlumniProfile;
+import com.example.demo.model.StudentProfile;
+import com.example.demo.model.User;
+import com.example.demo.repository.AlumniProfileRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked alumni mentor suggestions for students, backed by {@link MentorIndex}.
+ * Alumni already connected to (or requested by) the student are excluded.
+ */
+@Service
+public class MentorMatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MentorMatchingService.class);
+
+    @Autowired
+    private AlumniProfileRepository alumniProfileRepository;
+
+    @Autowired
+    private ConnectionGraphService connectionGraphService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private final MentorIndex index = new MentorIndex();
+
+    // Profiles edited on other nodes, and users whose account status changed there
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe("AlumniProfile", (entity, ids) -> ids.forEach(id ->
+                alumniProfileRepository.findById(id)
+                        .ifPresentOrElse(this::onAlumniProfileChanged, () -> onAlumniProfileRemoved(id))));
+        cacheInvalidationBus.subscribe("User", (entity, ids) -> ids.forEach(id ->
+                alumniProfileRepository.findByUserId(id).ifPresent(this::onAlumniProfileChanged)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            List<AlumniProfile> profiles = alumniProfileRepository.findAll();
+            profiles.forEach(this::onAlumniProfileChanged);
+            log.info("Mentor index loaded with {} alumni", index.size());
+        } catch (Exception e) {
+            log.warn("Mentor index load failed: {}", e.getMessage());
+        }
+    }
+
+    // STUDENT: ranked alumni suggestions
+    public List<Map<String, Object>> suggestMentors(Principal principal, int limit) {
+        User student = userRepository.findByEmail(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (student.getRole() != User.Role.STUDENT || student.getStudentProfile() == null) {
+            throw new RuntimeException("Only students with a profile can get mentor suggestions");
+        }
+
+        StudentProfile profile = student.getStudentProfile();
+        Set<Long> excluded = new HashSet<>();
+        for (long alumniId : connectionGraphService.contactedAlumni(profile.getId())) {
+            excluded.add(alumniId);
+        }
+        List<MentorIndex.Match> matches = index.topN(queryText(profile), excluded, limit, Year.now().getValue());
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, AlumniProfile> profiles = alumniProfileRepository
+                .findAllById(matches.stream().map(MentorIndex.Match::alumniId).toList())
+                .stream()
+                .collect(Collectors.toMap(AlumniProfile::getId, Function.identity()));
+
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+        for (MentorIndex.Match match : matches) {
+            AlumniProfile alumni = profiles.get(match.alumniId());
+            if (alumni == null || alumni.getUser() == null) {
+                continue;
+            }
+            Map<String, Object> suggestion = new LinkedHashMap<>();
+            suggestion.put("alumniProfileId", alumni.getId());
+            suggestion.put("userId", alumni.getUser().getId());
+            suggestion.put("name", alumni.getUser().getName());
+            suggestion.put("currentPosition", alumni.getCurrentPosition());
+            suggestion.put("company", alumni.getCompany());
+            suggestion.put("industry", alumni.getIndustry());
+            suggestion.put("location", alumni.getLocation());
+            suggestion.put("graduationYear", alumni.getGraduationYear());
+            suggestion.put("score", match.score());
+            suggestions.add(suggestion);
+        }
+        return suggestions;
+    }
+
+    // Incremental refresh after an alumni profile is created or edited, once the change commits
+    public void onAlumniProfileChanged(AlumniProfile profile) {
+        if (profile == null || profile.getId() == null) {
+            return;
+        }
+        // Read the profile now, while its session is open; only the index update waits for the commit
+        Long id = profile.getId();
+        User user = profile.getUser();
+        if (user != null && user.getAccountStatus() != User.AccountStatus.ACTIVE) {
+            AfterCommit.run(() -> index.remove(id));
+            return;
+        }
+        String text = profileText(profile);
+        Integer graduationYear = parseYear(profile.getGraduationYear());
+        AfterCommit.run(() -> index.upsert(id, text, graduationYear));
+    }
+
+    public void onAlumniProfileRemoved(Long alumniProfileId) {
+        AfterCommit.run(() -> index.remove(alumniProfileId));
+    }
+
+    static String profileText(AlumniProfile profile) {
+        return String.join(" ",
+                nullToEmpty(profile.getSkills()),
+                nullToEmpty(profile.getIndustry()),
+                nullToEmpty(profile.getCurrentPosition()));
+    }
+
+    // yearOfStudy is left out: alumni profiles have no term it could match, and the
+    // recency boost only shifts every candidate equally whatever the student's year
+    static String queryText(StudentProfile profile) {
+        return String.join(" ", nullToEmpty(profile.getDepartment()), nullToEmpty(profile.getSkills()));
+    }
+
+    private static Integer parseYear(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.config.StageEvent;
 import com.example.demo.model.Message;
 import com.example.demo.model.User;
 import com.example.demo.repository.MessageRepository;
@@ -29,7 +30,9 @@ public class MessageService {
     }
 
     public Message createMessage(Message message) {
-        return messageRepository.save(message);
+        try (StageEvent stage = StageEvent.start("message.save")) {
+            return messageRepository.save(message);
+        }
     }
 
     public List<Message> getMessagesBetweenUsers(Long senderId, Long receiverId) {
@@ -48,7 +51,9 @@ public class MessageService {
         Optional<User> user2 = userRepository.findById(user2Id);
 
         if (user1.isPresent() && user2.isPresent()) {
-            return messageRepository.findConversationBetweenUsers(user1.get(), user2.get());
+            try (StageEvent stage = StageEvent.start("message.conversation")) {
+                return messageRepository.findConversationBetweenUsers(user1.get(), user2.get());
+            }
         } else {
             return List.of();
         }
@@ -65,7 +70,10 @@ public class MessageService {
     }
 
     public List<Message> getConversationsForUser(Long userId) {
-        List<Message> allMessages = getAllMessagesForUser(userId);
+        List<Message> allMessages;
+        try (StageEvent stage = StageEvent.start("message.inbox")) {
+            allMessages = getAllMessagesForUser(userId);
+        }
         
         // Group messages by conversation partner
         return allMessages.stream()
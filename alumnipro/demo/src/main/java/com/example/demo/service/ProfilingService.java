@@ -0,0 +1,213 @@
+package com.example.demo.service;
+
+import com.example.demo.config.StageEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-demand Java Flight Recorder sessions for the admin API. One recording at
+ * a time, using the JDK's low-overhead "default" settings plus every
+ * {@link StageEvent}, bounded by profiling.max-duration and
+ * profiling.max-size-mb. A stopped recording stays available for dumps and
+ * summaries until the next one starts.
+ */
+@Service
+public class ProfilingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingService.class);
+
+    private Recording recording;
+
+    @Value("${profiling.max-duration:PT10M}")
+    private Duration maxDuration;
+
+    @Value("${profiling.max-size-mb:100}")
+    private long maxSizeMb;
+
+    public record StageStats(String stage, long count, double totalMs, double selfMs, double meanMs,
+                             double p95Ms, double maxMs) {
+    }
+
+    public synchronized Map<String, Object> start(Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        close();
+        Duration limit = duration == null || duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0
+                ? maxDuration : duration;
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration("default"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load JFR settings: " + e.getMessage(), e);
+        }
+        started.setName("on-demand");
+        started.enable(StageEvent.NAME).withThreshold(Duration.ZERO);
+        started.setToDisk(true);
+        started.setMaxSize(maxSizeMb * 1024 * 1024);
+        started.setDuration(limit);
+        started.start();
+        recording = started;
+        log.info("Started JFR recording for at most {}", limit);
+        return status();
+    }
+
+    public synchronized Map<String, Object> stop() {
+        if (recording == null) {
+            throw new IllegalStateException("No recording");
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording");
+        }
+        return status();
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("stopTime", recording.getStopTime());
+            status.put("maxDuration", recording.getDuration());
+            status.put("sizeBytes", recording.getSize());
+        }
+        return status;
+    }
+
+    /**
+     * Writes the current recording to a temporary .jfr file; the caller deletes it.
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            throw new IllegalStateException("No recording");
+        }
+        Path file = Files.createTempFile("profile-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    public List<StageStats> summary() throws IOException {
+        Path file = dump();
+        try {
+            return summarize(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Time per stage in a recording, largest total first. Stages nest (a submit
+     * contains its translation and ML call), so self time, the total minus the
+     * nested stages on the same thread, shows where the time actually went.
+     */
+    static List<StageStats> summarize(Path file) throws IOException {
+        Map<Long, List<Span>> byThread = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (!StageEvent.NAME.equals(event.getEventType().getName())) {
+                continue;
+            }
+            long thread = event.getThread() != null ? event.getThread().getJavaThreadId() : -1;
+            byThread.computeIfAbsent(thread, t -> new ArrayList<>()).add(new Span(event.getString("stage"),
+                    event.getStartTime().getEpochSecond() * 1_000_000_000L + event.getStartTime().getNano(),
+                    event.getDuration().toNanos()));
+        }
+
+        Map<String, List<Span>> byStage = new HashMap<>();
+        for (List<Span> spans : byThread.values()) {
+            // Outer spans first when two start together
+            spans.sort(Comparator.comparingLong(Span::start).thenComparing(Comparator.comparingLong(Span::nanos).reversed()));
+            Deque<Span> open = new ArrayDeque<>();
+            for (Span span : spans) {
+                while (!open.isEmpty() && open.peek().end() < span.end()) {
+                    open.pop();
+                }
+                if (!open.isEmpty()) {
+                    open.peek().nested += span.nanos();
+                }
+                open.push(span);
+                byStage.computeIfAbsent(span.stage(), s -> new ArrayList<>()).add(span);
+            }
+        }
+
+        List<StageStats> stats = new ArrayList<>();
+        byStage.forEach((stage, spans) -> {
+            long[] durations = spans.stream().mapToLong(Span::nanos).sorted().toArray();
+            long total = 0;
+            long self = 0;
+            for (Span span : spans) {
+                total += span.nanos();
+                self += Math.max(0, span.nanos() - span.nested);
+            }
+            int p95 = Math.max(0, (int) Math.ceil(durations.length * 0.95) - 1);
+            stats.add(new StageStats(stage, durations.length, millis(total), millis(self),
+                    millis(total / durations.length), millis(durations[p95]), millis(durations[durations.length - 1])));
+        });
+        stats.sort(Comparator.comparingDouble(StageStats::totalMs).reversed());
+        return stats;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static final class Span {
+
+        private final String stage;
+        private final long start;
+        private final long nanos;
+        private long nested;
+
+        private Span(String stage, long start, long nanos) {
+            this.stage = stage;
+            this.start = start;
+            this.nanos = nanos;
+        }
+
+        String stage() {
+            return stage;
+        }
+
+        long start() {
+            return start;
+        }
+
+        long nanos() {
+            return nanos;
+        }
+
+        long end() {
+            return start + nanos;
+        }
+    }
+}
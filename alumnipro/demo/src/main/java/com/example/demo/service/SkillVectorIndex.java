@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sparse, L2-normalised skill vectors keyed by integer term ids.
+ * IDF weights are frozen when the index is (re)built; terms seen afterwards
+ * get the weight of a term that occurs in a single document. Only postings
+ * add terms: student profiles are looked up against the terms postings use.
+ */
+public class SkillVectorIndex {
+
+    private final Map<String, Integer> termIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTermId = new AtomicInteger();
+    private final Map<Integer, Float> idf = new ConcurrentHashMap<>();
+    private final float unseenIdf;
+
+    private SkillVectorIndex(int documentCount) {
+        this.unseenIdf = (float) (Math.log(1.0 + documentCount) + 1.0);
+    }
+
+    // Build an index whose IDF statistics come from the given skill strings
+    public static SkillVectorIndex build(Collection<String> documents) {
+        SkillVectorIndex index = new SkillVectorIndex(documents.size());
+        Map<Integer, Integer> docFreq = new HashMap<>();
+        for (String doc : documents) {
+            for (String term : tokenize(doc)) {
+                docFreq.merge(index.termId(term), 1, Integer::sum);
+            }
+        }
+        int n = documents.size();
+        docFreq.forEach((term, df) -> index.idf.put(term, (float) (Math.log((1.0 + n) / (1.0 + df)) + 1.0)));
+        return index;
+    }
+
+    // Lower-cased skill terms, keeping symbols used by tech names (c++, c#, node.js)
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^a-z0-9+#.]+")) {
+            String term = raw;
+            while (term.endsWith(".")) {
+                term = term.substring(0, term.length() - 1);
+            }
+            while (term.startsWith(".")) {
+                term = term.substring(1);
+            }
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // IDF-weighted vector, used for job postings; their terms get ids here
+    public SparseVector weighted(String text) {
+        Set<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return SparseVector.EMPTY;
+        }
+        int[] ids = new int[terms.size()];
+        int i = 0;
+        for (String term : terms) {
+            ids[i++] = termId(term);
+        }
+        Arrays.sort(ids);
+        float[] weights = new float[ids.length];
+        for (int j = 0; j < ids.length; j++) {
+            weights[j] = idf.getOrDefault(ids[j], unseenIdf);
+        }
+        return normalised(ids, weights, 0);
+    }
+
+    // Binary vector, used for student profiles
+    public SparseVector binary(String text) {
+        return binary(tokenize(text));
+    }
+
+    /**
+     * Binary vector over already tokenized terms. Terms no posting has are only
+     * looked up, never given an id, so students cannot grow the index; they
+     * still count towards the norm, which keeps scores as if they were there.
+     */
+    public SparseVector binary(Set<String> terms) {
+        if (terms.isEmpty()) {
+            return SparseVector.EMPTY;
+        }
+        int[] ids = new int[terms.size()];
+        int known = 0;
+        for (String term : terms) {
+            Integer id = termIds.get(term);
+            if (id != null) {
+                ids[known++] = id;
+            }
+        }
+        if (known == 0) {
+            return SparseVector.EMPTY;
+        }
+        ids = Arrays.copyOf(ids, known);
+        Arrays.sort(ids);
+        float[] weights = new float[known];
+        Arrays.fill(weights, 1f);
+        return normalised(ids, weights, terms.size() - known);
+    }
+
+    // Scales the weights to unit length, counting extraNorm more squared weight for terms left out
+    private static SparseVector normalised(int[] ids, float[] weights, double extraNorm) {
+        double norm = extraNorm;
+        for (float w : weights) {
+            norm += (double) w * w;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int j = 0; j < weights.length; j++) {
+            weights[j] *= inv;
+        }
+        return new SparseVector(ids, weights);
+    }
+
+    private int termId(String term) {
+        return termIds.computeIfAbsent(term, t -> nextTermId.getAndIncrement());
+    }
+
+    public int termCount() {
+        return termIds.size();
+    }
+
+    public record SparseVector(int[] terms, float[] weights) {
+
+        public static final SparseVector EMPTY = new SparseVector(new int[0], new float[0]);
+
+        public boolean isEmpty() {
+            return terms.length == 0;
+        }
+
+        // Cosine similarity of two normalised vectors: merge-join over sorted term ids
+        public double dot(SparseVector other) {
+            int[] a = terms;
+            int[] b = other.terms;
+            int i = 0;
+            int j = 0;
+            double sum = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] == b[j]) {
+                    sum += weights[i++] * other.weights[j++];
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return sum;
+        }
+    }
+}
@@ -14,6 +14,9 @@ public class StudentProfileService {
     @Autowired
     private StudentProfileRepository studentProfileRepository;
 
+    @Autowired
+    private JobRecommendationService jobRecommendationService;
+
     public List<StudentProfile> getAllProfiles() {
         return studentProfileRepository.findAll();
     }
@@ -23,7 +26,9 @@ public class StudentProfileService {
     }
 
     public StudentProfile createProfile(StudentProfile profile) {
-        return studentProfileRepository.save(profile);
+        StudentProfile saved = studentProfileRepository.save(profile);
+        jobRecommendationService.onStudentProfileChanged(saved);
+        return saved;
     }
 
     public StudentProfile updateProfile(Long id, StudentProfile updatedProfile) {
@@ -31,7 +36,10 @@ public class StudentProfileService {
             existing.setDepartment(updatedProfile.getDepartment());
             existing.setYearOfStudy(updatedProfile.getYearOfStudy());
             existing.setRegistrationNumber(updatedProfile.getRegistrationNumber());
-            return studentProfileRepository.save(existing);
+            existing.setSkills(updatedProfile.getSkills());
+            StudentProfile saved = studentProfileRepository.save(existing);
+            jobRecommendationService.onStudentProfileChanged(saved);
+            return saved;
         }).orElse(null);
     }
 
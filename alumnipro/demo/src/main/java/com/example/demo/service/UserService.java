@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.config.StageEvent;
 import com.example.demo.model.AlumniProfile;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
@@ -12,9 +13,14 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final JobRecommendationService jobRecommendationService;
+    private final MentorMatchingService mentorMatchingService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, JobRecommendationService jobRecommendationService,
+                       MentorMatchingService mentorMatchingService) {
         this.userRepository = userRepository;
+        this.jobRecommendationService = jobRecommendationService;
+        this.mentorMatchingService = mentorMatchingService;
     }
 
     public User createUser(User user) {
@@ -66,7 +72,10 @@ public class UserService {
                 existingUser.setAlumniProfile(newProfile);
             }
 
-            return userRepository.save(existingUser);
+            User saved = userRepository.save(existingUser);
+            jobRecommendationService.onStudentProfileChanged(saved.getStudentProfile());
+            mentorMatchingService.onAlumniProfileChanged(saved.getAlumniProfile());
+            return saved;
         });
     }
 
@@ -95,13 +104,15 @@ public class UserService {
     }
 
     public List<User> searchUsers(String query) {
-        return userRepository.findAll().stream()
-                .filter(user -> user.getAccountStatus() == User.AccountStatus.ACTIVE)
-                .filter(user -> 
-                    user.getName().toLowerCase().contains(query.toLowerCase()) ||
-                    user.getEmail().toLowerCase().contains(query.toLowerCase())
-                )
-                .toList();
+        try (StageEvent stage = StageEvent.start("search.users")) {
+            return userRepository.findAll().stream()
+                    .filter(user -> user.getAccountStatus() == User.AccountStatus.ACTIVE)
+                    .filter(user ->
+                        user.getName().toLowerCase().contains(query.toLowerCase()) ||
+                        user.getEmail().toLowerCase().contains(query.toLowerCase())
+                    )
+                    .toList();
+        }
     }
 
     public List<User> getAllActiveUsers() {
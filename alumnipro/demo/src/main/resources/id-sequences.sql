@@ -0,0 +1,27 @@
+-- Keeps the table-backed id sequences ahead of existing rows.
+-- Hibernate's pooled optimizer treats next_val as the top of the next block of
+-- 50 ids, so MAX(id) + 50 makes the next block start just above MAX(id). Rows
+-- inserted by hand while the app was down are picked up on the next start.
+CREATE TABLE IF NOT EXISTS id_sequences (
+  seq_name VARCHAR(255) NOT NULL PRIMARY KEY,
+  next_val BIGINT
+);
+
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 50 FROM users
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'alumni_profiles', COALESCE(MAX(id), 0) + 50 FROM alumni_profiles
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'student_profiles', COALESCE(MAX(id), 0) + 50 FROM student_profiles
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'job_postings', COALESCE(MAX(id), 0) + 50 FROM job_postings
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'applications', COALESCE(MAX(id), 0) + 50 FROM applications
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'connections', COALESCE(MAX(id), 0) + 50 FROM connections
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'messages', COALESCE(MAX(id), 0) + 50 FROM messages
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'events', COALESCE(MAX(id), 0) + 50 FROM events
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'password_reset_tokens', COALESCE(MAX(id), 0) + 50 FROM password_reset_tokens
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
@@ -0,0 +1,154 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.JobPosting;
+import com.example.demo.model.User;
+import com.example.demo.service.AuditChangeListener;
+import com.example.demo.service.AuditWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * What auditing adds to a commit: one transaction that changes the status of N
+ * job postings, measured with and without {@link AuditChangeListener}. Covers
+ * Hibernate's flush, the post-commit listener building each diff and handing it
+ * to {@link AuditWriter}, whose background batches go to an in-memory H2.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.demo.benchmark.AuditFlushBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditFlushBenchmark {
+
+    @Param({"true", "false"})
+    public boolean audited;
+
+    @Param({"1", "50"})
+    public int entitiesPerFlush;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private List<Long> jobIds;
+    private boolean approved;
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @EntityScan(basePackageClasses = JobPosting.class)
+    @Import({AuditWriter.class, AuditChangeListener.class})
+    static class AuditContext {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AuditContext.class)
+                .web(WebApplicationType.NONE)
+                // Arguments, unlike default properties, override application.properties
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:auditbench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--audit.capture.enabled=" + audited,
+                        "--audit.durability=async",
+                        "--audit.journal-file=" + System.getProperty("java.io.tmpdir") + "/audit-bench-journal.ndjson");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        jobIds = new ArrayList<>();
+        inTransaction(em -> {
+            User poster = new User("Benchmark Poster", "bench-poster@example.com", "secret", User.Role.ALUMNI);
+            poster.setCreatedAt(LocalDateTime.now());
+            em.persist(poster);
+            for (int i = 0; i < entitiesPerFlush; i++) {
+                JobPosting job = new JobPosting();
+                job.setTitle("Backend Engineer " + i);
+                job.setCompany("Example Corp");
+                job.setDescription("We are looking for a backend engineer to build and run our services.");
+                job.setJobType(JobPosting.JobType.FULL_TIME);
+                job.setLocation("Bengaluru");
+                job.setSkills("java, spring, mysql, docker");
+                job.setApplicationDeadline(LocalDateTime.now().plusDays(30));
+                job.setPostedBy(poster);
+                em.persist(job);
+                em.flush();
+                jobIds.add(job.getId());
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // The common approve/reject case: two properties change on each posting
+    @Benchmark
+    public void statusChangeCommit() {
+        approved = !approved;
+        JobPosting.JobStatus status = approved ? JobPosting.JobStatus.APPROVED : JobPosting.JobStatus.PENDING;
+        inTransaction(em -> {
+            for (Long id : jobIds) {
+                em.find(JobPosting.class, id).setStatus(status);
+            }
+        });
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditFlushBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.MentorIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-N mentor lookup latency over a synthetic alumni population.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.demo.benchmark.MentorIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MentorIndexBenchmark {
+
+    private static final String[] SKILLS = {
+            "java", "spring", "python", "django", "react", "angular", "node.js", "sql", "mysql", "postgres",
+            "aws", "azure", "gcp", "docker", "kubernetes", "ml", "pytorch", "tensorflow", "pandas", "spark",
+            "c++", "c#", "go", "rust", "kotlin", "android", "ios", "swift", "figma", "excel",
+            "finance", "marketing", "sales", "autocad", "matlab", "vlsi", "embedded", "iot", "networking", "security"
+    };
+    private static final String[] INDUSTRIES = {
+            "software", "finance", "consulting", "manufacturing", "healthcare", "education", "telecom", "retail"
+    };
+    private static final String[] POSITIONS = {
+            "engineer", "developer", "analyst", "manager", "architect", "scientist", "consultant", "designer"
+    };
+
+    @Param({"100000"})
+    public int alumniCount;
+
+    private MentorIndex index;
+    private String[] queries;
+    private Set<Long> excluded;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new MentorIndex();
+        for (int i = 0; i < alumniCount; i++) {
+            StringBuilder text = new StringBuilder();
+            int skillCount = 3 + random.nextInt(6);
+            for (int s = 0; s < skillCount; s++) {
+                text.append(SKILLS[random.nextInt(SKILLS.length)]).append(", ");
+            }
+            text.append(INDUSTRIES[random.nextInt(INDUSTRIES.length)]).append(' ')
+                    .append(POSITIONS[random.nextInt(POSITIONS.length)]);
+            index.upsert(i + 1L, text.toString(), 1995 + random.nextInt(30));
+        }
+
+        queries = new String[256];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = "computer science " + SKILLS[random.nextInt(SKILLS.length)] + ", "
+                    + SKILLS[random.nextInt(SKILLS.length)] + ", " + SKILLS[random.nextInt(SKILLS.length)];
+        }
+        excluded = new HashSet<>();
+        for (int e = 0; e < 20; e++) {
+            excluded.add(1L + random.nextInt(alumniCount));
+        }
+    }
+
+    @Benchmark
+    public List<MentorIndex.Match> topTen() {
+        String query = queries[next++ & (queries.length - 1)];
+        return index.topN(query, excluded, 10, 2025);
+    }
+
+    @Benchmark
+    public void upsertProfile() {
+        long id = 1L + (next++ % alumniCount);
+        index.upsert(id, "java spring aws software engineer", 2020);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MentorIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Many virtual threads against a two-connection H2 pool: never more than two
+ * hold a connection, and callers beyond the queue bound fail fast.
+ */
+class ConcurrencyLimitingDataSourceTest {
+
+    private HikariDataSource pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        pool.setConnectionTimeout(30_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void virtualThreadsShareThePoolWithoutTimingOut() throws Exception {
+        ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource("test", pool, 2,
+                Duration.ofSeconds(30), 1000);
+        AtomicInteger holding = new AtomicInteger();
+        AtomicInteger maxHolding = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection connection = limited.getConnection()) {
+                        maxHolding.accumulateAndGet(holding.incrementAndGet(), Math::max);
+                        connection.createStatement().execute("SELECT 1");
+                        Thread.sleep(2);
+                        holding.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(maxHolding.get()).isLessThanOrEqualTo(2);
+        assertThat(limited.getAvailablePermits()).isEqualTo(2);
+        assertThat(limited.getRejected()).isZero();
+    }
+
+    @Test
+    void failsFastWhenTheQueueIsFull() throws Exception {
+        ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource("test", pool, 2,
+                Duration.ofMillis(100), 0);
+        try (Connection first = limited.getConnection(); Connection second = limited.getConnection()) {
+            assertThat(limited.getAvailablePermits()).isZero();
+            assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(limited.getRejected()).isEqualTo(1);
+        }
+        assertThat(limited.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws Exception {
+        ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource("test", pool, 2,
+                Duration.ofMillis(100), 10);
+        Connection connection = limited.getConnection();
+        assertThat(((ConnectionProxy) connection).getTargetConnection()).isNotSameAs(connection);
+        connection.close();
+        connection.close();
+        assertThat(connection.isClosed()).isTrue();
+        assertThat(limited.getAvailablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Controller and service calls through the aspect land on app.method timers
+ * tagged with the layer, class, method and exception.
+ */
+class MethodTimingAspectTest {
+
+    private SimpleMeterRegistry registry;
+
+    @Service
+    static class MentorshipService {
+
+        public int openSlots(int mentors) {
+            return mentors * 3;
+        }
+
+        public int refuse(int mentors) {
+            throw new IllegalArgumentException("No mentors for " + mentors);
+        }
+    }
+
+    @RestController
+    static class MentorshipController {
+
+        public String slots() {
+            return "3";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void timesServiceCallsByOutcome() {
+        MentorshipService mentorships = proxy(new MentorshipService());
+        assertThat(mentorships.openSlots(2)).isEqualTo(6);
+        assertThat(mentorships.openSlots(3)).isEqualTo(9);
+        assertThatThrownBy(() -> mentorships.refuse(0)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(timer("service", "MentorshipService", "openSlots", "none").count()).isEqualTo(2);
+        assertThat(timer("service", "MentorshipService", "refuse", "IllegalArgumentException").count()).isEqualTo(1);
+        assertThat(registry.find("app.method").tag("method", "refuse").tag("exception", "none").timer()).isNull();
+    }
+
+    @Test
+    void tagsControllersWithTheirLayer() {
+        assertThat(proxy(new MentorshipController()).slots()).isEqualTo("3");
+
+        assertThat(timer("controller", "MentorshipController", "slots", "none").count()).isEqualTo(1);
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MethodTimingAspect(registry));
+        return factory.getProxy();
+    }
+
+    private Timer timer(String layer, String type, String method, String exception) {
+        Timer timer = registry.find("app.method")
+                .tags("layer", layer, "class", type, "method", method, "exception", exception)
+                .timer();
+        assertThat(timer).as("app.method timer for %s.%s/%s", type, method, exception).isNotNull();
+        return timer;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Query-count budgets for tests. Either wrap the code under test:
+ * <pre>
+ *     assertMaxQueries(2, () -> service.listJobs());
+ * </pre>
+ * or check an endpoint through MockMvc (needs sql.tracking.response-header=true):
+ * <pre>
+ *     mockMvc.perform(get("/api/jobs")).andExpect(maxQueries(2));
+ * </pre>
+ * Failures list the statements that ran, most repeated first.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void assertMaxQueries(int max, Executable work) throws Throwable {
+        try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin()) {
+            work.execute();
+            if (scope.getCount() > max) {
+                throw new AssertionError(describe(max, scope));
+            }
+        }
+    }
+
+    public static ResultMatcher maxQueries(int max) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlCountFilter.HEADER);
+            if (header == null) {
+                throw new AssertionError("No " + SqlCountFilter.HEADER + " header; is sql.tracking.response-header on?");
+            }
+            int count = Integer.parseInt(header);
+            if (count > max) {
+                throw new AssertionError(result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                        + " ran " + count + " SQL statements, expected at most " + max);
+            }
+        };
+    }
+
+    private static String describe(int max, SqlStatementTracker.Scope scope) {
+        StringBuilder message = new StringBuilder("Expected at most ").append(max)
+                .append(" SQL statements but ").append(scope.getCount()).append(" ran:");
+        for (SqlStatementTracker.Shape shape : scope.getShapes()) {
+            message.append("\n  ").append(shape.count()).append("x ").append(shape.sql());
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two local H2 instances standing in for a primary and its
+ * replica. Replication is simulated by copying the heartbeat row across.
+ */
+class ReplicaRoutingTest {
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate routed;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primaryDataSource = h2("primary");
+        DriverManagerDataSource replicaDataSource = h2("replica");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate node : new JdbcTemplate[]{primary, replica}) {
+            node.execute("CREATE TABLE node (name VARCHAR(20))");
+            node.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        }
+        primary.update("INSERT INTO node VALUES ('primary')");
+        replica.update("INSERT INTO node VALUES ('replica')");
+
+        // Long interval: the test runs the checks itself
+        monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, 60_000, 2_000);
+        monitor.start();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, monitor);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        routed = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaOnceItHasCaughtUp() {
+        // Nothing replicated yet
+        assertThat(serving(true)).isEqualTo("primary");
+
+        replicateHeartbeat();
+        monitor.check();
+        assertThat(serving(true)).isEqualTo("replica");
+        assertThat(serving(false)).isEqualTo("primary");
+        assertThat(routed.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaFallsBackToPrimary() {
+        replica.update("MERGE INTO replica_heartbeat KEY (id) VALUES (1, ?)", System.currentTimeMillis() - 10_000);
+        monitor.check();
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(serving(true)).isEqualTo("primary");
+
+        replicateHeartbeat();
+        monitor.check();
+        assertThat(serving(true)).isEqualTo("replica");
+
+        replica.execute("DROP TABLE replica_heartbeat");
+        monitor.check();
+        assertThat(serving(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimaryUntilReplicaCatchesUp() throws InterruptedException {
+        replicateHeartbeat();
+        monitor.check();
+
+        authenticate("alice");
+        transaction(false).executeWithoutResult(status -> routed.update("UPDATE node SET name = name"));
+        assertThat(serving(true)).isEqualTo("primary");
+
+        authenticate("bob");
+        assertThat(serving(true)).isEqualTo("replica");
+
+        // Next heartbeat is newer than alice's commit; once it reaches the replica she is back on it
+        Thread.sleep(5);
+        monitor.check();
+        replicateHeartbeat();
+        monitor.check();
+        authenticate("alice");
+        assertThat(serving(true)).isEqualTo("replica");
+    }
+
+    private String serving(boolean readOnly) {
+        return transaction(readOnly).execute(status -> routed.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private void replicateHeartbeat() {
+        Long beat = primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+        replica.update("MERGE INTO replica_heartbeat KEY (id) VALUES (1, ?)", beat);
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_STUDENT"));
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
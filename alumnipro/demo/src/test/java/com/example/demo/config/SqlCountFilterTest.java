@@ -0,0 +1,107 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Message;
+import com.example.demo.model.User;
+import com.example.demo.repository.MessageRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.demo.config.QueryCountAssertions.assertMaxQueries;
+import static com.example.demo.config.QueryCountAssertions.maxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement counting per request and per block, against in-memory H2.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlcount;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "sql.tracking.response-header=true"
+})
+@AutoConfigureMockMvc
+class SqlCountFilterTest {
+
+    private static final int SENDERS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User receiver;
+    private final List<User> senders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        messageRepository.deleteAll();
+        userRepository.deleteAll();
+        senders.clear();
+        receiver = userRepository.save(new User("Receiver", "receiver@example.com", "secret", User.Role.ALUMNI));
+        for (int i = 0; i < SENDERS; i++) {
+            User sender = userRepository.save(new User("Sender " + i, "sender" + i + "@example.com", "secret",
+                    User.Role.STUDENT));
+            senders.add(sender);
+            messageRepository.save(new Message(sender, receiver, "Hello " + i));
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void responseCarriesStatementCount() throws Exception {
+        User sender = senders.get(0);
+        mockMvc.perform(get("/api/messages/conversation/{a}/{b}", sender.getId(), receiver.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlCountFilter.HEADER))
+                // the conversation plus the two participants
+                .andExpect(maxQueries(3));
+    }
+
+    @Test
+    void eagerAssociationsLoadedOneByOneShowAsRepeatedShape() throws Throwable {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin()) {
+            transaction.executeWithoutResult(status -> messageRepository.findAll());
+
+            // one select for the messages, then one per distinct sender and the receiver
+            assertThat(scope.getCount()).isEqualTo(1 + SENDERS + 1);
+            assertThat(scope.getMaxRepeats()).isEqualTo(SENDERS + 1);
+            assertThat(scope.getShapes().get(0).sql()).contains("from users");
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        assertThatThrownBy(() -> assertMaxQueries(2,
+                () -> transaction.executeWithoutResult(status -> messageRepository.findAll())))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining((SENDERS + 1) + "x select");
+    }
+}
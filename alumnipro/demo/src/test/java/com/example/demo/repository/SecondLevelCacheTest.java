@@ -0,0 +1,179 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.JobPosting;
+import com.example.demo.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeated lookups of cached entities are served from the second-level cache.
+ * Each repository call runs in its own transaction (and persistence context),
+ * so a second lookup can only avoid the database through the shared cache.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobPostingRepository jobPostingRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedUserLookupsHitTheCache() {
+        User user = userRepository.save(newUser("cache-user@example.com"));
+        resetCache();
+
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        CacheRegionStatistics region = statistics.getCacheRegionStatistics("users");
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedCredentialLookupsDoNotTouchTheDatabase() {
+        userRepository.save(newUser("cache-login@example.com"));
+        resetCache();
+
+        userRepository.findCredentialsByEmail("cache-login@example.com");
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        userRepository.findCredentialsByEmail("cache-login@example.com");
+        userRepository.findCredentialsByEmail("cache-login@example.com");
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirst);
+    }
+
+    @Test
+    void credentialLookupsSeePasswordChanges() {
+        User user = userRepository.save(newUser("cache-password@example.com"));
+        userRepository.findCredentialsByEmail("cache-password@example.com");
+
+        user.setPassword("changed");
+        userRepository.save(user);
+
+        assertThat(userRepository.findCredentialsByEmail("cache-password@example.com").orElseThrow().password())
+                .isEqualTo("changed");
+    }
+
+    @Test
+    void updatesAreVisibleThroughTheCache() {
+        User user = userRepository.save(newUser("cache-update@example.com"));
+        userRepository.findById(user.getId());
+
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setName("Renamed");
+        userRepository.save(loaded);
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getName()).isEqualTo("Renamed");
+        assertThat(userRepository.findByEmail("cache-update@example.com").orElseThrow().getName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void repeatedJobPostingLookupsHitTheCache() {
+        User poster = userRepository.save(newUser("cache-poster@example.com"));
+        JobPosting job = new JobPosting();
+        job.setTitle("Backend Engineer");
+        job.setCompany("Example Corp");
+        job.setJobType(JobPosting.JobType.FULL_TIME);
+        job.setApplicationDeadline(LocalDateTime.now().plusDays(30));
+        job.setPostedBy(poster);
+        job = jobPostingRepository.save(job);
+        resetCache();
+
+        jobPostingRepository.findById(job.getId());
+        jobPostingRepository.findById(job.getId());
+
+        CacheRegionStatistics region = statistics.getCacheRegionStatistics("job_postings");
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rsvpWritesDoNotClearOtherRegions() {
+        User user = userRepository.save(newUser("cache-rsvp@example.com"));
+        Event event = eventRepository.save(newEvent());
+        resetCache();
+        userRepository.findById(user.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                eventRepository.insertInterest(event.getId(), user.getId()));
+        userRepository.findById(user.getId());
+
+        assertThat(statistics.getCacheRegionStatistics("users").getHitCount()).isEqualTo(1);
+    }
+
+    private void resetCache() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        statistics.clear();
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setName("Cache Test");
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setRole(User.Role.STUDENT);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+
+    private static Event newEvent() {
+        Event event = new Event();
+        event.setTitle("Alumni Meetup");
+        event.setEventType("ALUMNI_MEETUP");
+        event.setEventDate(LocalDateTime.now().plusDays(7));
+        event.setLocation("Main Hall");
+        event.setOrganizer("Alumni Office");
+        event.setCreatedAt(LocalDateTime.now());
+        event.setUpdatedAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.JobPosting;
+import com.example.demo.model.User;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.JobPostingRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Changes to {@code @Audited} entities reach the audit writer once their
+ * transaction commits, as field-level diffs without excluded properties.
+ */
+@DataJpaTest
+@Import(AuditChangeListener.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auditlistener;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class AuditChangeListenerTest {
+
+    @MockitoBean
+    private AuditWriter auditWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobPostingRepository jobPostingRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User poster;
+
+    @BeforeEach
+    void setUp() {
+        poster = userRepository.save(newUser("poster-" + System.nanoTime() + "@example.com"));
+        clearInvocations(auditWriter);
+    }
+
+    @Test
+    void insertsAreAuditedWithoutExcludedProperties() {
+        User user = userRepository.save(newUser("audited-" + System.nanoTime() + "@example.com"));
+
+        AuditEntry entry = single();
+        assertThat(entry.action()).isEqualTo("CREATE");
+        assertThat(entry.entityType()).isEqualTo("USER");
+        assertThat(entry.entityId()).isEqualTo(user.getId());
+        assertThat(entry.oldValue()).isNull();
+        assertThat(entry.newValue()).contains("\"email\":\"" + user.getEmail() + "\"").doesNotContain("password", "secret");
+        assertThat(entry.performedBy()).isEqualTo("SYSTEM");
+    }
+
+    @Test
+    void updatesWriteOnlyTheChangedFields() {
+        JobPosting job = jobPostingRepository.save(newJob());
+        clearInvocations(auditWriter);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            JobPosting loaded = jobPostingRepository.findById(job.getId()).orElseThrow();
+            loaded.setStatus(JobPosting.JobStatus.APPROVED);
+        });
+
+        AuditEntry entry = single();
+        assertThat(entry.action()).isEqualTo("UPDATE");
+        assertThat(entry.entityType()).isEqualTo("JOB_POSTING");
+        // updatedAt is stamped by the entity's @PreUpdate; untouched fields are left out
+        assertThat(entry.oldValue()).startsWith("{\"status\":\"PENDING\",\"updatedAt\":").doesNotContain("title");
+        assertThat(entry.newValue()).startsWith("{\"status\":\"APPROVED\",\"updatedAt\":").doesNotContain("title");
+    }
+
+    @Test
+    void deletesAreAudited() {
+        JobPosting job = jobPostingRepository.save(newJob());
+        clearInvocations(auditWriter);
+
+        jobPostingRepository.deleteById(job.getId());
+
+        AuditEntry entry = single();
+        assertThat(entry.action()).isEqualTo("DELETE");
+        assertThat(entry.entityId()).isEqualTo(job.getId());
+        assertThat(entry.oldValue()).contains("\"title\":\"Backend Engineer\"", "\"postedBy\":" + poster.getId());
+    }
+
+    @Test
+    void rolledBackChangesAreNotAudited() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jobPostingRepository.save(newJob());
+            status.setRollbackOnly();
+        });
+
+        verify(auditWriter, never()).append(any());
+    }
+
+    @Test
+    void unauditedEntitiesAreIgnored() {
+        Event event = new Event();
+        event.setTitle("Meetup");
+        event.setEventType("ALUMNI_MEETUP");
+        event.setEventDate(LocalDateTime.now().plusDays(1));
+        event.setLocation("Main Hall");
+        event.setOrganizer("Alumni Office");
+        event.setCreatedAt(LocalDateTime.now());
+        event.setUpdatedAt(LocalDateTime.now());
+
+        eventRepository.save(event);
+
+        verify(auditWriter, never()).append(any());
+    }
+
+    private AuditEntry single() {
+        ArgumentCaptor<AuditEntry> entries = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(auditWriter, atLeast(0)).append(entries.capture());
+        List<AuditEntry> captured = entries.getAllValues();
+        assertThat(captured).hasSize(1);
+        return captured.get(0);
+    }
+
+    private JobPosting newJob() {
+        JobPosting job = new JobPosting();
+        job.setTitle("Backend Engineer");
+        job.setCompany("Example Corp");
+        job.setJobType(JobPosting.JobType.FULL_TIME);
+        job.setApplicationDeadline(LocalDateTime.now().plusDays(30));
+        job.setPostedBy(poster);
+        return job;
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setName("Audit Test");
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setRole(User.Role.ALUMNI);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AuditLogPage;
+import com.example.demo.model.AuditLog;
+import com.example.demo.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Audit pages continue from the live table into the monthly archives, and
+ * date-range pages follow (timestamp, id) order without skipping or repeating
+ * rows that share a timestamp.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auditpages;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class AuditLogServiceTest {
+
+    private static final String ARCHIVE = "audit_logs_archive_202401";
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2024, 1, 10, 9, 0);
+    private static final LocalDateTime JULY = LocalDateTime.of(2024, 7, 10, 9, 0);
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AuditLogService auditLogService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM audit_logs");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + ARCHIVE);
+        jdbcTemplate.execute("CREATE TABLE " + ARCHIVE + " (id BIGINT PRIMARY KEY, action VARCHAR(255), "
+                + "entity_type VARCHAR(255), entity_id BIGINT, old_value VARCHAR(255), new_value VARCHAR(255), "
+                + "performed_by VARCHAR(255), timestamp TIMESTAMP)");
+        // H2 has no information_schema lookup by DATABASE(), so name the archive directly
+        AuditArchiveService archive = spy(new AuditArchiveService(jdbcTemplate, transactionManager, new ObjectMapper()));
+        doReturn(List.of(ARCHIVE)).when(archive).listArchiveTables();
+        auditLogService = new AuditLogService(auditLogRepository, mock(AuditWriter.class), archive);
+    }
+
+    @Test
+    void entityPagesContinueIntoTheArchive() {
+        insert("audit_logs", 103, "User", 7L, "admin", JULY.plusHours(3));
+        insert("audit_logs", 102, "User", 8L, "admin", JULY.plusHours(2));
+        insert("audit_logs", 101, "User", 7L, "admin", JULY.plusHours(1));
+        insert(ARCHIVE, 12, "User", 7L, "admin", JANUARY.plusHours(2));
+        insert(ARCHIVE, 11, "User", 8L, "admin", JANUARY.plusHours(1));
+        insert(ARCHIVE, 10, "User", 7L, "admin", JANUARY);
+
+        List<Long> ids = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            AuditLogPage page = auditLogService.getAuditLogsByEntity("User", 7L, cursor, 2);
+            page.getItems().forEach(item -> ids.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(ids).containsExactly(103L, 101L, 12L, 10L);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void userPagesReachArchivedHistory() {
+        insert("audit_logs", 201, "Event", 1L, "alice", JULY);
+        insert(ARCHIVE, 21, "Event", 2L, "alice", JANUARY);
+        insert(ARCHIVE, 20, "Event", 3L, "bob", JANUARY);
+
+        AuditLogPage page = auditLogService.getAuditLogsByUser("alice", null, 10);
+
+        assertThat(page.getItems()).extracting(AuditLog::getId).containsExactly(201L, 21L);
+        assertThat(page.getItems().get(1).getTimestamp()).isEqualTo(JANUARY);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void dateRangePagesFollowTimestampThenId() {
+        // Ids do not follow timestamps, and several rows share one
+        insert("audit_logs", 305, "User", 1L, "admin", JULY);
+        insert("audit_logs", 304, "User", 1L, "admin", JULY.plusHours(1));
+        insert("audit_logs", 303, "User", 1L, "admin", JULY);
+        insert("audit_logs", 302, "User", 1L, "admin", JULY);
+        insert("audit_logs", 301, "User", 1L, "admin", JULY.plusDays(30));
+        insert(ARCHIVE, 31, "User", 1L, "admin", JANUARY);
+        insert(ARCHIVE, 30, "User", 1L, "admin", JANUARY.plusHours(1));
+
+        List<Long> ids = new ArrayList<>();
+        Long cursor = null;
+        LocalDateTime cursorTimestamp = null;
+        do {
+            AuditLogPage page = auditLogService.getAuditLogsByDateRange(
+                    JANUARY.minusDays(1), JULY.plusDays(1), cursor, cursorTimestamp, 2);
+            page.getItems().forEach(item -> ids.add(item.getId()));
+            cursor = page.getNextCursor();
+            cursorTimestamp = page.getNextCursorTimestamp();
+        } while (cursor != null);
+
+        assertThat(ids).containsExactly(304L, 305L, 303L, 302L, 30L, 31L);
+    }
+
+    private void insert(String table, long id, String entityType, Long entityId, String performedBy, LocalDateTime at) {
+        jdbcTemplate.update("INSERT INTO " + table + " (id, action, entity_type, entity_id, old_value, new_value, "
+                        + "performed_by, timestamp) VALUES (?, 'UPDATE', ?, ?, NULL, NULL, ?, ?)",
+                id, entityType, entityId, performedBy, Timestamp.valueOf(at));
+    }
+}
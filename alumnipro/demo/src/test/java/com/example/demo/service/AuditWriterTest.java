@@ -0,0 +1,157 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The writer batches buffered entries, falls back to a synchronous insert when
+ * its buffer is full, and replays journaled entries after a crash.
+ */
+class AuditWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bufferedEntriesAreInsertedInFullBatches() {
+        Database database = new Database();
+        AuditWriter writer = writer(database, "async", 64, 3, 10_000);
+        writer.start();
+
+        for (int i = 0; i < 7; i++) {
+            writer.append(entry(i));
+        }
+        waitUntil(() -> database.rows.size() == 6);
+        assertThat(database.batchSizes).containsExactly(3, 3);
+
+        // The partial batch is flushed on shutdown
+        writer.stop();
+        assertThat(database.batchSizes).containsExactly(3, 3, 1);
+        assertThat(database.rows).extracting(AuditEntry::entityId).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(writer.getStats()).containsEntry("written", 7L).containsEntry("syncFallbacks", 0L);
+    }
+
+    @Test
+    void aFullBufferFallsBackToASynchronousInsert() {
+        Database database = new Database();
+        // Not started, so nothing drains the four-slot buffer
+        AuditWriter writer = writer(database, "async", 4, 10, 10_000);
+
+        for (int i = 1; i <= 5; i++) {
+            writer.append(entry(i));
+        }
+
+        assertThat(database.rows).extracting(AuditEntry::entityId).containsExactly(5L);
+        assertThat(writer.getStats()).containsEntry("buffered", 4).containsEntry("syncFallbacks", 1L);
+
+        writer.start();
+        writer.stop();
+        assertThat(database.rows).extracting(AuditEntry::entityId).containsExactly(5L, 1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void journaledEntriesAreReplayedAfterACrash() throws Exception {
+        Database down = new Database();
+        down.available = false;
+        AuditWriter crashed = writer(down, "async_fsync", 64, 2, 10_000);
+        crashed.start();
+        for (int i = 0; i < 5; i++) {
+            crashed.append(entry(i));
+        }
+        // The database never accepted a batch, so everything waits in the journal
+        waitUntil(() -> ((Number) crashed.getStats().get("spilled")).longValue() == 4);
+        crashed.stop();
+        assertThat(down.rows).isEmpty();
+        assertThat(Files.readAllLines(dir.resolve("journal.ndjson"))).hasSize(5);
+
+        Database up = new Database();
+        AuditWriter restarted = writer(up, "async_fsync", 64, 2, 10_000);
+        restarted.start();
+        waitUntil(() -> up.rows.size() == 5);
+        restarted.stop();
+
+        assertThat(up.rows).extracting(AuditEntry::entityId).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(restarted.getStats()).containsEntry("replayed", 5L).containsEntry("journalBacklog", false);
+        assertThat(dir.resolve("journal.ndjson")).doesNotExist();
+    }
+
+    @Test
+    void aSyncWriterStillReplaysALeftoverJournal() throws Exception {
+        // A batch fsynced to the journal whose insert never committed before the process died
+        List<String> lines = new ArrayList<>();
+        lines.add(objectMapper.writeValueAsString(entry(41)));
+        lines.add(objectMapper.writeValueAsString(entry(42)));
+        Files.write(dir.resolve("journal.ndjson"), lines);
+
+        Database database = new Database();
+        AuditWriter writer = writer(database, "sync", 64, 10, 10_000);
+        writer.start();
+        waitUntil(() -> database.rows.size() == 2);
+        writer.stop();
+
+        assertThat(database.rows).extracting(AuditEntry::entityId).containsExactly(41L, 42L);
+        assertThat(dir.resolve("journal.ndjson")).doesNotExist();
+    }
+
+    private AuditWriter writer(Database database, String durability, int capacity, int batchSize, long maxLatencyMs) {
+        return new AuditWriter(database.jdbcTemplate, objectMapper, durability, capacity, batchSize, maxLatencyMs,
+                dir.resolve("journal.ndjson").toString());
+    }
+
+    private static AuditEntry entry(long entityId) {
+        return AuditEntry.of("UPDATE", "User", entityId, "{}", "{\"name\":\"n" + entityId + "\"}", "admin@example.com");
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    // Records what AuditWriter inserts, or fails every batch while unavailable
+    private static class Database {
+        final List<AuditEntry> rows = new CopyOnWriteArrayList<>();
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        volatile boolean available = true;
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+        @SuppressWarnings("unchecked")
+        Database() {
+            when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                if (!available) {
+                    throw new DataAccessResourceFailureException("database down");
+                }
+                Collection<AuditEntry> batch = invocation.getArgument(1);
+                rows.addAll(batch);
+                batchSizes.add(batch.size());
+                return new int[0][];
+            });
+        }
+    }
+}
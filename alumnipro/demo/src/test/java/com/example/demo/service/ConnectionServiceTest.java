@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AlumniProfile;
+import com.example.demo.model.Connection;
+import com.example.demo.model.StudentProfile;
+import com.example.demo.model.User;
+import com.example.demo.repository.ConnectionRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Duplicate requests are refused from the connections table, whatever this
+ * node's connection graph has or has not seen, and the graph keeps a pair as
+ * every row the table still has for it says.
+ */
+class ConnectionServiceTest {
+
+    private final ConnectionRepository connectionRepository = mock(ConnectionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ConnectionGraphService graphService = new ConnectionGraphService();
+    private final ConnectionService connectionService = new ConnectionService();
+    private final Principal principal = () -> "student@example.com";
+
+    private StudentProfile studentProfile;
+    private AlumniProfile alumniProfile;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(graphService, "connectionRepository", connectionRepository);
+        ReflectionTestUtils.setField(connectionService, "connectionRepository", connectionRepository);
+        ReflectionTestUtils.setField(connectionService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(connectionService, "connectionGraphService", graphService);
+
+        studentProfile = new StudentProfile();
+        studentProfile.setId(1L);
+        User student = new User();
+        student.setRole(User.Role.STUDENT);
+        student.setStudentProfile(studentProfile);
+        alumniProfile = new AlumniProfile();
+        alumniProfile.setId(2L);
+        User alumni = new User();
+        alumni.setId(20L);
+        alumni.setRole(User.Role.ALUMNI);
+        alumni.setAlumniProfile(alumniProfile);
+        when(userRepository.findByEmail("student@example.com")).thenReturn(Optional.of(student));
+        when(userRepository.findById(20L)).thenReturn(Optional.of(alumni));
+        when(connectionRepository.save(any(Connection.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(connectionRepository.findAllEdges()).thenReturn(List.of());
+        graphService.reload();
+    }
+
+    @Test
+    void aPendingRequestMadeOnAnotherNodeIsRefused() {
+        // This node's graph never heard of it, the table has it
+        when(connectionRepository.existsByStudentIdAndAlumniIdAndStatus(1L, 2L, Connection.Status.PENDING)).thenReturn(true);
+
+        assertThatThrownBy(() -> connectionService.sendConnectionRequest(20L, principal))
+                .hasMessageContaining("already sent");
+        verify(connectionRepository, never()).save(any());
+    }
+
+    @Test
+    void deletingOneOfTwoRowsKeepsThePairContactedAndRefusesARepeat() {
+        Connection rejected = connection(Connection.Status.REJECTED);
+        when(connectionRepository.findStatusesByPair(1L, 2L)).thenReturn(List.of(Connection.Status.REJECTED));
+        graphService.onConnectionSaved(rejected);
+        when(connectionRepository.findStatusesByPair(1L, 2L))
+                .thenReturn(List.of(Connection.Status.REJECTED, Connection.Status.PENDING));
+        Connection pending = connectionService.sendConnectionRequest(20L, principal);
+        assertThat(pending.getStatus()).isEqualTo(Connection.Status.PENDING);
+
+        // The admin deletes the old rejected row; the pending one is still there
+        when(connectionRepository.findById(11L)).thenReturn(Optional.of(rejected));
+        when(connectionRepository.findStatusesByPair(1L, 2L)).thenReturn(List.of(Connection.Status.PENDING));
+        connectionService.deleteConnection(11L);
+        assertThat(graphService.hasContacted(1L, 2L)).isTrue();
+
+        when(connectionRepository.existsByStudentIdAndAlumniIdAndStatus(1L, 2L, Connection.Status.PENDING)).thenReturn(true);
+        assertThatThrownBy(() -> connectionService.sendConnectionRequest(20L, principal))
+                .hasMessageContaining("already sent");
+
+        // Once the last row goes, the pair is free again
+        when(connectionRepository.findById(12L)).thenReturn(Optional.of(connection(Connection.Status.PENDING)));
+        when(connectionRepository.findStatusesByPair(1L, 2L)).thenReturn(List.of());
+        connectionService.deleteConnection(12L);
+        assertThat(graphService.hasContacted(1L, 2L)).isFalse();
+    }
+
+    @Test
+    void anAcceptedRowKeepsTheEdgeWhileAnotherRowForThePairChanges() {
+        Connection accepted = connection(Connection.Status.ACCEPTED);
+        when(connectionRepository.findStatusesByPair(1L, 2L)).thenReturn(List.of(Connection.Status.ACCEPTED));
+        graphService.onConnectionSaved(accepted);
+        assertThat(graphService.getStats().acceptedEdges()).isEqualTo(1);
+
+        // A second row for the pair is rejected, then deleted: the accepted row still links them
+        Connection second = connection(Connection.Status.REJECTED);
+        when(connectionRepository.findStatusesByPair(1L, 2L))
+                .thenReturn(List.of(Connection.Status.ACCEPTED, Connection.Status.REJECTED));
+        graphService.onConnectionSaved(second);
+        assertThat(graphService.getStats().acceptedEdges()).isEqualTo(1);
+        when(connectionRepository.findStatusesByPair(1L, 2L)).thenReturn(List.of(Connection.Status.ACCEPTED));
+        graphService.onConnectionDeleted(second);
+        assertThat(graphService.getStats().acceptedEdges()).isEqualTo(1);
+
+        // Deleting the accepted row while a rejected one remains leaves the pair contacted but unlinked
+        when(connectionRepository.findStatusesByPair(1L, 2L)).thenReturn(List.of(Connection.Status.REJECTED));
+        graphService.onConnectionDeleted(accepted);
+        assertThat(graphService.getStats().acceptedEdges()).isZero();
+        assertThat(graphService.hasContacted(1L, 2L)).isTrue();
+    }
+
+    private Connection connection(Connection.Status status) {
+        Connection connection = new Connection();
+        connection.setStudent(studentProfile);
+        connection.setAlumni(alumniProfile);
+        connection.setStatus(status);
+        return connection;
+    }
+}
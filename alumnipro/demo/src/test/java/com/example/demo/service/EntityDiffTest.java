@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityDiffTest {
+
+    private static final String[] NAMES = {"applications", "company", "postedBy", "status", "title"};
+    private static final boolean[] SKIP = {true, false, false, false, false};
+    private static final boolean[] ENTITY_REF = {false, false, true, false, false};
+    private static final Function<Object, Object> ID_RESOLVER = entity -> ((Owner) entity).id();
+
+    enum Status { PENDING, APPROVED }
+
+    record Owner(long id) {}
+
+    @Test
+    void updatesWriteOnlyChangedDirtyProperties() {
+        Object[] before = {null, "Example Corp", new Owner(7), Status.PENDING, "Backend Engineer"};
+        Object[] after = {null, "Example Corp", new Owner(7), Status.APPROVED, "Backend Engineer"};
+
+        // company is reported dirty but unchanged, so it is left out
+        EntityDiff.Result diff = EntityDiff.diff(NAMES, before, after, new int[]{1, 3}, SKIP, ENTITY_REF, ID_RESOLVER, 255);
+
+        assertThat(diff.oldValue()).isEqualTo("{\"status\":\"PENDING\"}");
+        assertThat(diff.newValue()).isEqualTo("{\"status\":\"APPROVED\"}");
+        assertThat(diff.changedProperties()).isEqualTo(1);
+    }
+
+    @Test
+    void insertsWriteNonNullPropertiesAndAssociationsAsIds() {
+        Object[] state = {"ignored", "Example Corp", new Owner(7), Status.PENDING, null};
+
+        EntityDiff.Result diff = EntityDiff.diff(NAMES, null, state, null, SKIP, ENTITY_REF, ID_RESOLVER, 255);
+
+        assertThat(diff.oldValue()).isNull();
+        assertThat(diff.newValue()).isEqualTo("{\"company\":\"Example Corp\",\"postedBy\":7,\"status\":\"PENDING\"}");
+    }
+
+    @Test
+    void deletesWriteTheLastState() {
+        Object[] state = {null, "Example Corp", null, Status.APPROVED, "Backend Engineer"};
+
+        EntityDiff.Result diff = EntityDiff.diff(NAMES, state, null, null, SKIP, ENTITY_REF, ID_RESOLVER, 255);
+
+        assertThat(diff.oldValue()).isEqualTo("{\"company\":\"Example Corp\",\"status\":\"APPROVED\",\"title\":\"Backend Engineer\"}");
+        assertThat(diff.newValue()).isNull();
+    }
+
+    @Test
+    void anUpdateWithNoRealChangeIsEmpty() {
+        Object[] state = {null, "Example Corp", new Owner(7), Status.PENDING, "Backend Engineer"};
+        Object[] sameOwner = {null, "Example Corp", new Owner(7), Status.PENDING, "Backend Engineer"};
+
+        assertThat(EntityDiff.diff(NAMES, state, sameOwner, null, SKIP, ENTITY_REF, ID_RESOLVER, 255).isEmpty()).isTrue();
+    }
+
+    @Test
+    void valuesAreEscapedAndCut() {
+        Object[] before = {null, "Plain", null, null, "x"};
+        Object[] after = {null, "Quote \" back\\slash\nline", null, null, "y".repeat(200)};
+
+        EntityDiff.Result diff = EntityDiff.diff(NAMES, before, after, null, SKIP, ENTITY_REF, ID_RESOLVER, 255);
+
+        assertThat(diff.newValue()).startsWith("{\"company\":\"Quote \\\" back\\\\slash\\nline\",\"title\":\"yyy");
+        // Each value is capped at 80 characters
+        assertThat(diff.newValue()).contains("y".repeat(80) + "...\"}").doesNotContain("y".repeat(81));
+
+        EntityDiff.Result cut = EntityDiff.diff(NAMES, before, after, null, SKIP, ENTITY_REF, ID_RESOLVER, 40);
+        assertThat(cut.newValue()).hasSize(40).endsWith("...}");
+    }
+}
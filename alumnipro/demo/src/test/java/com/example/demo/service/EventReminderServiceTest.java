@@ -0,0 +1,191 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.User;
+import com.example.demo.repository.EventReminderRepository;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.MessageRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reminders are claimed in the database, so several nodes running the scheduler
+ * send each one once, and a restarted node still sends those that fell due while
+ * it was down.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reminders;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class EventReminderServiceTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventReminderRepository eventReminderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // What every node's timeline holds
+    private final List<Event> upcoming = new ArrayList<>();
+    private String run;
+    private User admin;
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        run = UUID.randomUUID().toString().substring(0, 8);
+        admin = userRepository.save(newUser("admin", User.Role.ADMIN));
+        student = userRepository.save(newUser("student", User.Role.STUDENT));
+    }
+
+    @Test
+    void eachReminderIsSentByOneNode() {
+        Event meetup = interested(newEvent("Alumni Meetup", LocalDateTime.now().plusMinutes(30)));
+        EventReminderService first = node();
+        EventReminderService second = node();
+
+        first.sendDueReminders();
+        second.sendDueReminders();
+        first.sendDueReminders();
+
+        assertThat(messageRepository.findBySenderAndReceiver(admin, student))
+                .singleElement()
+                .satisfies(message -> assertThat(message.getContent()).contains("Alumni Meetup in 1h"));
+        assertThat(eventReminderRepository.findByEventIdIn(List.of(meetup.getId()))).hasSize(1);
+    }
+
+    @Test
+    void aRestartedNodeSendsRemindersDueWhileItWasDown() {
+        // The 1h reminder fell due 20 minutes ago, before this node started
+        interested(newEvent("Career Fair", LocalDateTime.now().plusMinutes(40)));
+
+        node().sendDueReminders();
+
+        assertThat(messageRepository.findBySenderAndReceiver(admin, student)).hasSize(1);
+    }
+
+    @Test
+    void aClaimIsOnlyWonOnce() {
+        LocalDateTime eventDate = LocalDateTime.now().plusHours(2).withNano(0);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Integer won = tx.execute(status -> eventReminderRepository.claim(-1L, "1h", eventDate, LocalDateTime.now()));
+        Integer lost = tx.execute(status -> eventReminderRepository.claim(-1L, "1h", eventDate, LocalDateTime.now()));
+        Integer rescheduled = tx.execute(status ->
+                eventReminderRepository.claim(-1L, "1h", eventDate.plusDays(1), LocalDateTime.now()));
+
+        assertThat(won).isEqualTo(1);
+        assertThat(lost).isZero();
+        assertThat(rescheduled).isEqualTo(1);
+    }
+
+    @Test
+    void editingAnEventKeepsTheInterestCount() {
+        Event event = newEvent("Workshop", LocalDateTime.now().plusDays(3));
+        EventServiceImpl events = new EventServiceImpl();
+        ReflectionTestUtils.setField(events, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(events, "eventTimeline", mock(EventTimeline.class));
+        ReflectionTestUtils.setField(events, "cacheInvalidationBus", mock(CacheInvalidationBus.class));
+        // An RSVP lands after the editor loaded the event
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventRepository.insertInterest(event.getId(), student.getId());
+            eventRepository.adjustInterestCount(event.getId(), 1);
+        });
+
+        event.setTitle("Hands-on Workshop");
+        // As the @Transactional proxy would run it
+        Event saved = new TransactionTemplate(transactionManager).execute(status ->
+                events.updateEvent(event.getId(), event));
+
+        assertThat(saved.getTitle()).isEqualTo("Hands-on Workshop");
+        assertThat(saved.getInterestCount()).isEqualTo(1);
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getInterestCount()).isEqualTo(1);
+    }
+
+    private EventReminderService node() {
+        EventTimeline timeline = mock(EventTimeline.class);
+        when(timeline.between(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(0);
+            LocalDateTime to = invocation.getArgument(1);
+            return upcoming.stream()
+                    .filter(e -> e.getEventDate().isAfter(from) && !e.getEventDate().isAfter(to))
+                    .toList();
+        });
+        EventReminderService service = new EventReminderService();
+        ReflectionTestUtils.setField(service, "eventTimeline", timeline);
+        ReflectionTestUtils.setField(service, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "messageRepository", messageRepository);
+        ReflectionTestUtils.setField(service, "eventReminderRepository", eventReminderRepository);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "senderEmail", admin.getEmail());
+        ReflectionTestUtils.setField(service, "catchUpMs", 3_600_000L);
+        return service;
+    }
+
+    private Event interested(Event event) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                eventRepository.insertInterest(event.getId(), student.getId()));
+        upcoming.add(event);
+        return event;
+    }
+
+    private User newUser(String name, User.Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + run + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+
+    private Event newEvent(String title, LocalDateTime eventDate) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setEventType("ALUMNI_MEETUP");
+        event.setEventDate(eventDate);
+        event.setLocation("Main Hall");
+        event.setOrganizer("Alumni Office");
+        event.setCreatedAt(LocalDateTime.now());
+        event.setUpdatedAt(LocalDateTime.now());
+        return eventRepository.save(event);
+    }
+}
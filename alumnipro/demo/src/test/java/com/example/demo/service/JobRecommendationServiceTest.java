@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.model.JobPosting;
+import com.example.demo.model.StudentProfile;
+import com.example.demo.repository.JobPostingRepository;
+import com.example.demo.repository.StudentProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Precomputed lists follow postings and profiles as they change, without a
+ * full rebuild. Outside a transaction the updates apply immediately.
+ */
+class JobRecommendationServiceTest {
+
+    private final JobPostingRepository jobPostingRepository = mock(JobPostingRepository.class);
+    private final StudentProfileRepository studentProfileRepository = mock(StudentProfileRepository.class);
+    private JobRecommendationService service;
+
+    private JobPosting backend;
+    private JobPosting frontend;
+    private JobPosting data;
+    private StudentProfile student;
+
+    @BeforeEach
+    void setUp() {
+        service = new JobRecommendationService();
+        ReflectionTestUtils.setField(service, "jobPostingRepository", jobPostingRepository);
+        ReflectionTestUtils.setField(service, "studentProfileRepository", studentProfileRepository);
+        ReflectionTestUtils.setField(service, "topK", 2);
+
+        backend = job(1L, "java, spring, sql");
+        frontend = job(2L, "react, node.js, css");
+        data = job(3L, "python, sql, spark");
+        student = new StudentProfile();
+        student.setId(10L);
+        student.setSkills("Java, Spring, SQL");
+        when(jobPostingRepository.findUpcomingJobPostings(eq(JobPosting.JobStatus.APPROVED), any()))
+                .thenReturn(List.of(backend, frontend, data));
+        when(studentProfileRepository.findAll()).thenReturn(List.of(student));
+        service.rebuild();
+    }
+
+    @Test
+    void bestMatchesComeFirstAndListsAreCappedAtTopK() {
+        assertThat(JobRecommendationService.jobIds(service.getRecommendations(10L))).containsExactly(1L, 3L);
+        assertThat(service.getRecommendations(99L)).isEmpty();
+    }
+
+    @Test
+    void editedAndWithdrawnPostingsUpdateTheLists() {
+        frontend.setSkills("java, spring, hibernate");
+        service.onJobApproved(frontend);
+        // Now a closer match than the data posting, which drops out of the top two
+        assertThat(JobRecommendationService.jobIds(service.getRecommendations(10L))).containsExactly(1L, 2L);
+
+        service.onJobRemoved(2L);
+        assertThat(JobRecommendationService.jobIds(service.getRecommendations(10L))).containsExactly(1L, 3L);
+
+        backend.setStatus(JobPosting.JobStatus.REJECTED);
+        service.onJobApproved(backend);
+        assertThat(JobRecommendationService.jobIds(service.getRecommendations(10L))).containsExactly(3L);
+    }
+
+    @Test
+    void aChangedProfileIsRescored() {
+        student.setSkills("React, Node.js");
+        service.onStudentProfileChanged(student);
+
+        assertThat(JobRecommendationService.jobIds(service.getRecommendations(10L))).containsExactly(2L);
+    }
+
+    @Test
+    void aPostingWithASkillNoOtherPostingHadReachesStudentsWhoListIt() {
+        student.setSkills("Rust, Java");
+        service.onStudentProfileChanged(student);
+        assertThat(JobRecommendationService.jobIds(service.getRecommendations(10L))).containsExactly(1L);
+
+        service.onJobApproved(job(4L, "rust, wasm"));
+        assertThat(JobRecommendationService.jobIds(service.getRecommendations(10L))).containsExactly(4L, 1L);
+    }
+
+    private static JobPosting job(Long id, String skills) {
+        JobPosting job = new JobPosting();
+        job.setId(id);
+        job.setSkills(skills);
+        job.setJobType(JobPosting.JobType.FULL_TIME);
+        job.setStatus(JobPosting.JobStatus.APPROVED);
+        job.setApplicationDeadline(LocalDateTime.now().plusDays(30));
+        return job;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MentorIndexTest {
+
+    private static final int YEAR = 2026;
+
+    @Test
+    void alumniSharingMoreAndRarerSkillsRankHigher() {
+        MentorIndex index = new MentorIndex();
+        index.upsert(1, "java spring sql", null);
+        index.upsert(2, "java react css", null);
+        index.upsert(3, "java kotlin sql", null);
+        index.upsert(4, "painting sculpture", null);
+
+        List<MentorIndex.Match> matches = index.topN("Java, Spring, SQL", Set.of(), 10, YEAR);
+
+        assertThat(matches).extracting(MentorIndex.Match::alumniId).containsExactly(1L, 3L, 2L);
+        assertThat(index.topN("Java, Spring, SQL", Set.of(1L), 10, YEAR)).extracting(MentorIndex.Match::alumniId)
+                .containsExactly(3L, 2L);
+        assertThat(index.topN("Java, Spring, SQL", Set.of(), 1, YEAR)).extracting(MentorIndex.Match::alumniId)
+                .containsExactly(1L);
+        assertThat(index.topN("dance", Set.of(), 10, YEAR)).isEmpty();
+    }
+
+    @Test
+    void recentGraduatesGetASmallBoostThatFadesOut() {
+        MentorIndex index = new MentorIndex();
+        index.upsert(1, "python", YEAR - 1);
+        index.upsert(2, "python", YEAR - 10);
+        index.upsert(3, "python", YEAR - 20);
+        index.upsert(4, "python", null);
+        index.upsert(5, "python", YEAR + 2);
+
+        List<MentorIndex.Match> matches = index.topN("python", Set.of(), 10, YEAR);
+
+        assertThat(matches).extracting(MentorIndex.Match::alumniId).startsWith(1L, 2L);
+        double base = score(matches, 3);
+        assertThat(score(matches, 1) - base).isCloseTo(0.15 * (1 - 1.0 / 15), within(1e-6));
+        assertThat(score(matches, 2) - base).isCloseTo(0.15 * (1 - 10.0 / 15), within(1e-6));
+        // No boost beyond 15 years, for an unknown year or for one in the future
+        assertThat(score(matches, 4)).isCloseTo(base, within(1e-6));
+        assertThat(score(matches, 5)).isCloseTo(base, within(1e-6));
+    }
+
+    @Test
+    void longProfilesDoNotWinByListingEverything() {
+        MentorIndex index = new MentorIndex();
+        index.upsert(1, "java", null);
+        index.upsert(2, "java spring docker kubernetes", null);
+
+        List<MentorIndex.Match> matches = index.topN("java", Set.of(), 10, YEAR);
+
+        assertThat(matches).extracting(MentorIndex.Match::alumniId).containsExactly(1L, 2L);
+        // Same shared term, scaled by 1 / sqrt(profile terms)
+        assertThat(score(matches, 2)).isCloseTo(score(matches, 1) / 2, within(1e-6));
+    }
+
+    @Test
+    void updatedAndRemovedProfilesAreReflectedAcrossCompaction() {
+        MentorIndex index = new MentorIndex();
+        for (int i = 0; i < 2000; i++) {
+            index.upsert(i, "skill" + i + " java", null);
+        }
+        for (int i = 0; i < 1000; i++) {
+            index.upsert(i, "skill" + i + " golang", null);
+        }
+        index.remove(1999);
+
+        assertThat(index.size()).isEqualTo(1999);
+        assertThat(index.topN("golang", Set.of(), 2000, YEAR)).hasSize(1000);
+        assertThat(index.topN("java", Set.of(), 2000, YEAR)).hasSize(999)
+                .allMatch(match -> match.alumniId() >= 1000 && match.alumniId() < 1999);
+        assertThat(index.topN("skill5 skill1500", Set.of(), 10, YEAR)).extracting(MentorIndex.Match::alumniId)
+                .containsExactlyInAnyOrder(5L, 1500L);
+    }
+
+    private static double score(List<MentorIndex.Match> matches, long alumniId) {
+        return matches.stream().filter(match -> match.alumniId() == alumniId).findFirst().orElseThrow().score();
+    }
+}
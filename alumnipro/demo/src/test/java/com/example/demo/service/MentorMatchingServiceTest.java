@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AlumniProfile;
+import com.example.demo.model.StudentProfile;
+import com.example.demo.model.User;
+import com.example.demo.repository.AlumniProfileRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Profile changes reach the mentor index only once their transaction
+ * commits, so a rolled-back edit never shows up in suggestions.
+ */
+class MentorMatchingServiceTest {
+
+    private final AlumniProfileRepository alumniProfileRepository = mock(AlumniProfileRepository.class);
+    private final ConnectionGraphService connectionGraphService = mock(ConnectionGraphService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final Principal principal = () -> "student@example.com";
+    private MentorMatchingService service;
+    private AlumniProfile mentor;
+
+    @BeforeEach
+    void setUp() {
+        service = new MentorMatchingService();
+        ReflectionTestUtils.setField(service, "alumniProfileRepository", alumniProfileRepository);
+        ReflectionTestUtils.setField(service, "connectionGraphService", connectionGraphService);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+
+        User student = new User("Student", "student@example.com", "secret", User.Role.STUDENT);
+        StudentProfile profile = new StudentProfile("Computer Science", 3, "CS-21-001", student);
+        profile.setId(10L);
+        profile.setSkills("java, spring");
+        student.setStudentProfile(profile);
+        when(userRepository.findByEmail("student@example.com")).thenReturn(Optional.of(student));
+        when(connectionGraphService.contactedAlumni(10L)).thenReturn(new long[0]);
+
+        mentor = new AlumniProfile("2018", "Backend Engineer", "Example Corp", "Pune", "Software", "java, spring, kafka",
+                null, new User("Mentor", "mentor@example.com", "secret", User.Role.ALUMNI));
+        mentor.setId(1L);
+        when(alumniProfileRepository.findAllById(any())).thenReturn(List.of(mentor));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void aProfileIsIndexedWhenItsTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.onAlumniProfileChanged(mentor);
+        assertThat(service.suggestMentors(principal, 5)).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(service.suggestMentors(principal, 5)).extracting(suggestion -> suggestion.get("alumniProfileId"))
+                .containsExactly(1L);
+    }
+
+    @Test
+    void aRolledBackChangeNeverReachesTheIndex() {
+        service.onAlumniProfileChanged(mentor);
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.onAlumniProfileRemoved(1L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(service.suggestMentors(principal, 5)).extracting(suggestion -> suggestion.get("alumniProfileId"))
+                .containsExactly(1L);
+    }
+
+    // What the transaction manager does at the end of a transaction
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.config.StageEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * A real Flight Recorder session: stage events emitted while it runs are
+ * summarized per stage, with nested stages subtracted from self time.
+ */
+class ProfilingServiceTest {
+
+    private ProfilingService profilingService;
+
+    @BeforeEach
+    void setUp() {
+        profilingService = new ProfilingService();
+        ReflectionTestUtils.setField(profilingService, "maxDuration", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(profilingService, "maxSizeMb", 16L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        profilingService.close();
+    }
+
+    @Test
+    void summarizesNestedStages() throws Exception {
+        profilingService.start(Duration.ofSeconds(30));
+        for (int i = 0; i < 3; i++) {
+            try (StageEvent outer = StageEvent.start("message.inbox")) {
+                Thread.sleep(5);
+                try (StageEvent inner = StageEvent.start("search.users")) {
+                    Thread.sleep(20);
+                }
+            }
+        }
+        profilingService.stop();
+
+        Map<String, ProfilingService.StageStats> stats = profilingService.summary().stream()
+                .collect(Collectors.toMap(ProfilingService.StageStats::stage, Function.identity()));
+        ProfilingService.StageStats outer = stats.get("message.inbox");
+        ProfilingService.StageStats inner = stats.get("search.users");
+        assertThat(outer.count()).isEqualTo(3);
+        assertThat(inner.count()).isEqualTo(3);
+        assertThat(outer.totalMs()).isGreaterThan(inner.totalMs());
+        // The outer stage's own time excludes the nested one
+        assertThat(outer.selfMs()).isLessThan(inner.totalMs());
+        assertThat(outer.selfMs() + inner.selfMs()).isCloseTo(outer.totalMs(), offset(1.0));
+        assertThat(inner.p95Ms()).isGreaterThanOrEqualTo(20.0);
+    }
+
+    @Test
+    void onlyOneRecordingAtATime() throws Exception {
+        assertThat(profilingService.status()).containsEntry("state", "NONE");
+        assertThatThrownBy(profilingService::stop).isInstanceOf(IllegalStateException.class);
+
+        profilingService.start(Duration.ofHours(2));
+        assertThat(profilingService.status()).containsEntry("state", "RUNNING")
+                // capped at profiling.max-duration
+                .containsEntry("maxDuration", Duration.ofMinutes(1));
+        assertThatThrownBy(() -> profilingService.start(null)).isInstanceOf(IllegalStateException.class);
+
+        profilingService.stop();
+        assertThat(profilingService.status()).containsEntry("state", "STOPPED");
+        assertThat(profilingService.summary()).isEmpty();
+    }
+}
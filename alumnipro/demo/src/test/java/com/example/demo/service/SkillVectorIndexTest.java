@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SkillVectorIndexTest {
+
+    private static final List<String> SKILLS = List.of("java", "spring", "c++", "c#", "node.js", "react", "sql",
+            "python", "docker", "kubernetes", "aws", "go");
+
+    @Test
+    void tokenizeKeepsTechNamesAndTrimsDots() {
+        assertThat(SkillVectorIndex.tokenize("C++, C#; Node.js / .NET and React."))
+                .containsExactly("c++", "c#", "node.js", "net", "and", "react");
+        assertThat(SkillVectorIndex.tokenize("...java... spring boot")).containsExactly("java", "spring", "boot");
+        assertThat(SkillVectorIndex.tokenize("Java, java, JAVA")).containsExactly("java");
+        assertThat(SkillVectorIndex.tokenize(" . , ")).isEmpty();
+        assertThat(SkillVectorIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void vectorsAreNormalisedAndRareSkillsWeighMore() {
+        SkillVectorIndex index = SkillVectorIndex.build(List.of("java spring", "java sql", "java react", "rust"));
+
+        SkillVectorIndex.SparseVector job = index.weighted("java rust");
+        assertThat(job.dot(job)).isCloseTo(1.0, within(1e-6));
+        assertThat(index.binary("java rust").dot(index.binary("java rust"))).isCloseTo(1.0, within(1e-6));
+
+        // Rust is in one posting, java in three: sharing rust counts for more
+        SkillVectorIndex.SparseVector javaStudent = index.binary("java");
+        SkillVectorIndex.SparseVector rustStudent = index.binary("rust");
+        assertThat(rustStudent.dot(job)).isGreaterThan(javaStudent.dot(job));
+        assertThat(index.binary("python").dot(job)).isZero();
+        assertThat(SkillVectorIndex.SparseVector.EMPTY.dot(job)).isZero();
+    }
+
+    @Test
+    void studentLookupsAddNoTermsButKeepTheirNorm() {
+        SkillVectorIndex index = SkillVectorIndex.build(List.of("java spring", "java sql"));
+        int terms = index.termCount();
+
+        SkillVectorIndex.SparseVector student = index.binary("java kotlin scala");
+        assertThat(index.termCount()).isEqualTo(terms);
+        assertThat(student.terms()).hasSize(1);
+        // As if kotlin and scala were there with nothing to match
+        assertThat(student.dot(index.weighted("java"))).isCloseTo(1 / Math.sqrt(3), within(1e-6));
+        assertThat(index.binary("kotlin scala").isEmpty()).isTrue();
+
+        index.weighted("kotlin");
+        assertThat(index.termCount()).isEqualTo(terms + 1);
+        assertThat(index.binary("java kotlin scala").terms()).hasSize(2);
+    }
+
+    @Test
+    void dotMatchesABruteForceCosine() {
+        Random random = new Random(7);
+        SkillVectorIndex index = SkillVectorIndex.build(List.of(randomSkills(random), randomSkills(random),
+                randomSkills(random), randomSkills(random), randomSkills(random)));
+        for (int i = 0; i < 500; i++) {
+            SkillVectorIndex.SparseVector a = index.weighted(randomSkills(random));
+            SkillVectorIndex.SparseVector b = random.nextBoolean() ? index.binary(randomSkills(random))
+                    : index.weighted(randomSkills(random));
+            assertThat(a.dot(b)).isCloseTo(bruteForceDot(a, b), within(1e-6));
+            assertThat(b.dot(a)).isCloseTo(a.dot(b), within(1e-6));
+        }
+    }
+
+    private static double bruteForceDot(SkillVectorIndex.SparseVector a, SkillVectorIndex.SparseVector b) {
+        Map<Integer, Float> weights = new HashMap<>();
+        for (int i = 0; i < a.terms().length; i++) {
+            weights.put(a.terms()[i], a.weights()[i]);
+        }
+        double sum = 0;
+        for (int j = 0; j < b.terms().length; j++) {
+            sum += weights.getOrDefault(b.terms()[j], 0f) * b.weights()[j];
+        }
+        return sum;
+    }
+
+    private static String randomSkills(Random random) {
+        StringBuilder skills = new StringBuilder();
+        int count = 1 + random.nextInt(6);
+        for (int i = 0; i < count; i++) {
+            skills.append(SKILLS.get(random.nextInt(SKILLS.size()))).append(", ");
+        }
+        return skills.toString();
+    }
+}
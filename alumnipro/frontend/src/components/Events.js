@@ -37,7 +37,6 @@ const Events = () => {
         role: payload.role
       });
       fetchEvents();
-      fetchUserInterests();
     }
   }, []);
 
@@ -46,26 +45,22 @@ const Events = () => {
       const response = await axios.get('/events');
       setEvents(response.data);
       setLoading(false);
+      fetchUserInterests(response.data);
     } catch (error) {
       console.error('Error fetching events:', error);
       setLoading(false);
     }
   };
 
-  const fetchUserInterests = async () => {
+  const fetchUserInterests = async (eventList) => {
     try {
       const token = localStorage.getItem('token');
-      if (token) {
-        const interests = new Set();
-        for (const event of events) {
-          const response = await axios.get(`/events/${event.id}/interest`, {
-            headers: { Authorization: `Bearer ${token}` }
-          });
-          if (response.data) {
-            interests.add(event.id);
-          }
-        }
-        setUserInterests(interests);
+      if (token && eventList.length > 0) {
+        const response = await axios.get('/events/interests', {
+          params: { eventIds: eventList.map(event => event.id).join(',') },
+          headers: { Authorization: `Bearer ${token}` }
+        });
+        setUserInterests(new Set(response.data));
       }
     } catch (error) {
       console.error('Error fetching user interests:', error);
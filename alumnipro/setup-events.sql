@@ -9,7 +9,8 @@ CREATE TABLE IF NOT EXISTS events (
     organizer VARCHAR(255) NOT NULL,
     created_at DATETIME NOT NULL,
     updated_at DATETIME NOT NULL,
-    is_active BOOLEAN DEFAULT TRUE
+    is_active BOOLEAN DEFAULT TRUE,
+    interest_count INT NOT NULL DEFAULT 0
 );
 
 -- Event interests junction table
@@ -34,3 +35,4 @@ CREATE INDEX idx_events_event_type ON events(event_type);
 CREATE INDEX idx_events_event_date ON events(event_date);
 CREATE INDEX idx_events_is_active ON events(is_active);
 CREATE INDEX idx_events_organizer ON events(organizer);
+CREATE INDEX idx_event_interests_user ON event_interests(user_id);
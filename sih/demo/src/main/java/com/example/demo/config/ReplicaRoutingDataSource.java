@@ -0,0 +1,173 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * Falls back to the primary while {@link ReplicaLagMonitor} reports the replica
+ * as unreachable or too far behind. After a client commits a write, its
+ * read-only transactions stay on the primary until the replica has caught up
+ * past that commit (read-your-writes). Clients are identified by the
+ * authenticated user, or the remote address for anonymous requests such as
+ * registration followed by login.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: transaction managers fetch
+ * the connection before the read-only flag is bound to the thread.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final ReplicaLagMonitor monitor;
+    private final long stickyMaxMs;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    private final AtomicLong primaryRoutes = new AtomicLong();
+    private final AtomicLong writeRoutes = new AtomicLong();
+    private final AtomicLong replicaRoutes = new AtomicLong();
+    private final AtomicLong lagFallbacks = new AtomicLong();
+    private final AtomicLong stickyRoutes = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor) {
+        this.monitor = monitor;
+        // Beyond this a lagging replica is not used at all, so stickiness can end
+        this.stickyMaxMs = monitor.getMaxLagMs() + 2 * monitor.getHeartbeatIntervalMs();
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                String client = currentClient();
+                if (client != null) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            recordWrite(client);
+                        }
+                    });
+                }
+            }
+            writeRoutes.incrementAndGet();
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        if (!monitor.isUsable()) {
+            lagFallbacks.incrementAndGet();
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        if (mustSeeOwnWrites(currentClient())) {
+            stickyRoutes.incrementAndGet();
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        replicaRoutes.incrementAndGet();
+        return REPLICA;
+    }
+
+    // True when the current read-only transaction would be served by the replica
+    public boolean routesToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && monitor.isUsable()
+                && !mustSeeOwnWrites(currentClient());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replica", monitor.getStats());
+        stats.put("primaryRoutes", primaryRoutes.get());
+        stats.put("replicaRoutes", replicaRoutes.get());
+        stats.put("lagFallbacks", lagFallbacks.get());
+        stats.put("readYourWritesRoutes", stickyRoutes.get());
+        stats.put("stickyClients", lastWriteAt.size());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.lag", monitor, m -> m.getLagMs() < 0 ? Double.NaN : m.getLagMs() / 1000.0)
+                .description("Replica lag measured by the heartbeat")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.usable", monitor, m -> m.isUsable() ? 1 : 0)
+                .description("1 while read-only transactions may use the replica")
+                .register(registry);
+        FunctionCounter.builder("datasource.routes", writeRoutes, AtomicLong::get)
+                .description("Connections handed out, by target data source and reason")
+                .tag("target", PRIMARY).tag("reason", "write")
+                .register(registry);
+        FunctionCounter.builder("datasource.routes", replicaRoutes, AtomicLong::get)
+                .tag("target", REPLICA).tag("reason", "read")
+                .register(registry);
+        FunctionCounter.builder("datasource.routes", lagFallbacks, AtomicLong::get)
+                .tag("target", PRIMARY).tag("reason", "replica_lag")
+                .register(registry);
+        FunctionCounter.builder("datasource.routes", stickyRoutes, AtomicLong::get)
+                .tag("target", PRIMARY).tag("reason", "read_your_writes")
+                .register(registry);
+    }
+
+    void recordWrite(String client) {
+        long now = System.currentTimeMillis();
+        lastWriteAt.merge(client, now, Math::max);
+        if (lastWriteAt.size() > SWEEP_THRESHOLD) {
+            lastWriteAt.entrySet().removeIf(entry -> expired(entry.getValue(), now));
+        }
+    }
+
+    private boolean mustSeeOwnWrites(String client) {
+        if (client == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteAt.get(client);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (expired(writtenAt, System.currentTimeMillis())) {
+            lastWriteAt.remove(client, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean expired(long writtenAt, long now) {
+        return monitor.caughtUpTo() >= writtenAt || now - writtenAt > stickyMaxMs;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null
+                && !"anonymousUser".equals(authentication.getName())) {
+            return "user:" + authentication.getName();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            return "addr:" + servlet.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
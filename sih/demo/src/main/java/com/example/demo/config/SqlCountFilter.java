@@ -0,0 +1,124 @@
+package com.example.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Counts the SQL statements each HTTP request runs (see {@link SqlStatementTracker})
+ * and logs requests over sql.tracking.warn-threshold statements, or with one
+ * statement shape repeated sql.tracking.repeat-threshold times (a likely N+1),
+ * together with the offending shapes.
+ *
+ * With sql.tracking.response-header=true (the dev profile) the count is also
+ * returned as X-SQL-Count. The response body is then buffered so that queries
+ * run while it is serialized are included; server-sent event streams are
+ * passed through without the header.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Count";
+
+    private static final int LOGGED_SHAPES = 5;
+
+    @Value("${sql.tracking.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sql.tracking.warn-threshold:30}")
+    private int warnThreshold;
+
+    @Value("${sql.tracking.repeat-threshold:10}")
+    private int repeatThreshold;
+
+    @Value("${sql.tracking.response-header:false}")
+    private boolean responseHeader;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async responses are written on the final dispatch; the buffered body is released there
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ContentCachingResponseWrapper buffered =
+                        WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+                if (buffered != null && !isAsyncStarted(request)) {
+                    buffered.copyBodyToResponse();
+                }
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper buffered = responseHeader && !isEventStream(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        SqlStatementTracker.Scope scope = SqlStatementTracker.begin();
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            scope.close();
+            // An async request continues on another thread; only the part counted here is known
+            if (!isAsyncStarted(request)) {
+                report(request, scope);
+                if (buffered != null) {
+                    buffered.setHeader(HEADER, Integer.toString(scope.getCount()));
+                    buffered.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementTracker.Scope scope) {
+        boolean tooMany = scope.getCount() > warnThreshold;
+        boolean repeated = scope.getMaxRepeats() >= repeatThreshold;
+        if (!tooMany && !repeated) {
+            log.debug("{} {} ran {} SQL statements", request.getMethod(), path(request), scope.getCount());
+            return;
+        }
+        StringBuilder shapes = new StringBuilder();
+        List<SqlStatementTracker.Shape> top = scope.getShapes();
+        for (int i = 0; i < Math.min(LOGGED_SHAPES, top.size()); i++) {
+            shapes.append("\n  ").append(top.get(i).count()).append("x ").append(top.get(i).sql());
+        }
+        log.warn("{} {} ran {} SQL statements ({} distinct){}{}", request.getMethod(), path(request),
+                scope.getCount(), top.size(), repeated ? ", possible N+1" : "", shapes);
+    }
+
+    private static String path(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * {@link Scope} is open, grouped by statement shape. Registered as Hibernate's
+ * statement inspector, so lazy loads during JSON serialization are counted
+ * too. Plain JdbcTemplate calls and work handed to other threads are not.
+ */
+@Component
+public class SqlStatementTracker implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\?(?:,\\s*\\?)+\\)");
+    // The column list says little about the query and would push FROM/WHERE past the cut-off
+    private static final Pattern SELECT_LIST = Pattern.compile("^select .+? from ", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_SHAPE_CHARS = 300;
+    // Bounds memory for requests that run thousands of distinct statements
+    private static final int MAX_SHAPES = 100;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting on this thread. Scopes nest: statements count towards
+     * every open scope, and closing one restores the enclosing scope.
+     */
+    public static Scope begin() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = SELECT_LIST.matcher(shape).replaceFirst("select ... from ");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return shape.length() > MAX_SHAPE_CHARS ? shape.substring(0, MAX_SHAPE_CHARS) + "..." : shape;
+    }
+
+    public record Shape(String sql, int count) {
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            count++;
+            String shape = shape(sql);
+            if (shapes.containsKey(shape) || shapes.size() < MAX_SHAPES) {
+                shapes.merge(shape, 1, Integer::sum);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /** Distinct statement shapes, most executed first. */
+        public List<Shape> getShapes() {
+            List<Shape> result = new ArrayList<>(shapes.size());
+            shapes.forEach((sql, n) -> result.add(new Shape(sql, n)));
+            result.sort((a, b) -> Integer.compare(b.count(), a.count()));
+            return result;
+        }
+
+        /** Executions of the most repeated shape; a high number next to a low total is the N+1 pattern. */
+        public int getMaxRepeats() {
+            int max = 0;
+            for (int n : shapes.values()) {
+                max = Math.max(max, n);
+            }
+            return max;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+    }
+}
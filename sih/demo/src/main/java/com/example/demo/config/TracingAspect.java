@@ -0,0 +1,77 @@
+package com.example.demo.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Child spans for controller, service and repository calls. HTTP server,
+ * WebClient and mail spans come from Micrometer observations; these fill in
+ * the application layers between them. Only calls inside a sampled trace get
+ * a span, so unsampled requests pay one thread-local lookup per call.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    @Around("(execution(public * *(..)) && (@within(org.springframework.stereotype.Service) "
+            + "|| @within(org.springframework.web.bind.annotation.RestController)) "
+            + "&& !execution(* io.micrometer.core.instrument.binder.MeterBinder.bindTo(..))) "
+            + "|| execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span parent = tracer.currentSpan();
+        if (parent == null || !Boolean.TRUE.equals(parent.context().sampled())) {
+            return joinPoint.proceed();
+        }
+        Object target = joinPoint.getTarget();
+        Class<?> repository = repositoryInterface(target);
+        Class<?> type = repository != null ? repository
+                : target != null ? ClassUtils.getUserClass(target) : joinPoint.getSignature().getDeclaringType();
+        String layer = repository != null ? "repository"
+                : AnnotatedElementUtils.hasAnnotation(type, RestController.class) ? "controller" : "service";
+
+        Span span = tracer.nextSpan()
+                .name(type.getSimpleName() + "." + joinPoint.getSignature().getName())
+                .tag("layer", layer)
+                .start();
+        Object result;
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            span.end();
+            throw e;
+        }
+        if (result instanceof Mono<?> mono) {
+            // The work happens after the method returns; the span lasts until the Mono terminates
+            return mono.doOnError(span::error).doFinally(signal -> span.end());
+        }
+        span.end();
+        return result;
+    }
+
+    // Repository beans are JDK proxies; name the span after the application's interface
+    private static Class<?> repositoryInterface(Object target) {
+        if (!(target instanceof Repository<?, ?>)) {
+            return null;
+        }
+        for (Class<?> candidate : target.getClass().getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate) && !candidate.getName().startsWith("org.springframework.")) {
+                return candidate;
+            }
+        }
+        return Repository.class;
+    }
+}
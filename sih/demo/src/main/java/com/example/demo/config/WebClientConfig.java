@@ -3,17 +3,44 @@ package com.example.demo.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+// Clients come from Boot's WebClient.Builder so every call is timed as http.client.requests
 @Configuration
 public class WebClientConfig {
 
     @Bean
-    public WebClient mlWebClient(@Value("${ml.service.base-url:http://localhost:8001}") String baseUrl) {
-        return WebClient.builder()
+    public WebClient mlWebClient(WebClient.Builder builder,
+                                 @Value("${ml.service.base-url:http://localhost:8001}") String baseUrl,
+                                 @Value("${ml.service.max-connections:200}") int maxConnections) {
+        return builder
                 .baseUrl(baseUrl)
+                .clientConnector(connector("ml-service", maxConnections))
                 .build();
     }
-}
 
+    // Shared by the OpenAI, translation and speech-to-text calls (absolute URLs)
+    @Bean
+    public WebClient externalWebClient(WebClient.Builder builder,
+                                       @Value("${external.http.max-connections:200}") int maxConnections) {
+        return builder
+                .clientConnector(connector("external", maxConnections))
+                .build();
+    }
 
+    // Reactor Netty's default pool allows 2x cores connections, which caps concurrent
+    // block() callers long before virtual request threads do
+    private static ReactorClientHttpConnector connector(String name, int maxConnections) {
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofSeconds(10))
+                .metrics(true)
+                .build();
+        return new ReactorClientHttpConnector(HttpClient.create(provider));
+    }
+}
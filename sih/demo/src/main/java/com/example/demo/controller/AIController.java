@@ -3,8 +3,12 @@ package com.example.demo.controller;
 import com.example.demo.services.AICategorizationService;
 import com.example.demo.services.TranslationService;
 import com.example.demo.services.ChatService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -38,6 +42,23 @@ public class AIController {
         return ResponseEntity.ok(Map.of("reply", reply));
     }
 
+    /**
+     * Server-sent events: a "token" event with {"content": ...} for each piece
+     * of the reply as it is generated, then "done", or "error" if the upstream
+     * fails part way through. Clients should send Accept: text/event-stream.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, String>>> chatStream(@RequestBody ChatRequest body) {
+        return chatService.chatStream(body != null && body.messages != null ? body.messages : java.util.List.of())
+                .map(token -> event("token", Map.of("content", token)))
+                .concatWith(Mono.just(event("done", Map.of())))
+                .onErrorResume(e -> Mono.just(event("error", Map.of("message", "The reply was interrupted"))));
+    }
+
+    private static ServerSentEvent<Map<String, String>> event(String name, Map<String, String> data) {
+        return ServerSentEvent.<Map<String, String>>builder().event(name).data(data).build();
+    }
+
     @PostMapping("/suggest")
     public ResponseEntity<Map<String, Object>> suggest(@RequestBody SuggestRequest body) {
         String title = body != null ? body.title : null;
@@ -0,0 +1,98 @@
+package com.example.demo.controller;
+
+import com.example.demo.services.CacheStatsService;
+import com.example.demo.services.ProfilingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    private final CacheStatsService cacheStatsService;
+    private final ProfilingService profilingService;
+
+    // Second-level cache hit ratios per region
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getStats());
+    }
+
+    @DeleteMapping("/cache/{region}")
+    public ResponseEntity<Void> evictCacheRegion(@PathVariable String region) {
+        return cacheStatsService.evictRegion(region)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> evictAllCaches() {
+        cacheStatsService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Flight Recorder: one bounded recording at a time, summarized per application stage
+    @GetMapping("/profiling")
+    public ResponseEntity<Map<String, Object>> getProfilingStatus() {
+        return ResponseEntity.ok(profilingService.status());
+    }
+
+    @PostMapping("/profiling/start")
+    public ResponseEntity<Map<String, Object>> startProfiling(@RequestParam(defaultValue = "300") long seconds) {
+        try {
+            return ResponseEntity.ok(profilingService.start(Duration.ofSeconds(seconds)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/profiling/stop")
+    public ResponseEntity<Map<String, Object>> stopProfiling() {
+        try {
+            return ResponseEntity.ok(profilingService.stop());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/profiling/summary")
+    public ResponseEntity<?> getProfilingSummary() throws IOException {
+        try {
+            return ResponseEntity.ok(profilingService.summary());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Open with JDK Mission Control or `jfr print`
+    @GetMapping(value = "/profiling/dump", produces = "application/octet-stream")
+    public ResponseEntity<StreamingResponseBody> dumpProfiling() throws IOException {
+        Path file;
+        try {
+            file = profilingService.dump();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"profile.jfr\"")
+                .body(body);
+    }
+}
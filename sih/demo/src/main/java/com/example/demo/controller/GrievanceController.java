@@ -3,14 +3,17 @@ package com.example.demo.controller;
 import com.example.demo.model.Grievance;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.services.BulkGrievanceService;
 import com.example.demo.services.GrievanceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -28,6 +31,7 @@ import java.time.format.DateTimeFormatter;
 public class GrievanceController {
     
     private final GrievanceService grievanceService;
+    private final BulkGrievanceService bulkGrievanceService;
     private final UserRepository userRepository;
     private final com.example.demo.services.SpeechToTextService speechToTextService;
     
@@ -181,6 +185,7 @@ public class GrievanceController {
     public ResponseEntity<Grievance> updateGrievanceStatus(@PathVariable Long grievanceId,
                                                          @RequestParam Grievance.GrievanceStatus status,
                                                          @RequestParam(required = false) String reason,
+                                                         @RequestParam(required = false) Long version,
                                                          Authentication authentication) {
         try {
             User changedBy = null;
@@ -188,9 +193,12 @@ public class GrievanceController {
                 changedBy = (User) authentication.getPrincipal();
             }
             
-            Grievance updatedGrievance = grievanceService.updateGrievanceStatus(grievanceId, status, reason, changedBy);
+            Grievance updatedGrievance = grievanceService.updateGrievanceStatus(grievanceId, status, reason, changedBy, version);
             return ResponseEntity.ok(updatedGrievance);
             
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Conflicting status update: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             log.error("Error updating grievance status: {}", e.getMessage(), e);
             return ResponseEntity.notFound().build();
@@ -203,11 +211,20 @@ public class GrievanceController {
     @PutMapping("/{grievanceId}/assign")
     public ResponseEntity<Grievance> assignGrievance(@PathVariable Long grievanceId,
                                                    @RequestParam(required = false) Long departmentId,
-                                                   @RequestParam(required = false) Long officerId) {
+                                                   @RequestParam(required = false) Long officerId,
+                                                   @RequestParam(required = false) String category,
+                                                   @RequestParam(required = false) Long version) {
         try {
-            Grievance assignedGrievance = grievanceService.assignGrievance(grievanceId, departmentId, officerId);
+            Grievance assignedGrievance = grievanceService.assignGrievance(grievanceId, departmentId, officerId,
+                    category, version);
             return ResponseEntity.ok(assignedGrievance);
             
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown grievance category: {}", category);
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Conflicting assignment: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             log.error("Error assigning grievance: {}", e.getMessage(), e);
             return ResponseEntity.notFound().build();
@@ -217,6 +234,71 @@ public class GrievanceController {
         }
     }
     
+    @PostMapping("/{grievanceId}/claim")
+    public ResponseEntity<Grievance> claimGrievance(@PathVariable Long grievanceId, Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof User officer)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(grievanceService.claimGrievance(grievanceId, officer));
+            
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            log.info("Claim refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (AccessDeniedException e) {
+            log.info("Claim refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (RuntimeException e) {
+            log.error("Error claiming grievance: {}", e.getMessage(), e);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error claiming grievance: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /** Grievances chosen by id, or by the same fields as GET /filter (dates as ISO date-times). */
+    public record BulkStatusRequest(List<Long> ids, BulkGrievanceService.Filter filter,
+                                    Grievance.GrievanceStatus status, String reason) {}
+
+    public record BulkAssignRequest(List<Long> ids, BulkGrievanceService.Filter filter,
+                                    Long departmentId, Long officerId, String reason) {}
+
+    @PutMapping("/bulk/status")
+    public ResponseEntity<BulkGrievanceService.BulkResult> bulkUpdateStatus(@RequestBody BulkStatusRequest request,
+                                                                           Authentication authentication) {
+        try {
+            User changedBy = null;
+            if (authentication != null && authentication.getPrincipal() instanceof User) {
+                changedBy = (User) authentication.getPrincipal();
+            }
+            return ResponseEntity.ok(bulkGrievanceService.updateStatus(request.ids(), request.filter(),
+                    request.status(), request.reason(), changedBy));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected bulk status update: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error in bulk status update: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PutMapping("/bulk/assign")
+    public ResponseEntity<BulkGrievanceService.BulkResult> bulkAssign(@RequestBody BulkAssignRequest request) {
+        try {
+            return ResponseEntity.ok(bulkGrievanceService.assign(request.ids(), request.filter(),
+                    request.departmentId(), request.officerId(), request.reason()));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected bulk assignment: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error in bulk assignment: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @GetMapping("/stats/status/{status}")
     public ResponseEntity<Long> getGrievanceCountByStatus(@PathVariable Grievance.GrievanceStatus status) {
         Long count = grievanceService.getGrievanceCountByStatus(status);
@@ -291,6 +373,17 @@ public class GrievanceController {
         }
     }
 
+    // Grievances linked to this one as likely duplicates; they follow its status
+    @GetMapping("/{grievanceId}/duplicates")
+    public ResponseEntity<List<Grievance>> getDuplicates(@PathVariable Long grievanceId) {
+        try {
+            return ResponseEntity.ok(grievanceService.getDuplicates(grievanceId));
+        } catch (Exception e) {
+            log.error("Error fetching duplicates: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/{grievanceId}/history")
     public ResponseEntity<List<com.example.demo.model.GrievanceStatusHistory>> getGrievanceHistory(@PathVariable Long grievanceId) {
         try {
@@ -0,0 +1,58 @@
+package com.example.demo.controller;
+
+import com.example.demo.services.AICategorizationService;
+import com.example.demo.services.ChatService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking versions of the {@link AIController} endpoints, for typing-time
+ * suggestions. Handlers return a Mono, so Spring MVC completes the request
+ * asynchronously: the Tomcat worker is released as soon as the handler returns
+ * and the translation, ML and chat calls run on the WebClient event loop.
+ */
+@RestController
+@RequestMapping("/api/ai/rx")
+public class ReactiveAIController {
+
+    private final AICategorizationService aiCategorizationService;
+    private final ChatService chatService;
+
+    public ReactiveAIController(AICategorizationService aiCategorizationService, ChatService chatService) {
+        this.aiCategorizationService = aiCategorizationService;
+        this.chatService = chatService;
+    }
+
+    @PostMapping("/chat")
+    public Mono<Map<String, Object>> chat(@RequestBody AIController.ChatRequest body) {
+        List<Map<String, String>> messages = body != null && body.messages != null ? body.messages : List.of();
+        return chatService.chatReactive(messages).map(reply -> Map.of("reply", reply));
+    }
+
+    @PostMapping("/suggest")
+    public Mono<Map<String, Object>> suggest(@RequestBody AIController.SuggestRequest body) {
+        return aiCategorizationService.categorizeGrievanceReactive(
+                        body != null ? body.title : null,
+                        body != null ? body.description : null,
+                        body != null ? body.language : null)
+                .map(result -> Map.of(
+                        "category", result.category(),
+                        "confidence", result.confidence()
+                ));
+    }
+
+    @PostMapping("/suggest/ranked")
+    public Mono<Map<String, Object>> suggestRanked(@RequestBody AIController.SuggestRequest body) {
+        return aiCategorizationService.rankCategoriesReactive(
+                        body != null ? body.title : null,
+                        body != null ? body.description : null,
+                        body != null ? body.language : null)
+                .map(ranked -> Map.of("suggestions", ranked));
+    }
+}
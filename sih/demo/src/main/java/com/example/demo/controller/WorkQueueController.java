@@ -0,0 +1,66 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.model.User;
+import com.example.demo.services.GrievanceService;
+import com.example.demo.services.WorkQueue;
+import com.example.demo.services.WorkQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/workqueue")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class WorkQueueController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final WorkQueueService workQueueService;
+    private final GrievanceService grievanceService;
+
+    // The signed-in officer's own queue, or a department's unclaimed grievances
+    @GetMapping("/next")
+    public ResponseEntity<List<WorkQueue.Item>> next(@RequestParam(required = false) Long departmentId,
+                                                     @RequestParam(defaultValue = "10") int limit,
+                                                     Authentication authentication) {
+        int capped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (authentication == null || !(authentication.getPrincipal() instanceof User officer)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (departmentId != null) {
+            if (!officer.worksFor(departmentId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(workQueueService.forDepartment(departmentId, capped));
+        }
+        return ResponseEntity.ok(workQueueService.forOfficer(officer.getId(), capped));
+    }
+
+    // Claims the department's most urgent unclaimed grievance for the signed-in officer, if they work for it
+    @PostMapping("/next")
+    public ResponseEntity<Grievance> claimNext(@RequestParam Long departmentId, Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof User officer)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return grievanceService.claimNext(departmentId, officer)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.noContent().build());
+        } catch (AccessDeniedException e) {
+            log.info("Claim refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            log.error("Error claiming next grievance: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -11,14 +11,16 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "grievances")
+@Table(name = "grievances", indexes = @Index(name = "idx_grievances_duplicate_of", columnList = "duplicate_of_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Grievance {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "grievances_id")
+    @TableGenerator(name = "grievances_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "grievances", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -51,6 +53,13 @@ public class Grievance {
     @Column(name = "ai_confidence")
     private Double aiConfidence;
     
+    // Set when submission found a likely duplicate: the open grievance this one follows
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+    
+    @Column(name = "duplicate_similarity")
+    private Double duplicateSimilarity;
+    
     @Column(name = "tracking_number", unique = true)
     private String trackingNumber;
     
@@ -72,6 +81,11 @@ public class Grievance {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Bumped by every update, so a write based on a stale read fails instead of overwriting
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
 public class GrievanceAttachment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "grievance_attachments_id")
+    @TableGenerator(name = "grievance_attachments_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "grievance_attachments", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "File name is required")
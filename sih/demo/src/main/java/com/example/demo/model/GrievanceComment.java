@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
 public class GrievanceComment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "grievance_comments_id")
+    @TableGenerator(name = "grievance_comments_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "grievance_comments", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Comment is required")
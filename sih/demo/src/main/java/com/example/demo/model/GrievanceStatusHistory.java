@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
 public class GrievanceStatusHistory {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "grievance_status_history_id")
+    @TableGenerator(name = "grievance_status_history_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "grievance_status_history", allocationSize = 50)
     private Long id;
     
     @Enumerated(EnumType.STRING)
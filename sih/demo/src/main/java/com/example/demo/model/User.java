@@ -8,6 +8,8 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,10 +24,14 @@ import java.util.Collections;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties({"password", "authorities", "hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Name is required")
@@ -50,6 +56,10 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private UserStatus status = UserStatus.ACTIVE;
     
+    // The department a DEPARTMENT_OFFICER works for; officers only take that department's grievances
+    @Column(name = "department_id")
+    private Long departmentId;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -69,6 +79,12 @@ public class User implements UserDetails {
         updatedAt = LocalDateTime.now();
     }
     
+    /** Whether this user may take the department's grievances: admins anywhere, officers in their own. */
+    public boolean worksFor(Long department) {
+        return role == UserRole.ADMIN || role == UserRole.SUPER_ADMIN
+                || (role == UserRole.DEPARTMENT_OFFICER && departmentId != null && departmentId.equals(department));
+    }
+    
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -1,8 +1,11 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -21,6 +24,8 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     @Query("SELECT d FROM Department d WHERE d.name LIKE %:name% OR d.description LIKE %:description%")
     List<Department> findByNameOrDescriptionContaining(@Param("name") String name, @Param("description") String description);
     
+    // Read on every auto-assignment and department listing
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT d FROM Department d WHERE d.status = 'ACTIVE' ORDER BY d.name")
     List<Department> findActiveDepartments();
 }
@@ -1,15 +1,19 @@
 package com.example.demo.repository;
 
+import com.example.demo.model.Department;
 import com.example.demo.model.Grievance;
+import com.example.demo.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,6 +65,125 @@ public interface GrievanceRepository extends JpaRepository<Grievance, Long>, Jpa
     @Query("SELECT COUNT(g) FROM Grievance g WHERE g.department.id = :departmentId AND g.status = :status")
     Long countByDepartmentAndStatus(@Param("departmentId") Long departmentId, @Param("status") Grievance.GrievanceStatus status);
     
+    // Keyset pages for building the assistant's index of resolved grievances
+    @Query("SELECT g FROM Grievance g LEFT JOIN FETCH g.department WHERE g.status = :status AND g.id > :afterId ORDER BY g.id")
+    List<Grievance> findByStatusWithDepartmentAfter(@Param("status") Grievance.GrievanceStatus status,
+                                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT g FROM Grievance g LEFT JOIN FETCH g.department WHERE g.id IN :ids")
+    List<Grievance> findAllWithDepartmentByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset pages of open grievances that are not themselves duplicates, for the duplicate index
+    @Query("SELECT g FROM Grievance g WHERE g.duplicateOfId IS NULL AND g.status NOT IN :closed AND g.id > :afterId ORDER BY g.id")
+    List<Grievance> findOpenMastersAfter(@Param("closed") Collection<Grievance.GrievanceStatus> closed,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+
+    List<Grievance> findByDuplicateOfId(Long masterId);
+
+    // Status changes on a master reach all of its duplicates in one statement
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Grievance g SET g.status = :status, g.resolvedAt = COALESCE(:resolvedAt, g.resolvedAt), "
+            + "g.updatedAt = :now, g.version = g.version + 1 WHERE g.duplicateOfId IN :masterIds")
+    int updateStatusOfDuplicates(@Param("masterIds") Collection<Long> masterIds,
+                                 @Param("status") Grievance.GrievanceStatus status,
+                                 @Param("resolvedAt") LocalDateTime resolvedAt, @Param("now") LocalDateTime now);
+
+    /** What a bulk change needs to know about each grievance, without loading the entities. */
+    interface BulkRow {
+        Long getId();
+        Grievance.GrievanceStatus getStatus();
+        Long getDuplicateOfId();
+        String getTrackingNumber();
+        String getTitle();
+        Long getDepartmentId();
+        Long getOfficerId();
+        String getUserName();
+        String getUserEmail();
+    }
+
+    @Query("SELECT g.id AS id, g.status AS status, g.duplicateOfId AS duplicateOfId, "
+            + "g.trackingNumber AS trackingNumber, g.title AS title, d.id AS departmentId, o.id AS officerId, "
+            + "u.name AS userName, u.email AS userEmail "
+            + "FROM Grievance g LEFT JOIN g.department d LEFT JOIN g.assignedOfficer o LEFT JOIN g.user u "
+            + "WHERE g.id IN :ids")
+    List<BulkRow> findBulkRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bulk changes are conditional on the status they read: a count short of ids.size() means another update won
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Grievance g SET g.status = :status, g.resolvedAt = COALESCE(:resolvedAt, g.resolvedAt), "
+            + "g.updatedAt = :now, g.version = g.version + 1 WHERE g.id IN :ids AND g.status = :fromStatus")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("fromStatus") Grievance.GrievanceStatus fromStatus,
+                           @Param("status") Grievance.GrievanceStatus status,
+                           @Param("resolvedAt") LocalDateTime resolvedAt, @Param("now") LocalDateTime now);
+
+    // Bulk assignment runs one or both of these, for a new department and/or officer
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Grievance g SET g.department = :department, g.status = :status, g.assignedAt = :now, "
+            + "g.updatedAt = :now, g.version = g.version + 1 WHERE g.id IN :ids AND g.status = :fromStatus")
+    int assignDepartmentByIdIn(@Param("ids") Collection<Long> ids, @Param("fromStatus") Grievance.GrievanceStatus fromStatus,
+                               @Param("department") Department department,
+                               @Param("status") Grievance.GrievanceStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Grievance g SET g.assignedOfficer = :officer, g.status = :status, g.assignedAt = :now, "
+            + "g.updatedAt = :now, g.version = g.version + 1 WHERE g.id IN :ids AND g.status = :fromStatus")
+    int assignOfficerByIdIn(@Param("ids") Collection<Long> ids, @Param("fromStatus") Grievance.GrievanceStatus fromStatus,
+                            @Param("officer") User officer,
+                            @Param("status") Grievance.GrievanceStatus status, @Param("now") LocalDateTime now);
+
+    // Takes an unheld grievance for the officer in one statement, only if nobody changed it since it was read
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Grievance g SET g.assignedOfficer = :officer, g.status = :status, g.assignedAt = :now, "
+            + "g.updatedAt = :now, g.version = g.version + 1 "
+            + "WHERE g.id = :id AND g.version = :version AND g.assignedOfficer IS NULL")
+    int claim(@Param("id") Long id, @Param("version") Long version, @Param("officer") User officer,
+              @Param("status") Grievance.GrievanceStatus status, @Param("now") LocalDateTime now);
+
+    @Query("SELECT g.id FROM Grievance g WHERE g.duplicateOfId = :masterId")
+    List<Long> findIdsByDuplicateOfId(@Param("masterId") Long masterId);
+
+    @Query("SELECT g.id FROM Grievance g WHERE g.duplicateOfId IN :masterIds")
+    List<Long> findIdsByDuplicateOfIdIn(@Param("masterIds") Collection<Long> masterIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Grievance g SET g.duplicateOfId = NULL, g.duplicateSimilarity = NULL, g.version = g.version + 1 "
+            + "WHERE g.duplicateOfId = :masterId")
+    int unlinkDuplicates(@Param("masterId") Long masterId);
+    
+    /** What the work queues order grievances by, without loading the entities. */
+    interface WorkRow {
+        Long getId();
+        Grievance.GrievanceStatus getStatus();
+        Long getDuplicateOfId();
+        Grievance.GrievancePriority getPriority();
+        LocalDateTime getExpectedResolutionDate();
+        LocalDateTime getCreatedAt();
+        String getTrackingNumber();
+        String getTitle();
+        Long getDepartmentId();
+        Long getOfficerId();
+    }
+
+    // Keyset pages of open masters, for building the work queues
+    @Query("SELECT g.id AS id, g.status AS status, g.duplicateOfId AS duplicateOfId, g.priority AS priority, "
+            + "g.expectedResolutionDate AS expectedResolutionDate, g.createdAt AS createdAt, "
+            + "g.trackingNumber AS trackingNumber, g.title AS title, d.id AS departmentId, o.id AS officerId "
+            + "FROM Grievance g LEFT JOIN g.department d LEFT JOIN g.assignedOfficer o "
+            + "WHERE g.duplicateOfId IS NULL AND g.status NOT IN :closed AND g.id > :afterId ORDER BY g.id")
+    List<WorkRow> findOpenWorkRowsAfter(@Param("closed") Collection<Grievance.GrievanceStatus> closed,
+                                        @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT g.id AS id, g.status AS status, g.duplicateOfId AS duplicateOfId, g.priority AS priority, "
+            + "g.expectedResolutionDate AS expectedResolutionDate, g.createdAt AS createdAt, "
+            + "g.trackingNumber AS trackingNumber, g.title AS title, d.id AS departmentId, o.id AS officerId "
+            + "FROM Grievance g LEFT JOIN g.department d LEFT JOIN g.assignedOfficer o WHERE g.id IN :ids")
+    List<WorkRow> findWorkRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset pages of grievances whose category is confident enough to train the local classifier on
+    @Query("SELECT g FROM Grievance g WHERE g.aiCategory IS NOT NULL AND g.aiConfidence > :minConfidence AND g.id > :afterId ORDER BY g.id")
+    List<Grievance> findLabeledAfter(@Param("minConfidence") double minConfidence, @Param("afterId") Long afterId,
+                                     Pageable pageable);
+    
     @Query("SELECT g FROM Grievance g WHERE g.user.id = :userId ORDER BY g.submittedAt DESC")
     Page<Grievance> findByUserIdOrderBySubmittedAtDesc(@Param("userId") Long userId, Pageable pageable);
 }
@@ -1,13 +1,100 @@
 package com.example.demo.services;
 
+import com.example.demo.config.StageEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Optional;
 
 @Service
 @Slf4j
 public class AICategorizationService {
+
+    // Keyword confidence when no keyword matched: local matching was inconclusive
+    private static final double NO_MATCH = 0.5;
+
+    private static final String[][] CATEGORY_KEYWORDS = new String[][]{
+        // INFRASTRUCTURE
+        {"INFRASTRUCTURE",
+            "road","bridge","building","street","pothole","streetlight","light","infrastructure","construction","footpath","culvert",
+            // Hindi
+            "sadak","pul","imarat","gadda","battee","nali",
+            // Tamil (latin)
+            "saalai","paalam","veedhi","mali","vilakku","kuzhai",
+            // Telugu (latin)
+            "dari","sethu","streetu","gadda","deepam","kalva"
+        },
+        // HEALTHCARE
+        {"HEALTHCARE",
+            "hospital","doctor","medical","health","medicine","clinic","ambulance","ward","nurse",
+            "aspatal","chikitsa","davakhana",
+            "maruthuvamanai","vaidyan","aasupatri",
+            "aasupatri","chikitsa","aushadhi"
+        },
+        // EDUCATION
+        {"EDUCATION",
+            "school","college","education","teacher","student","exam","scholarship","bus","uniform",
+            "schooli","vidyalaya","shiksha","adhyapak","chhatra",
+            "palli","kaloori","aaseeriyar","maanavar",
+            "paathashala","vidya","upaadhyaya","vidyarthi"
+        },
+        // TRANSPORTATION
+        {"TRANSPORTATION",
+            "transport","bus","train","traffic","parking","vehicle","metro","auto","rickshaw","ticket",
+            "yatayat","bas","rail","jam","park","gaadi",
+            "saadagam","rail","natpu","gaadi",
+            "pravahana","railway","parku","vahana"
+        },
+        // UTILITIES
+        {"UTILITIES",
+            "water","electricity","power","gas","utility","supply","sewage","drainage","pipeline","leak","power","cut","load","shedding",
+            "pani","bijli","gas","nal","nali","paip","rasavadi",
+            "thanneer","minveli","anilai","paippu","ottam","neruppu",
+            "neellu","current","gasu","paipu","leakage"
+        },
+        // ENVIRONMENT
+        {"ENVIRONMENT",
+            "garbage","waste","pollution","environment","clean","dirty","trash","sewage","dump","smell","mosquito",
+            "kachra","kuda","pradushan","safai","ganda","machhar",
+            "kuppai","kazhu","kalusham","sutham","asutham","kosu",
+            "kacharam","kalushita","pacha","mosquito"
+        },
+        // SAFETY_SECURITY
+        {"SAFETY_SECURITY",
+            "police","crime","safety","security","emergency","theft","robbery","harassment","violence","accident",
+            "police","aparadh","suraksha","chori","lut","hinsaa",
+            "kaval","kolai","bathirapu","kolai","balatkar",
+            "police","donga","bhadrata","theft","apghat"
+        },
+        // HOUSING
+        {"HOUSING",
+            "house","housing","property","rent","slum","residence","encroachment","illegal construction","land",
+            "ghar","makaan","kiraya","jhuggi","awas","zamin",
+            "veedu","vasathi","maanai","manai","bhoomi",
+            "illu","nivasam","rentu","bhumi"
+        },
+        // EMPLOYMENT
+        {"EMPLOYMENT",
+            "job","employment","work","salary","unemployment","labor","wage","contract","transfer","promotion",
+            "naukri","rojgar","vetan","birozgar","mazdoor",
+            "velai","uzhaippu","sambalam","veli ilamai",
+            "udyogam","pani","vetanam","nirudyoga"
+        }
+    };
+
+    // Same keywords as match keys, so native-script and variant spellings meet them
+    private static final String[][] CATEGORY_KEYWORD_KEYS = java.util.Arrays.stream(CATEGORY_KEYWORDS)
+            .map(entry -> java.util.stream.IntStream.range(0, entry.length)
+                    .mapToObj(i -> i == 0 ? entry[0] : IndicTransliterator.matchKey(entry[i]))
+                    .toArray(String[]::new))
+            .toArray(String[][]::new);
+    private static final java.util.Set<String> STRONG_UTILITIES = keys("drainage","sewage","leak","pipeline","water","electricity","power");
+    private static final java.util.Set<String> STRONG_ENVIRONMENT = keys("garbage","waste","pollution","trash","dump","mosquito");
     
     @Value("${ai.categorization.enabled:true}")
     private boolean categorizationEnabled;
@@ -17,40 +104,82 @@ public class AICategorizationService {
     
     @Value("${ml.service.enabled:true}")
     private boolean mlServiceEnabled;
+
+    @Value("${ml.service.timeout:2s}")
+    private Duration mlTimeout;
     
     private final org.springframework.web.reactive.function.client.WebClient mlWebClient;
     private final TranslationService translationService;
+    private final GrievanceClassifierService localClassifier;
+    private final Counter translationRequested;
+    private final Counter translationSkipped;
     
     public AICategorizationService(org.springframework.web.reactive.function.client.WebClient mlWebClient,
-                                   TranslationService translationService) {
+                                   TranslationService translationService,
+                                   GrievanceClassifierService localClassifier,
+                                   MeterRegistry meterRegistry) {
         this.mlWebClient = mlWebClient;
         this.translationService = translationService;
+        this.localClassifier = localClassifier;
+        this.translationRequested = translationCounter(meterRegistry, "requested");
+        this.translationSkipped = translationCounter(meterRegistry, "skipped");
     }
     
     public GrievanceCategorizationResult categorizeGrievance(String title, String description) {
-        // Translate to English if needed (auto when enabled)
-        String titleEn = translationService.translateToEnglish(title, null);
-        String descEn = translationService.translateToEnglish(description, null);
         if (!categorizationEnabled) {
             return new GrievanceCategorizationResult("OTHER", 0.0);
         }
+        // Embedded model on the original text; answers outright in primary mode
+        Optional<NaiveBayesTextClassifier.Prediction> local;
+        try (StageEvent stage = StageEvent.start("classifier.predict")) {
+            local = localClassifier.classify(title, description);
+        }
+        if (localClassifier.isPrimary() && local.isPresent() && local.get().confidence() >= confidenceThreshold) {
+            return new GrievanceCategorizationResult(local.get().label(), local.get().confidence());
+        }
+        // Keywords match native-script text directly; translate only when they find nothing
+        GrievanceCategorizationResult kw;
+        try (StageEvent stage = StageEvent.start("keyword.match")) {
+            kw = categorizeByKeywords(title, description);
+        }
+        String titleEn = title;
+        String descEn = description;
+        GrievanceCategorizationResult kwEn = kw;
+        if (kw.confidence() > NO_MATCH) {
+            translationSkipped.increment();
+            if (isNativeScript(title, description)) {
+                // The ML service reads English only, and the translation it needs is the call saved here
+                return fallback(local, kw);
+            }
+        } else {
+            translationRequested.increment();
+            try (StageEvent stage = StageEvent.start("translation")) {
+                titleEn = translationService.translateToEnglish(title, null);
+                descEn = translationService.translateToEnglish(description, null);
+            }
+            kwEn = categorizeByKeywords(titleEn, descEn);
+        }
         // Try ML service first
         if (mlServiceEnabled) {
             try {
                 MlRequest req = new MlRequest(titleEn, descEn);
-                MlResponse resp = mlWebClient.post()
-                        .uri("/predict")
-                        .bodyValue(req)
-                        .retrieve()
-                        .bodyToMono(MlResponse.class)
-                        .block();
+                MlResponse resp;
+                try (StageEvent stage = StageEvent.start("ml.predict")) {
+                    resp = mlWebClient.post()
+                            .uri("/predict")
+                            .bodyValue(req)
+                            .retrieve()
+                            .bodyToMono(MlResponse.class)
+                            .block();
+                }
                 if (resp != null && resp.category != null) {
                     GrievanceCategorizationResult ml = new GrievanceCategorizationResult(resp.category.toUpperCase(), resp.confidence);
-                    // If ML is uncertain, try keywords and prefer the stronger one
+                    localClassifier.compareWithMl(ml.category(), local);
+                    // If ML is uncertain, try the local model and keywords and prefer the stronger one
                     if (ml.confidence() < 0.6) {
-                        GrievanceCategorizationResult kw = categorizeByKeywords(title, description);
-                        if (kw.confidence() >= ml.confidence()) {
-                            return kw;
+                        GrievanceCategorizationResult other = fallback(local, kwEn);
+                        if (other.confidence() >= ml.confidence()) {
+                            return other;
                         }
                     }
                     return ml;
@@ -59,9 +188,9 @@ public class AICategorizationService {
                 log.warn("ML service unavailable, falling back to keywords: {}", e.getMessage());
             }
         }
-        // Fallback to keywords
-        try {
-            return categorizeByKeywords(titleEn, descEn);
+        // Fallback to the local model or keywords
+        try (StageEvent stage = StageEvent.start("keyword.fallback")) {
+            return fallback(local, kwEn);
         } catch (Exception e) {
             log.error("Error during fallback categorization: {}", e.getMessage(), e);
             return new GrievanceCategorizationResult("OTHER", 0.0);
@@ -69,16 +198,149 @@ public class AICategorizationService {
     }
 
     public java.util.List<GrievanceCategorizationResult> rankCategories(String title, String description) {
-        // Base on keyword scores, optionally nudge ML category
-        String text = ((title == null ? "" : title) + " " + (description == null ? "" : description)).toLowerCase();
-        String[] rawTokens = text.split("[^a-zA-Z]+");
-        java.util.Set<String> tokens = new java.util.HashSet<>();
-        for (String t : rawTokens) { if (!t.isBlank()) tokens.add(t); }
+        // Try ML and gently boost its category
+        MlResponse hint = null;
+        try {
+            if (mlServiceEnabled) {
+                MlRequest req = new MlRequest(title, description);
+                hint = mlWebClient.post().uri("/predict").bodyValue(req).retrieve().bodyToMono(MlResponse.class).block();
+            }
+        } catch (Exception e) {
+            log.debug("ML ranking hint unavailable: {}", e.getMessage());
+        }
+        return rank(title, description, hint);
+    }
 
-        String[][] categoryKeywords = getCategoryKeywordMatrix();
+    /**
+     * Non-blocking categorization for the reactive AI endpoints. Text that
+     * keywords already categorize is not translated: English goes straight to
+     * ML, native-script text is answered locally. Otherwise title and
+     * description are translated concurrently, and unless the caller named a
+     * non-English language the ML call on the original text starts alongside
+     * them; its answer is used when translation leaves the text unchanged.
+     * Each call has its own timeout, and keywords answer when ML does not.
+     */
+    public Mono<GrievanceCategorizationResult> categorizeGrievanceReactive(String title, String description,
+                                                                          String language) {
+        if (!categorizationEnabled) {
+            return Mono.just(new GrievanceCategorizationResult("OTHER", 0.0));
+        }
+        String titleIn = title == null ? "" : title;
+        String descIn = description == null ? "" : description;
+        Optional<NaiveBayesTextClassifier.Prediction> local = localClassifier.classify(titleIn, descIn);
+        if (localClassifier.isPrimary() && local.isPresent() && local.get().confidence() >= confidenceThreshold) {
+            return Mono.just(new GrievanceCategorizationResult(local.get().label(), local.get().confidence()));
+        }
+        GrievanceCategorizationResult kw = categorizeByKeywords(titleIn, descIn);
+        if (kw.confidence() > NO_MATCH) {
+            translationSkipped.increment();
+            if (isNativeScript(titleIn, descIn)) {
+                return Mono.just(fallback(local, kw));
+            }
+            Mono<Optional<MlResponse>> ml = mlServiceEnabled ? predict(titleIn, descIn) : Mono.just(Optional.empty());
+            return ml.map(resp -> choose(resp.orElse(null), local, kw));
+        }
+        translationRequested.increment();
+        boolean speculate = mlServiceEnabled
+                && (language == null || language.isBlank() || language.toLowerCase().startsWith("en"));
+        Mono<Optional<MlResponse>> early = speculate ? predict(titleIn, descIn) : Mono.just(Optional.empty());
+
+        return Mono.zip(translationService.translateToEnglishReactive(titleIn, language),
+                        translationService.translateToEnglishReactive(descIn, language), early)
+                .flatMap(t -> {
+                    String titleEn = t.getT1();
+                    String descEn = t.getT2();
+                    boolean unchanged = titleEn.equals(titleIn) && descEn.equals(descIn);
+                    GrievanceCategorizationResult kwEn = unchanged ? kw : categorizeByKeywords(titleEn, descEn);
+                    Mono<Optional<MlResponse>> ml;
+                    if (!mlServiceEnabled) {
+                        ml = Mono.just(Optional.empty());
+                    } else if (speculate && unchanged) {
+                        ml = Mono.just(t.getT3());
+                    } else {
+                        ml = predict(titleEn, descEn);
+                    }
+                    return ml.map(resp -> choose(resp.orElse(null), local, kwEn));
+                });
+    }
+
+    public Mono<java.util.List<GrievanceCategorizationResult>> rankCategoriesReactive(String title, String description,
+                                                                                     String language) {
+        if (categorizeByKeywords(title, description).confidence() > NO_MATCH) {
+            translationSkipped.increment();
+            return (mlServiceEnabled && !isNativeScript(title, description)
+                    ? predict(title, description) : Mono.just(Optional.<MlResponse>empty()))
+                    .map(hint -> rank(title, description, hint.orElse(null)));
+        }
+        translationRequested.increment();
+        return Mono.zip(translationService.translateToEnglishReactive(title, language),
+                        translationService.translateToEnglishReactive(description, language))
+                .flatMap(t -> (mlServiceEnabled ? predict(t.getT1(), t.getT2()) : Mono.just(Optional.<MlResponse>empty()))
+                        .map(hint -> rank(t.getT1(), t.getT2(), hint.orElse(null))));
+    }
+
+    // One ML prediction bounded by ml.service.timeout; empty on any failure
+    private Mono<Optional<MlResponse>> predict(String title, String description) {
+        return mlWebClient.post()
+                .uri("/predict")
+                .bodyValue(new MlRequest(title, description))
+                .retrieve()
+                .bodyToMono(MlResponse.class)
+                .timeout(mlTimeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    log.warn("ML service unavailable, falling back to keywords: {}", e.toString());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    // Same rules as categorizeGrievance: uncertain ML defers to a stronger local or keyword answer
+    private GrievanceCategorizationResult choose(MlResponse resp, Optional<NaiveBayesTextClassifier.Prediction> local,
+                                                 GrievanceCategorizationResult kw) {
+        if (resp != null && resp.category != null) {
+            GrievanceCategorizationResult ml = new GrievanceCategorizationResult(resp.category.toUpperCase(), resp.confidence);
+            localClassifier.compareWithMl(ml.category(), local);
+            if (ml.confidence() < 0.6) {
+                GrievanceCategorizationResult other = fallback(local, kw);
+                if (other.confidence() >= ml.confidence()) {
+                    return other;
+                }
+            }
+            return ml;
+        }
+        return fallback(local, kw);
+    }
+
+    // The local model's answer when it is at least as confident as the keywords
+    private GrievanceCategorizationResult fallback(Optional<NaiveBayesTextClassifier.Prediction> local,
+                                                   GrievanceCategorizationResult kw) {
+        return local.filter(p -> p.confidence() >= kw.confidence())
+                .map(p -> new GrievanceCategorizationResult(p.label(), p.confidence()))
+                .orElse(kw);
+    }
+
+    private static boolean isNativeScript(String title, String description) {
+        return IndicTransliterator.containsIndicScript(title) || IndicTransliterator.containsIndicScript(description);
+    }
+
+    private static Counter translationCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("categorization.translation")
+                .description("Categorizations that requested a translation, or were matched locally without one")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static java.util.Set<String> keys(String... keywords) {
+        return java.util.Arrays.stream(keywords).map(IndicTransliterator::matchKey).collect(java.util.stream.Collectors.toSet());
+    }
+
+    // Keyword scores for every category, with the ML category (if any) nudged up
+    private java.util.List<GrievanceCategorizationResult> rank(String title, String description, MlResponse hint) {
+        java.util.Set<String> tokens = tokens(title, description);
 
         java.util.Map<String,Integer> scoreMap = new java.util.HashMap<>();
-        for (String[] entry : categoryKeywords) {
+        for (String[] entry : CATEGORY_KEYWORD_KEYS) {
             String category = entry[0];
             int score = 0;
             for (int i = 1; i < entry.length; i++) {
@@ -87,18 +349,9 @@ public class AICategorizationService {
             scoreMap.put(category, score);
         }
 
-        // Try ML and gently boost its category
-        try {
-            if (mlServiceEnabled) {
-                MlRequest req = new MlRequest(title, description);
-                MlResponse resp = mlWebClient.post().uri("/predict").bodyValue(req).retrieve().bodyToMono(MlResponse.class).block();
-                if (resp != null && resp.category != null) {
-                    String mlCat = resp.category.toUpperCase();
-                    scoreMap.put(mlCat, scoreMap.getOrDefault(mlCat, 0) + (resp.confidence > 0.6 ? 2 : 1));
-                }
-            }
-        } catch (Exception e) {
-            log.debug("ML ranking hint unavailable: {}", e.getMessage());
+        if (hint != null && hint.category != null) {
+            String mlCat = hint.category.toUpperCase();
+            scoreMap.put(mlCat, scoreMap.getOrDefault(mlCat, 0) + (hint.confidence > 0.6 ? 2 : 1));
         }
 
         java.util.List<GrievanceCategorizationResult> ranked = new java.util.ArrayList<>();
@@ -111,65 +364,6 @@ public class AICategorizationService {
         return ranked;
     }
 
-    private String[][] getCategoryKeywordMatrix() {
-        return new String[][]{
-            {"INFRASTRUCTURE",
-                "road","bridge","building","street","pothole","streetlight","light","infrastructure","construction","footpath","culvert",
-                "sadak","pul","imarat","gadda","battee","nali",
-                "saalai","paalam","veedhi","mali","vilakku","kuzhai",
-                "dari","sethu","streetu","gadda","deepam","kalva"
-            },
-            {"HEALTHCARE",
-                "hospital","doctor","medical","health","medicine","clinic","ambulance","ward","nurse",
-                "aspatal","chikitsa","davakhana",
-                "maruthuvamanai","vaidyan","aasupatri",
-                "aasupatri","chikitsa","aushadhi"
-            },
-            {"EDUCATION",
-                "school","college","education","teacher","student","exam","scholarship","bus","uniform",
-                "schooli","vidyalaya","shiksha","adhyapak","chhatra",
-                "palli","kaloori","aaseeriyar","maanavar",
-                "paathashala","vidya","upaadhyaya","vidyarthi"
-            },
-            {"TRANSPORTATION",
-                "transport","bus","train","traffic","parking","vehicle","metro","auto","rickshaw","ticket",
-                "yatayat","bas","rail","jam","park","gaadi",
-                "saadagam","rail","natpu","gaadi",
-                "pravahana","railway","parku","vahana"
-            },
-            {"UTILITIES",
-                "water","electricity","power","gas","utility","supply","sewage","drainage","pipeline","leak","power","cut","load","shedding",
-                "pani","bijli","gas","nal","nali","paip","rasavadi",
-                "thanneer","minveli","anilai","paippu","ottam","neruppu",
-                "neellu","current","gasu","paipu","leakage"
-            },
-            {"ENVIRONMENT",
-                "garbage","waste","pollution","environment","clean","dirty","trash","sewage","dump","smell","mosquito",
-                "kachra","kuda","pradushan","safai","ganda","machhar",
-                "kuppai","kazhu","kalusham","sutham","asutham","kosu",
-                "kacharam","kalushita","pacha","mosquito"
-            },
-            {"SAFETY_SECURITY",
-                "police","crime","safety","security","emergency","theft","robbery","harassment","violence","accident",
-                "police","aparadh","suraksha","chori","lut","hinsaa",
-                "kaval","kolai","bathirapu","kolai","balatkar",
-                "police","donga","bhadrata","theft","apghat"
-            },
-            {"HOUSING",
-                "house","housing","property","rent","slum","residence","encroachment","illegal construction","land",
-                "ghar","makaan","kiraya","jhuggi","awas","zamin",
-                "veedu","vasathi","maanai","manai","bhoomi",
-                "illu","nivasam","rentu","bhumi"
-            },
-            {"EMPLOYMENT",
-                "job","employment","work","salary","unemployment","labor","wage","contract","transfer","promotion",
-                "naukri","rojgar","vetan","birozgar","mazdoor",
-                "velai","uzhaippu","sambalam","veli ilamai",
-                "udyogam","pani","vetanam","nirudyoga"
-            }
-        };
-    }
-
     private static class MlRequest {
         public String title;
         public String description;
@@ -183,86 +377,17 @@ public class AICategorizationService {
         public double confidence;
     }
     
+    // Words of any script, romanized and folded to match keys
+    private static java.util.Set<String> tokens(String title, String description) {
+        return IndicTransliterator.keys((title == null ? "" : title) + " " + (description == null ? "" : description));
+    }
+    
     private GrievanceCategorizationResult categorizeByKeywords(String title, String description) {
-        String text = ((title == null ? "" : title) + " " + (description == null ? "" : description)).toLowerCase();
-        String[] rawTokens = text.split("[^a-zA-Z]+");
-        java.util.Set<String> tokens = new java.util.HashSet<>();
-        for (String t : rawTokens) { if (!t.isBlank()) tokens.add(t); }
-
-        String[][] categoryKeywords = new String[][]{
-            // INFRASTRUCTURE
-            {"INFRASTRUCTURE",
-                "road","bridge","building","street","pothole","streetlight","light","infrastructure","construction","footpath","culvert",
-                // Hindi
-                "sadak","pul","imarat","gadda","battee","nali",
-                // Tamil (latin)
-                "saalai","paalam","veedhi","mali","vilakku","kuzhai",
-                // Telugu (latin)
-                "dari","sethu","streetu","gadda","deepam","kalva"
-            },
-            // HEALTHCARE
-            {"HEALTHCARE",
-                "hospital","doctor","medical","health","medicine","clinic","ambulance","ward","nurse",
-                "aspatal","chikitsa","davakhana",
-                "maruthuvamanai","vaidyan","aasupatri",
-                "aasupatri","chikitsa","aushadhi"
-            },
-            // EDUCATION
-            {"EDUCATION",
-                "school","college","education","teacher","student","exam","scholarship","bus","uniform",
-                "schooli","vidyalaya","shiksha","adhyapak","chhatra",
-                "palli","kaloori","aaseeriyar","maanavar",
-                "paathashala","vidya","upaadhyaya","vidyarthi"
-            },
-            // TRANSPORTATION
-            {"TRANSPORTATION",
-                "transport","bus","train","traffic","parking","vehicle","metro","auto","rickshaw","ticket",
-                "yatayat","bas","rail","jam","park","gaadi",
-                "saadagam","rail","natpu","gaadi",
-                "pravahana","railway","parku","vahana"
-            },
-            // UTILITIES
-            {"UTILITIES",
-                "water","electricity","power","gas","utility","supply","sewage","drainage","pipeline","leak","power","cut","load","shedding",
-                "pani","bijli","gas","nal","nali","paip","rasavadi",
-                "thanneer","minveli","anilai","paippu","ottam","neruppu",
-                "neellu","current","gasu","paipu","leakage"
-            },
-            // ENVIRONMENT
-            {"ENVIRONMENT",
-                "garbage","waste","pollution","environment","clean","dirty","trash","sewage","dump","smell","mosquito",
-                "kachra","kuda","pradushan","safai","ganda","machhar",
-                "kuppai","kazhu","kalusham","sutham","asutham","kosu",
-                "kacharam","kalushita","pacha","mosquito"
-            },
-            // SAFETY_SECURITY
-            {"SAFETY_SECURITY",
-                "police","crime","safety","security","emergency","theft","robbery","harassment","violence","accident",
-                "police","aparadh","suraksha","chori","lut","hinsaa",
-                "kaval","kolai","bathirapu","kolai","balatkar",
-                "police","donga","bhadrata","theft","apghat"
-            },
-            // HOUSING
-            {"HOUSING",
-                "house","housing","property","rent","slum","residence","encroachment","illegal construction","land",
-                "ghar","makaan","kiraya","jhuggi","awas","zamin",
-                "veedu","vasathi","maanai","manai","bhoomi",
-                "illu","nivasam","rentu","bhumi"
-            },
-            // EMPLOYMENT
-            {"EMPLOYMENT",
-                "job","employment","work","salary","unemployment","labor","wage","contract","transfer","promotion",
-                "naukri","rojgar","vetan","birozgar","mazdoor",
-                "velai","uzhaippu","sambalam","veli ilamai",
-                "udyogam","pani","vetanam","nirudyoga"
-            }
-        };
+        java.util.Set<String> tokens = tokens(title, description);
 
         String chosen = "OTHER";
         int bestScore = 0;
-        java.util.Set<String> strongUtilities = java.util.Set.of("drainage","sewage","leak","pipeline","water","electricity","power");
-        java.util.Set<String> strongEnvironment = java.util.Set.of("garbage","waste","pollution","trash","dump","mosquito");
-        for (String[] entry : categoryKeywords) {
+        for (String[] entry : CATEGORY_KEYWORD_KEYS) {
             String category = entry[0];
             int score = 0;
             for (int i = 1; i < entry.length; i++) {
@@ -276,15 +401,15 @@ public class AICategorizationService {
 
         // Strong signal overrides for common ambiguities (e.g., drainage -> UTILITIES)
         if (bestScore > 0) {
-            if (!java.util.Collections.disjoint(tokens, strongUtilities)) {
+            if (!java.util.Collections.disjoint(tokens, STRONG_UTILITIES)) {
                 chosen = "UTILITIES";
-            } else if (!java.util.Collections.disjoint(tokens, strongEnvironment)) {
+            } else if (!java.util.Collections.disjoint(tokens, STRONG_ENVIRONMENT)) {
                 chosen = "ENVIRONMENT";
             }
         }
 
         double confidence = switch (bestScore) {
-            case 0 -> 0.5; // unknown
+            case 0 -> NO_MATCH; // unknown
             case 1 -> 0.7;
             case 2 -> 0.82;
             default -> 0.9;
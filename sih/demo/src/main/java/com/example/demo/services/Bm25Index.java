@@ -0,0 +1,182 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory Okapi BM25 index. Documents are added, replaced and removed one at
+ * a time by key, so the index can follow the database without rebuilding.
+ * Searches take a shared lock and run concurrently; writes are exclusive.
+ */
+public class Bm25Index<T> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "could", "do", "does", "for",
+            "from", "has", "have", "how", "i", "if", "in", "into", "is", "it", "its", "me", "my", "of", "on", "or",
+            "our", "please", "should", "so", "that", "the", "their", "there", "this", "to", "was", "we", "were",
+            "what", "when", "where", "which", "who", "whom", "why", "will", "with", "would", "you", "your");
+
+    public record Hit<T>(String key, T value, double score, int matchedTerms) {}
+
+    private record Document<T>(T value, Map<String, Integer> termFrequencies, int length) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Document<T>> documents = new HashMap<>();
+    // term -> document key -> term frequency
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Lower-cased words with stop words dropped and plurals folded
+     * ("streetlights" -> "streetlight"). Combining marks stay with their
+     * letters so Devanagari and other Indic scripts tokenize as words.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{M}\\p{N}]+")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            terms.add(stem(word));
+        }
+        return terms;
+    }
+
+    private static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    public void put(String key, String text, T value) {
+        List<String> terms = tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            documents.put(key, new Document<>(value, frequencies, terms.size()));
+            totalLength += terms.size();
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(key, tf));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The k best matches for the query, highest score first. */
+    public List<Hit<T>> search(String query, int k) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int n = documents.size();
+            if (n == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / n);
+            Map<String, Double> scores = new HashMap<>();
+            Map<String, Integer> matched = new HashMap<>();
+            for (String term : terms) {
+                Map<String, Integer> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                docs.forEach((key, tf) -> {
+                    double norm = K1 * (1 - B + B * documents.get(key).length() / averageLength);
+                    scores.merge(key, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    matched.merge(key, 1, Integer::sum);
+                });
+            }
+            PriorityQueue<Hit<T>> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            scores.forEach((key, score) -> {
+                if (best.size() < k || score > best.peek().score()) {
+                    best.add(new Hit<>(key, documents.get(key).value(), score, matched.get(key)));
+                    if (best.size() > k) {
+                        best.poll();
+                    }
+                }
+            });
+            List<Hit<T>> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble((Hit<T> hit) -> hit.score()).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(String key) {
+        Document<T> old = documents.remove(key);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.length();
+        for (String term : old.termFrequencies().keySet()) {
+            Map<String, Integer> docs = postings.get(term);
+            docs.remove(key);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Department;
+import com.example.demo.model.Grievance;
+import com.example.demo.model.GrievanceStatusHistory;
+import com.example.demo.model.User;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.GrievanceRepository;
+import com.example.demo.repository.GrievanceStatusHistoryRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Status changes and assignments applied to many grievances at once, chosen
+ * by id or by the same filter as GET /api/grievances/filter.
+ *
+ * The selection is processed in chunks of grievances.bulk.chunk-size, each in
+ * its own transaction: one query reads what the change needs to know, set-based
+ * UPDATEs apply it to the whole chunk, and the status history rows go out as
+ * JDBC batches. The UPDATEs only touch rows still in the status that was
+ * read, so a chunk that raced another update is read and applied again (up to
+ * grievances.update.max-attempts). A failing chunk is reported and the others
+ * still commit. Citizens (and, for assignments, the officer) get one email
+ * listing all of their grievances that changed, sent after the last chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkGrievanceService {
+
+    private static final String GRIEVANCE = Grievance.class.getSimpleName();
+
+    public enum Outcome { UPDATED, UNCHANGED, SKIPPED, NOT_FOUND, FAILED }
+
+    /** The fields of GET /api/grievances/filter; null fields do not restrict. */
+    public record Filter(Grievance.GrievanceType type, Grievance.GrievanceStatus status, Long departmentId,
+                         Double minConfidence, Double maxConfidence, LocalDateTime from, LocalDateTime to) {
+        boolean isEmpty() {
+            return type == null && status == null && departmentId == null && minConfidence == null
+                    && maxConfidence == null && from == null && to == null;
+        }
+    }
+
+    public record ItemResult(Long id, Outcome outcome, String message) {}
+
+    public record BulkResult(int selected, Map<Outcome, Long> counts, List<ItemResult> results) {}
+
+    @Value("${grievances.bulk.chunk-size:200}")
+    private int chunkSize;
+
+    // Larger selections are refused rather than half applied
+    @Value("${grievances.bulk.max-items:5000}")
+    private int maxItems;
+
+    @Value("${grievances.update.max-attempts:3}")
+    private int maxAttempts;
+
+    private final GrievanceRepository grievanceRepository;
+    private final GrievanceStatusHistoryRepository historyRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final KnowledgeBaseService knowledgeBaseService;
+    private final WorkQueueService workQueueService;
+    private final NotificationService notificationService;
+    private final CacheInvalidationBus bus;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate chunkTemplate;
+
+    private record Notice(String name, String email, NotificationService.DigestItem item) {}
+
+    private record Chunk(List<ItemResult> results, List<Notice> citizens, List<Notice> officers) {}
+
+    @PostConstruct
+    void init() {
+        chunkTemplate = new TransactionTemplate(transactionManager);
+        chunkTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Moves the selected grievances to the status. Grievances already in it
+     * are UNCHANGED; a master's duplicates follow it, as with a single update.
+     */
+    public BulkResult updateStatus(List<Long> ids, Filter filter, Grievance.GrievanceStatus status, String reason,
+                                   User changedBy) {
+        if (status == null) {
+            throw new IllegalArgumentException("status is required");
+        }
+        return apply(select(ids, filter), chunk -> updateStatusChunk(chunk, status, reason, changedBy),
+                "Grievance Status Updates", "The status of the following grievances has been updated:", null, null);
+    }
+
+    /**
+     * Assigns the selected grievances to the department and/or officer.
+     * Resolved, closed and rejected grievances are SKIPPED; grievances
+     * already assigned there are UNCHANGED.
+     */
+    public BulkResult assign(List<Long> ids, Filter filter, Long departmentId, Long officerId, String reason) {
+        if (departmentId == null && officerId == null) {
+            throw new IllegalArgumentException("departmentId or officerId is required");
+        }
+        Department department = departmentId == null ? null : departmentRepository.findById(departmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Department not found with id: " + departmentId));
+        User officer = officerId == null ? null : userRepository.findById(officerId)
+                .orElseThrow(() -> new IllegalArgumentException("Officer not found with id: " + officerId));
+        return apply(select(ids, filter), chunk -> assignChunk(chunk, department, officer, reason),
+                "Grievances Assigned", "The following grievances have been assigned for review:",
+                "New Grievance Assignments", "The following grievances have been assigned to you:");
+    }
+
+    private List<Long> select(List<Long> ids, Filter filter) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = filter != null && !filter.isEmpty();
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Select grievances by ids or by filter, not both or neither");
+        }
+        List<Long> selected = byIds ? ids.stream().filter(Objects::nonNull).distinct().toList() : findIds(filter);
+        if (selected.size() > maxItems) {
+            throw new IllegalArgumentException("Selection exceeds " + maxItems + " grievances");
+        }
+        return selected;
+    }
+
+    // Ids only, so a large selection does not load its grievances
+    private List<Long> findIds(Filter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Grievance> root = query.from(Grievance.class);
+        query.select(root.get("id"))
+                .where(GrievanceService.filterSpecification(filter.type(), filter.status(), filter.departmentId(),
+                        filter.minConfidence(), filter.maxConfidence(), filter.from(), filter.to())
+                        .toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(maxItems + 1).getResultList();
+    }
+
+    private BulkResult apply(List<Long> selected, Function<List<Long>, Chunk> change,
+                             String citizenSubject, String citizenIntro, String officerSubject, String officerIntro) {
+        long started = System.nanoTime();
+        List<ItemResult> results = new ArrayList<>(selected.size());
+        List<Notice> citizens = new ArrayList<>();
+        List<Notice> officers = new ArrayList<>();
+        for (int from = 0; from < selected.size(); from += chunkSize) {
+            List<Long> chunk = selected.subList(from, Math.min(from + chunkSize, selected.size()));
+            try {
+                Chunk done = applyChunk(chunk, change);
+                results.addAll(done.results());
+                citizens.addAll(done.citizens());
+                officers.addAll(done.officers());
+            } catch (RuntimeException e) {
+                log.warn("Bulk change of {} grievances from id {} rolled back: {}", chunk.size(), chunk.get(0),
+                        e.getMessage());
+                chunk.forEach(id -> results.add(new ItemResult(id, Outcome.FAILED, e.getMessage())));
+            }
+        }
+        // Only committed chunks got this far
+        sendDigests(citizens, citizenSubject, citizenIntro);
+        sendDigests(officers, officerSubject, officerIntro);
+        Map<Outcome, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(ItemResult::outcome, LinkedHashMap::new, Collectors.counting()));
+        log.info("Bulk change of {} grievances in {} ms: {}", selected.size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis(), counts);
+        return new BulkResult(selected.size(), counts, results);
+    }
+
+    // A chunk that lost a race with another update is read and applied again
+    private Chunk applyChunk(List<Long> chunk, Function<List<Long>, Chunk> change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return chunkTemplate.execute(tx -> change.apply(chunk));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Bulk chunk from id {} conflicted with another update, retrying", chunk.get(0));
+            }
+        }
+    }
+
+    private Chunk updateStatusChunk(List<Long> ids, Grievance.GrievanceStatus status, String reason, User changedBy) {
+        Map<Long, GrievanceRepository.BulkRow> rows = rowsById(ids);
+        List<ItemResult> results = new ArrayList<>(ids.size());
+        List<GrievanceRepository.BulkRow> changed = new ArrayList<>();
+        for (Long id : ids) {
+            GrievanceRepository.BulkRow row = rows.get(id);
+            if (row == null) {
+                results.add(new ItemResult(id, Outcome.NOT_FOUND, "Grievance not found"));
+            } else if (row.getStatus() == status) {
+                results.add(new ItemResult(id, Outcome.UNCHANGED, "Already " + status));
+            } else {
+                changed.add(row);
+            }
+        }
+        List<Notice> citizens = new ArrayList<>();
+        if (!changed.isEmpty()) {
+            Set<Long> changedIds = new LinkedHashSet<>(changed.stream().map(GrievanceRepository.BulkRow::getId).toList());
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime resolvedAt = status == Grievance.GrievanceStatus.RESOLVED ? now : null;
+            forEachFromStatus(changed, (fromStatus, group) ->
+                    grievanceRepository.updateStatusByIdIn(group, fromStatus, status, resolvedAt, now));
+            List<Long> masters = changed.stream().filter(row -> row.getDuplicateOfId() == null)
+                    .map(GrievanceRepository.BulkRow::getId).toList();
+            if (!masters.isEmpty()) {
+                // Cascaded duplicates are refreshed and published along with the grievances themselves
+                changedIds.addAll(grievanceRepository.findIdsByDuplicateOfIdIn(masters));
+                grievanceRepository.updateStatusOfDuplicates(masters, status, resolvedAt, now);
+            }
+
+            List<GrievanceStatusHistory> history = new ArrayList<>(changed.size());
+            for (GrievanceRepository.BulkRow row : changed) {
+                history.add(history(row.getId(), row.getStatus(), status, reason, changedBy,
+                        departmentReference(row.getDepartmentId()), now));
+                results.add(new ItemResult(row.getId(), Outcome.UPDATED, row.getStatus() + " -> " + status));
+                citizens.add(notice(row, row.getStatus() + " -> " + status));
+            }
+            historyRepository.saveAll(history);
+            changedIds.forEach(id -> bus.publishAfterCommit(GRIEVANCE, id));
+            duplicateDetectionService.reloadAfterCommit(changedIds);
+            knowledgeBaseService.refreshAfterCommit(changedIds);
+            workQueueService.reloadAfterCommit(changedIds);
+        }
+        return new Chunk(results, citizens, List.of());
+    }
+
+    private Chunk assignChunk(List<Long> ids, Department department, User officer, String reason) {
+        Map<Long, GrievanceRepository.BulkRow> rows = rowsById(ids);
+        List<ItemResult> results = new ArrayList<>(ids.size());
+        List<GrievanceRepository.BulkRow> changed = new ArrayList<>();
+        for (Long id : ids) {
+            GrievanceRepository.BulkRow row = rows.get(id);
+            if (row == null) {
+                results.add(new ItemResult(id, Outcome.NOT_FOUND, "Grievance not found"));
+            } else if (DuplicateDetectionService.CLOSED_STATUSES.contains(row.getStatus())) {
+                results.add(new ItemResult(id, Outcome.SKIPPED, "Grievance is " + row.getStatus()));
+            } else if (row.getStatus() == Grievance.GrievanceStatus.ASSIGNED
+                    && (department == null || department.getId().equals(row.getDepartmentId()))
+                    && (officer == null || officer.getId().equals(row.getOfficerId()))) {
+                results.add(new ItemResult(id, Outcome.UNCHANGED, "Already assigned"));
+            } else {
+                changed.add(row);
+            }
+        }
+        List<Notice> citizens = new ArrayList<>();
+        List<Notice> officers = new ArrayList<>();
+        if (!changed.isEmpty()) {
+            List<Long> changedIds = changed.stream().map(GrievanceRepository.BulkRow::getId).toList();
+            LocalDateTime now = LocalDateTime.now();
+            forEachFromStatus(changed, (fromStatus, group) -> {
+                int updated = group.size();
+                if (department != null) {
+                    updated = grievanceRepository.assignDepartmentByIdIn(group, fromStatus, department,
+                            Grievance.GrievanceStatus.ASSIGNED, now);
+                }
+                if (officer != null && updated == group.size()) {
+                    // After a department update the rows are ASSIGNED and held by this transaction
+                    updated = grievanceRepository.assignOfficerByIdIn(group,
+                            department != null ? Grievance.GrievanceStatus.ASSIGNED : fromStatus, officer,
+                            Grievance.GrievanceStatus.ASSIGNED, now);
+                }
+                return updated;
+            });
+
+            String detail = department != null ? "assigned to " + department.getName() : "assigned to an officer";
+            List<GrievanceStatusHistory> history = new ArrayList<>(changed.size());
+            for (GrievanceRepository.BulkRow row : changed) {
+                history.add(history(row.getId(), row.getStatus(), Grievance.GrievanceStatus.ASSIGNED,
+                        reason == null || reason.isBlank() ? "Grievance assigned" : reason, null,
+                        department != null ? department : departmentReference(row.getDepartmentId()), now));
+                results.add(new ItemResult(row.getId(), Outcome.UPDATED, detail));
+                citizens.add(notice(row, detail));
+                if (officer != null) {
+                    officers.add(new Notice(officer.getName(), officer.getEmail(),
+                            new NotificationService.DigestItem(row.getTrackingNumber(), row.getTitle(), detail)));
+                }
+            }
+            historyRepository.saveAll(history);
+            changedIds.forEach(id -> bus.publishAfterCommit(GRIEVANCE, id));
+            workQueueService.reloadAfterCommit(changedIds);
+        }
+        return new Chunk(results, citizens, officers);
+    }
+
+    /**
+     * Runs the conditional update once per status the rows were read in. A
+     * row whose status changed since then is not updated, which fails the
+     * chunk so it is read again.
+     */
+    private void forEachFromStatus(List<GrievanceRepository.BulkRow> rows,
+                                   BiFunction<Grievance.GrievanceStatus, List<Long>, Integer> update) {
+        Map<Grievance.GrievanceStatus, List<Long>> byStatus = rows.stream().collect(Collectors.groupingBy(
+                GrievanceRepository.BulkRow::getStatus, LinkedHashMap::new,
+                Collectors.mapping(GrievanceRepository.BulkRow::getId, Collectors.toList())));
+        byStatus.forEach((fromStatus, ids) -> {
+            if (update.apply(fromStatus, ids) != ids.size()) {
+                throw new ObjectOptimisticLockingFailureException(Grievance.class, ids.get(0));
+            }
+        });
+    }
+
+    private Map<Long, GrievanceRepository.BulkRow> rowsById(List<Long> ids) {
+        return grievanceRepository.findBulkRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(GrievanceRepository.BulkRow::getId, Function.identity()));
+    }
+
+    private Department departmentReference(Long departmentId) {
+        return departmentId == null ? null : departmentRepository.getReferenceById(departmentId);
+    }
+
+    private GrievanceStatusHistory history(Long grievanceId, Grievance.GrievanceStatus fromStatus,
+                                           Grievance.GrievanceStatus toStatus, String reason, User changedBy,
+                                           Department department, LocalDateTime now) {
+        GrievanceStatusHistory history = new GrievanceStatusHistory();
+        history.setGrievance(grievanceRepository.getReferenceById(grievanceId));
+        history.setFromStatus(fromStatus);
+        history.setToStatus(toStatus);
+        history.setReason(reason);
+        history.setChangedBy(changedBy);
+        history.setAssignedDepartment(department);
+        history.setChangedAt(now);
+        return history;
+    }
+
+    private static Notice notice(GrievanceRepository.BulkRow row, String detail) {
+        return new Notice(row.getUserName(), row.getUserEmail(),
+                new NotificationService.DigestItem(row.getTrackingNumber(), row.getTitle(), detail));
+    }
+
+    // One email per recipient, listing their grievances in selection order
+    private void sendDigests(List<Notice> notices, String subject, String intro) {
+        Map<String, List<Notice>> byRecipient = notices.stream().filter(notice -> notice.email() != null)
+                .collect(Collectors.groupingBy(Notice::email, LinkedHashMap::new, Collectors.toList()));
+        byRecipient.forEach((email, mine) -> notificationService.sendDigest(mine.get(0).name(), email, subject, intro,
+                mine.stream().map(Notice::item).toList()));
+    }
+}
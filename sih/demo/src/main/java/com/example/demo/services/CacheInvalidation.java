@@ -0,0 +1,9 @@
+package com.example.demo.services;
+
+/**
+ * One changed entity, as published to the other nodes: the entity name (simple
+ * class name, e.g. "JobPosting"), its id, the node that made the change and
+ * when it was published (epoch millis, used for the lag metric).
+ */
+public record CacheInvalidation(String entity, long id, String origin, long publishedAt) {
+}
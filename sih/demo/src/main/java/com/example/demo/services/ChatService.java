@@ -1,57 +1,320 @@
 package com.example.demo.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Chat assistant backed by an OpenAI-compatible completions API
+ * (openai.base-url, so a local fake server can stand in). Client-supplied
+ * history is trimmed to chat.context.max-tokens before it is sent, and answers
+ * to single-question conversations are cached, so frequent FAQ prompts are
+ * answered without an upstream call.
+ *
+ * Routing and "how do I" questions that {@link KnowledgeBaseService} can
+ * answer from its index never go upstream; for the rest its best passages are
+ * sent along as a system message, and they also back the fallback reply.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChatService {
 
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     @Value("${openai.api.key:}")
     private String openaiApiKey;
 
+    @Value("${openai.base-url:https://api.openai.com}")
+    private String openaiBaseUrl;
+
     @Value("${chat.model:gpt-3.5-turbo}")
     private String model;
 
-    private final WebClient webClient = WebClient.builder().build();
+    @Value("${chat.timeout:20s}")
+    private Duration timeout;
+
+    @Value("${chat.context.max-tokens:3000}")
+    private int maxContextTokens;
+
+    @Value("${chat.faq-cache.max-size:500}")
+    private long faqCacheMaxSize;
+
+    @Value("${chat.faq-cache.ttl:6h}")
+    private Duration faqCacheTtl;
+
+    private final WebClient externalWebClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final KnowledgeBaseService knowledgeBase;
+
+    // normalized question -> answer; Caffeine's admission policy keeps the frequent ones
+    private Cache<String, String> faqAnswers;
+
+    @PostConstruct
+    void initFaqCache() {
+        faqAnswers = Caffeine.newBuilder()
+                .maximumSize(faqCacheMaxSize)
+                .expireAfterWrite(faqCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, faqAnswers, "chat.faq");
+    }
 
     public String chat(List<Map<String, String>> messages) {
-        if (openaiApiKey != null && !openaiApiKey.isBlank()) {
+        List<Map<String, String>> context = trimToBudget(messages);
+        String faqKey = faqKey(context);
+        String cached = faqKey != null ? faqAnswers.getIfPresent(faqKey) : null;
+        if (cached != null) {
+            return cached;
+        }
+        Optional<String> local = knowledgeBase.answer(lastUserContent(messages));
+        if (local.isPresent()) {
+            return local.get();
+        }
+        if (hasApiKey()) {
             try {
-                Map<String, Object> payload = new HashMap<>();
-                payload.put("model", model);
-                payload.put("messages", messages);
-                Map resp = webClient.post()
-                        .uri("https://api.openai.com/v1/chat/completions")
-                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + openaiApiKey)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .bodyValue(payload)
-                        .retrieve()
-                        .bodyToMono(Map.class)
-                        .block();
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) resp.get("choices");
-                if (choices != null && !choices.isEmpty()) {
-                    Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                    return (String) message.get("content");
+                String reply = completion(groundedContext(messages)).block();
+                if (reply != null) {
+                    remember(faqKey, reply);
+                    return reply;
                 }
             } catch (Exception e) {
                 log.warn("OpenAI chat failed: {}", e.getMessage());
             }
         }
-        // Fallback heuristic assistant
-        String last = messages.isEmpty() ? "" : messages.get(messages.size()-1).getOrDefault("content","");
-        return "Thanks for sharing. I understood: " + last + "\nYou can provide more details or ask me to categorize, route, or draft the complaint.";
+        return fallbackReply(messages);
+    }
+
+    // Non-blocking chat for the reactive AI endpoints; falls back after chat.timeout
+    public Mono<String> chatReactive(List<Map<String, String>> messages) {
+        List<Map<String, String>> context = trimToBudget(messages);
+        String faqKey = faqKey(context);
+        String cached = faqKey != null ? faqAnswers.getIfPresent(faqKey) : null;
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        Optional<String> local = knowledgeBase.answer(lastUserContent(messages));
+        if (local.isPresent()) {
+            return Mono.just(local.get());
+        }
+        if (!hasApiKey()) {
+            return Mono.just(fallbackReply(messages));
+        }
+        return completion(groundedContext(messages))
+                .timeout(timeout)
+                .doOnNext(reply -> remember(faqKey, reply))
+                .onErrorResume(e -> {
+                    log.warn("OpenAI chat failed: {}", e.toString());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> fallbackReply(messages)));
+    }
+
+    /**
+     * The reply as it is generated, one piece per upstream chunk. A cached or
+     * fallback reply arrives as a single piece. If the upstream fails or goes
+     * quiet for chat.timeout before anything was sent, the fallback reply is
+     * sent instead; after that the error is passed on.
+     */
+    public Flux<String> chatStream(List<Map<String, String>> messages) {
+        List<Map<String, String>> context = trimToBudget(messages);
+        String faqKey = faqKey(context);
+        String cached = faqKey != null ? faqAnswers.getIfPresent(faqKey) : null;
+        if (cached != null) {
+            return Flux.just(cached);
+        }
+        Optional<String> local = knowledgeBase.answer(lastUserContent(messages));
+        if (local.isPresent()) {
+            return Flux.just(local.get());
+        }
+        if (!hasApiKey()) {
+            return Flux.just(fallbackReply(messages));
+        }
+        List<Map<String, String>> grounded = groundedContext(messages);
+        return Flux.defer(() -> {
+            StringBuilder reply = new StringBuilder();
+            return streamCompletion(grounded)
+                    .timeout(timeout)
+                    .doOnNext(reply::append)
+                    .doOnComplete(() -> remember(faqKey, reply.toString()))
+                    .onErrorResume(e -> {
+                        log.warn("OpenAI chat stream failed: {}", e.toString());
+                        return reply.isEmpty() ? Flux.just(fallbackReply(messages)) : Flux.error(e);
+                    });
+        });
+    }
+
+    /**
+     * The most recent messages that fit in chat.context.max-tokens, dropping
+     * the oldest first. Leading system messages are always kept, and so is
+     * the latest message even when it alone is over the budget.
+     */
+    List<Map<String, String>> trimToBudget(List<Map<String, String>> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return List.of();
+        }
+        List<Map<String, String>> trimmed = new ArrayList<>();
+        int budget = maxContextTokens;
+        int first = 0;
+        while (first < messages.size() && messages.get(first) != null
+                && "system".equals(messages.get(first).get("role"))) {
+            trimmed.add(messages.get(first));
+            budget -= TokenEstimator.estimate(messages.get(first));
+            first++;
+        }
+        Deque<Map<String, String>> recent = new ArrayDeque<>();
+        for (int i = messages.size() - 1; i >= first; i--) {
+            Map<String, String> message = messages.get(i);
+            if (message == null) {
+                continue;
+            }
+            int cost = TokenEstimator.estimate(message);
+            if (!recent.isEmpty() && cost > budget) {
+                break;
+            }
+            recent.addFirst(message);
+            budget -= cost;
+        }
+        trimmed.addAll(recent);
+        if (trimmed.size() < messages.size()) {
+            log.debug("Chat history trimmed from {} to {} messages", messages.size(), trimmed.size());
+        }
+        return trimmed;
+    }
+
+    // The retrieved passages go after the client's own system messages, then the budget is applied
+    private List<Map<String, String>> groundedContext(List<Map<String, String>> messages) {
+        Optional<Map<String, String>> retrieved = knowledgeBase.contextMessage(lastUserContent(messages));
+        if (retrieved.isEmpty()) {
+            return trimToBudget(messages);
+        }
+        List<Map<String, String>> grounded = new ArrayList<>(messages.size() + 1);
+        int first = 0;
+        while (first < messages.size() && messages.get(first) != null
+                && "system".equals(messages.get(first).get("role"))) {
+            grounded.add(messages.get(first++));
+        }
+        grounded.add(retrieved.get());
+        grounded.addAll(messages.subList(first, messages.size()));
+        return trimToBudget(grounded);
+    }
+
+    private static String lastUserContent(List<Map<String, String>> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return null;
+        }
+        Map<String, String> last = messages.get(messages.size() - 1);
+        return last != null && "user".equals(last.get("role")) ? last.get("content") : null;
+    }
+
+    // Only a lone short question is cached: with history, the answer depends on the conversation
+    private static String faqKey(List<Map<String, String>> context) {
+        if (context.size() != 1 || !"user".equals(context.get(0).get("role"))) {
+            return null;
+        }
+        String content = context.get(0).get("content");
+        if (content == null || content.length() > 300) {
+            return null;
+        }
+        String key = content.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return key.isEmpty() ? null : key;
+    }
+
+    private void remember(String faqKey, String reply) {
+        if (faqKey != null && reply != null && !reply.isBlank()) {
+            faqAnswers.put(faqKey, reply);
+        }
+    }
+
+    private boolean hasApiKey() {
+        return openaiApiKey != null && !openaiApiKey.isBlank();
+    }
+
+    private WebClient.RequestHeadersSpec<?> completionRequest(List<Map<String, String>> context, boolean stream) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("model", model);
+        payload.put("messages", context);
+        if (stream) {
+            payload.put("stream", true);
+        }
+        return externalWebClient.post()
+                .uri(openaiBaseUrl + "/v1/chat/completions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + openaiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(stream ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_JSON)
+                .bodyValue(payload);
+    }
+
+    // Empty when the response has no choices
+    private Mono<String> completion(List<Map<String, String>> context) {
+        return completionRequest(context, false)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .mapNotNull(resp -> {
+                    List<Map<String, Object>> choices = (List<Map<String, Object>>) resp.get("choices");
+                    if (choices == null || choices.isEmpty()) {
+                        return null;
+                    }
+                    Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
+                    return (String) message.get("content");
+                });
     }
-}
 
+    // Streamed completion: "data: {json}" events with choices[0].delta.content, ending with "data: [DONE]"
+    private Flux<String> streamCompletion(List<Map<String, String>> context) {
+        return completionRequest(context, true)
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                .mapNotNull(this::deltaContent);
+    }
+
+    private String deltaContent(String chunk) {
+        try {
+            JsonNode content = objectMapper.readTree(chunk).path("choices").path(0).path("delta").path("content");
+            return content.isTextual() && !content.asText().isEmpty() ? content.asText() : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected completion chunk", e);
+        }
+    }
 
+    // Best local answer, else the heuristic echo
+    private String fallbackReply(List<Map<String, String>> messages) {
+        Optional<String> local = knowledgeBase.bestEffortAnswer(lastUserContent(messages));
+        if (local.isPresent()) {
+            return local.get();
+        }
+        Map<String, String> lastMessage = messages == null || messages.isEmpty() ? null : messages.get(messages.size() - 1);
+        String last = lastMessage != null ? lastMessage.getOrDefault("content", "") : "";
+        return "Thanks for sharing. I understood: " + last + "\nYou can provide more details or ask me to categorize, route, or draft the complaint.";
+    }
+}
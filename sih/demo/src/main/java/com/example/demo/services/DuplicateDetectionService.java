@@ -0,0 +1,157 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.repository.GrievanceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds likely duplicates of a new grievance among the open ones, using a
+ * {@link MinHashLshIndex} over title and description. Only open grievances
+ * that are not duplicates themselves are indexed, so every match is a master.
+ *
+ * The index is loaded when the application is ready. Grievances submitted or
+ * changed on this node are applied after their transaction commits; changes
+ * on other nodes arrive through {@link CacheInvalidationBus} and are reloaded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DuplicateDetectionService {
+
+    static final Set<Grievance.GrievanceStatus> CLOSED_STATUSES = EnumSet.of(
+            Grievance.GrievanceStatus.RESOLVED, Grievance.GrievanceStatus.CLOSED, Grievance.GrievanceStatus.REJECTED);
+
+    @Value("${duplicates.enabled:true}")
+    private boolean enabled;
+
+    @Value("${duplicates.similarity-threshold:0.6}")
+    private double similarityThreshold;
+
+    @Value("${duplicates.lsh.bands:16}")
+    private int bands;
+
+    @Value("${duplicates.lsh.rows:4}")
+    private int rows;
+
+    @Value("${duplicates.lsh.buckets-per-band:65536}")
+    private int bucketsPerBand;
+
+    @Value("${duplicates.index.page-size:1000}")
+    private int pageSize;
+
+    private final GrievanceRepository grievanceRepository;
+    private final CacheInvalidationBus bus;
+    private final MeterRegistry meterRegistry;
+
+    private volatile MinHashLshIndex index;
+    private Timer lookupTimer;
+
+    @PostConstruct
+    public void init() {
+        index = new MinHashLshIndex(bands, rows, bucketsPerBand);
+        bus.subscribe(Grievance.class.getSimpleName(), (entity, ids) -> reload(ids));
+        Gauge.builder("duplicates.index.size", this, service -> service.index.size())
+                .description("Open grievances in the duplicate index")
+                .register(meterRegistry);
+        lookupTimer = Timer.builder("duplicates.lookup")
+                .description("Near-duplicate lookups on submission")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            MinHashLshIndex fresh = new MinHashLshIndex(bands, rows, bucketsPerBand);
+            long afterId = 0;
+            List<Grievance> page;
+            do {
+                page = grievanceRepository.findOpenMastersAfter(CLOSED_STATUSES, afterId, PageRequest.of(0, pageSize));
+                for (Grievance grievance : page) {
+                    fresh.put(grievance.getId(), text(grievance.getTitle(), grievance.getDescription()));
+                    afterId = grievance.getId();
+                }
+            } while (page.size() == pageSize);
+            index = fresh;
+            log.info("Duplicate index built: {} open grievances in {} ms", fresh.size(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (Exception e) {
+            log.warn("Duplicate index build failed, submissions are not deduplicated: {}", e.getMessage());
+        }
+    }
+
+    /** The open grievance this text most likely duplicates, if any reaches duplicates.similarity-threshold. */
+    public Optional<MinHashLshIndex.Match> findMaster(String title, String description) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return lookupTimer.record(() -> index.findMostSimilar(text(title, description), similarityThreshold));
+    }
+
+    /** Indexes the grievance once the current transaction commits if it is an open master, otherwise drops it. */
+    public void trackAfterCommit(Grievance grievance) {
+        Long id = grievance.getId();
+        boolean master = grievance.getDuplicateOfId() == null && !CLOSED_STATUSES.contains(grievance.getStatus());
+        String text = text(grievance.getTitle(), grievance.getDescription());
+        AfterCommit.run(() -> {
+            if (master) {
+                index.put(id, text);
+            } else {
+                index.remove(id);
+            }
+        });
+    }
+
+    public void untrackAfterCommit(Long grievanceId) {
+        AfterCommit.run(() -> index.remove(grievanceId));
+    }
+
+    /** Re-reads the grievances once the transaction commits, for changes made with bulk updates. */
+    public void reloadAfterCommit(Collection<Long> grievanceIds) {
+        Set<Long> ids = Set.copyOf(grievanceIds);
+        AfterCommit.run(() -> reload(ids));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void reload(Set<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (Grievance grievance : grievanceRepository.findAllById(ids)) {
+            missing.remove(grievance.getId());
+            if (grievance.getDuplicateOfId() == null && !CLOSED_STATUSES.contains(grievance.getStatus())) {
+                index.put(grievance.getId(), text(grievance.getTitle(), grievance.getDescription()));
+            } else {
+                index.remove(grievance.getId());
+            }
+        }
+        missing.forEach(index::remove);
+    }
+
+    private static String text(String title, String description) {
+        return (title == null ? "" : title) + " " + (description == null ? "" : description);
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.repository.GrievanceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded grievance categorizer: a {@link NaiveBayesTextClassifier} trained
+ * from the database and scored on the request thread.
+ *
+ * Labels are categories the portal trusts: ML answers above
+ * classifier.training.min-confidence, and officer corrections made while
+ * assigning (stored with confidence 1.0 and weighted higher). A background
+ * thread learns grievances past the last trained id, re-reading a trailing
+ * window of ids because pooled id blocks commit out of order, applies this node's
+ * corrections as an unlearn and a learn, and writes a snapshot that the next
+ * start resumes from instead of retraining. A periodic full retrain picks up
+ * corrections made on other nodes.
+ *
+ * In shadow mode the ML service stays authoritative and each of its answers
+ * is compared with the local one (classifier.shadow); in primary mode a
+ * confident local answer is used without calling ML.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GrievanceClassifierService {
+
+    static final List<String> LABELS = Arrays.stream(Grievance.GrievanceType.values()).map(Enum::name).toList();
+
+    private static final long SNAPSHOT_MAGIC = 0x4752564E43L;
+
+    @Value("${classifier.enabled:true}")
+    private boolean enabled;
+
+    // shadow or primary
+    @Value("${classifier.mode:shadow}")
+    private String mode;
+
+    @Value("${classifier.hash-bits:17}")
+    private int hashBits;
+
+    // Weighted training documents before the model answers at all
+    @Value("${classifier.min-documents:200}")
+    private double minDocuments;
+
+    @Value("${classifier.training.min-confidence:0.9}")
+    private double minLabelConfidence;
+
+    @Value("${classifier.training.correction-weight:5}")
+    private double correctionWeight;
+
+    @Value("${classifier.training.interval-ms:60000}")
+    private long trainingIntervalMs;
+
+    @Value("${classifier.training.full-interval:PT24H}")
+    private Duration fullTrainingInterval;
+
+    @Value("${classifier.training.page-size:1000}")
+    private int pageSize;
+
+    // Each node takes grievance ids in blocks of 50, so a lower id can commit after a higher one
+    // was learned. Every run re-reads this many ids below the highest learned one.
+    @Value("${classifier.training.rescan-ids:1000}")
+    private long rescanIds;
+
+    // Blank keeps the model in memory only
+    @Value("${classifier.snapshot-path:}")
+    private String snapshotPath;
+
+    private final GrievanceRepository grievanceRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Queue<Correction> corrections = new ConcurrentLinkedQueue<>();
+    private volatile NaiveBayesTextClassifier model;
+    // Highest grievance id learned; only training moves it
+    private volatile long trainedThroughId;
+    // Learned ids inside the re-read window, so a re-read never learns a grievance twice
+    private NavigableSet<Long> learnedInWindow = new TreeSet<>();
+    private ScheduledExecutorService trainer;
+    private Timer scoreTimer;
+
+    private record Correction(long grievanceId, String text, String fromLabel, double fromWeight,
+                              String toLabel, double toWeight) {}
+
+    private record Progress(int learned, long throughId) {}
+
+    @PostConstruct
+    public void init() {
+        model = new NaiveBayesTextClassifier(LABELS, hashBits);
+        loadSnapshot();
+        Gauge.builder("classifier.documents", this, service -> service.model.documents())
+                .description("Weighted training documents in the local classifier")
+                .register(meterRegistry);
+        scoreTimer = Timer.builder("classifier.predict")
+                .description("Local classifier scoring on the request thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // A dedicated thread rather than @Scheduled, so training runs are not traced as requests
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        trainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "classifier-training");
+            thread.setDaemon(true);
+            return thread;
+        });
+        trainer.scheduleWithFixedDelay(() -> run(this::train), 0, trainingIntervalMs, TimeUnit.MILLISECONDS);
+        long fullMs = fullTrainingInterval.toMillis();
+        trainer.scheduleWithFixedDelay(() -> run(this::retrain), fullMs, fullMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (trainer != null) {
+            trainer.shutdownNow();
+        }
+    }
+
+    /**
+     * The local model's category, or empty while it has fewer than
+     * classifier.min-documents. The confidence is capped at the training
+     * threshold so grievances it categorizes are never learned back as labels.
+     */
+    public Optional<NaiveBayesTextClassifier.Prediction> classify(String title, String description) {
+        NaiveBayesTextClassifier current = model;
+        if (!enabled || current.documents() < minDocuments) {
+            return Optional.empty();
+        }
+        return scoreTimer.record(() -> current.predict(text(title, description)))
+                .map(p -> new NaiveBayesTextClassifier.Prediction(p.label(), Math.min(p.confidence(), minLabelConfidence)));
+    }
+
+    public boolean isPrimary() {
+        return enabled && "primary".equalsIgnoreCase(mode);
+    }
+
+    /** Counts whether the local model agreed with an ML answer. */
+    public void compareWithMl(String mlCategory, Optional<NaiveBayesTextClassifier.Prediction> local) {
+        if (!enabled) {
+            return;
+        }
+        String outcome = local.map(p -> p.label().equals(mlCategory) ? "agree" : "disagree").orElse("abstain");
+        meterRegistry.counter("classifier.shadow", "outcome", outcome).increment();
+        if ("disagree".equals(outcome)) {
+            log.debug("Local classifier said {} ({}), ML said {}", local.get().label(),
+                    String.format("%.2f", local.get().confidence()), mlCategory);
+        }
+    }
+
+    /** Queues an officer's recategorization for the next training run once the transaction commits. */
+    public void correctAfterCommit(Grievance grievance, String fromCategory, Double fromConfidence) {
+        Correction correction = new Correction(grievance.getId(), text(grievance.getTitle(), grievance.getDescription()),
+                fromCategory, weight(fromConfidence), grievance.getAiCategory(), weight(grievance.getAiConfidence()));
+        AfterCommit.run(() -> corrections.add(correction));
+    }
+
+    /**
+     * Applies queued corrections and learns grievances labeled since the last
+     * run, then snapshots the model if anything changed.
+     *
+     * @return corrections applied plus grievances learned
+     */
+    public synchronized int train() {
+        int changes = 0;
+        Correction correction;
+        while ((correction = corrections.poll()) != null) {
+            // Not learned yet: the scan below reads the corrected row
+            if (isLearned(correction.grievanceId())) {
+                model.learn(correction.text(), correction.fromLabel(), -correction.fromWeight());
+                model.learn(correction.text(), correction.toLabel(), correction.toWeight());
+                changes++;
+            }
+        }
+        Progress progress = learnAfter(model, Math.max(0, trainedThroughId - rescanIds), learnedInWindow);
+        trainedThroughId = Math.max(trainedThroughId, progress.throughId());
+        int learned = progress.learned();
+        changes += learned;
+        if (changes > 0) {
+            log.debug("Local classifier learned {} grievances and {} corrections", learned, changes - learned);
+            writeSnapshot();
+        }
+        return changes;
+    }
+
+    /** Trains a fresh model from every labeled grievance and swaps it in. */
+    public synchronized void retrain() {
+        long started = System.nanoTime();
+        corrections.clear();
+        NaiveBayesTextClassifier fresh = new NaiveBayesTextClassifier(LABELS, hashBits);
+        NavigableSet<Long> learned = new TreeSet<>();
+        Progress progress = learnAfter(fresh, 0, learned);
+        model = fresh;
+        learnedInWindow = learned;
+        trainedThroughId = progress.throughId();
+        log.info("Local classifier retrained on {} grievances in {} ms", progress.learned(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        writeSnapshot();
+    }
+
+    public double documents() {
+        return model.documents();
+    }
+
+    // Learns labeled grievances past afterId that are not in window, which keeps the ids within rescanIds of the last
+    private Progress learnAfter(NaiveBayesTextClassifier target, long afterId, NavigableSet<Long> window) {
+        int learned = 0;
+        List<Grievance> page;
+        do {
+            page = grievanceRepository.findLabeledAfter(minLabelConfidence, afterId, PageRequest.of(0, pageSize));
+            for (Grievance grievance : page) {
+                afterId = grievance.getId();
+                if (window.add(afterId)) {
+                    target.learn(text(grievance.getTitle(), grievance.getDescription()), grievance.getAiCategory(),
+                            weight(grievance.getAiConfidence()));
+                    learned++;
+                }
+            }
+            window.headSet(afterId - rescanIds, true).clear();
+        } while (page.size() == pageSize);
+        return new Progress(learned, afterId);
+    }
+
+    // Below the window every id counts as learned; gaps left there wait for the full retrain
+    private boolean isLearned(long grievanceId) {
+        return grievanceId <= trainedThroughId - rescanIds || learnedInWindow.contains(grievanceId);
+    }
+
+    // Zero for a category too uncertain to be a label; corrections count more than ML answers
+    private double weight(Double confidence) {
+        if (confidence == null || confidence <= minLabelConfidence) {
+            return 0;
+        }
+        return confidence >= 1.0 ? correctionWeight : 1;
+    }
+
+    private void loadSnapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(snapshotPath))))) {
+            if (in.readLong() != SNAPSHOT_MAGIC) {
+                throw new IOException("not a classifier snapshot");
+            }
+            long throughId = in.readLong();
+            NavigableSet<Long> window = new TreeSet<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                window.add(in.readLong());
+            }
+            NaiveBayesTextClassifier loaded = NaiveBayesTextClassifier.readFrom(in);
+            if (loaded.hashBits() != hashBits || !loaded.labels().equals(LABELS)) {
+                log.info("Classifier snapshot {} was trained with other settings, retraining", snapshotPath);
+                return;
+            }
+            model = loaded;
+            trainedThroughId = throughId;
+            learnedInWindow = window;
+            log.info("Local classifier loaded from {}: {} documents through grievance {}", snapshotPath,
+                    Math.round(loaded.documents()), throughId);
+        } catch (IOException e) {
+            log.warn("Classifier snapshot {} unreadable, retraining: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    // Written beside the target and moved over it, so a crash never leaves half a snapshot
+    private void writeSnapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+        Path target = Path.of(snapshotPath).toAbsolutePath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeLong(SNAPSHOT_MAGIC);
+                out.writeLong(trainedThroughId);
+                out.writeInt(learnedInWindow.size());
+                for (long id : learnedInWindow) {
+                    out.writeLong(id);
+                }
+                model.writeTo(out);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write classifier snapshot {}: {}", target, e.getMessage());
+        }
+    }
+
+    private static void run(Runnable training) {
+        try {
+            training.run();
+        } catch (Exception e) {
+            log.warn("Local classifier training failed, retrying next run: {}", e.getMessage());
+        }
+    }
+
+    private static String text(String title, String description) {
+        return (title == null ? "" : title) + " " + (description == null ? "" : description);
+    }
+}
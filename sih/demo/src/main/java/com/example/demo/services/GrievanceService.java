@@ -1,21 +1,33 @@
 package com.example.demo.services;
 
+import com.example.demo.config.StageEvent;
 import com.example.demo.model.*;
 import com.example.demo.repository.GrievanceRepository;
 import com.example.demo.repository.DepartmentRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.GrievanceStatusHistoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -29,27 +41,67 @@ public class GrievanceService {
     private final AICategorizationService aiCategorizationService;
     private final NotificationService notificationService;
     private final GrievanceStatusHistoryRepository historyRepository;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final WorkQueueService workQueueService;
+    private final KnowledgeBaseService knowledgeBaseService;
+    private final GrievanceClassifierService grievanceClassifierService;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheInvalidationBus bus;
+    
+    private static final String GRIEVANCE = Grievance.class.getSimpleName();
+    private static final long RETRY_PAUSE_MS = 5;
+    
+    @Value("${grievances.update.max-attempts:3}")
+    private int maxAttempts;
+    
+    private TransactionTemplate updateTemplate;
+    
+    @PostConstruct
+    void init() {
+        updateTemplate = new TransactionTemplate(transactionManager);
+    }
     
     public Grievance submitGrievance(Grievance grievance) {
         log.info("Submitting new grievance: {}", grievance.getTitle());
-        
+        try (StageEvent stage = StageEvent.start("grievance.submit")) {
+            return submit(grievance);
+        }
+    }
+
+    private Grievance submit(Grievance grievance) {
         // AI Categorization
-        AICategorizationService.GrievanceCategorizationResult categorization = 
-            aiCategorizationService.categorizeGrievance(grievance.getTitle(), grievance.getDescription());
+        AICategorizationService.GrievanceCategorizationResult categorization;
+        try (StageEvent stage = StageEvent.start("grievance.categorize")) {
+            categorization = aiCategorizationService.categorizeGrievance(grievance.getTitle(), grievance.getDescription());
+        }
         
         grievance.setAiCategory(categorization.category());
         grievance.setAiConfidence(categorization.confidence());
         
-        // Auto-assign if confidence is high enough
-        if (aiCategorizationService.shouldAutoAssign(categorization)) {
+        // A likely duplicate follows its master instead of being triaged on its own
+        Optional<Grievance> master;
+        try (StageEvent stage = StageEvent.start("grievance.dedupe")) {
+            master = findOpenMaster(grievance);
+        }
+        if (master.isPresent()) {
+            linkToMaster(grievance, master.get());
+        } else if (aiCategorizationService.shouldAutoAssign(categorization)) {
+            // Auto-assign if confidence is high enough
             autoAssignGrievance(grievance, categorization.category());
         }
         
-        Grievance savedGrievance = grievanceRepository.save(grievance);
-        
-        // Create initial status history
-        createStatusHistory(savedGrievance, null, Grievance.GrievanceStatus.SUBMITTED, 
-                           "Grievance submitted", savedGrievance.getUser());
+        Grievance savedGrievance;
+        try (StageEvent stage = StageEvent.start("grievance.save")) {
+            savedGrievance = grievanceRepository.save(grievance);
+
+            // Create initial status history
+            String reason = master.map(m -> "Grievance submitted, linked as a duplicate of " + m.getTrackingNumber())
+                    .orElse("Grievance submitted");
+            createStatusHistory(savedGrievance, null, savedGrievance.getStatus(), reason, savedGrievance.getUser());
+        }
+        duplicateDetectionService.trackAfterCommit(savedGrievance);
+        workQueueService.trackAfterCommit(savedGrievance);
         
         // Send notifications
         notificationService.sendGrievanceSubmittedNotification(savedGrievance);
@@ -58,93 +110,234 @@ public class GrievanceService {
         return savedGrievance;
     }
     
+    @Transactional(readOnly = true)
     public Optional<Grievance> getGrievanceByTrackingNumber(String trackingNumber) {
         return grievanceRepository.findByTrackingNumber(trackingNumber);
     }
     
+    @Transactional(readOnly = true)
     public Page<Grievance> getGrievancesByUser(Long userId, Pageable pageable) {
         return grievanceRepository.findByUserIdOrderBySubmittedAtDesc(userId, pageable);
     }
     
+    @Transactional(readOnly = true)
     public Page<Grievance> getGrievancesByDepartment(Long departmentId, Pageable pageable) {
         return grievanceRepository.findByDepartmentId(departmentId, pageable);
     }
     
+    @Transactional(readOnly = true)
     public Page<Grievance> getGrievancesByStatus(Grievance.GrievanceStatus status, Pageable pageable) {
         return grievanceRepository.findByStatus(status, pageable);
     }
     
+    @Transactional(readOnly = true)
     public List<Grievance> getOverdueGrievances() {
         return grievanceRepository.findOverdueGrievances(LocalDateTime.now());
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Grievance updateGrievanceStatus(Long grievanceId, Grievance.GrievanceStatus newStatus, 
                                          String reason, User changedBy) {
-        Optional<Grievance> optionalGrievance = grievanceRepository.findById(grievanceId);
-        if (optionalGrievance.isEmpty()) {
-            throw new RuntimeException("Grievance not found with id: " + grievanceId);
-        }
-        
-        Grievance grievance = optionalGrievance.get();
-        Grievance.GrievanceStatus oldStatus = grievance.getStatus();
-        
-        grievance.setStatus(newStatus);
-        
-        if (newStatus == Grievance.GrievanceStatus.RESOLVED) {
-            grievance.setResolvedAt(LocalDateTime.now());
-        }
-        
-        Grievance savedGrievance = grievanceRepository.save(grievance);
-        
-        // Create status history
-        createStatusHistory(savedGrievance, oldStatus, newStatus, reason, changedBy);
-        
-        // Send notifications
-        notificationService.sendStatusUpdateNotification(savedGrievance, oldStatus, newStatus);
-        
-        log.info("Grievance status updated from {} to {} for tracking number: {}", 
-                oldStatus, newStatus, savedGrievance.getTrackingNumber());
-        
-        return savedGrievance;
+        return updateGrievanceStatus(grievanceId, newStatus, reason, changedBy, null);
     }
     
+    /**
+     * Sets the status. With an expected version (the one the caller last
+     * read) a grievance changed in the meantime fails with
+     * OptimisticLockingFailureException; without one, a concurrent update
+     * makes this re-read the grievance and apply the change on top.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Grievance updateGrievanceStatus(Long grievanceId, Grievance.GrievanceStatus newStatus,
+                                         String reason, User changedBy, Long expectedVersion) {
+        return retryOnConflict("status", () -> {
+            Grievance grievance = findForUpdate(grievanceId, expectedVersion);
+            Grievance.GrievanceStatus oldStatus = grievance.getStatus();
+            LocalDateTime resolvedAt = newStatus == Grievance.GrievanceStatus.RESOLVED
+                    ? LocalDateTime.now() : grievance.getResolvedAt();
+            
+            // Before the master's own row is written, so this never waits on other rows while holding it
+            if (grievance.getDuplicateOfId() == null) {
+                List<Long> duplicateIds = grievanceRepository.findIdsByDuplicateOfId(grievanceId);
+                int linked = grievanceRepository.updateStatusOfDuplicates(List.of(grievanceId), newStatus,
+                        resolvedAt, LocalDateTime.now());
+                if (linked > 0) {
+                    log.info("Status {} cascaded to {} duplicates of {}", newStatus, linked, grievance.getTrackingNumber());
+                }
+                duplicatesChangedAfterCommit(duplicateIds);
+            }
+            
+            grievance.setStatus(newStatus);
+            grievance.setResolvedAt(resolvedAt);
+            // Dirty even when the status is unchanged, so every recorded change bumps the version
+            grievance.setUpdatedAt(LocalDateTime.now());
+            
+            // Flushed here so a conflict surfaces before anything else is written or sent
+            Grievance savedGrievance = grievanceRepository.saveAndFlush(grievance);
+            
+            // Create status history
+            createStatusHistory(savedGrievance, oldStatus, newStatus, reason, changedBy);
+            
+            duplicateDetectionService.trackAfterCommit(savedGrievance);
+            workQueueService.trackAfterCommit(savedGrievance);
+            
+            // Send notifications
+            notificationService.sendStatusUpdateNotification(savedGrievance, oldStatus, newStatus);
+            
+            log.info("Grievance status updated from {} to {} for tracking number: {}", 
+                    oldStatus, newStatus, savedGrievance.getTrackingNumber());
+            
+            return savedGrievance;
+        });
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Grievance assignGrievance(Long grievanceId, Long departmentId, Long officerId) {
-        Optional<Grievance> optionalGrievance = grievanceRepository.findById(grievanceId);
-        if (optionalGrievance.isEmpty()) {
-            throw new RuntimeException("Grievance not found with id: " + grievanceId);
-        }
-        
-        Grievance grievance = optionalGrievance.get();
-        
-        if (departmentId != null) {
-            Optional<Department> department = departmentRepository.findById(departmentId);
-            department.ifPresent(grievance::setDepartment);
+        return assignGrievance(grievanceId, departmentId, officerId, null, null);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Grievance assignGrievance(Long grievanceId, Long departmentId, Long officerId, String category) {
+        return assignGrievance(grievanceId, departmentId, officerId, category, null);
+    }
+    
+    /**
+     * Assigns the grievance. A category named by the officer replaces the AI's
+     * with full confidence, and the local classifier learns from the
+     * correction (or confirmation). The expected version works as in
+     * {@link #updateGrievanceStatus(Long, Grievance.GrievanceStatus, String, User, Long)}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Grievance assignGrievance(Long grievanceId, Long departmentId, Long officerId, String category,
+                                     Long expectedVersion) {
+        String corrected = category == null || category.isBlank()
+                ? null : Grievance.GrievanceType.valueOf(category.trim().toUpperCase()).name();
+        return retryOnConflict("assign", () -> {
+            Grievance grievance = findForUpdate(grievanceId, expectedVersion);
+            Grievance.GrievanceStatus oldStatus = grievance.getStatus();
+            
+            if (departmentId != null) {
+                Optional<Department> department = departmentRepository.findById(departmentId);
+                department.ifPresent(grievance::setDepartment);
+            }
+            
+            if (officerId != null) {
+                Optional<User> officer = userRepository.findById(officerId);
+                officer.ifPresent(grievance::setAssignedOfficer);
+            }
+            
+            String previousCategory = grievance.getAiCategory();
+            Double previousConfidence = grievance.getAiConfidence();
+            boolean recategorized = false;
+            if (corrected != null) {
+                recategorized = !corrected.equals(previousCategory) || !Double.valueOf(1.0).equals(previousConfidence);
+                grievance.setAiCategory(corrected);
+                grievance.setAiConfidence(1.0);
+            }
+            
+            grievance.setAssignedAt(LocalDateTime.now());
+            grievance.setStatus(Grievance.GrievanceStatus.ASSIGNED);
+            
+            Grievance savedGrievance = grievanceRepository.saveAndFlush(grievance);
+            
+            // Create status history
+            String reason = "Grievance assigned";
+            if (recategorized) {
+                reason += savedGrievance.getAiCategory().equals(previousCategory)
+                        ? ", category confirmed as " + previousCategory
+                        : ", category corrected from " + previousCategory + " to " + savedGrievance.getAiCategory();
+                grievanceClassifierService.correctAfterCommit(savedGrievance, previousCategory, previousConfidence);
+            }
+            createStatusHistory(savedGrievance, oldStatus, Grievance.GrievanceStatus.ASSIGNED, reason, null);
+            workQueueService.trackAfterCommit(savedGrievance);
+            
+            // Send notifications
+            notificationService.sendAssignmentNotification(savedGrievance);
+            
+            return savedGrievance;
+        });
+    }
+    
+    /**
+     * Lets an officer take a grievance nobody holds, e.g. the next one from a
+     * queue. The claim is a single conditional UPDATE against the version
+     * just read, so no row is locked while deciding and two officers can
+     * never both get it: the loser sees IllegalStateException. A submitted or
+     * under-review grievance becomes ASSIGNED; later statuses are kept.
+     * Officers only claim their own department's grievances (see
+     * {@link User#worksFor}), or else AccessDeniedException.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Grievance claimGrievance(Long grievanceId, User officer) {
+        return retryOnConflict("claim", () -> {
+            Grievance grievance = findForUpdate(grievanceId, null);
+            if (grievance.getDepartment() != null && !officer.worksFor(grievance.getDepartment().getId())) {
+                throw new AccessDeniedException("User " + officer.getId() + " does not work for the department of grievance "
+                        + grievanceId);
+            }
+            if (grievance.getAssignedOfficer() != null) {
+                if (grievance.getAssignedOfficer().getId().equals(officer.getId())) {
+                    return grievance;
+                }
+                throw new IllegalStateException("Grievance " + grievanceId + " is already claimed");
+            }
+            Grievance.GrievanceStatus oldStatus = grievance.getStatus();
+            if (DuplicateDetectionService.CLOSED_STATUSES.contains(oldStatus)) {
+                throw new IllegalStateException("Grievance " + grievanceId + " is " + oldStatus);
+            }
+            Grievance.GrievanceStatus newStatus = oldStatus == Grievance.GrievanceStatus.SUBMITTED
+                    || oldStatus == Grievance.GrievanceStatus.UNDER_REVIEW ? Grievance.GrievanceStatus.ASSIGNED : oldStatus;
+            if (grievanceRepository.claim(grievanceId, grievance.getVersion(), officer, newStatus, LocalDateTime.now()) == 0) {
+                // Changed or claimed since it was read: read it again
+                throw new ObjectOptimisticLockingFailureException(Grievance.class, grievanceId);
+            }
+            // The claim is a bulk update, which EntityCacheSync does not see
+            bus.publishAfterCommit(GRIEVANCE, grievanceId);
+            
+            Grievance claimed = grievanceRepository.findById(grievanceId).orElseThrow();
+            createStatusHistory(claimed, oldStatus, newStatus, "Claimed by " + officer.getName(), officer);
+            workQueueService.trackAfterCommit(claimed);
+            notificationService.sendAssignmentNotification(claimed);
+            log.info("Grievance {} claimed by officer {}", claimed.getTrackingNumber(), officer.getId());
+            return claimed;
+        });
+    }
+    
+    /**
+     * Claims the department's most urgent unclaimed grievance for the officer,
+     * or nothing if its queue is empty. One taken in the meantime (on another
+     * node, say) is put back where it now belongs and the next one is tried.
+     * AccessDeniedException if the officer does not work for the department.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Grievance> claimNext(Long departmentId, User officer) {
+        if (!officer.worksFor(departmentId)) {
+            throw new AccessDeniedException("User " + officer.getId() + " does not work for department " + departmentId);
         }
-        
-        if (officerId != null) {
-            Optional<User> officer = userRepository.findById(officerId);
-            officer.ifPresent(grievance::setAssignedOfficer);
+        while (true) {
+            Optional<WorkQueue.Item> next = workQueueService.pollDepartment(departmentId);
+            if (next.isEmpty()) {
+                return Optional.empty();
+            }
+            Long grievanceId = next.get().id();
+            try {
+                return Optional.of(claimGrievance(grievanceId, officer));
+            } catch (IllegalStateException e) {
+                log.info("Queued grievance {} was taken: {}", grievanceId, e.getMessage());
+                workQueueService.reload(List.of(grievanceId));
+            } catch (RuntimeException e) {
+                workQueueService.reload(List.of(grievanceId));
+                throw e;
+            }
         }
-        
-        grievance.setAssignedAt(LocalDateTime.now());
-        grievance.setStatus(Grievance.GrievanceStatus.ASSIGNED);
-        
-        Grievance savedGrievance = grievanceRepository.save(grievance);
-        
-        // Create status history
-        createStatusHistory(savedGrievance, Grievance.GrievanceStatus.SUBMITTED, 
-                           Grievance.GrievanceStatus.ASSIGNED, "Grievance assigned", null);
-        
-        // Send notifications
-        notificationService.sendAssignmentNotification(savedGrievance);
-        
-        return savedGrievance;
     }
     
+    @Transactional(readOnly = true)
     public List<Grievance> searchGrievances(String keyword) {
         return grievanceRepository.findByKeyword(keyword);
     }
 
+    @Transactional(readOnly = true)
     public Page<Grievance> filterGrievances(
             Grievance.GrievanceType type,
             Grievance.GrievanceStatus status,
@@ -154,6 +347,18 @@ public class GrievanceService {
             LocalDateTime fromDate,
             LocalDateTime toDate,
             Pageable pageable) {
+        return grievanceRepository.findAll(
+                filterSpecification(type, status, departmentId, minConfidence, maxConfidence, fromDate, toDate), pageable);
+    }
+
+    static Specification<Grievance> filterSpecification(
+            Grievance.GrievanceType type,
+            Grievance.GrievanceStatus status,
+            Long departmentId,
+            Double minConfidence,
+            Double maxConfidence,
+            LocalDateTime fromDate,
+            LocalDateTime toDate) {
         Specification<Grievance> spec = Specification.where(null);
         if (type != null) spec = spec.and((root, q, cb) -> cb.equal(root.get("type"), type));
         if (status != null) spec = spec.and((root, q, cb) -> cb.equal(root.get("status"), status));
@@ -162,13 +367,15 @@ public class GrievanceService {
         if (maxConfidence != null) spec = spec.and((root, q, cb) -> cb.lessThanOrEqualTo(root.get("aiConfidence"), maxConfidence));
         if (fromDate != null) spec = spec.and((root, q, cb) -> cb.greaterThanOrEqualTo(root.get("submittedAt"), fromDate));
         if (toDate != null) spec = spec.and((root, q, cb) -> cb.lessThanOrEqualTo(root.get("submittedAt"), toDate));
-        return grievanceRepository.findAll(spec, pageable);
+        return spec;
     }
     
+    @Transactional(readOnly = true)
     public Long getGrievanceCountByStatus(Grievance.GrievanceStatus status) {
         return grievanceRepository.countByStatus(status);
     }
     
+    @Transactional(readOnly = true)
     public Long getGrievanceCountByDepartmentAndStatus(Long departmentId, Grievance.GrievanceStatus status) {
         return grievanceRepository.countByDepartmentAndStatus(departmentId, status);
     }
@@ -177,6 +384,7 @@ public class GrievanceService {
         if (!grievanceRepository.existsById(grievanceId)) {
             throw new RuntimeException("Grievance not found with id: " + grievanceId);
         }
+        releaseDuplicates(grievanceId);
         grievanceRepository.deleteById(grievanceId);
         log.info("Deleted grievance with id {}", grievanceId);
     }
@@ -188,12 +396,14 @@ public class GrievanceService {
         }
         var owned = grievanceRepository.findByIdAndUserId(grievanceId, userId);
         if (owned.isPresent()) {
+            releaseDuplicates(grievanceId);
             grievanceRepository.deleteByIdAndUserId(grievanceId, userId);
         } else {
             // Handle legacy/orphan records without user linkage
             var g = grievanceRepository.findById(grievanceId).orElseThrow();
             Long ownerId = g.getUser() != null ? g.getUser().getId() : null;
             if (ownerId == null && userId != null) {
+                releaseDuplicates(grievanceId);
                 grievanceRepository.delete(g);
             } else {
                 throw new org.springframework.security.access.AccessDeniedException("Not owner");
@@ -214,11 +424,13 @@ public class GrievanceService {
         if (ownerId == null) {
             // Legacy/orphan: allow user provided to delete
             if (userId != null) {
+                releaseDuplicates(g.getId());
                 grievanceRepository.delete(g);
             } else {
                 throw new org.springframework.security.access.AccessDeniedException("Not owner");
             }
         } else if (ownerId.equals(userId)) {
+            releaseDuplicates(g.getId());
             grievanceRepository.delete(g);
         } else {
             throw new org.springframework.security.access.AccessDeniedException("Not owner");
@@ -226,6 +438,53 @@ public class GrievanceService {
         log.info("Deleted grievance {} (tracking {}) owned by user {}", g.getId(), trackingNumber, userId);
     }
     
+    @Transactional(readOnly = true)
+    public List<Grievance> getDuplicates(Long grievanceId) {
+        return grievanceRepository.findByDuplicateOfId(grievanceId);
+    }
+    
+    private Optional<Grievance> findOpenMaster(Grievance grievance) {
+        return duplicateDetectionService.findMaster(grievance.getTitle(), grievance.getDescription())
+                .flatMap(match -> grievanceRepository.findById(match.id())
+                        // The index trails commits slightly; skip a master closed in the meantime
+                        .filter(master -> master.getDuplicateOfId() == null
+                                && !DuplicateDetectionService.CLOSED_STATUSES.contains(master.getStatus()))
+                        .map(master -> {
+                            grievance.setDuplicateSimilarity(match.similarity());
+                            return master;
+                        }));
+    }
+    
+    private void linkToMaster(Grievance grievance, Grievance master) {
+        grievance.setDuplicateOfId(master.getId());
+        grievance.setDepartment(master.getDepartment());
+        grievance.setAssignedOfficer(master.getAssignedOfficer());
+        grievance.setAssignedAt(master.getAssignedAt());
+        grievance.setStatus(master.getStatus());
+        log.info("Grievance '{}' looks like a duplicate of {} (similarity {})", grievance.getTitle(),
+                master.getTrackingNumber(), String.format("%.2f", grievance.getDuplicateSimilarity()));
+    }
+    
+    // Duplicates of a deleted master go back to being triaged on their own
+    private void releaseDuplicates(Long grievanceId) {
+        List<Long> duplicateIds = grievanceRepository.findIdsByDuplicateOfId(grievanceId);
+        grievanceRepository.unlinkDuplicates(grievanceId);
+        duplicateDetectionService.untrackAfterCommit(grievanceId);
+        workQueueService.untrackAfterCommit(grievanceId);
+        duplicatesChangedAfterCommit(duplicateIds);
+    }
+    
+    // Duplicates are changed with bulk updates, which bypass Hibernate, so the indexes and other nodes' caches are told directly
+    private void duplicatesChangedAfterCommit(List<Long> duplicateIds) {
+        if (duplicateIds.isEmpty()) {
+            return;
+        }
+        duplicateIds.forEach(id -> bus.publishAfterCommit(GRIEVANCE, id));
+        duplicateDetectionService.reloadAfterCommit(duplicateIds);
+        knowledgeBaseService.refreshAfterCommit(duplicateIds);
+        workQueueService.reloadAfterCommit(duplicateIds);
+    }
+    
     private void autoAssignGrievance(Grievance grievance, String category) {
         // Simple auto-assignment logic based on category
         // In a real implementation, this would be more sophisticated
@@ -240,6 +499,42 @@ public class GrievanceService {
         }
     }
     
+    private Grievance findForUpdate(Long grievanceId, Long expectedVersion) {
+        Grievance grievance = grievanceRepository.findById(grievanceId)
+                .orElseThrow(() -> new RuntimeException("Grievance not found with id: " + grievanceId));
+        if (expectedVersion != null && !expectedVersion.equals(grievance.getVersion())) {
+            throw new OptimisticLockingFailureException("Grievance " + grievanceId + " is at version "
+                    + grievance.getVersion() + ", not " + expectedVersion);
+        }
+        return grievance;
+    }
+    
+    /**
+     * Runs the change in its own transaction, again from a fresh read when
+     * another update to the same grievance commits first, up to
+     * grievances.update.max-attempts times with a short randomized pause.
+     */
+    private <T> T retryOnConflict(String operation, Supplier<T> change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return updateTemplate.execute(status -> change.get());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                boolean exhausted = attempt >= maxAttempts;
+                meterRegistry.counter("grievances.update.conflicts", "operation", operation,
+                        "outcome", exhausted ? "failed" : "retried").increment();
+                if (exhausted) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(1, 1L + RETRY_PAUSE_MS * attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+    
     private void createStatusHistory(Grievance grievance, Grievance.GrievanceStatus fromStatus, 
                                    Grievance.GrievanceStatus toStatus, String reason, User changedBy) {
         GrievanceStatusHistory history = new GrievanceStatusHistory();
@@ -255,6 +550,7 @@ public class GrievanceService {
         log.info("Status history created: {} -> {} for grievance {}", fromStatus, toStatus, grievance.getId());
     }
 
+    @Transactional(readOnly = true)
     public List<GrievanceStatusHistory> getHistory(Long grievanceId) {
         return historyRepository.findByGrievanceIdOrderByChangedAt(grievanceId);
     }
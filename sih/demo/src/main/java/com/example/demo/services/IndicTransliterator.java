@@ -0,0 +1,237 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Table-driven romanization of Devanagari, Tamil and Telugu, and the
+ * spelling-tolerant keys the keyword categorizer matches on.
+ *
+ * Each consonant carries the inherent "a" unless a vowel sign or virama
+ * follows, so "சாலை" romanizes to "saalai" and "सड़क" to "sadak". Romanized
+ * spellings of one word still differ ("sadak", "veedhi" / "veethi"), so
+ * {@link #matchKey} folds aspiration, voicing, vowel length, doubled letters
+ * and a final "a" before keywords and words are compared.
+ */
+public final class IndicTransliterator {
+
+    private static final int FIRST = 0x0900;
+    private static final int LAST = 0x0C7F;
+
+    private static final byte OTHER = 0;
+    private static final byte CONSONANT = 1;
+    private static final byte VOWEL_SIGN = 2;
+    private static final byte VIRAMA = 3;
+    private static final byte NUKTA = 4;
+
+    private static final String[] ROMAN = new String[LAST - FIRST + 1];
+    private static final byte[] KIND = new byte[LAST - FIRST + 1];
+    // Devanagari consonant + nukta, when written as two code points
+    private static final String[] NUKTA_ROMAN = new String[0x80];
+
+    static {
+        // Devanagari; ड़ and ढ़ are written "d" and "dh" as in everyday romanized Hindi ("sadak")
+        define(OTHER, "अ a आ aa इ i ई ee उ u ऊ oo ऋ ri ए e ऐ ai ऑ o ओ o औ au ं n ँ n ः h ॐ om");
+        define(CONSONANT, "क k ख kh ग g घ gh ङ n च ch छ chh ज j झ jh ञ n ट t ठ th ड d ढ dh ण n त t थ th द d ध dh "
+                + "न n प p फ ph ब b भ bh म m य y र r ल l ळ l व v श sh ष sh स s ह h "
+                + "\u0958 q \u0959 kh \u095A g \u095B z \u095C d \u095D dh \u095E f \u095F y");
+        define(VOWEL_SIGN, "ा aa ि i ी ee ु u ू oo ृ ri ॅ e ॉ o े e ै ai ो o ौ au");
+        define(VIRAMA, "् _");
+        define(NUKTA, "़ _");
+        define(OTHER, "० 0 १ 1 २ 2 ३ 3 ४ 4 ५ 5 ६ 6 ७ 7 ८ 8 ९ 9");
+        NUKTA_ROMAN['क' - FIRST] = "q";
+        NUKTA_ROMAN['ज' - FIRST] = "z";
+        NUKTA_ROMAN['फ' - FIRST] = "f";
+
+        // Tamil; ச is usually written "s" in romanized Tamil
+        define(OTHER, "அ a ஆ aa இ i ஈ ee உ u ஊ oo எ e ஏ e ஐ ai ஒ o ஓ o ஔ au ஃ h");
+        define(CONSONANT, "க k ங ng ச s ஞ nj ட d ண n த th ந n ப p ம m ய y ர r ல l வ v ழ zh ள l ற r ன n "
+                + "ஜ j ஷ sh ஸ s ஹ h");
+        define(VOWEL_SIGN, "ா aa ி i ீ ee ு u ூ oo ெ e ே e ை ai ொ o ோ o ௌ au");
+        define(VIRAMA, "் _");
+        define(OTHER, "௦ 0 ௧ 1 ௨ 2 ௩ 3 ௪ 4 ௫ 5 ௬ 6 ௭ 7 ௮ 8 ௯ 9");
+
+        // Telugu; a final anusvara is written "m" ("వేతనం" -> "vetanam")
+        define(OTHER, "అ a ఆ aa ఇ i ఈ ee ఉ u ఊ oo ఋ ru ఎ e ఏ e ఐ ai ఒ o ఓ o ఔ au ం m ః h");
+        define(CONSONANT, "క k ఖ kh గ g ఘ gh ఙ n చ ch ఛ chh జ j ఝ jh ఞ n ట t ఠ th డ d ఢ dh ణ n త t థ th ద d ధ dh "
+                + "న n ప p ఫ ph బ b భ bh మ m య y ర r ఱ r ల l ళ l వ v శ sh ష sh స s హ h");
+        define(VOWEL_SIGN, "ా aa ి i ీ ee ు u ూ oo ృ ru ె e ే e ై ai ొ o ో o ౌ au");
+        define(VIRAMA, "్ _");
+        define(OTHER, "౦ 0 ౧ 1 ౨ 2 ౩ 3 ౪ 4 ౫ 5 ౬ 6 ౭ 7 ౮ 8 ౯ 9");
+    }
+
+    private IndicTransliterator() {
+    }
+
+    private static void define(byte kind, String pairs) {
+        String[] parts = pairs.split(" ");
+        for (int i = 0; i < parts.length; i += 2) {
+            int index = parts[i].charAt(0) - FIRST;
+            KIND[index] = kind;
+            ROMAN[index] = parts[i + 1].equals("_") ? "" : parts[i + 1];
+        }
+    }
+
+    public static boolean containsIndicScript(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (kindOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The text with Devanagari, Tamil and Telugu letters romanized; everything
+     * else is kept. Hindi drops the inherent "a" at the end of a word and
+     * between a vowel-consonant and a consonant-vowel ("बिजली" is "bijlee",
+     * not "bijalee"), as it is pronounced and usually spelled in Latin.
+     */
+    public static String romanize(String text) {
+        if (text == null || !containsIndicScript(text)) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder(text.length() * 2);
+        List<Syllable> word = new ArrayList<>();
+        boolean devanagari = false;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            byte kind = kindOf(c);
+            if (kind < 0) {
+                flush(word, devanagari, out);
+                out.append(c);
+                continue;
+            }
+            devanagari = c < 0x0980;
+            if (kind == OTHER || kind == VOWEL_SIGN) {
+                word.add(new Syllable("", ROMAN[c - FIRST], false));
+                continue;
+            }
+            if (kind != CONSONANT) {
+                // A stray virama or nukta
+                continue;
+            }
+            String consonant = ROMAN[c - FIRST];
+            if (i + 1 < length && kindOf(text.charAt(i + 1)) == NUKTA) {
+                i++;
+                int base = c - FIRST;
+                if (base < NUKTA_ROMAN.length && NUKTA_ROMAN[base] != null) {
+                    consonant = NUKTA_ROMAN[base];
+                }
+            }
+            byte next = i + 1 < length ? kindOf(text.charAt(i + 1)) : -1;
+            if (next == VOWEL_SIGN) {
+                word.add(new Syllable(consonant, ROMAN[text.charAt(++i) - FIRST], false));
+            } else if (next == VIRAMA) {
+                i++;
+                word.add(new Syllable(consonant, "", false));
+            } else {
+                word.add(new Syllable(consonant, "a", true));
+            }
+        }
+        flush(word, devanagari, out);
+        return out.toString();
+    }
+
+    private static final class Syllable {
+        final String consonant;
+        String vowel;
+        final boolean inherent;
+
+        Syllable(String consonant, String vowel, boolean inherent) {
+            this.consonant = consonant;
+            this.vowel = vowel;
+            this.inherent = inherent;
+        }
+
+        boolean voiced() {
+            return !vowel.isEmpty() && "aeiou".indexOf(vowel.charAt(0)) >= 0;
+        }
+    }
+
+    private static void flush(List<Syllable> word, boolean devanagari, StringBuilder out) {
+        int n = word.size();
+        if (devanagari && n > 1) {
+            if (word.get(n - 1).inherent) {
+                word.get(n - 1).vowel = "";
+            }
+            // Right to left, so a deleted "a" protects the one before it
+            for (int i = n - 2; i >= 1; i--) {
+                Syllable syllable = word.get(i);
+                Syllable after = word.get(i + 1);
+                if (syllable.inherent && word.get(i - 1).voiced() && !after.consonant.isEmpty() && after.voiced()) {
+                    syllable.vowel = "";
+                }
+            }
+        }
+        for (Syllable syllable : word) {
+            out.append(syllable.consonant).append(syllable.vowel);
+        }
+        word.clear();
+    }
+
+    /** Match keys of the text's words, in order: split on anything but letters, marks and digits, then romanized. */
+    public static Set<String> keys(String text) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (text == null) {
+            return keys;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{M}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                keys.add(matchKey(romanize(word)));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Folds the spelling differences of romanized Indian-language words:
+     * aspirated and voiced consonants to plain ones, long vowels to short,
+     * doubled letters to one, and a final "a" is dropped ("sadaka", "sadak"
+     * and "sadhak" all give "satak"). Applied to both sides of a comparison.
+     */
+    public static String matchKey(String word) {
+        String w = word.toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(w.length());
+        for (int i = 0; i < w.length(); i++) {
+            char c = w.charAt(i);
+            if (i + 1 < w.length() && w.charAt(i + 1) == 'h' && "ptkgdbjcsz".indexOf(c) >= 0) {
+                // Aspirates and the sh, ch, zh digraphs
+                c = c == 'p' ? 'f' : c == 'z' ? 'l' : c;
+                while (i + 1 < w.length() && w.charAt(i + 1) == 'h') {
+                    i++;
+                }
+            } else if ((c == 'e' || c == 'o') && i + 1 < w.length() && w.charAt(i + 1) == c) {
+                c = c == 'e' ? 'i' : 'u';
+                i++;
+            }
+            c = switch (c) {
+                case 'd' -> 't';
+                case 'g', 'q' -> 'k';
+                case 'b' -> 'p';
+                case 'w' -> 'v';
+                case 'z' -> 'j';
+                default -> c;
+            };
+            if (key.isEmpty() || key.charAt(key.length() - 1) != c) {
+                key.append(c);
+            }
+        }
+        if (key.length() > 3 && key.charAt(key.length() - 1) == 'a') {
+            key.setLength(key.length() - 1);
+        }
+        return key.toString();
+    }
+
+    private static byte kindOf(char c) {
+        int index = c - FIRST;
+        return index >= 0 && index < KIND.length && ROMAN[index] != null ? KIND[index] : -1;
+    }
+}
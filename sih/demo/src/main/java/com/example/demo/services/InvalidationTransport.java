@@ -0,0 +1,21 @@
+package com.example.demo.services;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CacheInvalidation}s between nodes. Delivery is at-least-once
+ * and a node also receives its own messages; {@link CacheInvalidationBus}
+ * filters those out. Invalidations are idempotent, so duplicates are harmless.
+ */
+public interface InvalidationTransport {
+
+    String name();
+
+    // Begin delivering batches published by any node to the receiver
+    void start(Consumer<List<CacheInvalidation>> receiver);
+
+    void publish(List<CacheInvalidation> batch);
+
+    void stop();
+}
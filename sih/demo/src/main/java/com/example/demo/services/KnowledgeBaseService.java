@@ -0,0 +1,482 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Department;
+import com.example.demo.model.Grievance;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.GrievanceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Local retrieval for the grievance assistant: a BM25 index over portal help
+ * passages, active department descriptions and resolved grievances (title,
+ * description with contact details masked, category and department; never
+ * the citizen).
+ *
+ * Routing and "how do I" questions whose best passages match well enough are
+ * answered from the index in-process; other questions go upstream with the
+ * top passages attached as context.
+ *
+ * The index is built when the application is ready and then follows the
+ * database: committed changes to grievances and departments, on this node
+ * (Hibernate post-commit events) or another one ({@link CacheInvalidationBus}),
+ * queue their ids, and {@link #refreshPending()} reloads just those rows every
+ * assistant.index.refresh-interval-ms. The refresh runs on its own thread
+ * rather than @Scheduled so the idle polls do not each start a trace.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KnowledgeBaseService implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    public enum Kind { HELP, DEPARTMENT, GRIEVANCE }
+
+    public record Passage(Kind kind, String title, String text, Long departmentId, String department) {}
+
+    private static final String GRIEVANCE = Grievance.class.getSimpleName();
+    private static final String DEPARTMENT = Department.class.getSimpleName();
+
+    private static final Pattern LOCAL_QUESTION = Pattern.compile(
+            "\\b(how (do|can|should|to|does)|where (do|can|should|to|is)|which (department|office|team)"
+                    + "|who (handles|deals|looks|is responsible)|responsible for|what happens)\\b",
+            Pattern.CASE_INSENSITIVE);
+    // Words that say the question is about routing but not what it is about
+    private static final Set<String> ROUTING_WORDS = Set.of(
+            "department", "office", "team", "handle", "handling", "deal", "responsible");
+
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+");
+    private static final Pattern TRACKING_NUMBER = Pattern.compile("\\bGRV\\d+\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LONG_NUMBER = Pattern.compile("\\+?\\d[\\d\\s-]{7,}\\d");
+
+    private static final int EXCERPT_LENGTH = 160;
+
+    @Value("${assistant.retrieval.top-k:3}")
+    private int topK;
+
+    @Value("${assistant.retrieval.min-match:0.5}")
+    private double minMatch;
+
+    @Value("${assistant.index.page-size:500}")
+    private int pageSize;
+
+    @Value("${assistant.index.refresh-interval-ms:1000}")
+    private long refreshIntervalMs;
+
+    private final DepartmentRepository departmentRepository;
+    private final GrievanceRepository grievanceRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBus bus;
+    private final MeterRegistry meterRegistry;
+
+    private final Bm25Index<Passage> index = new Bm25Index<>();
+    private final Set<Long> pendingGrievances = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingDepartments = ConcurrentHashMap.newKeySet();
+    // Serializes rebuilds and refreshes so a refresh never lands in a half-built index
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private Timer searchTimer;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        bus.subscribe(GRIEVANCE, (entity, ids) -> pendingGrievances.addAll(ids));
+        bus.subscribe(DEPARTMENT, (entity, ids) -> pendingDepartments.addAll(ids));
+
+        Gauge.builder("assistant.index.documents", index, Bm25Index::size)
+                .description("Passages in the assistant's retrieval index")
+                .register(meterRegistry);
+        searchTimer = Timer.builder("assistant.retrieval")
+                .description("Local retrieval for the grievance assistant")
+                .register(meterRegistry);
+
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "assistant-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshPending, refreshIntervalMs, refreshIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            long started = System.nanoTime();
+            index.clear();
+            loadHelp();
+            for (Department department : departmentRepository.findByStatus(Department.DepartmentStatus.ACTIVE)) {
+                putDepartment(department);
+            }
+            long afterId = 0;
+            List<Grievance> page;
+            do {
+                page = grievanceRepository.findByStatusWithDepartmentAfter(Grievance.GrievanceStatus.RESOLVED,
+                        afterId, PageRequest.of(0, pageSize));
+                for (Grievance grievance : page) {
+                    putGrievance(grievance);
+                    afterId = grievance.getId();
+                }
+            } while (page.size() == pageSize);
+            log.info("Assistant index built: {} passages in {} ms", index.size(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (Exception e) {
+            log.warn("Assistant index build failed, answers fall back to the upstream: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Queues grievances changed by bulk updates, which Hibernate's listeners do not see, once the transaction commits. */
+    public void refreshAfterCommit(Collection<Long> grievanceIds) {
+        Set<Long> ids = Set.copyOf(grievanceIds);
+        AfterCommit.run(() -> pendingGrievances.addAll(ids));
+    }
+
+    // Grievances leave the index when they are reopened or deleted, departments when inactive or deleted
+    public void refreshPending() {
+        if (pendingGrievances.isEmpty() && pendingDepartments.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        Set<Long> grievanceIds = drain(pendingGrievances);
+        Set<Long> departmentIds = drain(pendingDepartments);
+        try {
+            if (!grievanceIds.isEmpty()) {
+                Set<Long> missing = new HashSet<>(grievanceIds);
+                for (Grievance grievance : grievanceRepository.findAllWithDepartmentByIdIn(grievanceIds)) {
+                    missing.remove(grievance.getId());
+                    if (grievance.getStatus() == Grievance.GrievanceStatus.RESOLVED) {
+                        putGrievance(grievance);
+                    } else {
+                        index.remove(grievanceKey(grievance.getId()));
+                    }
+                }
+                missing.forEach(id -> index.remove(grievanceKey(id)));
+            }
+            if (!departmentIds.isEmpty()) {
+                Set<Long> missing = new HashSet<>(departmentIds);
+                for (Department department : departmentRepository.findAllById(departmentIds)) {
+                    missing.remove(department.getId());
+                    if (department.getStatus() == Department.DepartmentStatus.ACTIVE) {
+                        putDepartment(department);
+                    } else {
+                        index.remove(departmentKey(department.getId()));
+                    }
+                }
+                missing.forEach(id -> index.remove(departmentKey(id)));
+            }
+        } catch (Exception e) {
+            // Queued again so the next refresh retries them; re-putting rows already done is harmless
+            pendingGrievances.addAll(grievanceIds);
+            pendingDepartments.addAll(departmentIds);
+            log.warn("Assistant index refresh failed, retrying {} grievances and {} departments next time: {}",
+                    grievanceIds.size(), departmentIds.size(), e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<Bm25Index.Hit<Passage>> search(String question, int k) {
+        return searchTimer.record(() -> index.search(question, k));
+    }
+
+    /**
+     * An answer built from the index alone, for routing and "how do I"
+     * questions whose best passage matches at least assistant.retrieval.min-match
+     * of the question's words. Empty for anything else.
+     */
+    public Optional<String> answer(String question) {
+        if (question == null || !LOCAL_QUESTION.matcher(question).find()) {
+            return Optional.empty();
+        }
+        return compose(question);
+    }
+
+    /** Like {@link #answer} but for any question, for when the upstream is not available. */
+    public Optional<String> bestEffortAnswer(String question) {
+        return question == null ? Optional.empty() : compose(question);
+    }
+
+    /** The well-matching passages as a system message for the upstream, if there are any. */
+    public Optional<Map<String, String>> contextMessage(String question) {
+        List<Bm25Index.Hit<Passage>> hits = relevantHits(question);
+        if (hits.isEmpty()) {
+            return Optional.empty();
+        }
+        StringBuilder context = new StringBuilder(
+                "Records from this grievance portal that may help you answer. Prefer them to general knowledge:");
+        for (Bm25Index.Hit<Passage> hit : hits) {
+            context.append("\n- ").append(hit.value().text());
+        }
+        return Optional.of(Map.of("role", "system", "content", context.toString()));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private Optional<String> compose(String question) {
+        List<Bm25Index.Hit<Passage>> hits = relevantHits(question);
+        if (hits.isEmpty()) {
+            return Optional.empty();
+        }
+        Passage best = hits.get(0).value();
+        if (best.kind() == Kind.HELP) {
+            return Optional.of(best.text());
+        }
+
+        StringBuilder answer = new StringBuilder();
+        Passage department = hits.stream().map(Bm25Index.Hit::value)
+                .filter(passage -> passage.kind() == Kind.DEPARTMENT)
+                .findFirst()
+                .orElse(null);
+        String departmentName = department != null ? department.department() : mostCommonDepartment(hits);
+        if (departmentName != null) {
+            answer.append("This is usually handled by the ").append(departmentName).append(" department.");
+            if (department != null) {
+                answer.append(' ').append(department.text());
+            }
+        }
+        List<Passage> similar = hits.stream().map(Bm25Index.Hit::value)
+                .filter(passage -> passage.kind() == Kind.GRIEVANCE)
+                .toList();
+        if (!similar.isEmpty()) {
+            if (!answer.isEmpty()) {
+                answer.append("\n");
+            }
+            answer.append("Similar grievances that were resolved:");
+            similar.forEach(passage -> answer.append("\n- ").append(passage.text()));
+        }
+        answer.append("\nSubmit your grievance and it will be routed automatically; you can track it with the tracking number.");
+        return Optional.of(answer.toString());
+    }
+
+    private List<Bm25Index.Hit<Passage>> relevantHits(String question) {
+        if (question == null || question.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = Bm25Index.tokenize(question).stream()
+                .filter(term -> !ROUTING_WORDS.contains(term))
+                .distinct()
+                .toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return search(String.join(" ", terms), topK).stream()
+                .filter(hit -> (double) hit.matchedTerms() / terms.size() >= minMatch)
+                .toList();
+    }
+
+    private static String mostCommonDepartment(List<Bm25Index.Hit<Passage>> hits) {
+        Map<String, Integer> votes = new HashMap<>();
+        for (Bm25Index.Hit<Passage> hit : hits) {
+            if (hit.value().department() != null) {
+                votes.merge(hit.value().department(), 1, Integer::sum);
+            }
+        }
+        return votes.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    private void loadHelp() throws IOException {
+        String help = new ClassPathResource("assistant-help.txt").getContentAsString(StandardCharsets.UTF_8);
+        int n = 0;
+        for (String block : help.split("\\R\\s*\\R")) {
+            List<String> lines = block.lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .toList();
+            if (lines.size() < 2) {
+                continue;
+            }
+            String title = lines.get(0).trim();
+            String text = String.join(" ", lines.subList(1, lines.size())).trim();
+            index.put("help:" + n++, title + " " + text, new Passage(Kind.HELP, title, text, null, null));
+        }
+    }
+
+    private void putDepartment(Department department) {
+        StringBuilder text = new StringBuilder(department.getName());
+        if (department.getCode() != null) {
+            text.append(" (").append(department.getCode()).append(")");
+        }
+        if (department.getDescription() != null && !department.getDescription().isBlank()) {
+            text.append(": ").append(department.getDescription().trim());
+        }
+        List<String> contact = new ArrayList<>();
+        if (department.getPhoneNumber() != null && !department.getPhoneNumber().isBlank()) {
+            contact.add(department.getPhoneNumber());
+        }
+        if (department.getEmail() != null && !department.getEmail().isBlank()) {
+            contact.add(department.getEmail());
+        }
+        if (!contact.isEmpty()) {
+            text.append(" Contact: ").append(String.join(", ", contact)).append('.');
+        }
+        index.put(departmentKey(department.getId()),
+                department.getName() + " " + department.getDescription(),
+                new Passage(Kind.DEPARTMENT, department.getName(), text.toString(), department.getId(),
+                        department.getName()));
+    }
+
+    private void putGrievance(Grievance grievance) {
+        String title = anonymize(grievance.getTitle());
+        String description = anonymize(grievance.getDescription());
+        Department department = grievance.getDepartment();
+        String departmentName = department != null ? department.getName() : null;
+
+        StringBuilder text = new StringBuilder(title);
+        String excerpt = excerpt(description);
+        if (!excerpt.isEmpty()) {
+            text.append(": ").append(excerpt);
+        }
+        if (departmentName != null) {
+            text.append(" (").append(departmentName);
+            if (grievance.getSubmittedAt() != null && grievance.getResolvedAt() != null) {
+                long days = Duration.between(grievance.getSubmittedAt(), grievance.getResolvedAt()).toDays();
+                text.append(", resolved in ").append(days).append(days == 1 ? " day" : " days");
+            }
+            text.append(')');
+        }
+        index.put(grievanceKey(grievance.getId()),
+                String.join(" ", title, description, nullToEmpty(grievance.getAiCategory()), nullToEmpty(departmentName)),
+                new Passage(Kind.GRIEVANCE, title, text.toString(), department != null ? department.getId() : null,
+                        departmentName));
+    }
+
+    static String anonymize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String masked = EMAIL.matcher(text).replaceAll("[email]");
+        masked = TRACKING_NUMBER.matcher(masked).replaceAll("[tracking number]");
+        return LONG_NUMBER.matcher(masked).replaceAll("[number]");
+    }
+
+    private static String excerpt(String text) {
+        String trimmed = text.strip();
+        if (trimmed.length() <= EXCERPT_LENGTH) {
+            return trimmed;
+        }
+        int cut = trimmed.lastIndexOf(' ', EXCERPT_LENGTH);
+        return trimmed.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "...";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String grievanceKey(Long id) {
+        return "grievance:" + id;
+    }
+
+    private static String departmentKey(Long id) {
+        return "department:" + id;
+    }
+
+    private static Set<Long> drain(Set<Long> pending) {
+        Set<Long> ids = new HashSet<>();
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Grievance.class || type == Department.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        enqueue(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        enqueue(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        enqueue(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void enqueue(EntityPersister persister, Object id) {
+        if (!(id instanceof Number number)) {
+            return;
+        }
+        if (persister.getMappedClass() == Grievance.class) {
+            pendingGrievances.add(number.longValue());
+        } else if (persister.getMappedClass() == Department.class) {
+            pendingDepartments.add(number.longValue());
+        }
+    }
+}
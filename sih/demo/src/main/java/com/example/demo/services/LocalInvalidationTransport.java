@@ -0,0 +1,54 @@
+package com.example.demo.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for a pub/sub broker: every transport on the same channel
+ * in this JVM receives every batch, synchronously. Used for single-node runs and
+ * for tests that wire several nodes in one process.
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private static final Map<String, List<LocalInvalidationTransport>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private volatile Consumer<List<CacheInvalidation>> receiver;
+
+    public LocalInvalidationTransport(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public void start(Consumer<List<CacheInvalidation>> receiver) {
+        this.receiver = receiver;
+        CHANNELS.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(this);
+    }
+
+    @Override
+    public void publish(List<CacheInvalidation> batch) {
+        for (LocalInvalidationTransport subscriber : CHANNELS.getOrDefault(channel, List.of())) {
+            Consumer<List<CacheInvalidation>> target = subscriber.receiver;
+            if (target != null) {
+                target.accept(List.copyOf(batch));
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        List<LocalInvalidationTransport> subscribers = CHANNELS.get(channel);
+        if (subscribers != null) {
+            subscribers.remove(this);
+        }
+        receiver = null;
+    }
+}
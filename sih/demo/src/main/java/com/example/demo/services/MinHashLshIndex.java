@@ -0,0 +1,261 @@
+package com.example.demo.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate lookup by MinHash with locality-sensitive hashing.
+ *
+ * Texts are normalized and cut into overlapping character 5-grams; a
+ * signature of bands * rows min-hashes estimates the Jaccard similarity of
+ * two shingle sets. Each band of the signature is hashed into a bucket, and
+ * only documents sharing at least one bucket with the query are compared, so
+ * a lookup touches a handful of candidates however large the index is. With
+ * 16 bands of 4 rows, pairs at similarity 0.7 share a bucket 99% of the time
+ * and pairs at 0.3 about 12% of the time.
+ *
+ * Memory is kept flat for millions of documents: buckets are int chains over
+ * slot arrays, and candidates are verified against an 8-bit-per-hash sketch
+ * (b-bit minwise hashing) instead of the full signature.
+ */
+public class MinHashLshIndex {
+
+    private static final int SHINGLE_LENGTH = 5;
+
+    public record Match(long id, double similarity) {}
+
+    private final int bands;
+    private final int rows;
+    private final int hashes;
+    private final long[] seeds;
+    private final int bucketMask;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // heads[band][bucket] and next[band][slot] hold slot + 1, 0 ends the chain
+    private final int[][] heads;
+    private int[][] next;
+    private int[][] bucketOf;
+    private long[] ids;
+    private byte[] sketches;
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int used;
+
+    /**
+     * @param bucketsPerBand rounded up to a power of two; about the expected
+     *                       number of documents keeps chains short
+     */
+    public MinHashLshIndex(int bands, int rows, int bucketsPerBand) {
+        this.bands = bands;
+        this.rows = rows;
+        this.hashes = bands * rows;
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        this.seeds = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            seeds[i] = random.nextLong();
+        }
+        int buckets = Integer.highestOneBit(Math.max(2, bucketsPerBand) - 1) << 1;
+        this.bucketMask = buckets - 1;
+        this.heads = new int[bands][buckets];
+        this.next = new int[bands][16];
+        this.bucketOf = new int[bands][16];
+        this.ids = new long[16];
+        this.sketches = new byte[16 * hashes];
+    }
+
+    /** Adds or replaces the document; texts too short to shingle are not indexed. */
+    public void put(long id, String text) {
+        long[] signature = signature(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (signature == null) {
+                return;
+            }
+            int slot = allocateSlot();
+            ids[slot] = id;
+            for (int i = 0; i < hashes; i++) {
+                sketches[slot * hashes + i] = (byte) signature[i];
+            }
+            for (int band = 0; band < bands; band++) {
+                int bucket = bucket(signature, band);
+                bucketOf[band][slot] = bucket;
+                next[band][slot] = heads[band][bucket];
+                heads[band][bucket] = slot + 1;
+            }
+            slots.put(id, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return slots.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The most similar indexed document at or above the threshold, by estimated Jaccard similarity. */
+    public Optional<Match> findMostSimilar(String text, double threshold) {
+        long[] signature = signature(text);
+        if (signature == null) {
+            return Optional.empty();
+        }
+        byte[] sketch = new byte[hashes];
+        for (int i = 0; i < hashes; i++) {
+            sketch[i] = (byte) signature[i];
+        }
+        lock.readLock().lock();
+        try {
+            Set<Integer> seen = new HashSet<>();
+            int bestSlot = -1;
+            double bestSimilarity = threshold;
+            for (int band = 0; band < bands; band++) {
+                for (int entry = heads[band][bucket(signature, band)]; entry != 0; entry = next[band][entry - 1]) {
+                    int slot = entry - 1;
+                    if (!seen.add(slot)) {
+                        continue;
+                    }
+                    double similarity = similarity(sketch, slot);
+                    if (similarity >= bestSimilarity) {
+                        bestSimilarity = similarity;
+                        bestSlot = slot;
+                    }
+                }
+            }
+            return bestSlot < 0 ? Optional.empty() : Optional.of(new Match(ids[bestSlot], bestSimilarity));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // b-bit minwise estimate: unrelated hashes still agree on 8 bits 1/256 of the time
+    private double similarity(byte[] sketch, int slot) {
+        int matches = 0;
+        int offset = slot * hashes;
+        for (int i = 0; i < hashes; i++) {
+            if (sketches[offset + i] == sketch[i]) {
+                matches++;
+            }
+        }
+        double chance = 1.0 / 256;
+        return Math.max(0.0, ((double) matches / hashes - chance) / (1 - chance));
+    }
+
+    private int bucket(long[] signature, int band) {
+        long h = band * 0x9E3779B97F4A7C15L;
+        for (int r = 0; r < rows; r++) {
+            h = mix(h ^ signature[band * rows + r]);
+        }
+        return (int) h & bucketMask;
+    }
+
+    // Null when the normalized text is empty
+    private long[] signature(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        long[] signature = new long[hashes];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            int end = Math.min(normalized.length(), start + SHINGLE_LENGTH);
+            long shingle = 0xCBF29CE484222325L;
+            for (int i = start; i < end; i++) {
+                shingle = (shingle ^ normalized.charAt(i)) * 0x100000001B3L;
+            }
+            for (int i = 0; i < hashes; i++) {
+                long h = mix(shingle ^ seeds[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{M}\\p{N}]+", " ").trim();
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (used == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            sketches = Arrays.copyOf(sketches, capacity * hashes);
+            for (int band = 0; band < bands; band++) {
+                next[band] = Arrays.copyOf(next[band], capacity);
+                bucketOf[band] = Arrays.copyOf(bucketOf[band], capacity);
+            }
+        }
+        return used++;
+    }
+
+    private void removeLocked(long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            int bucket = bucketOf[band][slot];
+            if (heads[band][bucket] == slot + 1) {
+                heads[band][bucket] = next[band][slot];
+            } else {
+                int entry = heads[band][bucket];
+                while (next[band][entry - 1] != slot + 1) {
+                    entry = next[band][entry - 1];
+                }
+                next[band][entry - 1] = next[band][slot];
+            }
+            next[band][slot] = 0;
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+}
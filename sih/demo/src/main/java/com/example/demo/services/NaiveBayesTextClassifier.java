@@ -0,0 +1,231 @@
+package com.example.demo.services;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Multinomial Naive Bayes over hashed word and word-pair features.
+ *
+ * Texts are tokenized like {@link Bm25Index}; every word and every adjacent
+ * pair of words is hashed into 2^hashBits buckets, so the model has a fixed
+ * size whatever the vocabulary and needs no dictionary. Training only adds
+ * to counts, which makes it incremental: a document is learned or unlearned
+ * with a weight, and a correction is an unlearn followed by a learn.
+ *
+ * Scoring reads one count per feature and label, a few microseconds for a
+ * grievance. Naive Bayes posteriors are overconfident on long texts, so the
+ * reported confidence is the softmax of the log-likelihood averaged per
+ * feature, which keeps it comparable with the other categorizers.
+ */
+public class NaiveBayesTextClassifier {
+
+    private static final int SNAPSHOT_VERSION = 1;
+    // Additive smoothing per feature bucket
+    private static final double ALPHA = 0.1;
+
+    public record Prediction(String label, double confidence) {}
+
+    private final String[] labels;
+    private final int hashBits;
+    private final int mask;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // counts[label][bucket] is the weighted feature count, totals[label] their sum
+    private final float[][] counts;
+    private final double[] totals;
+    private final double[] documents;
+    private double totalDocuments;
+
+    public NaiveBayesTextClassifier(List<String> labels, int hashBits) {
+        this.labels = labels.toArray(String[]::new);
+        this.hashBits = hashBits;
+        this.mask = (1 << hashBits) - 1;
+        this.counts = new float[this.labels.length][1 << hashBits];
+        this.totals = new double[this.labels.length];
+        this.documents = new double[this.labels.length];
+    }
+
+    public List<String> labels() {
+        return List.of(labels);
+    }
+
+    public int hashBits() {
+        return hashBits;
+    }
+
+    /** Adds the text to the label's counts; a negative weight unlearns it. Unknown labels are ignored. */
+    public void learn(String text, String label, double weight) {
+        int index = indexOf(label);
+        if (index < 0 || weight == 0) {
+            return;
+        }
+        int[] features = features(text);
+        lock.writeLock().lock();
+        try {
+            float[] row = counts[index];
+            for (int feature : features) {
+                double before = row[feature];
+                row[feature] = (float) Math.max(0.0, before + weight);
+                totals[index] += row[feature] - before;
+            }
+            double before = documents[index];
+            documents[index] = Math.max(0.0, before + weight);
+            totalDocuments += documents[index] - before;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Weighted number of documents learned. */
+    public double documents() {
+        lock.readLock().lock();
+        try {
+            return totalDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The most likely label among those with training documents; empty for an untrained model or featureless text. */
+    public Optional<Prediction> predict(String text) {
+        int[] features = features(text);
+        if (features.length == 0) {
+            return Optional.empty();
+        }
+        double[] scores = new double[labels.length];
+        int best = -1;
+        lock.readLock().lock();
+        try {
+            if (totalDocuments <= 0) {
+                return Optional.empty();
+            }
+            int trained = 0;
+            for (int i = 0; i < labels.length; i++) {
+                if (documents[i] > 0) {
+                    trained++;
+                }
+            }
+            for (int i = 0; i < labels.length; i++) {
+                if (documents[i] <= 0) {
+                    scores[i] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+                float[] row = counts[i];
+                double denominator = Math.log(totals[i] + ALPHA * (mask + 1));
+                double logLikelihood = 0;
+                for (int feature : features) {
+                    logLikelihood += Math.log(row[feature] + ALPHA) - denominator;
+                }
+                double logPrior = Math.log((documents[i] + 1) / (totalDocuments + trained));
+                scores[i] = (logPrior + logLikelihood) / features.length;
+                if (best < 0 || scores[i] > scores[best]) {
+                    best = i;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        double sum = 0;
+        for (double score : scores) {
+            sum += Math.exp(score - scores[best]);
+        }
+        return Optional.of(new Prediction(labels[best], 1.0 / sum));
+    }
+
+    /** Writes the labels and the non-zero counts; the snapshot is small while most buckets are empty. */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(hashBits);
+            out.writeInt(labels.length);
+            for (String label : labels) {
+                out.writeUTF(label);
+            }
+            for (int i = 0; i < labels.length; i++) {
+                out.writeDouble(documents[i]);
+                float[] row = counts[i];
+                int nonZero = 0;
+                for (float count : row) {
+                    if (count != 0) {
+                        nonZero++;
+                    }
+                }
+                out.writeInt(nonZero);
+                for (int bucket = 0; bucket < row.length; bucket++) {
+                    if (row[bucket] != 0) {
+                        out.writeInt(bucket);
+                        out.writeFloat(row[bucket]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static NaiveBayesTextClassifier readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported classifier snapshot version " + version);
+        }
+        int hashBits = in.readInt();
+        String[] labels = new String[in.readInt()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = in.readUTF();
+        }
+        NaiveBayesTextClassifier classifier = new NaiveBayesTextClassifier(List.of(labels), hashBits);
+        for (int i = 0; i < labels.length; i++) {
+            classifier.documents[i] = in.readDouble();
+            classifier.totalDocuments += classifier.documents[i];
+            float[] row = classifier.counts[i];
+            int nonZero = in.readInt();
+            for (int j = 0; j < nonZero; j++) {
+                int bucket = in.readInt();
+                row[bucket] = in.readFloat();
+                classifier.totals[i] += row[bucket];
+            }
+        }
+        return classifier;
+    }
+
+    private int indexOf(String label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Bucket per word and per adjacent word pair, repeated as often as it occurs
+    private int[] features(String text) {
+        List<String> terms = Bm25Index.tokenize(text);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+        int[] features = new int[terms.size() * 2 - 1];
+        long previous = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            long term = terms.get(i).hashCode();
+            features[i] = (int) mix(term) & mask;
+            if (i > 0) {
+                features[terms.size() + i - 1] = (int) mix(previous * 0x9E3779B97F4A7C15L ^ term) & mask;
+            }
+            previous = term;
+        }
+        return features;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,18 +1,37 @@
 package com.example.demo.services;
 
+import com.example.demo.config.StageEvent;
 import com.example.demo.model.Grievance;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
     
     private final JavaMailSender mailSender;
+    private final ObservationRegistry observationRegistry;
+
+    @Value("${mail.max-concurrent-sends:4}")
+    private int maxConcurrentSends;
+
+    private Semaphore sendPermits;
+
+    @PostConstruct
+    void initSendPermits() {
+        sendPermits = new Semaphore(maxConcurrentSends, true);
+    }
     
     public void sendGrievanceSubmittedNotification(Grievance grievance) {
         try {
@@ -162,6 +181,45 @@ public class NotificationService {
         }
     }
     
+    public record DigestItem(String trackingNumber, String title, String detail) {}
+
+    /**
+     * One email listing several grievances, so a bulk change sends each
+     * citizen or officer a single message instead of one per grievance.
+     */
+    public void sendDigest(String name, String email, String subject, String intro, List<DigestItem> items) {
+        if (email == null || email.isBlank() || items.isEmpty()) {
+            return;
+        }
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (DigestItem item : items) {
+                lines.append(String.format("- %s (%s): %s%n", item.title(), item.trackingNumber(), item.detail()));
+            }
+            String message = String.format("""
+                Dear %s,
+                
+                %s
+                
+                %s
+                You can track each grievance using its tracking number.
+                
+                Best regards,
+                Citizen Grievance Portal Team
+                """,
+                name,
+                intro,
+                lines
+            );
+            
+            sendEmail(email, subject, message);
+            log.info("Digest of {} grievances sent to: {}", items.size(), email);
+            
+        } catch (Exception e) {
+            log.error("Error sending digest notification: {}", e.getMessage(), e);
+        }
+    }
+    
     public void sendOverdueNotification(Grievance grievance) {
         try {
             String subject = "Overdue Grievance Alert - " + grievance.getTrackingNumber();
@@ -203,9 +261,23 @@ public class NotificationService {
             mailMessage.setText(message);
             mailMessage.setFrom("noreply@grievanceportal.gov.in");
             
-            mailSender.send(mailMessage);
+            // Timed as mail.send and traced as a child span of the request. The transport
+            // pins virtual threads while it talks to the server, so only a few send at once.
+            try (StageEvent stage = StageEvent.start("mail.send")) {
+                sendPermits.acquire();
+                try {
+                    Observation.createNotStarted("mail.send", observationRegistry)
+                            .contextualName("smtp send")
+                            .observe(() -> mailSender.send(mailMessage));
+                } finally {
+                    sendPermits.release();
+                }
+            }
             log.info("Email sent successfully to: {}", to);
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted before sending email to {}", to);
         } catch (Exception e) {
             log.error("Error sending email to {}: {}", to, e.getMessage(), e);
         }
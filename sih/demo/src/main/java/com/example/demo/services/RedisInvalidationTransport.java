@@ -0,0 +1,80 @@
+package com.example.demo.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub: each batch is one JSON message on a shared channel. Lower lag
+ * than polling the database, but fire-and-forget: a node that is disconnected
+ * while a message is sent misses it and keeps stale entries until they expire.
+ */
+@Slf4j
+public class RedisInvalidationTransport implements InvalidationTransport {
+
+    private static final TypeReference<List<CacheInvalidation>> BATCH = new TypeReference<>() {
+    };
+
+    private final RedisConnectionFactory connectionFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private RedisMessageListenerContainer container;
+
+    public RedisInvalidationTransport(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper,
+                                      String channel) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public void start(Consumer<List<CacheInvalidation>> receiver) {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                receiver.accept(objectMapper.readValue(message.getBody(), BATCH));
+            } catch (IOException e) {
+                log.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+            }
+        }, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public void publish(List<CacheInvalidation> batch) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(batch));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize cache invalidations", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (container != null) {
+            try {
+                container.destroy();
+            } catch (Exception e) {
+                log.warn("Could not stop Redis listener container: {}", e.getMessage());
+            }
+        }
+    }
+}
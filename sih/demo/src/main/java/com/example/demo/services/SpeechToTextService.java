@@ -1,5 +1,6 @@
 package com.example.demo.services;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -11,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class SpeechToTextService {
 
@@ -26,7 +28,7 @@ public class SpeechToTextService {
     @Value("${stt.language:en-IN}")
     private String defaultLanguage;
 
-    private final WebClient webClient = WebClient.builder().build();
+    private final WebClient externalWebClient;
 
     public String transcribe(byte[] audioBytes, String mimeType, String languageCode) {
         if (!sttEnabled || audioBytes == null || audioBytes.length == 0) {
@@ -54,8 +56,8 @@ public class SpeechToTextService {
                         "content", contentB64
                 )
         );
-        Map resp = webClient.post()
-                .uri("https://speech.googleapis.com/v1/speech:recognize?key=" + googleApiKey)
+        Map resp = externalWebClient.post()
+                .uri("https://speech.googleapis.com/v1/speech:recognize?key={key}", googleApiKey)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(payload)
                 .retrieve()
@@ -0,0 +1,43 @@
+package com.example.demo.services;
+
+import java.util.Map;
+
+/**
+ * Rough chat-model token counts without a tokenizer, cheap enough to run on
+ * every request. A run of ASCII letters and digits costs about one token per
+ * six characters, punctuation one token each, and characters from other
+ * scripts (Devanagari, Tamil, Telugu) about one token each.
+ */
+final class TokenEstimator {
+
+    // Role and separators around each message in the chat format
+    static final int MESSAGE_OVERHEAD = 4;
+
+    private TokenEstimator() {
+    }
+
+    static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 5) / 6;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 5) / 6;
+    }
+
+    static int estimate(Map<String, String> message) {
+        return MESSAGE_OVERHEAD + (message != null ? estimate(message.get("content")) : 0);
+    }
+}
@@ -6,7 +6,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,7 +30,10 @@ public class TranslationService {
     @Value("${translate.target:en}")
     private String defaultTarget;
 
-    private final WebClient webClient = WebClient.builder().build();
+    @Value("${translate.timeout:1500ms}")
+    private Duration timeout;
+
+    private final WebClient externalWebClient;
 
     public String translateToEnglish(String text, String sourceLang) {
         if (!translateEnabled || text == null || text.isBlank()) return text;
@@ -41,30 +47,52 @@ public class TranslationService {
         return text;
     }
 
+    /**
+     * Non-blocking translation for the reactive AI endpoints. Never fails: a
+     * slow (over translate.timeout) or failed call yields the original text.
+     */
+    public Mono<String> translateToEnglishReactive(String text, String sourceLang) {
+        String original = text == null ? "" : text;
+        if (!translateEnabled || original.isBlank() || !"google".equalsIgnoreCase(provider)) {
+            return Mono.just(original);
+        }
+        return translateGoogleReactive(original, sourceLang, "en")
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    log.warn("Translation failed, using original text: {}", e.toString());
+                    return Mono.just(original);
+                });
+    }
+
     private String translateGoogle(String text, String source, String target) {
+        return translateGoogleReactive(text, source, target).block();
+    }
+
+    private Mono<String> translateGoogleReactive(String text, String source, String target) {
         // Google Cloud Translation v2 REST simple endpoint
         // POST https://translation.googleapis.com/language/translate/v2?key=API_KEY
-        // body: q, source, target, format
-        var resp = webClient.post()
-                .uri("https://translation.googleapis.com/language/translate/v2?key=" + apiKey)
+        // body: q, source, target, format; without a source Google detects the language
+        Map<String, Object> body = new HashMap<>();
+        body.put("q", List.of(text));
+        if (source != null && !source.isBlank()) {
+            body.put("source", source);
+        }
+        body.put("target", target);
+        body.put("format", "text");
+        return externalWebClient.post()
+                .uri("https://translation.googleapis.com/language/translate/v2?key={key}", apiKey)
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(Map.of(
-                        "q", List.of(text),
-                        "source", source == null || source.isBlank() ? null : source,
-                        "target", target,
-                        "format", "text"
-                ))
+                .bodyValue(body)
                 .retrieve()
                 .bodyToMono(Map.class)
-                .block();
-        try {
-            var data = (Map<String,Object>) resp.get("data");
-            var translations = (List<Map<String,Object>>) data.get("translations");
-            return (String) translations.get(0).get("translatedText");
-        } catch (Exception e) {
-            throw new RuntimeException("Unexpected translation response");
-        }
+                .map(resp -> {
+                    try {
+                        var data = (Map<String,Object>) resp.get("data");
+                        var translations = (List<Map<String,Object>>) data.get("translations");
+                        return (String) translations.get(0).get("translatedText");
+                    } catch (Exception e) {
+                        throw new RuntimeException("Unexpected translation response");
+                    }
+                });
     }
 }
-
-
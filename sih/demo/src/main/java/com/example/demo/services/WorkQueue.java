@@ -0,0 +1,140 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * The open grievances of one department or officer, most urgent first:
+ * higher priority, then the earlier expected resolution date (grievances
+ * without one after those with one), then the older grievance.
+ *
+ * A binary heap that also maps each grievance id to its slot, so adding,
+ * re-ordering after a change, removing any grievance and taking the first
+ * are all O(log n). Looking at the first k without taking them costs
+ * O(k log k), however long the queue is. Not thread-safe.
+ */
+public class WorkQueue {
+
+    public record Item(long id, String trackingNumber, String title, Grievance.GrievancePriority priority,
+                       Grievance.GrievanceStatus status, LocalDateTime deadline, LocalDateTime createdAt) {}
+
+    static final Comparator<Item> ORDER = Comparator
+            .comparing((Item item) -> item.priority() == null ? Grievance.GrievancePriority.MEDIUM : item.priority(),
+                    Comparator.reverseOrder())
+            .thenComparing(Item::deadline, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Item::createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(Item::id);
+
+    private Item[] heap = new Item[16];
+    private int size;
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    /** Adds the grievance, or moves it to its new place if it is already queued. */
+    public void put(Item item) {
+        Integer slot = slots.get(item.id());
+        if (slot == null) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            place(item, size++);
+            siftUp(size - 1);
+            return;
+        }
+        place(item, slot);
+        siftDown(siftUp(slot));
+    }
+
+    public boolean remove(long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        Item last = heap[--size];
+        heap[size] = null;
+        if (slot < size) {
+            place(last, slot);
+            siftDown(siftUp(slot));
+        }
+        return true;
+    }
+
+    /** Takes the most urgent grievance off the queue. */
+    public Optional<Item> poll() {
+        if (size == 0) {
+            return Optional.empty();
+        }
+        Item first = heap[0];
+        remove(first.id());
+        return Optional.of(first);
+    }
+
+    /** The most urgent grievances, in order, left on the queue. */
+    public List<Item> peek(int limit) {
+        List<Item> items = new ArrayList<>(Math.min(limit, size));
+        // Only children of slots already taken can come next
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> ORDER.compare(heap[a], heap[b]));
+        if (size > 0) {
+            frontier.add(0);
+        }
+        while (items.size() < limit && !frontier.isEmpty()) {
+            int slot = frontier.poll();
+            items.add(heap[slot]);
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                frontier.add(child);
+            }
+        }
+        return items;
+    }
+
+    public boolean contains(long id) {
+        return slots.containsKey(id);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Item item, int slot) {
+        heap[slot] = item;
+        slots.put(item.id(), slot);
+    }
+
+    private int siftUp(int slot) {
+        Item item = heap[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (ORDER.compare(item, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], slot);
+            slot = parent;
+        }
+        place(item, slot);
+        return slot;
+    }
+
+    private void siftDown(int slot) {
+        Item item = heap[slot];
+        while (2 * slot + 1 < size) {
+            int child = 2 * slot + 1;
+            if (child + 1 < size && ORDER.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (ORDER.compare(heap[child], item) >= 0) {
+                break;
+            }
+            place(heap[child], slot);
+            slot = child;
+        }
+        place(item, slot);
+    }
+}
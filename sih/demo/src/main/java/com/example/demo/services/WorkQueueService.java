@@ -0,0 +1,215 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.repository.GrievanceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * What each officer should work on next, without a sorting query: an
+ * in-memory {@link WorkQueue} per officer and per department. An open
+ * grievance with an officer is on that officer's queue; one with only a
+ * department is on the department's queue, waiting to be claimed. Duplicates
+ * follow their master and grievances not yet routed anywhere are not queued.
+ *
+ * The queues are loaded when the application is ready. Grievances changed on
+ * this node are applied after their transaction commits; changes on other
+ * nodes arrive through {@link CacheInvalidationBus} and are reloaded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkQueueService {
+
+    @Value("${workqueue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${workqueue.page-size:1000}")
+    private int pageSize;
+
+    private final GrievanceRepository grievanceRepository;
+    private final CacheInvalidationBus bus;
+    private final MeterRegistry meterRegistry;
+
+    // Guarded by this: every queued grievance is on exactly the queue placement names
+    private Map<String, WorkQueue> queues = new HashMap<>();
+    private Map<Long, String> placement = new HashMap<>();
+    // Guarded by this: grievances placed while a rebuild loads, re-read once it swaps in; null otherwise
+    private Set<Long> changedDuringRebuild;
+
+    @PostConstruct
+    public void init() {
+        bus.subscribe(Grievance.class.getSimpleName(), (entity, ids) -> reload(ids));
+        Gauge.builder("workqueue.size", this, WorkQueueService::size)
+                .description("Open grievances on officer and department work queues")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        try {
+            long started = System.nanoTime();
+            Map<String, WorkQueue> freshQueues = new HashMap<>();
+            Map<Long, String> freshPlacement = new HashMap<>();
+            long afterId = 0;
+            List<GrievanceRepository.WorkRow> page;
+            do {
+                page = grievanceRepository.findOpenWorkRowsAfter(DuplicateDetectionService.CLOSED_STATUSES, afterId,
+                        PageRequest.of(0, pageSize));
+                for (GrievanceRepository.WorkRow row : page) {
+                    String key = queueKey(row.getDepartmentId(), row.getOfficerId());
+                    if (key != null) {
+                        freshQueues.computeIfAbsent(key, k -> new WorkQueue()).put(item(row));
+                        freshPlacement.put(row.getId(), key);
+                    }
+                    afterId = row.getId();
+                }
+            } while (page.size() == pageSize);
+            Set<Long> changed;
+            synchronized (this) {
+                queues = freshQueues;
+                placement = freshPlacement;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+            }
+            // The pages may have been read before these changes committed; read them again onto the new queues
+            if (!changed.isEmpty()) {
+                reload(changed);
+            }
+            log.info("Work queues built: {} open grievances on {} queues in {} ms, {} re-read after changing",
+                    freshPlacement.size(), freshQueues.size(), Duration.ofNanos(System.nanoTime() - started).toMillis(),
+                    changed.size());
+        } catch (Exception e) {
+            log.warn("Work queue build failed, queues fill as grievances change: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    /** The officer's most urgent grievances, left on the queue. */
+    public synchronized List<WorkQueue.Item> forOfficer(Long officerId, int limit) {
+        WorkQueue queue = queues.get(officerKey(officerId));
+        return queue == null ? List.of() : queue.peek(limit);
+    }
+
+    /** The department's most urgent unclaimed grievances, left on the queue. */
+    public synchronized List<WorkQueue.Item> forDepartment(Long departmentId, int limit) {
+        WorkQueue queue = queues.get(departmentKey(departmentId));
+        return queue == null ? List.of() : queue.peek(limit);
+    }
+
+    /**
+     * Takes the department's most urgent unclaimed grievance off its queue,
+     * so no other officer on this node is offered it while it is claimed.
+     */
+    public synchronized Optional<WorkQueue.Item> pollDepartment(Long departmentId) {
+        WorkQueue queue = queues.get(departmentKey(departmentId));
+        Optional<WorkQueue.Item> next = queue == null ? Optional.empty() : queue.poll();
+        next.ifPresent(item -> placement.remove(item.id()));
+        return next;
+    }
+
+    /** Queues the grievance where it now belongs once the current transaction commits. */
+    public void trackAfterCommit(Grievance grievance) {
+        boolean open = grievance.getDuplicateOfId() == null
+                && !DuplicateDetectionService.CLOSED_STATUSES.contains(grievance.getStatus());
+        String key = open ? queueKey(grievance.getDepartment() == null ? null : grievance.getDepartment().getId(),
+                grievance.getAssignedOfficer() == null ? null : grievance.getAssignedOfficer().getId()) : null;
+        WorkQueue.Item item = new WorkQueue.Item(grievance.getId(), grievance.getTrackingNumber(), grievance.getTitle(),
+                grievance.getPriority(), grievance.getStatus(), grievance.getExpectedResolutionDate(),
+                grievance.getCreatedAt());
+        AfterCommit.run(() -> place(item, key));
+    }
+
+    public void untrackAfterCommit(Long grievanceId) {
+        AfterCommit.run(() -> place(grievanceId, null, null));
+    }
+
+    /** Re-reads the grievances once the transaction commits, for changes made with bulk updates. */
+    public void reloadAfterCommit(Collection<Long> grievanceIds) {
+        Set<Long> ids = Set.copyOf(grievanceIds);
+        AfterCommit.run(() -> reload(ids));
+    }
+
+    /** Re-reads the grievances now and moves each to the queue it belongs on. */
+    public void reload(Collection<Long> grievanceIds) {
+        Set<Long> missing = new HashSet<>(grievanceIds);
+        for (GrievanceRepository.WorkRow row : grievanceRepository.findWorkRowsByIdIn(grievanceIds)) {
+            missing.remove(row.getId());
+            boolean open = row.getDuplicateOfId() == null
+                    && !DuplicateDetectionService.CLOSED_STATUSES.contains(row.getStatus());
+            place(item(row), open ? queueKey(row.getDepartmentId(), row.getOfficerId()) : null);
+        }
+        missing.forEach(id -> place(id, null, null));
+    }
+
+    public synchronized int size() {
+        return placement.size();
+    }
+
+    private void place(WorkQueue.Item item, String key) {
+        place(item.id(), item, key);
+    }
+
+    private synchronized void place(Long id, WorkQueue.Item item, String key) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+        String current = key == null ? placement.remove(id) : placement.put(id, key);
+        if (current != null && !current.equals(key)) {
+            WorkQueue queue = queues.get(current);
+            queue.remove(id);
+            if (queue.size() == 0) {
+                queues.remove(current);
+            }
+        }
+        if (key != null) {
+            queues.computeIfAbsent(key, k -> new WorkQueue()).put(item);
+        }
+    }
+
+    private static WorkQueue.Item item(GrievanceRepository.WorkRow row) {
+        return new WorkQueue.Item(row.getId(), row.getTrackingNumber(), row.getTitle(), row.getPriority(),
+                row.getStatus(), row.getExpectedResolutionDate(), row.getCreatedAt());
+    }
+
+    private static String queueKey(Long departmentId, Long officerId) {
+        if (officerId != null) {
+            return officerKey(officerId);
+        }
+        return departmentId != null ? departmentKey(departmentId) : null;
+    }
+
+    private static String officerKey(Long officerId) {
+        return "officer:" + officerId;
+    }
+
+    private static String departmentKey(Long departmentId) {
+        return "department:" + departmentId;
+    }
+}
@@ -1,6 +1,8 @@
 -- Seed one admin user (email: admin@example.com, password: password)
-INSERT INTO users (name, email, password, role, status, created_at, updated_at)
-VALUES (
+-- Ids come from id_sequences, so the row needs an explicit id here
+INSERT INTO users (id, name, email, password, role, status, created_at, updated_at)
+SELECT
+  seed.next_id,
   'System Admin',
   'admin@example.com',
   '$2a$10$7EqJtq98hPqEX7fNZaFWoOa5EtRyyuWZ1jCei8aD9K8S9Z/atrK5K',
@@ -8,7 +10,7 @@ VALUES (
   'ACTIVE',
   NOW(),
   NOW()
-)
+FROM (SELECT COALESCE(MAX(id), 0) + 1 AS next_id FROM users) seed
 ON DUPLICATE KEY UPDATE 
   name = VALUES(name),
   password = VALUES(password),
@@ -0,0 +1,21 @@
+-- Keeps the table-backed id sequences ahead of existing rows.
+-- Hibernate's pooled optimizer treats next_val as the top of the next block of
+-- 50 ids, so MAX(id) + 50 makes the next block start just above MAX(id). Rows
+-- inserted by hand while the app was down are picked up on the next start.
+CREATE TABLE IF NOT EXISTS id_sequences (
+  seq_name VARCHAR(255) NOT NULL PRIMARY KEY,
+  next_val BIGINT
+);
+
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 50 FROM users
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'departments', COALESCE(MAX(id), 0) + 50 FROM departments
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'grievances', COALESCE(MAX(id), 0) + 50 FROM grievances
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'grievance_status_history', COALESCE(MAX(id), 0) + 50 FROM grievance_status_history
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'grievance_comments', COALESCE(MAX(id), 0) + 50 FROM grievance_comments
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'grievance_attachments', COALESCE(MAX(id), 0) + 50 FROM grievance_attachments
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
@@ -0,0 +1,124 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/sec for bulk user and grievance inserts, with JDBC batching off
+ * (batch size 1) and on (the configured 50). Runs against in-memory H2, so
+ * the gap is smaller than on MySQL where every statement is a network
+ * round-trip; the statement counts show the batching itself.
+ * Run with: mvn test -Pbenchmark
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO"
+})
+class BulkInsertBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int FLUSH_EVERY = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkInsertUsersAndGrievances() {
+        // Warm up ids, statement caches and the JIT before measuring
+        insertUsers("warmup", 1_000, 50);
+
+        Result unbatched = insertUsers("unbatched", ROWS, 1);
+        Result batched = insertUsers("batched", ROWS, 50);
+        log.info("users: unbatched {} rows/s ({} statements), batched {} rows/s ({} statements)",
+                unbatched.rowsPerSecond(), unbatched.statements(), batched.rowsPerSecond(), batched.statements());
+
+        User citizen = entityManager.find(User.class, firstUserId());
+        Result unbatchedGrievances = insertGrievances("unbatched", citizen, ROWS, 1);
+        Result batchedGrievances = insertGrievances("batched", citizen, ROWS, 50);
+        log.info("grievances: unbatched {} rows/s ({} statements), batched {} rows/s ({} statements)",
+                unbatchedGrievances.rowsPerSecond(), unbatchedGrievances.statements(),
+                batchedGrievances.rowsPerSecond(), batchedGrievances.statements());
+
+        // One prepared statement per batch of 50 instead of one per row
+        assertThat(batched.statements()).isLessThan(ROWS / 10);
+        assertThat(batchedGrievances.statements()).isLessThan(ROWS / 10);
+        assertThat(unbatched.statements()).isGreaterThanOrEqualTo(ROWS);
+    }
+
+    private Result insertUsers(String run, int rows, int batchSize) {
+        return measure(rows, batchSize, i -> {
+            User user = new User();
+            user.setName("Citizen " + i);
+            user.setEmail(run + "-" + i + "@example.com");
+            user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOa5EtRyyuWZ1jCei8aD9K8S9Z/atrK5K");
+            user.setPhoneNumber("555-" + (i % 10_000));
+            return user;
+        });
+    }
+
+    private Result insertGrievances(String run, User citizen, int rows, int batchSize) {
+        return measure(rows, batchSize, i -> {
+            Grievance grievance = new Grievance();
+            grievance.setTitle("Streetlight out on road " + i);
+            grievance.setDescription("The streetlight near house " + i + " has not worked for a week.");
+            grievance.setType(Grievance.GrievanceType.INFRASTRUCTURE);
+            grievance.setTrackingNumber("GRV-" + run + "-" + i);
+            grievance.setUser(entityManager.getReference(User.class, citizen.getId()));
+            return grievance;
+        });
+    }
+
+    private Result measure(int rows, int batchSize, IntFunction<Object> factory) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            entityManager.persist(factory.apply(i));
+            if ((i + 1) % FLUSH_EVERY == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        long elapsed = System.nanoTime() - started;
+
+        return new Result(Math.round(rows / (elapsed / 1e9)), statistics.getPrepareStatementCount());
+    }
+
+    private Long firstUserId() {
+        return entityManager.createQuery("SELECT MIN(u.id) FROM User u", Long.class).getSingleResult();
+    }
+
+    private record Result(long rowsPerSecond, long statements) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.services.MinHashLshIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Duplicate lookup latency with 100k and with 1M open grievances in the
+ * MinHash/LSH index (the production 16 x 4 layout, one bucket per expected
+ * grievance). Half the probes are reworded copies of indexed grievances, half
+ * are new complaints; the log shows latency percentiles, recall and false
+ * matches at both sizes. Latency should barely move with a 10x larger index.
+ * Needs about 400 MB of heap. Run with: mvn test -Pbenchmark -Dtest=DuplicateDetectionBenchmarkTest
+ */
+@Slf4j
+@Tag("benchmark")
+class DuplicateDetectionBenchmarkTest {
+
+    private static final int SMALL = 100_000;
+    private static final int LARGE = 1_000_000;
+    private static final int PROBES = 2_000;
+    private static final double THRESHOLD = 0.6;
+
+    private static final String[] ISSUES = {"pothole", "water supply", "streetlight", "garbage", "drainage",
+            "power cut", "sewage overflow", "broken footpath", "stray dogs", "illegal dumping", "bus stop shelter",
+            "public toilet", "mosquito breeding", "tree fallen", "traffic signal"};
+    private static final String[] WORDS = words(4_000);
+
+    @Test
+    void lookupLatencyAtOneMillionOpenGrievances() {
+        MinHashLshIndex index = new MinHashLshIndex(16, 4, LARGE);
+        long started = System.nanoTime();
+        for (int id = 0; id < SMALL; id++) {
+            index.put(id, grievance(id));
+        }
+        Result small = probe(index, SMALL);
+
+        for (int id = SMALL; id < LARGE; id++) {
+            index.put(id, grievance(id));
+        }
+        long buildMs = (System.nanoTime() - started) / 1_000_000;
+        Result large = probe(index, LARGE);
+
+        log.info("built {} grievances in {} ms ({} per second)", LARGE, buildMs, LARGE * 1000L / Math.max(1, buildMs));
+        log.info("{} open: p50 {} us, p99 {} us, max {} us, recall {}, false matches {}",
+                SMALL, small.p50Us(), small.p99Us(), small.maxUs(), small.recall(), small.falseMatches());
+        log.info("{} open: p50 {} us, p99 {} us, max {} us, recall {}, false matches {}",
+                LARGE, large.p50Us(), large.p99Us(), large.maxUs(), large.recall(), large.falseMatches());
+
+        assertThat(index.size()).isEqualTo(LARGE);
+        assertThat(large.recall()).isGreaterThan(0.95);
+        assertThat(large.falseMatches()).isLessThan(PROBES / 100);
+        // Sublinear: 10x the grievances costs far less than 10x the time
+        assertThat(large.p50Us()).isLessThan(small.p50Us() * 3 + 50);
+        assertThat(large.p99Us()).isLessThan(5_000);
+    }
+
+    private Result probe(MinHashLshIndex index, int size) {
+        SplittableRandom random = new SplittableRandom(size);
+        long[] nanos = new long[PROBES];
+        int found = 0;
+        int falseMatches = 0;
+        // Warm up the JIT on the same mix of probes
+        for (int i = 0; i < PROBES; i++) {
+            index.findMostSimilar(reworded(random.nextInt(size), random), THRESHOLD);
+        }
+        for (int i = 0; i < PROBES; i++) {
+            boolean duplicate = i % 2 == 0;
+            int target = random.nextInt(size);
+            String text = duplicate ? reworded(target, random) : grievance(LARGE + size + i);
+            long started = System.nanoTime();
+            var match = index.findMostSimilar(text, THRESHOLD);
+            nanos[i] = System.nanoTime() - started;
+            if (duplicate && match.isPresent() && match.get().id() == target) {
+                found++;
+            } else if (!duplicate && match.isPresent()) {
+                falseMatches++;
+            }
+        }
+        Arrays.sort(nanos);
+        return new Result(nanos[PROBES / 2] / 1_000, nanos[PROBES * 99 / 100] / 1_000, nanos[PROBES - 1] / 1_000,
+                (double) found / (PROBES / 2), falseMatches);
+    }
+
+    // A citizen's report: an issue, a made-up locality and landmark, and a few words of detail
+    private static String grievance(int id) {
+        SplittableRandom random = new SplittableRandom(id * 0x9E3779B97F4A7C15L);
+        StringBuilder text = new StringBuilder(ISSUES[random.nextInt(ISSUES.length)])
+                .append(" problem near ").append(WORDS[random.nextInt(WORDS.length)])
+                .append(' ').append(WORDS[random.nextInt(WORDS.length)])
+                .append(" in ward ").append(random.nextInt(500)).append(':');
+        for (int i = 0; i < 12; i++) {
+            text.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    // The same report from another citizen: different case and punctuation, one word changed
+    private static String reworded(int id, SplittableRandom random) {
+        String[] words = grievance(id).split(" ");
+        words[words.length - 1 - random.nextInt(4)] = WORDS[random.nextInt(WORDS.length)];
+        return String.join(" ", words).toUpperCase().replace(":", " -") + "!";
+    }
+
+    private static String[] words(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            char[] word = new char[4 + random.nextInt(6)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(word);
+        }
+        return words;
+    }
+
+    private record Result(long p50Us, long p99Us, long maxUs, double recall, int falseMatches) {
+    }
+}
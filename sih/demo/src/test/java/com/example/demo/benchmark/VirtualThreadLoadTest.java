@@ -0,0 +1,197 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.config.ConcurrencyLimitingDataSource;
+import com.example.demo.config.JdbcConcurrencyLimiter;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and p99 of the grievance portal with platform and with virtual
+ * request threads, against an ML service stub that takes ML_LATENCY per
+ * prediction. Each run starts the whole application on a random port with an
+ * in-memory H2 database and sends REQUESTS requests from CONCURRENCY clients:
+ * three in four ask for a category suggestion (one blocking ML call), the rest
+ * look up a tracking number (one JDBC query).
+ *
+ * With more clients than TOMCAT_THREADS, the platform run queues requests
+ * behind threads parked in block(), so it tops out near TOMCAT_THREADS / ML_LATENCY
+ * suggestions a second; the virtual run keeps every client's request in flight
+ * and is limited by CPU instead. The latency is long enough that even a single
+ * core shows the difference. Run with: mvn test -Pbenchmark -Dtest=VirtualThreadLoadTest
+ */
+@Slf4j
+@Tag("benchmark")
+class VirtualThreadLoadTest {
+
+    private static final int CONCURRENCY = 600;
+    private static final int REQUESTS = 4_000;
+    private static final int WARMUP_REQUESTS = 1_000;
+    private static final Duration ML_LATENCY = Duration.ofSeconds(1);
+    // Ceiling for the platform run: at most TOMCAT_THREADS requests in flight
+    private static final int TOMCAT_THREADS = 100;
+
+    private static HttpServer mlStub;
+    private static final AtomicInteger predictions = new AtomicInteger();
+
+    @BeforeAll
+    static void startMlStub() throws Exception {
+        mlStub = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        mlStub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        mlStub.createContext("/predict", exchange -> {
+            try {
+                Thread.sleep(ML_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{\"category\":\"INFRASTRUCTURE\",\"confidence\":0.92}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            predictions.incrementAndGet();
+        });
+        mlStub.start();
+    }
+
+    @AfterAll
+    static void stopMlStub() {
+        mlStub.stop(0);
+    }
+
+    @Test
+    void virtualThreadsAgainstPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        log.info("platform threads: {} req/s, p50 {} ms, p99 {} ms, {} errors",
+                platform.throughput(), platform.p50Ms(), platform.p99Ms(), platform.errors());
+        log.info("virtual threads:  {} req/s, p50 {} ms, p99 {} ms, {} errors, {} JDBC permits refused",
+                virtual.throughput(), virtual.p50Ms(), virtual.p99Ms(), virtual.errors(), virtual.jdbcRejected());
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+        assertThat(virtual.jdbcRejected()).isZero();
+        assertThat(virtual.throughput()).isGreaterThan(platform.throughput());
+        assertThat(virtual.p99Ms()).isLessThan(platform.p99Ms());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        // Command-line arguments, so they win over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--cache.invalidation.transport=local",
+                "--ml.service.base-url=http://localhost:" + mlStub.getAddress().getPort(),
+                "--management.tracing.sampling.probability=0.0",
+                "--management.otlp.tracing.export.enabled=false",
+                "--logging.level.com.example.demo=WARN",
+                "--logging.level.com.example.demo.benchmark=INFO",
+                "--logging.level.org.hibernate.SQL=WARN");
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            try (HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build()) {
+                load(client, port, WARMUP_REQUESTS);
+                predictions.set(0);
+                Result result = load(client, port, REQUESTS);
+                List<ConcurrencyLimitingDataSource> limited = context.getBean(JdbcConcurrencyLimiter.class)
+                        .getLimitedDataSources();
+                // The limiter follows spring.threads.virtual.enabled
+                assertThat(limited).hasSize(virtualThreads ? 1 : 0);
+                long rejected = limited.stream().mapToLong(ConcurrencyLimitingDataSource::getRejected).sum();
+                // Every suggestion reached the stub rather than falling back to keywords
+                assertThat(predictions.get()).isEqualTo(REQUESTS - REQUESTS / 4);
+                return new Result(result.throughput(), result.p50Ms(), result.p99Ms(), result.errors(), rejected);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private Result load(HttpClient client, int port, int requests) throws Exception {
+        HttpRequest suggest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ai/suggest"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"title\":\"Pothole\",\"description\":\"Large pothole on the main road\"}"))
+                .build();
+        HttpRequest track = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/grievances/track/GRV-0"))
+                .GET()
+                .build();
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        long started = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CONCURRENCY; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        boolean lookup = i % 4 == 3;
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = client.send(lookup ? track : suggest,
+                                HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - begin;
+                        if (response.statusCode() != (lookup ? 404 : 200)) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        return new Result(Math.round(requests / seconds), millis(latencies[requests / 2]),
+                millis(latencies[(int) Math.ceil(requests * 0.99) - 1]), errors.get(), 0);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 100_000.0) / 10.0;
+    }
+
+    private record Result(long throughput, double p50Ms, double p99Ms, long errors, long jdbcRejected) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Service calls through the aspect land on app.method timers tagged with the
+ * layer, class, method and exception; a Mono is timed until it terminates.
+ */
+class MethodTimingAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private TariffService target;
+    private TariffService tariffs;
+
+    @Service
+    static class TariffService {
+
+        private final Sinks.One<Integer> pending = Sinks.one();
+
+        public int quote(int units) {
+            return units * 7;
+        }
+
+        public int refuse(int units) {
+            throw new IllegalArgumentException("No tariff for " + units + " units");
+        }
+
+        public Mono<Integer> quoteLater() {
+            return pending.asMono();
+        }
+
+        void settle(Integer value) {
+            pending.tryEmitValue(value);
+        }
+
+        void fail() {
+            pending.tryEmitError(new IllegalStateException("Tariff table unavailable"));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = new TariffService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MethodTimingAspect(registry));
+        tariffs = factory.getProxy();
+    }
+
+    @Test
+    void timesServiceCallsByOutcome() {
+        assertThat(tariffs.quote(3)).isEqualTo(21);
+        assertThat(tariffs.quote(4)).isEqualTo(28);
+        assertThatThrownBy(() -> tariffs.refuse(5)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(timer("quote", "none").count()).isEqualTo(2);
+        assertThat(timer("refuse", "IllegalArgumentException").count()).isEqualTo(1);
+        assertThat(registry.find("app.method").tag("method", "refuse").tag("exception", "none").timer()).isNull();
+    }
+
+    @Test
+    void timesAMonoUntilItCompletes() {
+        Mono<Integer> quote = tariffs.quoteLater();
+        AtomicReference<Integer> received = new AtomicReference<>();
+        quote.subscribe(received::set);
+        assertThat(registry.find("app.method").tag("method", "quoteLater").timer()).isNull();
+
+        target.settle(42);
+        assertThat(received.get()).isEqualTo(42);
+        assertThat(timer("quoteLater", "none").count()).isEqualTo(1);
+    }
+
+    @Test
+    void timesAFailedMonoUnderItsException() {
+        tariffs.quoteLater().subscribe(value -> { }, error -> { });
+        assertThat(registry.find("app.method").tag("method", "quoteLater").timer()).isNull();
+
+        target.fail();
+        assertThat(timer("quoteLater", "IllegalStateException").count()).isEqualTo(1);
+        assertThat(registry.find("app.method").tag("method", "quoteLater").tag("exception", "none").timer()).isNull();
+    }
+
+    private Timer timer(String method, String exception) {
+        Timer timer = registry.find("app.method")
+                .tags("layer", "service", "class", "TariffService", "method", method, "exception", exception)
+                .timer();
+        assertThat(timer).as("app.method timer for %s/%s", method, exception).isNotNull();
+        return timer;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.model.User;
+import com.example.demo.repository.GrievanceRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.demo.config.QueryCountAssertions.assertMaxQueries;
+import static com.example.demo.config.QueryCountAssertions.maxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement counting per request and per block, against in-memory H2.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlcount;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "sql.tracking.response-header=true"
+})
+@AutoConfigureMockMvc
+class SqlCountFilterTest {
+
+    private static final int CITIZENS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Grievance> grievances = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        grievances.clear();
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < CITIZENS; i++) {
+            User citizen = new User();
+            citizen.setName("Citizen " + i);
+            citizen.setEmail(run + "-" + i + "@example.com");
+            citizen.setPassword("secret");
+            citizen = userRepository.save(citizen);
+
+            Grievance grievance = new Grievance();
+            grievance.setTitle("Streetlight out " + i);
+            grievance.setDescription("The streetlight near house " + i + " has not worked for a week.");
+            grievance.setType(Grievance.GrievanceType.INFRASTRUCTURE);
+            grievance.setTrackingNumber("GRV-" + run + "-" + i);
+            grievance.setUser(citizen);
+            grievances.add(grievanceRepository.save(grievance));
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void responseCarriesStatementCount() throws Exception {
+        mockMvc.perform(get("/api/grievances/track/{number}", grievances.get(0).getTrackingNumber()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlCountFilter.HEADER))
+                // the grievance, then its citizen when the lazy reference is serialized
+                .andExpect(maxQueries(2));
+    }
+
+    @Test
+    void lazyReferencesLoadedOneByOneShowAsRepeatedShape() throws Throwable {
+        List<Long> ids = grievances.stream().map(Grievance::getId).toList();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin()) {
+            transaction.executeWithoutResult(status ->
+                    grievanceRepository.findAllById(ids).forEach(g -> g.getUser().getName()));
+
+            assertThat(scope.getCount()).isEqualTo(1 + CITIZENS);
+            assertThat(scope.getMaxRepeats()).isEqualTo(CITIZENS);
+            assertThat(scope.getShapes().get(0).sql()).contains("from users");
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        assertThatThrownBy(() -> assertMaxQueries(2, () -> transaction.executeWithoutResult(status ->
+                grievanceRepository.findAllById(ids).forEach(g -> g.getUser().getName()))))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining(CITIZENS + "x select");
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Spans for one AI suggestion request, captured with an in-memory exporter.
+ * The ML service points at a closed port, so its client span records the error.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "management.tracing.sampling.probability=1.0",
+        "management.otlp.tracing.export.enabled=false",
+        "ml.service.base-url=http://localhost:1"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+class TracingTest {
+
+    @TestConfiguration
+    static class ExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private TaskExecutor applicationTaskExecutor;
+
+    @BeforeEach
+    void setUp() {
+        exporter.reset();
+    }
+
+    @Test
+    void suggestionIsOneTraceFromControllerToMlCall() throws Exception {
+        // No category keywords, so the text goes through translation before ML
+        mockMvc.perform(post("/api/ai/suggest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Complaint\",\"description\":\"Nobody has responded for weeks\"}"))
+                .andExpect(status().isOk());
+
+        List<SpanData> spans = finishedSpans();
+        Set<String> names = spans.stream().map(SpanData::getName).collect(Collectors.toSet());
+        assertThat(names).contains("http post /api/ai/suggest", "AIController.suggest",
+                "AICategorizationService.categorizeGrievance", "TranslationService.translateToEnglish", "http post");
+        assertThat(spans.stream().map(SpanData::getTraceId).distinct()).hasSize(1);
+
+        SpanData predict = spans.stream().filter(span -> span.getName().equals("http post")).findFirst().orElseThrow();
+        SpanData service = spans.stream()
+                .filter(span -> span.getName().equals("AICategorizationService.categorizeGrievance")).findFirst().orElseThrow();
+        assertThat(predict.getParentSpanId()).isEqualTo(service.getSpanId());
+        assertThat(predict.getAttributes().asMap().toString()).contains("/predict");
+    }
+
+    @Test
+    void repositoryCallsGetTheirOwnSpan() throws Exception {
+        mockMvc.perform(get("/api/grievances/track/{number}", "GRV-unknown"))
+                .andExpect(status().isNotFound());
+
+        List<SpanData> spans = finishedSpans();
+        SpanData repository = spans.stream()
+                .filter(span -> span.getName().equals("GrievanceRepository.findByTrackingNumber")).findFirst().orElseThrow();
+        SpanData service = spans.stream()
+                .filter(span -> span.getName().equals("GrievanceService.getGrievanceByTrackingNumber")).findFirst().orElseThrow();
+        assertThat(repository.getParentSpanId()).isEqualTo(service.getSpanId());
+        assertThat(repository.getAttributes().asMap().toString()).contains("layer=repository");
+    }
+
+    @Test
+    void traceContinuesOnExecutorThreads() throws Exception {
+        // Requests run inside the HTTP server observation; stand in for one
+        Observation request = Observation.start("request", observationRegistry);
+        String traceId;
+        String spanId;
+        try (Observation.Scope scope = request.openScope()) {
+            traceId = tracer.currentSpan().context().traceId();
+            spanId = tracer.currentSpan().context().spanId();
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            applicationTaskExecutor.execute(() -> {
+                Span child = tracer.nextSpan().name("background").start();
+                child.end();
+                done.complete(null);
+            });
+            done.get(5, TimeUnit.SECONDS);
+        } finally {
+            request.stop();
+        }
+
+        SpanData background = finishedSpans().stream()
+                .filter(span -> span.getName().equals("background")).findFirst().orElseThrow();
+        assertThat(background.getTraceId()).isEqualTo(traceId);
+        assertThat(background.getParentSpanId()).isEqualTo(spanId);
+    }
+
+    private List<SpanData> finishedSpans() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return exporter.getFinishedSpanItems();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.controller;
+
+import com.example.demo.services.FakeCompletionServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/ai/chat/stream relays the fake upstream's tokens as "token" events and
+ * finishes with "done".
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:chatstream;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "openai.api.key=test-key"
+})
+@AutoConfigureMockMvc
+class ChatStreamTest {
+
+    private static final FakeCompletionServer upstream = new FakeCompletionServer()
+            .reply(Duration.ofMillis(20), "Your", " grievance", " is", " under review.");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        registry.add("openai.base-url", upstream::baseUrl);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    void relaysTokensAsServerSentEvents() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/ai/chat/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"messages\":[{\"role\":\"user\",\"content\":\"What is the status?\"}]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).containsSubsequence(
+                "event:token\ndata:{\"content\":\"Your\"}",
+                "event:token\ndata:{\"content\":\" grievance\"}",
+                "event:token\ndata:{\"content\":\" under review.\"}",
+                "event:done\ndata:{}");
+    }
+}
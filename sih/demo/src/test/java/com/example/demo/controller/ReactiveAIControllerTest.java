@@ -0,0 +1,163 @@
+package com.example.demo.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The /api/ai/rx endpoints complete asynchronously, use the ML answer when it
+ * arrives in time, and fall back to keywords when it does not.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactiveai;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "ml.service.timeout=500ms",
+        "openai.api.key="
+})
+@AutoConfigureMockMvc
+class ReactiveAIControllerTest {
+
+    private static final String POTHOLE = "{\"title\":\"Pothole\",\"description\":\"Large pothole on the main road\"}";
+
+    private static final AtomicInteger predictions = new AtomicInteger();
+    private static volatile long delayMs;
+    private static final HttpServer mlStub = startMlStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void mlServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("ml.service.base-url", () -> "http://localhost:" + mlStub.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopMlStub() {
+        mlStub.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        delayMs = 0;
+        predictions.set(0);
+    }
+
+    @Test
+    void suggestionUsesTheMlAnswer() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/ai/rx/suggest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(POTHOLE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category").value("HEALTHCARE"))
+                .andExpect(jsonPath("$.confidence").value(0.95));
+        // Translation is off, so the speculative call on the original text is the only one
+        assertThat(predictions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void slowMlServiceFallsBackToKeywords() throws Exception {
+        delayMs = 3_000;
+        long begin = System.nanoTime();
+        MvcResult started = mockMvc.perform(post("/api/ai/rx/suggest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(POTHOLE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category").value("INFRASTRUCTURE"));
+        assertThat((System.nanoTime() - begin) / 1_000_000).isLessThan(2_500);
+    }
+
+    @Test
+    void rankedSuggestionsBoostTheMlCategory() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/ai/rx/suggest/ranked")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(POTHOLE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                // No healthcare keywords, so 0.5 without the ML hint
+                .andExpect(jsonPath("$.suggestions[?(@.category == 'HEALTHCARE')].confidence").value(contains(0.82)))
+                .andExpect(jsonPath("$.suggestions[?(@.category == 'INFRASTRUCTURE')].confidence").value(contains(0.82)));
+    }
+
+    @Test
+    void chatWithoutApiKeyAnswersLocally() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/ai/rx/chat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"messages\":[{\"role\":\"user\",\"content\":\"Streetlight broken\"}]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reply").value(startsWith("Thanks for sharing. I understood: Streetlight broken")));
+    }
+
+    private static HttpServer startMlStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/predict", exchange -> {
+                predictions.incrementAndGet();
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.getRequestBody().readAllBytes();
+                byte[] body = "{\"category\":\"healthcare\",\"confidence\":0.95}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                } catch (IOException e) {
+                    // The client gave up after its timeout
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
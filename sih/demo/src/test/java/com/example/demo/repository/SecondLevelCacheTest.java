@@ -0,0 +1,136 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Department;
+import com.example.demo.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeated lookups of departments and users are served from the second-level
+ * cache. Each repository call runs in its own transaction (and persistence
+ * context), so a second lookup can only avoid the database through the shared cache.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedDepartmentLookupsHitTheCache() {
+        Department department = departmentRepository.save(newDepartment("Public Works", "PWD"));
+        resetCache();
+
+        departmentRepository.findById(department.getId());
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        departmentRepository.findById(department.getId());
+        departmentRepository.findById(department.getId());
+
+        CacheRegionStatistics region = statistics.getCacheRegionStatistics("departments");
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirst);
+    }
+
+    @Test
+    void activeDepartmentListingHitsTheQueryCache() {
+        departmentRepository.save(newDepartment("Health", "HD"));
+        resetCache();
+
+        departmentRepository.findActiveDepartments();
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        departmentRepository.findActiveDepartments();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirst);
+    }
+
+    @Test
+    void newDepartmentsInvalidateTheCachedListing() {
+        departmentRepository.save(newDepartment("Education", "ED"));
+        int before = departmentRepository.findActiveDepartments().size();
+
+        departmentRepository.save(newDepartment("Transport", "TD"));
+
+        assertThat(departmentRepository.findActiveDepartments()).hasSize(before + 1);
+    }
+
+    @Test
+    void repeatedLoginLookupsDoNotTouchTheDatabase() {
+        userRepository.save(newUser("cache-login@example.com"));
+        resetCache();
+
+        userRepository.findByEmail("cache-login@example.com");
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        userRepository.findByEmail("cache-login@example.com");
+        userRepository.findByEmail("cache-login@example.com");
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirst);
+    }
+
+    @Test
+    void updatesAreVisibleThroughTheCache() {
+        User user = userRepository.save(newUser("cache-update@example.com"));
+        userRepository.findByEmail("cache-update@example.com");
+
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setStatus(User.UserStatus.INACTIVE);
+        userRepository.save(loaded);
+
+        assertThat(userRepository.findByEmail("cache-update@example.com").orElseThrow().getStatus())
+                .isEqualTo(User.UserStatus.INACTIVE);
+    }
+
+    private void resetCache() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        statistics.clear();
+    }
+
+    private static Department newDepartment(String name, String code) {
+        Department department = new Department();
+        department.setName(name);
+        department.setCode(code);
+        department.setDescription(name + " department");
+        return department;
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setName("Cache Test");
+        user.setEmail(email);
+        user.setPassword("secret-password");
+        return user;
+    }
+}
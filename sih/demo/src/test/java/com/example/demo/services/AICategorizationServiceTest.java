@@ -0,0 +1,68 @@
+package com.example.demo.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Native-script grievances are categorized from the keyword lists without a
+ * translation call; only text the keywords cannot place is translated.
+ */
+class AICategorizationServiceTest {
+
+    private final TranslationService translationService = mock(TranslationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AICategorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(translationService.translateToEnglish(anyString(), any())).thenAnswer(call -> call.getArgument(0));
+        service = new AICategorizationService(WebClient.create(), translationService,
+                mock(GrievanceClassifierService.class), meterRegistry);
+        ReflectionTestUtils.setField(service, "categorizationEnabled", true);
+        ReflectionTestUtils.setField(service, "mlServiceEnabled", false);
+    }
+
+    @Test
+    void nativeScriptMatchesKeywordsWithoutTranslation() {
+        assertThat(service.categorizeGrievance("सड़क में गड्ढा", "मोहल्ले की सड़क पर बड़ा गड्ढा है").category())
+                .isEqualTo("INFRASTRUCTURE");
+        assertThat(service.categorizeGrievance("பள்ளி", "பள்ளியில் ஆசிரியர் இல்லை, மாணவர் பாதிப்பு").category())
+                .isEqualTo("EDUCATION");
+        assertThat(service.categorizeGrievance("వేతనం", "మూడు నెలలుగా వేతనం రాలేదు").category())
+                .isEqualTo("EMPLOYMENT");
+
+        verify(translationService, never()).translateToEnglish(anyString(), any());
+        assertThat(translations("skipped")).isEqualTo(3);
+    }
+
+    @Test
+    void inconclusiveTextIsTranslated() {
+        // One keyword ("aspatal") in the description is enough to skip translating both
+        assertThat(service.categorizeGrievance("मेरी शिकायत", "अस्पताल में डॉक्टर नहीं है").category())
+                .isEqualTo("HEALTHCARE");
+        verify(translationService, never()).translateToEnglish(anyString(), any());
+
+        when(translationService.translateToEnglish("कोई सुनवाई नहीं", null)).thenReturn("Streetlight broken");
+        assertThat(service.categorizeGrievance("कोई सुनवाई नहीं", "कोई सुनवाई नहीं").category())
+                .isEqualTo("INFRASTRUCTURE");
+        verify(translationService, times(2)).translateToEnglish(anyString(), any());
+        assertThat(translations("requested")).isEqualTo(1);
+        assertThat(translations("skipped")).isEqualTo(1);
+    }
+
+    private double translations(String outcome) {
+        return meterRegistry.get("categorization.translation").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25IndexTest {
+
+    @Test
+    void tokenizeDropsStopWordsAndFoldsPlurals() {
+        assertThat(Bm25Index.tokenize("How do I report broken Streetlights and potholes?"))
+                .containsExactly("report", "broken", "streetlight", "pothole");
+        assertThat(Bm25Index.tokenize("Garbage in the colonies")).containsExactly("garbage", "colony");
+        // Vowel signs are combining marks and stay inside the word
+        assertThat(Bm25Index.tokenize("सड़क पर गड्ढा")).containsExactly("सड़क", "पर", "गड्ढा");
+    }
+
+    @Test
+    void rarerTermsRankHigher() {
+        Bm25Index<String> index = new Bm25Index<>();
+        index.put("a", "water supply cut in the colony", "water");
+        index.put("b", "water logging on the road after rain", "logging");
+        index.put("c", "pothole on the road near the school", "pothole");
+
+        var hits = index.search("pothole on the road", 3);
+
+        assertThat(hits).extracting(Bm25Index.Hit::value).containsExactly("pothole", "logging");
+        assertThat(hits.get(0).matchedTerms()).isEqualTo(2);
+        assertThat(hits.get(1).matchedTerms()).isEqualTo(1);
+        assertThat(index.search("pothole", 0)).isEmpty();
+        assertThat(index.search("the", 3)).isEmpty();
+    }
+
+    @Test
+    void documentsCanBeReplacedAndRemoved() {
+        Bm25Index<String> index = new Bm25Index<>();
+        index.put("g1", "streetlight not working", "first");
+        index.put("g2", "garbage not collected", "second");
+
+        index.put("g1", "drain overflowing", "first, edited");
+        assertThat(index.search("streetlight", 5)).isEmpty();
+        assertThat(index.search("drain", 5)).extracting(Bm25Index.Hit::value).containsExactly("first, edited");
+
+        index.remove("g2");
+        index.remove("missing");
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.contains("g2")).isFalse();
+        assertThat(index.search("garbage", 5)).isEmpty();
+    }
+
+    @Test
+    void topKKeepsTheBestMatches() {
+        Bm25Index<Integer> index = new Bm25Index<>();
+        for (int i = 0; i < 1_000; i++) {
+            index.put("d" + i, "road repair ward " + i + (i % 100 == 0 ? " pothole pothole" : ""), i);
+        }
+
+        var hits = index.search("pothole road", 5);
+
+        assertThat(hits).hasSize(5);
+        assertThat(hits).extracting(Bm25Index.Hit::value).allMatch(value -> value % 100 == 0);
+        assertThat(hits).isSortedAccordingTo((x, y) -> Double.compare(y.score(), x.score()));
+    }
+}
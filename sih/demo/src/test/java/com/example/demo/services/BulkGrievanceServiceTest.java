@@ -0,0 +1,216 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Department;
+import com.example.demo.model.Grievance;
+import com.example.demo.model.GrievanceStatusHistory;
+import com.example.demo.model.User;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.GrievanceRepository;
+import com.example.demo.repository.GrievanceStatusHistoryRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.demo.config.QueryCountAssertions.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Bulk changes report each grievance's outcome, write history for the ones
+ * that changed, and send one email per recipient.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "openai.api.key=",
+        "ml.service.enabled=false",
+        "grievances.bulk.chunk-size=2"
+})
+class BulkGrievanceServiceTest {
+
+    @Autowired
+    private BulkGrievanceService bulkGrievanceService;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private GrievanceStatusHistoryRepository historyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private KnowledgeBaseService knowledgeBaseService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoSpyBean
+    private CacheInvalidationBus bus;
+
+    private String run;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository.deleteAll();
+        grievanceRepository.deleteAll();
+        run = UUID.randomUUID().toString().substring(0, 8);
+        alice = citizen("alice");
+        bob = citizen("bob");
+    }
+
+    @Test
+    void statusUpdateReportsEveryIdAndSendsOneDigestPerCitizen() {
+        Grievance first = save("Pothole on Station Road", alice, Grievance.GrievanceStatus.ASSIGNED, null);
+        Grievance second = save("Broken streetlight", alice, Grievance.GrievanceStatus.IN_PROGRESS, null);
+        Grievance done = save("Water leak", alice, Grievance.GrievanceStatus.RESOLVED, null);
+        Grievance other = save("Garbage pile", bob, Grievance.GrievanceStatus.ASSIGNED, null);
+        Grievance duplicate = save("Garbage pile again", bob, Grievance.GrievanceStatus.ASSIGNED, other.getId());
+
+        BulkGrievanceService.BulkResult result = bulkGrievanceService.updateStatus(
+                List.of(first.getId(), second.getId(), done.getId(), other.getId(), -1L), null,
+                Grievance.GrievanceStatus.RESOLVED, "Ward cleanup drive", null);
+
+        assertThat(result.selected()).isEqualTo(5);
+        assertThat(result.results()).extracting(BulkGrievanceService.ItemResult::id, BulkGrievanceService.ItemResult::outcome)
+                .containsExactlyInAnyOrder(
+                        tuple(first.getId(), BulkGrievanceService.Outcome.UPDATED),
+                        tuple(second.getId(), BulkGrievanceService.Outcome.UPDATED),
+                        tuple(done.getId(), BulkGrievanceService.Outcome.UNCHANGED),
+                        tuple(other.getId(), BulkGrievanceService.Outcome.UPDATED),
+                        tuple(-1L, BulkGrievanceService.Outcome.NOT_FOUND));
+
+        Grievance resolved = grievanceRepository.findById(second.getId()).orElseThrow();
+        assertThat(resolved.getStatus()).isEqualTo(Grievance.GrievanceStatus.RESOLVED);
+        assertThat(resolved.getResolvedAt()).isNotNull();
+        assertThat(grievanceRepository.findById(duplicate.getId()).orElseThrow().getStatus())
+                .isEqualTo(Grievance.GrievanceStatus.RESOLVED);
+        // The cascaded duplicate is published and refreshed like the grievances selected
+        verify(bus).publishAfterCommit("Grievance", duplicate.getId());
+        knowledgeBaseService.refreshPending();
+        assertThat(knowledgeBaseService.search("garbage pile again", 5))
+                .extracting(hit -> hit.value().title()).contains(duplicate.getTitle());
+
+        List<GrievanceStatusHistory> history = historyRepository.findByGrievanceIdOrderByChangedAt(second.getId());
+        assertThat(history).singleElement().satisfies(entry -> {
+            assertThat(entry.getFromStatus()).isEqualTo(Grievance.GrievanceStatus.IN_PROGRESS);
+            assertThat(entry.getToStatus()).isEqualTo(Grievance.GrievanceStatus.RESOLVED);
+            assertThat(entry.getReason()).isEqualTo("Ward cleanup drive");
+        });
+        assertThat(historyRepository.findByGrievanceIdOrderByChangedAt(done.getId())).isEmpty();
+
+        verify(notificationService).sendDigest(eq(alice.getName()), eq(alice.getEmail()), anyString(), anyString(),
+                argThat(items -> items.size() == 2));
+        verify(notificationService).sendDigest(eq(bob.getName()), eq(bob.getEmail()), anyString(), anyString(),
+                argThat(items -> items.size() == 1));
+        verify(notificationService, times(2)).sendDigest(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void assignmentByFilterSkipsClosedGrievancesAndNotifiesTheOfficerOnce() {
+        Department roads = new Department();
+        roads.setName("Roads " + run);
+        roads.setCode(run);
+        roads = departmentRepository.save(roads);
+        User officer = citizen("officer");
+        Grievance first = save("Pothole near school", alice, Grievance.GrievanceStatus.SUBMITTED, null);
+        Grievance second = save("Pothole near market", bob, Grievance.GrievanceStatus.SUBMITTED, null);
+        Grievance third = save("Pothole near temple", bob, Grievance.GrievanceStatus.SUBMITTED, null);
+        Grievance rejected = save("Pothole near park", bob, Grievance.GrievanceStatus.REJECTED, null);
+
+        BulkGrievanceService.BulkResult result = bulkGrievanceService.assign(null,
+                new BulkGrievanceService.Filter(Grievance.GrievanceType.INFRASTRUCTURE, null, null, null, null, null, null),
+                roads.getId(), officer.getId(), null);
+
+        assertThat(result.counts()).containsEntry(BulkGrievanceService.Outcome.UPDATED, 3L)
+                .containsEntry(BulkGrievanceService.Outcome.SKIPPED, 1L);
+        Grievance assigned = grievanceRepository.findById(third.getId()).orElseThrow();
+        assertThat(assigned.getStatus()).isEqualTo(Grievance.GrievanceStatus.ASSIGNED);
+        assertThat(assigned.getDepartment().getId()).isEqualTo(roads.getId());
+        assertThat(assigned.getAssignedOfficer().getId()).isEqualTo(officer.getId());
+        assertThat(assigned.getAssignedAt()).isNotNull();
+        assertThat(grievanceRepository.findById(rejected.getId()).orElseThrow().getStatus())
+                .isEqualTo(Grievance.GrievanceStatus.REJECTED);
+        assertThat(historyRepository.findByGrievanceIdOrderByChangedAt(first.getId())).singleElement()
+                .satisfies(entry -> assertThat(entry.getReason()).isEqualTo("Grievance assigned"));
+        verify(notificationService).sendDigest(eq(officer.getName()), eq(officer.getEmail()), anyString(), anyString(),
+                argThat(items -> items.size() == 3));
+
+        // Running it again changes nothing
+        BulkGrievanceService.BulkResult again = bulkGrievanceService.assign(
+                List.of(first.getId(), second.getId()), null, roads.getId(), officer.getId(), null);
+        assertThat(again.counts()).containsOnlyKeys(BulkGrievanceService.Outcome.UNCHANGED);
+    }
+
+    @Test
+    void aChunkCostsAFixedNumberOfStatements() throws Throwable {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ids.add(save("Streetlight " + i, i % 2 == 0 ? alice : bob, Grievance.GrievanceStatus.ASSIGNED, null).getId());
+        }
+        ReflectionTestUtils.setField(bulkGrievanceService, "chunkSize", 100);
+        try {
+            // Row read, update, duplicate ids and cascade, history ids and batched inserts: not one round trip per grievance
+            assertMaxQueries(10, () -> bulkGrievanceService.updateStatus(ids, null,
+                    Grievance.GrievanceStatus.IN_PROGRESS, null, null));
+        } finally {
+            ReflectionTestUtils.setField(bulkGrievanceService, "chunkSize", 2);
+        }
+        assertThat(grievanceRepository.findAllById(ids)).allMatch(g -> g.getStatus() == Grievance.GrievanceStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void selectionNeedsIdsOrAFilter() {
+        assertThatThrownBy(() -> bulkGrievanceService.updateStatus(List.of(), null,
+                Grievance.GrievanceStatus.CLOSED, null, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bulkGrievanceService.assign(List.of(1L), null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private User citizen(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + run + "@example.com");
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private Grievance save(String title, User user, Grievance.GrievanceStatus status, Long duplicateOf) {
+        Grievance grievance = new Grievance();
+        grievance.setTitle(title);
+        grievance.setDescription(title + " reported by residents");
+        grievance.setType(Grievance.GrievanceType.INFRASTRUCTURE);
+        grievance.setTrackingNumber("GRVBLK-" + run + "-" + title.hashCode());
+        grievance.setUser(user);
+        grievance.setStatus(status);
+        grievance.setDuplicateOfId(duplicateOf);
+        return grievanceRepository.save(grievance);
+    }
+}
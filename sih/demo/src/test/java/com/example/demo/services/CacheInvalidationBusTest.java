@@ -0,0 +1,115 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes in one JVM: the local transport stands in for the broker, and the
+ * JDBC change log runs against in-memory H2.
+ */
+class CacheInvalidationBusTest {
+
+    @Test
+    void remoteNodeInvalidatesAndOriginSkipsItsOwnChange() throws Exception {
+        String channel = "test-" + UUID.randomUUID();
+        CacheInvalidationBus nodeA = new CacheInvalidationBus(new LocalInvalidationTransport(channel), "a", null, 50, 100);
+        CacheInvalidationBus nodeB = new CacheInvalidationBus(new LocalInvalidationTransport(channel), "b", null, 50, 100);
+        List<Set<Long>> seenByA = new CopyOnWriteArrayList<>();
+        List<Set<Long>> seenByB = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        nodeA.subscribe("Department", (entity, ids) -> seenByA.add(ids));
+        nodeB.subscribe("Department", (entity, ids) -> {
+            seenByB.add(ids);
+            delivered.countDown();
+        });
+        nodeA.start();
+        nodeB.start();
+        try {
+            nodeA.publish("Department", 7L);
+            nodeA.publish("Grievance", 1L);
+
+            assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(seenByB).containsExactly(Set.of(7L));
+            assertThat(seenByA).isEmpty();
+            Map<String, Object> stats = nodeB.getStats();
+            assertThat(stats.get("received")).isEqualTo(1L);
+            assertThat(stats).containsKey("lag");
+            // Nobody holds Grievance entities in a cache, so nothing is sent for them
+            assertThat(nodeA.getStats().get("published")).isEqualTo(1L);
+        } finally {
+            nodeA.stop();
+            nodeB.stop();
+        }
+    }
+
+    @Test
+    void jdbcTransportDeliversOutOfOrderCommitsOnce() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        // Long interval: the test drives polling itself
+        JdbcInvalidationTransport publisher = new JdbcInvalidationTransport(jdbcTemplate, 60_000, 100, 60_000, 600_000);
+        JdbcInvalidationTransport subscriber = new JdbcInvalidationTransport(jdbcTemplate, 60_000, 100, 60_000, 600_000);
+        List<Long> received = new ArrayList<>();
+        publisher.start(batch -> {
+        });
+        subscriber.start(batch -> batch.forEach(invalidation -> received.add(invalidation.id())));
+        try {
+            publisher.publish(List.of(new CacheInvalidation("User", 1, "a", System.currentTimeMillis()),
+                    new CacheInvalidation("User", 2, "a", System.currentTimeMillis())));
+            subscriber.poll();
+            assertThat(received).containsExactly(1L, 2L);
+            assertThat(subscriber.watermark()).isEqualTo(2);
+
+            // Row 4 commits before row 3: deliver it, but keep waiting for 3
+            insertRow(jdbcTemplate, 4, 40);
+            subscriber.poll();
+            assertThat(received).containsExactly(1L, 2L, 40L);
+            assertThat(subscriber.watermark()).isEqualTo(2);
+
+            insertRow(jdbcTemplate, 3, 30);
+            subscriber.poll();
+            subscriber.poll();
+            assertThat(received).containsExactly(1L, 2L, 40L, 30L);
+            assertThat(subscriber.watermark()).isEqualTo(4);
+        } finally {
+            publisher.stop();
+            subscriber.stop();
+        }
+    }
+
+    @Test
+    void jdbcTransportSkipsHolesLeftByRollbacks() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        JdbcInvalidationTransport subscriber = new JdbcInvalidationTransport(jdbcTemplate, 60_000, 100, 0, 600_000);
+        subscriber.start(batch -> {
+        });
+        try {
+            insertRow(jdbcTemplate, 2, 20);
+            subscriber.poll();
+            assertThat(subscriber.watermark()).isZero();
+            // Id 1 never appears; once the gap timeout passes the watermark moves on
+            subscriber.poll();
+            assertThat(subscriber.watermark()).isEqualTo(2);
+        } finally {
+            subscriber.stop();
+        }
+    }
+
+    private static void insertRow(JdbcTemplate jdbcTemplate, long rowId, long entityId) {
+        jdbcTemplate.update("INSERT INTO cache_invalidations (id, entity, entity_id, origin, published_at) "
+                + "VALUES (?, 'User', ?, 'a', ?)", rowId, entityId, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Streaming, history trimming and the FAQ cache, against a local fake
+ * completions server.
+ */
+class ChatServiceTest {
+
+    private FakeCompletionServer upstream;
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new FakeCompletionServer();
+        chatService = new ChatService(WebClient.create(), new ObjectMapper(), new SimpleMeterRegistry(),
+                mock(KnowledgeBaseService.class));
+        ReflectionTestUtils.setField(chatService, "openaiApiKey", "test-key");
+        ReflectionTestUtils.setField(chatService, "openaiBaseUrl", upstream.baseUrl());
+        ReflectionTestUtils.setField(chatService, "model", "gpt-test");
+        ReflectionTestUtils.setField(chatService, "timeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(chatService, "maxContextTokens", 200);
+        ReflectionTestUtils.setField(chatService, "faqCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(chatService, "faqCacheTtl", Duration.ofMinutes(5));
+        chatService.initFaqCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.close();
+    }
+
+    @Test
+    void estimatesTokensPerWordPunctuationAndCharacter() {
+        // "pothole" is seven letters, so two tokens; the full stop is one more
+        assertThat(TokenEstimator.estimate("Large pothole on the main road.")).isEqualTo(8);
+        assertThat(TokenEstimator.estimate("सड़क")).isEqualTo(4);
+        assertThat(TokenEstimator.estimate((String) null)).isZero();
+        assertThat(TokenEstimator.estimate(Map.of("role", "user", "content", "hi"))).isEqualTo(TokenEstimator.MESSAGE_OVERHEAD + 1);
+    }
+
+    @Test
+    void streamsTokensAsTheyArrive() {
+        upstream.reply(Duration.ofMillis(200), "Pot", "holes", " are", " fixed", " weekly.");
+        List<Long> arrivals = new ArrayList<>();
+        long started = System.nanoTime();
+
+        List<String> tokens = chatService.chatStream(List.of(user("When are potholes fixed?")))
+                .doOnNext(token -> arrivals.add((System.nanoTime() - started) / 1_000_000))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(tokens).containsExactly("Pot", "holes", " are", " fixed", " weekly.");
+        // The first piece is relayed long before the last one is generated
+        assertThat(arrivals.get(arrivals.size() - 1) - arrivals.get(0)).isGreaterThanOrEqualTo(600);
+        assertThat(upstream.requests().get(0).path("stream").asBoolean()).isTrue();
+    }
+
+    @Test
+    void frequentQuestionsAreAnsweredFromTheCache() {
+        upstream.reply(Duration.ZERO, "Use the ", "tracking number.");
+
+        assertThat(chatService.chatStream(List.of(user("How do I track my grievance?"))).collectList().block())
+                .containsExactly("Use the ", "tracking number.");
+        // Same question, different case and punctuation
+        assertThat(chatService.chatStream(List.of(user("how do i track my grievance"))).collectList().block())
+                .containsExactly("Use the tracking number.");
+        assertThat(chatService.chat(List.of(user("How do I track my grievance??")))).isEqualTo("Use the tracking number.");
+        assertThat(upstream.requests()).hasSize(1);
+
+        // With history the answer depends on the conversation, so it goes upstream
+        chatService.chat(List.of(user("My street light is broken"), assistant("Which street?"),
+                user("How do I track my grievance?")));
+        assertThat(upstream.requests()).hasSize(2);
+    }
+
+    @Test
+    void historyIsTrimmedToTheTokenBudget() {
+        upstream.reply(Duration.ZERO, "Noted.");
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "system", "content", "You help citizens file grievances."));
+        for (int i = 0; i < 40; i++) {
+            messages.add(user("Earlier message number " + i + " about the broken drainage near the market"));
+            messages.add(assistant("Reply number " + i + " asking for the exact location of the drain"));
+        }
+        messages.add(user("Here is the location"));
+
+        chatService.chat(messages);
+
+        JsonNode sent = upstream.requests().get(0).path("messages");
+        int estimate = 0;
+        for (JsonNode message : sent) {
+            estimate += TokenEstimator.estimate(Map.of("content", message.path("content").asText()));
+        }
+        assertThat(sent.size()).isLessThan(messages.size());
+        assertThat(estimate).isLessThanOrEqualTo(200);
+        assertThat(sent.get(0).path("role").asText()).isEqualTo("system");
+        assertThat(sent.get(sent.size() - 1).path("content").asText()).isEqualTo("Here is the location");
+    }
+
+    @Test
+    void failureBeforeTheFirstTokenFallsBack() {
+        upstream.fail(503);
+
+        List<String> tokens = chatService.chatStream(List.of(user("Streetlight broken"))).collectList().block();
+
+        assertThat(tokens).hasSize(1);
+        assertThat(tokens.get(0)).startsWith("Thanks for sharing. I understood: Streetlight broken");
+    }
+
+    private static Map<String, String> user(String content) {
+        return Map.of("role", "user", "content", content);
+    }
+
+    private static Map<String, String> assistant(String content) {
+        return Map.of("role", "assistant", "content", content);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.repository.GrievanceRepository;
+import com.example.demo.repository.GrievanceStatusHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Submissions that repeat an open grievance are linked to it, and the
+ * master's status changes reach them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:duplicates;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "openai.api.key=",
+        "ml.service.enabled=false"
+})
+class DuplicateDetectionTest {
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private GrievanceStatusHistoryRepository historyRepository;
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Autowired
+    private KnowledgeBaseService knowledgeBaseService;
+
+    @MockitoSpyBean
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository.deleteAll();
+        grievanceRepository.deleteAll();
+        duplicateDetectionService.rebuild();
+    }
+
+    @Test
+    void repeatedReportsAreLinkedAndFollowTheMaster() {
+        Grievance master = grievanceService.submitGrievance(grievance("Water outage in Gandhi Nagar",
+                "No water supply in Gandhi Nagar block C since Monday morning, tankers have not come either", "1"));
+        Grievance copy = grievanceService.submitGrievance(grievance("Water outage Gandhi Nagar",
+                "No water supply in Gandhi Nagar block C since monday morning. Tankers have not come either!", "2"));
+        Grievance other = grievanceService.submitGrievance(grievance("Streetlight not working",
+                "The streetlight opposite the bus stand has been off for a week", "3"));
+
+        assertThat(master.getDuplicateOfId()).isNull();
+        assertThat(copy.getDuplicateOfId()).isEqualTo(master.getId());
+        assertThat(copy.getDuplicateSimilarity()).isGreaterThanOrEqualTo(0.6);
+        assertThat(other.getDuplicateOfId()).isNull();
+        assertThat(grievanceService.getDuplicates(master.getId())).extracting(Grievance::getId).containsExactly(copy.getId());
+
+        grievanceService.updateGrievanceStatus(master.getId(), Grievance.GrievanceStatus.RESOLVED, "Pipeline repaired", null);
+
+        Grievance linked = grievanceRepository.findById(copy.getId()).orElseThrow();
+        assertThat(linked.getStatus()).isEqualTo(Grievance.GrievanceStatus.RESOLVED);
+        assertThat(linked.getResolvedAt()).isNotNull();
+        assertThat(grievanceRepository.findById(other.getId()).orElseThrow().getStatus())
+                .isEqualTo(Grievance.GrievanceStatus.SUBMITTED);
+
+        // Resolved grievances leave the index, so a new report starts a new master
+        Grievance recurrence = grievanceService.submitGrievance(grievance("Water outage in Gandhi Nagar",
+                "No water supply in Gandhi Nagar block C since Monday morning, tankers have not come either", "4"));
+        assertThat(recurrence.getDuplicateOfId()).isNull();
+    }
+
+    @Test
+    void resolvingAMasterRefreshesItsDuplicatesEverywhere() {
+        Grievance master = grievanceService.submitGrievance(grievance("Sewage overflowing at Ram Chowk",
+                "Sewage has been overflowing onto the road at Ram Chowk market for two days", "7"));
+        Grievance copy = grievanceService.submitGrievance(grievance("Sewage overflow Ram Chowk",
+                "Sewage has been overflowing onto the road at Ram Chowk market for 2 days now", "8"));
+        assertThat(copy.getDuplicateOfId()).isEqualTo(master.getId());
+
+        grievanceService.updateGrievanceStatus(master.getId(), Grievance.GrievanceStatus.RESOLVED, "Drain cleared", null);
+
+        // The cascade is a bulk update, so the duplicate is announced to other nodes explicitly
+        verify(bus).publishAfterCommit("Grievance", copy.getId());
+        knowledgeBaseService.refreshPending();
+        assertThat(knowledgeBaseService.search("sewage overflow Ram Chowk", 5))
+                .extracting(hit -> hit.value().title()).contains(copy.getTitle());
+    }
+
+    @Test
+    void deletingAMasterReleasesItsDuplicates() {
+        // Saved directly so it has no status history rows holding on to it
+        Grievance master = grievanceRepository.save(grievance("Garbage not collected in Sector 9",
+                "Bins near the Sector 9 market have been overflowing for five days", "5"));
+        duplicateDetectionService.trackAfterCommit(master);
+        Grievance copy = grievanceService.submitGrievance(grievance("Garbage not collected Sector 9",
+                "Bins near the sector 9 market have been overflowing for five days now", "6"));
+        assertThat(copy.getDuplicateOfId()).isEqualTo(master.getId());
+
+        grievanceService.deleteGrievance(master.getId());
+
+        assertThat(grievanceRepository.findById(copy.getId()).orElseThrow().getDuplicateOfId()).isNull();
+        // The released copy is a master of its own now, so the next repeat links to it
+        assertThat(duplicateDetectionService.findMaster(master.getTitle(), master.getDescription()))
+                .map(MinHashLshIndex.Match::id).contains(copy.getId());
+    }
+
+    private static Grievance grievance(String title, String description, String suffix) {
+        Grievance grievance = new Grievance();
+        grievance.setTitle(title);
+        grievance.setDescription(description);
+        grievance.setTrackingNumber("GRVDUP" + suffix);
+        return grievance;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * A local stand-in for the OpenAI chat completions API. Replies with the
+ * configured tokens, either as one JSON completion or, for "stream": true,
+ * as server-sent events spaced tokenDelay apart. Keeps every request body.
+ */
+public class FakeCompletionServer implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private volatile List<String> tokens = List.of("Hello");
+    private volatile Duration tokenDelay = Duration.ZERO;
+    private volatile int status = 200;
+
+    public FakeCompletionServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/chat/completions", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public FakeCompletionServer reply(Duration tokenDelay, String... tokens) {
+        this.tokens = List.of(tokens);
+        this.tokenDelay = tokenDelay;
+        this.status = 200;
+        return this;
+    }
+
+    public FakeCompletionServer fail(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public List<JsonNode> requests() {
+        return requests;
+    }
+
+    public void reset() {
+        requests.clear();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = JSON.readTree(exchange.getRequestBody());
+        requests.add(request);
+        if (status != 200) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (!request.path("stream").asBoolean()) {
+                byte[] body = JSON.writeValueAsBytes(Map.of("choices",
+                        List.of(Map.of("message", Map.of("role", "assistant", "content", String.join("", tokens))))));
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            write(out, Map.of("choices", List.of(Map.of("delta", Map.of("role", "assistant")))));
+            for (String token : tokens) {
+                sleep(tokenDelay);
+                write(out, Map.of("choices", List.of(Map.of("delta", Map.of("content", token)))));
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // The client went away
+        }
+    }
+
+    private static void write(OutputStream out, Object chunk) throws IOException {
+        out.write(("data: " + JSON.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
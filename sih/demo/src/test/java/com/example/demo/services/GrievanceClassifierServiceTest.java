@@ -0,0 +1,147 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.repository.GrievanceRepository;
+import com.example.demo.repository.GrievanceStatusHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The local classifier learns confident categories and officer corrections
+ * from the database, including grievances that commit behind the newest one,
+ * and a new instance resumes from its snapshot.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:classifier;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "openai.api.key=",
+        "ml.service.enabled=false",
+        "classifier.min-documents=1",
+        "classifier.training.interval-ms=3600000",
+        "classifier.snapshot-path=target/classifier-test/model.bin"
+})
+class GrievanceClassifierServiceTest {
+
+    private static final Path SNAPSHOT = Path.of("target/classifier-test/model.bin");
+
+    @Autowired
+    private GrievanceClassifierService classifierService;
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private GrievanceStatusHistoryRepository historyRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Training runs only when the test calls it
+        classifierService.stop();
+        historyRepository.deleteAll();
+        grievanceRepository.deleteAll();
+        Files.deleteIfExists(SNAPSHOT);
+        classifierService.retrain();
+    }
+
+    @AfterAll
+    static void cleanUp() throws Exception {
+        Files.deleteIfExists(SNAPSHOT);
+    }
+
+    @Test
+    void learnsConfidentCategoriesAndCorrections() {
+        save("Pothole on Station Road", "Deep pothole near the railway crossing", "INFRASTRUCTURE", 0.95, "1");
+        save("Road caved in", "The road near the temple has caved in and has potholes", "INFRASTRUCTURE", 0.97, "2");
+        save("No water supply", "Water supply has stopped in ward 4 for three days", "UTILITIES", 0.96, "3");
+        save("Pipeline leak", "Water pipeline leaking near the bus stand", "UTILITIES", 0.93, "4");
+        // Below the label threshold: never learned
+        save("Pothole again", "Water everywhere on the road", "HEALTHCARE", 0.6, "5");
+        Grievance mislabeled = save("Streetlight pole fallen", "Streetlight pole has fallen across the road",
+                "UTILITIES", 0.95, "6");
+
+        assertThat(classifierService.train()).isEqualTo(5);
+        assertThat(classifierService.classify("Potholes on the road", "")).hasValueSatisfying(p -> {
+            assertThat(p.label()).isEqualTo("INFRASTRUCTURE");
+            assertThat(p.confidence()).isLessThanOrEqualTo(0.9);
+        });
+
+        Grievance assigned = grievanceService.assignGrievance(mislabeled.getId(), null, null, "infrastructure");
+
+        assertThat(assigned.getAiCategory()).isEqualTo("INFRASTRUCTURE");
+        assertThat(assigned.getAiConfidence()).isEqualTo(1.0);
+        assertThat(grievanceService.getHistory(mislabeled.getId())).extracting(h -> h.getReason())
+                .containsExactly("Grievance assigned, category corrected from UTILITIES to INFRASTRUCTURE");
+        assertThat(classifierService.train()).isEqualTo(1);
+        assertThat(classifierService.documents()).isEqualTo(4 + 5.0);
+        assertThat(classifierService.classify("Streetlight pole", "")).hasValueSatisfying(
+                p -> assertThat(p.label()).isEqualTo("INFRASTRUCTURE"));
+    }
+
+    @Test
+    void learnsGrievancesThatCommitBehindTheNewestOne() {
+        Grievance late = save("No water supply", "Water supply has stopped in ward 4 for three days", "UTILITIES", 0.5, "9");
+        save("Pothole on Station Road", "Deep pothole near the railway crossing", "INFRASTRUCTURE", 0.95, "10");
+        assertThat(classifierService.train()).isEqualTo(1);
+
+        // Stands in for a grievance from another node's id block that commits after a higher id was learned
+        late.setAiConfidence(0.96);
+        grievanceRepository.save(late);
+
+        assertThat(classifierService.train()).isEqualTo(1);
+        assertThat(classifierService.documents()).isEqualTo(2.0);
+        // Re-reading the window does not learn anything twice
+        assertThat(classifierService.train()).isZero();
+    }
+
+    @Test
+    void resumesFromSnapshot() {
+        save("No water supply", "Water supply has stopped in ward 4 for three days", "UTILITIES", 0.96, "7");
+        classifierService.train();
+        assertThat(SNAPSHOT).exists();
+
+        GrievanceClassifierService restarted = new GrievanceClassifierService(grievanceRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(restarted, "enabled", true);
+        ReflectionTestUtils.setField(restarted, "hashBits", 17);
+        ReflectionTestUtils.setField(restarted, "minLabelConfidence", 0.9);
+        ReflectionTestUtils.setField(restarted, "pageSize", 1000);
+        ReflectionTestUtils.setField(restarted, "rescanIds", 1000L);
+        ReflectionTestUtils.setField(restarted, "snapshotPath", SNAPSHOT.toString());
+        restarted.init();
+
+        assertThat(restarted.documents()).isEqualTo(1.0);
+        assertThat(restarted.classify("Water supply", "")).hasValueSatisfying(
+                p -> assertThat(p.label()).isEqualTo("UTILITIES"));
+        // Only grievances past the snapshot are read again
+        assertThat(restarted.train()).isZero();
+        save("Pipeline leak", "Water pipeline leaking near the bus stand", "UTILITIES", 0.93, "8");
+        assertThat(restarted.train()).isEqualTo(1);
+    }
+
+    private Grievance save(String title, String description, String category, double confidence, String tracking) {
+        Grievance grievance = new Grievance();
+        grievance.setTitle(title);
+        grievance.setDescription(description);
+        grievance.setAiCategory(category);
+        grievance.setAiConfidence(confidence);
+        grievance.setTrackingNumber("GRV-CLS-" + tracking);
+        return grievanceRepository.save(grievance);
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+import com.example.demo.model.User;
+import com.example.demo.repository.GrievanceRepository;
+import com.example.demo.repository.GrievanceStatusHistoryRepository;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Many officers updating and claiming the same grievances at once: every
+ * successful update is kept, and every grievance is claimed exactly once.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "openai.api.key=",
+        "ml.service.enabled=false",
+        // TABLE id generation takes a second connection mid-transaction, so leave room beyond one per officer
+        "spring.datasource.hikari.maximum-pool-size=32",
+        // Enough that no update gives up under this much contention
+        "grievances.update.max-attempts=200"
+})
+class GrievanceConcurrencyTest {
+
+    private static final int OFFICERS = 16;
+    private static final List<Grievance.GrievanceStatus> WORKING = List.of(Grievance.GrievanceStatus.UNDER_REVIEW,
+            Grievance.GrievanceStatus.IN_PROGRESS, Grievance.GrievanceStatus.PENDING_INFORMATION,
+            Grievance.GrievanceStatus.ASSIGNED);
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private GrievanceStatusHistoryRepository historyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoSpyBean
+    private CacheInvalidationBus bus;
+
+    private String run;
+    private List<User> officers;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository.deleteAll();
+        grievanceRepository.deleteAll();
+        run = UUID.randomUUID().toString().substring(0, 8);
+        officers = new ArrayList<>();
+        for (int i = 0; i < OFFICERS; i++) {
+            User officer = new User();
+            officer.setName("Officer " + i);
+            officer.setEmail("officer-" + i + "-" + run + "@example.com");
+            officer.setPassword("secret");
+            officer.setRole(User.UserRole.DEPARTMENT_OFFICER);
+            officers.add(userRepository.save(officer));
+        }
+    }
+
+    @Test
+    void concurrentStatusUpdatesAreNeverLost() throws Exception {
+        List<Grievance> grievances = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            grievances.add(grievanceRepository.save(grievance("Overflowing drain " + i)));
+        }
+        int perOfficer = 25;
+        Map<Long, AtomicInteger> applied = new ConcurrentHashMap<>();
+
+        long elapsed = race(officer -> {
+            for (int i = 0; i < perOfficer; i++) {
+                Grievance target = grievances.get(ThreadLocalRandom.current().nextInt(grievances.size()));
+                Grievance.GrievanceStatus status = WORKING.get(ThreadLocalRandom.current().nextInt(WORKING.size()));
+                grievanceService.updateGrievanceStatus(target.getId(), status, "Update " + i, officer);
+                applied.computeIfAbsent(target.getId(), id -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+
+        int total = 0;
+        for (Grievance grievance : grievances) {
+            int updates = applied.getOrDefault(grievance.getId(), new AtomicInteger()).get();
+            total += updates;
+            // One version and one history row per update: none was overwritten by another
+            assertThat(grievanceRepository.findById(grievance.getId()).orElseThrow().getVersion()).isEqualTo(updates);
+            assertThat(historyRepository.findByGrievanceIdOrderByChangedAt(grievance.getId())).hasSize(updates);
+        }
+        assertThat(total).isEqualTo(OFFICERS * perOfficer);
+        log.info("{} officers: {} status updates in {} ms ({} per second), {} conflicts retried", OFFICERS, total,
+                elapsed, total * 1000L / Math.max(1, elapsed), conflicts("status"));
+    }
+
+    @Test
+    void eachGrievanceIsClaimedByExactlyOneOfficer() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ids.add(grievanceRepository.save(grievance("Broken footpath " + i)).getId());
+        }
+        Map<Long, Long> winners = new ConcurrentHashMap<>();
+        AtomicInteger refused = new AtomicInteger();
+
+        long elapsed = race(officer -> {
+            List<Long> order = new ArrayList<>(ids);
+            Collections.shuffle(order);
+            for (Long id : order) {
+                try {
+                    grievanceService.claimGrievance(id, officer);
+                    assertThat(winners.putIfAbsent(id, officer.getId())).isNull();
+                } catch (IllegalStateException e) {
+                    refused.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(winners).hasSize(ids.size());
+        assertThat(refused.get()).isEqualTo(ids.size() * (OFFICERS - 1));
+        for (Long id : ids) {
+            Grievance claimed = grievanceRepository.findById(id).orElseThrow();
+            assertThat(claimed.getAssignedOfficer().getId()).isEqualTo(winners.get(id));
+            assertThat(claimed.getStatus()).isEqualTo(Grievance.GrievanceStatus.ASSIGNED);
+            assertThat(historyRepository.findByGrievanceIdOrderByChangedAt(id)).singleElement()
+                    .satisfies(entry -> assertThat(entry.getFromStatus()).isEqualTo(Grievance.GrievanceStatus.SUBMITTED));
+            // Once per winning claim, so other nodes drop their cached copy
+            verify(bus).publishAfterCommit("Grievance", id);
+        }
+        int attempts = ids.size() * OFFICERS;
+        log.info("{} officers: {} claim attempts in {} ms ({} per second), {} conflicts retried", OFFICERS, attempts,
+                elapsed, attempts * 1000L / Math.max(1, elapsed), conflicts("claim"));
+    }
+
+    @Test
+    void staleExpectedVersionIsRefusedAndHistoryKeepsThePriorStatus() {
+        Grievance grievance = grievanceRepository.save(grievance("Streetlight flickering"));
+        Long seen = grievance.getVersion();
+        grievanceService.updateGrievanceStatus(grievance.getId(), Grievance.GrievanceStatus.IN_PROGRESS, "Started", null, seen);
+
+        assertThatThrownBy(() -> grievanceService.updateGrievanceStatus(grievance.getId(),
+                Grievance.GrievanceStatus.REJECTED, "Not ours", null, seen))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        grievanceService.assignGrievance(grievance.getId(), null, officers.get(0).getId());
+        assertThat(historyRepository.findByGrievanceIdOrderByChangedAt(grievance.getId()))
+                .extracting(entry -> entry.getFromStatus() + "->" + entry.getToStatus())
+                .containsExactly("SUBMITTED->IN_PROGRESS", "IN_PROGRESS->ASSIGNED");
+    }
+
+    private interface OfficerWork {
+        void run(User officer) throws Exception;
+    }
+
+    // Starts every officer at once and waits for all of them; returns the elapsed milliseconds
+    private long race(OfficerWork work) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(OFFICERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (User officer : officers) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    work.run(officer);
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return (System.nanoTime() - started) / 1_000_000;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long conflicts(String operation) {
+        return (long) meterRegistry.find("grievances.update.conflicts").tag("operation", operation).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private Grievance grievance(String title) {
+        Grievance grievance = new Grievance();
+        grievance.setTitle(title);
+        grievance.setDescription(title + " reported near the ward office");
+        grievance.setType(Grievance.GrievanceType.INFRASTRUCTURE);
+        grievance.setTrackingNumber("GRVCON-" + run + "-" + title.hashCode());
+        return grievance;
+    }
+}
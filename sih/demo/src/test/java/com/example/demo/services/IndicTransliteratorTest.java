@@ -0,0 +1,37 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndicTransliteratorTest {
+
+    @Test
+    void romanizesDevanagariTamilAndTelugu() {
+        assertThat(IndicTransliterator.romanize("बिजली नहीं है")).isEqualTo("bijlee naheen hai");
+        assertThat(IndicTransliterator.romanize("சாலை பள்ளம்")).isEqualTo("saalai pallam");
+        assertThat(IndicTransliterator.romanize("వేతనం")).isEqualTo("vetanam");
+        // Nukta written as a separate mark or precomposed
+        assertThat(IndicTransliterator.romanize("सड़क")).isEqualTo("sadak");
+        assertThat(IndicTransliterator.romanize("\u0938\u095C\u0915")).isEqualTo("sadak");
+        // Kept before a consonant cluster, dropped between single consonants
+        assertThat(IndicTransliterator.romanize("समस्या कचरा")).isEqualTo("samasyaa kachraa");
+        assertThat(IndicTransliterator.romanize("Road ३ blocked")).isEqualTo("Road 3 blocked");
+        assertThat(IndicTransliterator.containsIndicScript("Road blocked")).isFalse();
+    }
+
+    @Test
+    void spellingVariantsShareAMatchKey() {
+        assertThat(IndicTransliterator.matchKey("sadaka")).isEqualTo(IndicTransliterator.matchKey("sadak"));
+        assertThat(IndicTransliterator.matchKey("veethi")).isEqualTo(IndicTransliterator.matchKey("veedhi"));
+        assertThat(IndicTransliterator.matchKey("paanee")).isEqualTo(IndicTransliterator.matchKey("pani"));
+        assertThat(IndicTransliterator.matchKey("bijlee")).isEqualTo(IndicTransliterator.matchKey("bijli"));
+        assertThat(IndicTransliterator.matchKey("road")).isNotEqualTo(IndicTransliterator.matchKey("rod"));
+    }
+
+    @Test
+    void keysSplitAnyScript() {
+        assertThat(IndicTransliterator.keys("सड़क पर गड्ढा, Pothole!"))
+                .containsExactly("satak", "par", "kat", "potole");
+    }
+}
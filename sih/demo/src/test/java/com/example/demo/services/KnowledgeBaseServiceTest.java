@@ -0,0 +1,173 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Department;
+import com.example.demo.model.Grievance;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.GrievanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The assistant answers routing and "how do I" questions from departments,
+ * resolved grievances and help passages, and follows committed changes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:knowledgebase;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "openai.api.key=",
+        // Refreshed explicitly below
+        "assistant.index.refresh-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class KnowledgeBaseServiceTest {
+
+    private static final AtomicLong trackingNumbers = new AtomicLong();
+
+    @Autowired
+    private KnowledgeBaseService knowledgeBase;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @MockitoSpyBean
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Department electricity;
+    private Department sanitation;
+
+    @BeforeEach
+    void setUp() {
+        grievanceRepository.deleteAll();
+        departmentRepository.deleteAll();
+        electricity = departmentRepository.save(department("Electricity", "ELEC",
+                "Power cuts, streetlights and electricity supply", "1912"));
+        sanitation = departmentRepository.save(department("Sanitation", "SAN",
+                "Garbage collection, public toilets and street sweeping", null));
+        grievance("Streetlight not working near market",
+                "The streetlight opposite the bus stand is off for a week. Call me on 98765 43210 or ravi@example.com",
+                electricity, Grievance.GrievanceStatus.RESOLVED);
+        knowledgeBase.rebuild();
+    }
+
+    @Test
+    void routingQuestionsAreAnsweredFromDepartmentsAndResolvedGrievances() {
+        String answer = knowledgeBase.answer("Which department handles broken streetlights?").orElseThrow();
+
+        assertThat(answer).contains("handled by the Electricity department", "Contact: 1912",
+                "Streetlight not working near market", "[number]", "[email]");
+        assertThat(answer).doesNotContain("98765", "ravi@example.com");
+    }
+
+    @Test
+    void howToQuestionsAreAnsweredFromHelpPassages() {
+        assertThat(knowledgeBase.answer("How do I track my grievance?"))
+                .hasValueSatisfying(answer -> assertThat(answer).startsWith("Use the tracking number"));
+    }
+
+    @Test
+    void otherQuestionsAreLeftToTheUpstream() {
+        assertThat(knowledgeBase.answer("Streetlight is broken")).isEmpty();
+        assertThat(knowledgeBase.answer("How do I apply for a passport?")).isEmpty();
+        assertThat(knowledgeBase.contextMessage("Streetlight is broken"))
+                .hasValueSatisfying(message -> assertThat(message.get("content")).contains("Electricity"));
+    }
+
+    @Test
+    void resolvedGrievancesAreIndexedAsTheyCommit() {
+        Grievance garbage = grievance("Garbage not collected in Sector 9", "Bins overflowing for days",
+                sanitation, Grievance.GrievanceStatus.IN_PROGRESS);
+        knowledgeBase.refreshPending();
+        assertThat(knowledgeBase.bestEffortAnswer("bins overflowing sector 9")).isEmpty();
+
+        garbage.setStatus(Grievance.GrievanceStatus.RESOLVED);
+        garbage = grievanceRepository.save(garbage);
+        knowledgeBase.refreshPending();
+        assertThat(knowledgeBase.bestEffortAnswer("bins overflowing sector 9"))
+                .hasValueSatisfying(answer -> assertThat(answer).contains("Garbage not collected in Sector 9", "Sanitation"));
+
+        grievanceRepository.delete(garbage);
+        knowledgeBase.refreshPending();
+        assertThat(knowledgeBase.bestEffortAnswer("bins overflowing sector 9")).isEmpty();
+    }
+
+    @Test
+    void idsFromAFailedRefreshAreRetried() {
+        Grievance garbage = grievance("Garbage not collected in Sector 9", "Bins overflowing for days",
+                sanitation, Grievance.GrievanceStatus.RESOLVED);
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .when(grievanceRepository).findAllWithDepartmentByIdIn(anyCollection());
+
+        knowledgeBase.refreshPending();
+        assertThat(knowledgeBase.bestEffortAnswer("bins overflowing sector 9")).isEmpty();
+
+        reset(grievanceRepository);
+        knowledgeBase.refreshPending();
+        assertThat(knowledgeBase.bestEffortAnswer("bins overflowing sector 9"))
+                .hasValueSatisfying(answer -> assertThat(answer).contains(garbage.getTitle()));
+    }
+
+    @Test
+    void inactiveDepartmentsLeaveTheIndex() {
+        int before = knowledgeBase.size();
+        electricity.setStatus(Department.DepartmentStatus.INACTIVE);
+        departmentRepository.save(electricity);
+        knowledgeBase.refreshPending();
+
+        assertThat(knowledgeBase.size()).isEqualTo(before - 1);
+    }
+
+    @Test
+    void chatAnswersRoutingQuestionsWithoutTheUpstream() throws Exception {
+        mockMvc.perform(post("/api/ai/chat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"messages\":[{\"role\":\"user\",\"content\":\"Who handles garbage collection?\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reply").value(containsString("handled by the Sanitation department")));
+    }
+
+    private static Department department(String name, String code, String description, String phone) {
+        Department department = new Department();
+        department.setName(name);
+        department.setCode(code);
+        department.setDescription(description);
+        department.setPhoneNumber(phone);
+        return department;
+    }
+
+    private Grievance grievance(String title, String description, Department department,
+                                Grievance.GrievanceStatus status) {
+        Grievance grievance = new Grievance();
+        grievance.setTitle(title);
+        grievance.setDescription(description);
+        grievance.setDepartment(department);
+        grievance.setStatus(status);
+        grievance.setTrackingNumber("GRVKB" + trackingNumbers.incrementAndGet());
+        return grievanceRepository.save(grievance);
+    }
+}
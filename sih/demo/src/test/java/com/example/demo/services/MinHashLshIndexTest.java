@@ -0,0 +1,59 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashLshIndexTest {
+
+    private static final String POTHOLE =
+            "Large pothole on MG Road near the City Hospital gate, two wheelers are falling every evening";
+
+    @Test
+    void nearDuplicatesAreFound() {
+        MinHashLshIndex index = new MinHashLshIndex(16, 4, 1024);
+        index.put(1, POTHOLE);
+        index.put(2, "No water supply in Gandhi Nagar block C since Monday morning");
+
+        var match = index.findMostSimilar(
+                "Large pothole on M.G. road near City Hospital gate - two-wheelers falling every evening!", 0.6);
+
+        assertThat(match).hasValueSatisfying(m -> {
+            assertThat(m.id()).isEqualTo(1);
+            assertThat(m.similarity()).isGreaterThan(0.6);
+        });
+        assertThat(index.findMostSimilar(POTHOLE, 0.6)).hasValueSatisfying(m -> assertThat(m.similarity()).isEqualTo(1.0));
+    }
+
+    @Test
+    void unrelatedTextsAreNotMatched() {
+        MinHashLshIndex index = new MinHashLshIndex(16, 4, 1024);
+        index.put(1, POTHOLE);
+
+        assertThat(index.findMostSimilar("Garbage has not been collected in Sector 9 for a week", 0.6)).isEmpty();
+        assertThat(index.findMostSimilar("  ...  ", 0.0)).isEmpty();
+    }
+
+    @Test
+    void removedAndReplacedDocumentsStopMatching() {
+        MinHashLshIndex index = new MinHashLshIndex(16, 4, 4);
+        for (int i = 0; i < 100; i++) {
+            index.put(i, "Streetlight " + i + " not working in ward " + (i * 7919));
+        }
+        index.put(1000, POTHOLE);
+
+        index.remove(1000);
+        assertThat(index.findMostSimilar(POTHOLE, 0.6)).isEmpty();
+        assertThat(index.contains(1000)).isFalse();
+
+        index.put(50, POTHOLE);
+        assertThat(index.findMostSimilar(POTHOLE, 0.6)).hasValueSatisfying(m -> assertThat(m.id()).isEqualTo(50));
+        assertThat(index.findMostSimilar("Streetlight 50 not working in ward " + (50 * 7919), 0.9)).isEmpty();
+
+        // Freed slots are reused and the short, crowded chains stay consistent
+        index.put(2000, "Open manhole outside the primary school");
+        assertThat(index.size()).isEqualTo(101);
+        assertThat(index.findMostSimilar("Streetlight 7 not working in ward " + (7 * 7919), 0.9))
+                .hasValueSatisfying(m -> assertThat(m.id()).isEqualTo(7));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NaiveBayesTextClassifierTest {
+
+    private static final List<String> LABELS = List.of("INFRASTRUCTURE", "UTILITIES", "HEALTHCARE");
+
+    private static NaiveBayesTextClassifier trained() {
+        NaiveBayesTextClassifier classifier = new NaiveBayesTextClassifier(LABELS, 12);
+        classifier.learn("Pothole on the main road near the market", "INFRASTRUCTURE", 1);
+        classifier.learn("Road surface broken, potholes everywhere after rain", "INFRASTRUCTURE", 1);
+        classifier.learn("Footpath slabs broken on station road", "INFRASTRUCTURE", 1);
+        classifier.learn("No water supply since two days in our colony", "UTILITIES", 1);
+        classifier.learn("Water pipeline leaking near the school", "UTILITIES", 1);
+        classifier.learn("Power cut every evening, no electricity for hours", "UTILITIES", 1);
+        classifier.learn("Doctor absent at the primary health centre", "HEALTHCARE", 1);
+        classifier.learn("Hospital ward has no medicines for patients", "HEALTHCARE", 1);
+        return classifier;
+    }
+
+    @Test
+    void predictsTheLabelOfSimilarTexts() {
+        NaiveBayesTextClassifier classifier = trained();
+
+        assertThat(classifier.predict("Big potholes on the road to the bus stand")).hasValueSatisfying(p -> {
+            assertThat(p.label()).isEqualTo("INFRASTRUCTURE");
+            assertThat(p.confidence()).isBetween(0.34, 1.0);
+        });
+        assertThat(classifier.predict("Water leaking from the pipeline")).hasValueSatisfying(
+                p -> assertThat(p.label()).isEqualTo("UTILITIES"));
+        assertThat(classifier.predict("No doctor at the hospital")).hasValueSatisfying(
+                p -> assertThat(p.label()).isEqualTo("HEALTHCARE"));
+        assertThat(classifier.predict(" ... ")).isEmpty();
+        assertThat(new NaiveBayesTextClassifier(LABELS, 12).predict("Pothole on the road")).isEmpty();
+    }
+
+    @Test
+    void correctionsMoveTheModel() {
+        NaiveBayesTextClassifier classifier = trained();
+        String text = "Streetlight pole leaning over the road";
+        classifier.learn(text, "UTILITIES", 1);
+        classifier.learn(text, "UTILITIES", -1);
+        classifier.learn(text, "INFRASTRUCTURE", 5);
+
+        assertThat(classifier.documents()).isEqualTo(13.0);
+        assertThat(classifier.predict("Streetlight pole leaning")).hasValueSatisfying(
+                p -> assertThat(p.label()).isEqualTo("INFRASTRUCTURE"));
+        classifier.learn(text, "UNKNOWN", 1);
+        assertThat(classifier.documents()).isEqualTo(13.0);
+    }
+
+    @Test
+    void snapshotRoundTripsTheModel() throws Exception {
+        NaiveBayesTextClassifier classifier = trained();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        classifier.writeTo(new DataOutputStream(bytes));
+
+        NaiveBayesTextClassifier loaded = NaiveBayesTextClassifier.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(loaded.labels()).isEqualTo(LABELS);
+        assertThat(loaded.documents()).isEqualTo(classifier.documents());
+        String query = "Water supply irregular and the road has potholes";
+        assertThat(loaded.predict(query)).isEqualTo(classifier.predict(query));
+    }
+}
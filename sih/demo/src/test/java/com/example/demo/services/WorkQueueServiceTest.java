@@ -0,0 +1,199 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Department;
+import com.example.demo.model.Grievance;
+import com.example.demo.model.User;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.GrievanceRepository;
+import com.example.demo.repository.GrievanceStatusHistoryRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Officers take the most urgent grievance of their department from its
+ * queue, and the queues follow claims, assignments and status changes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:workqueue;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cache.invalidation.transport=local",
+        "openai.api.key=",
+        "ml.service.enabled=false"
+})
+class WorkQueueServiceTest {
+
+    @Autowired
+    private WorkQueueService workQueueService;
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private BulkGrievanceService bulkGrievanceService;
+
+    @MockitoSpyBean
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private GrievanceStatusHistoryRepository historyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private String run;
+    private Department roads;
+    private User asha;
+    private User ravi;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository.deleteAll();
+        grievanceRepository.deleteAll();
+        run = UUID.randomUUID().toString().substring(0, 8);
+        roads = new Department();
+        roads.setName("Roads " + run);
+        roads.setCode(run);
+        roads = departmentRepository.save(roads);
+        asha = officer("asha");
+        ravi = officer("ravi");
+    }
+
+    @Test
+    void queuesAreBuiltInOrderAndFollowClaimsAndStatusChanges() {
+        Grievance routine = save("Faded zebra crossing", Grievance.GrievancePriority.MEDIUM, null);
+        Grievance urgent = save("Collapsed culvert", Grievance.GrievancePriority.URGENT, null);
+        Grievance due = save("Pothole before the festival", Grievance.GrievancePriority.MEDIUM, LocalDateTime.now().plusDays(2));
+        Grievance held = save("Broken divider", Grievance.GrievancePriority.HIGH, null);
+        held.setAssignedOfficer(ravi);
+        grievanceRepository.save(held);
+        workQueueService.rebuild();
+
+        assertThat(workQueueService.forDepartment(roads.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(urgent.getId(), due.getId(), routine.getId());
+        assertThat(workQueueService.forOfficer(ravi.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(held.getId());
+
+        assertThat(grievanceService.claimNext(roads.getId(), asha))
+                .hasValueSatisfying(claimed -> assertThat(claimed.getId()).isEqualTo(urgent.getId()));
+        assertThat(workQueueService.forDepartment(roads.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(due.getId(), routine.getId());
+        assertThat(workQueueService.forOfficer(asha.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(urgent.getId());
+
+        grievanceService.updateGrievanceStatus(urgent.getId(), Grievance.GrievanceStatus.RESOLVED, "Culvert rebuilt", asha);
+        assertThat(workQueueService.forOfficer(asha.getId(), 10)).isEmpty();
+
+        bulkGrievanceService.assign(List.of(due.getId(), routine.getId()), null, null, ravi.getId(), null);
+        assertThat(workQueueService.forDepartment(roads.getId(), 10)).isEmpty();
+        assertThat(workQueueService.forOfficer(ravi.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(held.getId(), due.getId(), routine.getId());
+        assertThat(grievanceService.claimNext(roads.getId(), asha)).isEmpty();
+    }
+
+    @Test
+    void aGrievanceTakenBehindTheQueuesBackIsSkipped() {
+        Grievance first = save("Waterlogged underpass", Grievance.GrievancePriority.HIGH, null);
+        Grievance second = save("Missing manhole cover", Grievance.GrievancePriority.MEDIUM, null);
+        workQueueService.rebuild();
+
+        // As if another node claimed it before this one heard of it
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> grievanceRepository.claim(
+                first.getId(), first.getVersion(), ravi, Grievance.GrievanceStatus.ASSIGNED, LocalDateTime.now()));
+
+        assertThat(grievanceService.claimNext(roads.getId(), asha))
+                .hasValueSatisfying(claimed -> assertThat(claimed.getId()).isEqualTo(second.getId()));
+        assertThat(workQueueService.forOfficer(ravi.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(first.getId());
+    }
+
+    @Test
+    void officersOnlyClaimTheirOwnDepartmentsGrievances() {
+        Grievance pothole = save("Pothole near the depot", Grievance.GrievancePriority.HIGH, null);
+        workQueueService.rebuild();
+        User outsider = officer("meera");
+        outsider.setDepartmentId(null);
+        User elsewhere = userRepository.save(outsider);
+
+        assertThatThrownBy(() -> grievanceService.claimNext(roads.getId(), elsewhere))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> grievanceService.claimGrievance(pothole.getId(), elsewhere))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThat(workQueueService.forDepartment(roads.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(pothole.getId());
+        assertThat(grievanceRepository.findById(pothole.getId()).orElseThrow().getAssignedOfficer()).isNull();
+    }
+
+    @Test
+    void aGrievanceFiledWhileTheQueuesAreBuildingIsNotLost() {
+        AtomicReference<Grievance> late = new AtomicReference<>();
+        // The page is read before the new grievance commits, and its commit lands on the queues being replaced
+        doAnswer(invocation -> {
+            late.set(save("Streetlight out on the bypass", Grievance.GrievancePriority.HIGH, null));
+            workQueueService.trackAfterCommit(late.get());
+            return List.of();
+        }).when(grievanceRepository).findOpenWorkRowsAfter(any(), anyLong(), any());
+        try {
+            workQueueService.rebuild();
+        } finally {
+            reset(grievanceRepository);
+        }
+
+        assertThat(workQueueService.forDepartment(roads.getId(), 10)).extracting(WorkQueue.Item::id)
+                .containsExactly(late.get().getId());
+    }
+
+    private User officer(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + run + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.UserRole.DEPARTMENT_OFFICER);
+        user.setDepartmentId(roads.getId());
+        return userRepository.save(user);
+    }
+
+    private Grievance save(String title, Grievance.GrievancePriority priority, LocalDateTime deadline) {
+        Grievance grievance = new Grievance();
+        grievance.setTitle(title);
+        grievance.setDescription(title + " reported by residents");
+        grievance.setType(Grievance.GrievanceType.INFRASTRUCTURE);
+        grievance.setTrackingNumber("GRVWQ-" + run + "-" + title.hashCode());
+        grievance.setDepartment(roads);
+        grievance.setPriority(priority);
+        grievance.setExpectedResolutionDate(deadline);
+        return grievanceRepository.save(grievance);
+    }
+}
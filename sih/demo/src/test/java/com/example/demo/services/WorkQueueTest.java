@@ -0,0 +1,83 @@
+package com.example.demo.services;
+
+import com.example.demo.model.Grievance;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkQueueTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 10, 0);
+
+    @Test
+    void urgencyThenDeadlineThenAge() {
+        WorkQueue queue = new WorkQueue();
+        queue.put(item(1, Grievance.GrievancePriority.MEDIUM, null, 30));
+        queue.put(item(2, Grievance.GrievancePriority.MEDIUM, NOW.plusDays(5), 1));
+        queue.put(item(3, Grievance.GrievancePriority.URGENT, null, 1));
+        queue.put(item(4, Grievance.GrievancePriority.MEDIUM, NOW.plusDays(2), 1));
+        queue.put(item(5, Grievance.GrievancePriority.LOW, NOW.plusDays(1), 90));
+        queue.put(item(6, Grievance.GrievancePriority.MEDIUM, null, 60));
+
+        assertThat(queue.peek(10)).extracting(WorkQueue.Item::id).containsExactly(3L, 4L, 2L, 6L, 1L, 5L);
+        assertThat(queue.size()).isEqualTo(6);
+    }
+
+    @Test
+    void changedAndRemovedItemsMoveOrLeave() {
+        WorkQueue queue = new WorkQueue();
+        queue.put(item(1, Grievance.GrievancePriority.LOW, null, 1));
+        queue.put(item(2, Grievance.GrievancePriority.MEDIUM, null, 1));
+        queue.put(item(3, Grievance.GrievancePriority.HIGH, null, 1));
+
+        queue.put(item(1, Grievance.GrievancePriority.URGENT, null, 1));
+        assertThat(queue.remove(3)).isTrue();
+        assertThat(queue.remove(3)).isFalse();
+
+        assertThat(queue.poll()).hasValueSatisfying(item -> assertThat(item.id()).isEqualTo(1));
+        assertThat(queue.poll()).hasValueSatisfying(item -> assertThat(item.id()).isEqualTo(2));
+        assertThat(queue.poll()).isEmpty();
+        assertThat(queue.contains(1)).isFalse();
+    }
+
+    @Test
+    void matchesASortedListUnderRandomChanges() {
+        Random random = new Random(42);
+        WorkQueue queue = new WorkQueue();
+        Map<Long, WorkQueue.Item> expected = new HashMap<>();
+        Grievance.GrievancePriority[] priorities = Grievance.GrievancePriority.values();
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                WorkQueue.Item item = item(id, priorities[random.nextInt(priorities.length)],
+                        random.nextBoolean() ? null : NOW.plusHours(random.nextInt(200)), random.nextInt(100));
+                queue.put(item);
+                expected.put(id, item);
+            } else if (op < 9) {
+                assertThat(queue.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                List<WorkQueue.Item> sorted = new ArrayList<>(expected.values());
+                sorted.sort(WorkQueue.ORDER);
+                assertThat(queue.peek(5)).containsExactlyElementsOf(sorted.subList(0, Math.min(5, sorted.size())));
+                if (!sorted.isEmpty()) {
+                    assertThat(queue.poll()).contains(sorted.get(0));
+                    expected.remove(sorted.get(0).id());
+                }
+            }
+            assertThat(queue.size()).isEqualTo(expected.size());
+        }
+    }
+
+    private static WorkQueue.Item item(long id, Grievance.GrievancePriority priority, LocalDateTime deadline, int ageDays) {
+        return new WorkQueue.Item(id, "GRV-" + id, "Grievance " + id, priority, Grievance.GrievanceStatus.ASSIGNED,
+                deadline, NOW.minusDays(ageDays));
+    }
+}